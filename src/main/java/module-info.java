@@ -4,9 +4,13 @@ module karrito.launcher {
     requires javafx.fxml;
     requires javafx.web;
 
+    // Image encoding (ImageIO)
+    requires java.desktop;
+
     // HTTP client
     requires okhttp3;
     requires retrofit2;
+    requires jdk.httpserver;
 
     // JSON processing
     requires com.fasterxml.jackson.databind;
@@ -20,6 +24,8 @@ module karrito.launcher {
 
     // Compression
     requires org.apache.commons.compress;
+    requires com.github.luben.zstd_jni;
+    requires org.tukaani.xz;
 
     // Utilities
     requires org.apache.commons.lang3;
@@ -30,6 +36,10 @@ module karrito.launcher {
     requires jakarta.el;
     requires jakarta.validation;
 
+    // System resources
+    requires java.management;
+    requires jdk.management;
+
     // Logging
     requires org.slf4j;
     requires org.apache.logging.log4j;
@@ -42,7 +52,7 @@ module karrito.launcher {
     // Required for JSON serialization
     opens org.klauncher.launcher.models to com.fasterxml.jackson.databind;
     opens org.klauncher.launcher.models.entities to com.fasterxml.jackson.databind, org.hibernate.validator;
-    opens org.klauncher.launcher.models.config to com.fasterxml.jackson.databind;
+    opens org.klauncher.launcher.models.config to com.fasterxml.jackson.databind, org.hibernate.validator;
 
     // Export main packages
     exports org.klauncher.launcher;
@@ -51,6 +61,13 @@ module karrito.launcher {
     exports org.klauncher.launcher.models.entities;
     exports org.klauncher.launcher.models.config;
     exports org.klauncher.launcher.services;
+    exports org.klauncher.launcher.services.download;
+    exports org.klauncher.launcher.services.launch;
+    exports org.klauncher.launcher.services.logs;
+    exports org.klauncher.launcher.services.mods;
+    exports org.klauncher.launcher.services.backup;
+    exports org.klauncher.launcher.services.gallery;
+    exports org.klauncher.launcher.services.preflight;
     exports org.klauncher.launcher.utils;
     exports org.klauncher.launcher.database;
     exports org.klauncher.launcher.database.dao;
@@ -1,14 +1,18 @@
 package org.klauncher.launcher;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import javafx.util.Duration;
 import org.klauncher.launcher.controllers.MainController;
 import org.klauncher.launcher.database.DatabaseManager;
 import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.klauncher.launcher.services.ConfigRegistryService;
 import org.klauncher.launcher.services.ThemeManagerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +21,8 @@ import java.io.IOException;
 
 public class LauncherApplication extends Application {
     private static final Logger logger = LoggerFactory.getLogger(LauncherApplication.class);
+    private static final String CDS_TRAINING_PROPERTY = "karrito.cds.training";
+    private static final int TRAINING_EXIT_DELAY_SECONDS = 5;
 
     private MainController mainController;
     private AdvancedLauncherConfig config;
@@ -29,7 +35,7 @@ public class LauncherApplication extends Application {
 
         try {
             // Cargar configuración
-            config = AdvancedLauncherConfig.load();
+            config = ConfigRegistryService.getInstance().getConfig();
             logger.info("Configuración cargada exitosamente");
 
             // Test de conexión a base de datos
@@ -72,6 +78,10 @@ public class LauncherApplication extends Application {
 
             logger.info("Aplicación iniciada correctamente");
 
+            if (Boolean.getBoolean(CDS_TRAINING_PROPERTY)) {
+                scheduleTrainingExit();
+            }
+
         } catch (Exception e) {
             logger.error("Error al iniciar la aplicación", e);
             showCriticalError("Error de Inicio",
@@ -81,6 +91,20 @@ public class LauncherApplication extends Application {
         }
     }
 
+    /**
+     * En el arranque de entrenamiento CDS se cierra la aplicación cuando termina la carga inicial
+     */
+    private void scheduleTrainingExit() {
+        logger.info("Modo entrenamiento CDS: cerrando en {} s", TRAINING_EXIT_DELAY_SECONDS);
+
+        PauseTransition delay = new PauseTransition(Duration.seconds(TRAINING_EXIT_DELAY_SECONDS));
+        delay.setOnFinished(event -> {
+            primaryStage.fireEvent(new WindowEvent(primaryStage, WindowEvent.WINDOW_CLOSE_REQUEST));
+            Platform.exit();
+        });
+        delay.play();
+    }
+
     /**
      * Inicializa el gestor de temas
      */
@@ -190,7 +214,7 @@ public class LauncherApplication extends Application {
                 config.getMetadata().setUpdatedAt(java.time.LocalDateTime.now());
 
                 // Guardar
-                config.save();
+                ConfigRegistryService.getInstance().save();
                 logger.debug("Configuración guardada al cerrar");
             }
         } catch (Exception e) {
@@ -0,0 +1,255 @@
+package org.klauncher.launcher.controllers;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.ObservableListBase;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import org.klauncher.launcher.services.launch.ChunkedLogStore;
+import org.klauncher.launcher.services.launch.GameInstance;
+import org.klauncher.launcher.services.launch.LogSearch;
+import org.klauncher.launcher.services.launch.ProcessMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Controlador de la consola de logs de una instancia del juego.
+ * Las líneas viven en el {@link ChunkedLogStore} de la instancia; la lista solo
+ * contiene índices y las celdas visibles leen su texto al pintarse. El hilo de
+ * JavaFX consulta el tamaño del almacén cada 100 ms y publica un único cambio,
+ * así que el ritmo de salida del juego no afecta a la interfaz.
+ */
+public class LogConsoleController {
+    private static final Logger logger = LoggerFactory.getLogger(LogConsoleController.class);
+    private static final Duration REFRESH_INTERVAL = Duration.millis(100);
+    private static final int SEARCH_BATCH_LINES = 20_000;
+    private static final String INVALID_SEARCH_STYLE = "-fx-border-color: #e53935;";
+
+    @FXML private Label titleLabel;
+    @FXML private Label metricsLabel;
+    @FXML private TextField searchField;
+    @FXML private CheckBox followCheck;
+    @FXML private Button closeButton;
+    @FXML private ListView<Integer> logListView;
+    @FXML private Label statusLabel;
+
+    private GameInstance instance;
+    private ChunkedLogStore store;
+    private LineIndexList visibleLines;
+    private Timeline refreshTimeline;
+
+    private ExecutorService searchExecutor;
+    private final AtomicBoolean searchRunning = new AtomicBoolean();
+    private volatile LogSearch activeSearch;
+
+    @FXML
+    public void initialize() {
+        logListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Integer line, boolean empty) {
+                super.updateItem(line, empty);
+                setText(empty || line == null ? null : store.getLine(line));
+            }
+        });
+
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> applySearch(newValue));
+        followCheck.selectedProperty().addListener((obs, oldValue, follow) -> {
+            if (follow) {
+                scrollToEnd();
+            }
+        });
+    }
+
+    /**
+     * Conecta la consola a una instancia y empieza a refrescar
+     */
+    public void attach(GameInstance instance) {
+        this.instance = instance;
+        this.store = instance.getLogStore();
+        this.searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-console-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        titleLabel.setText("📜 " + instance.getProfile().getName() + " · " + instance.getVersionId());
+        showLines(new LineIndexList(IntUnaryOperator.identity()));
+
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+        refreshTimeline.play();
+        refresh();
+    }
+
+    /**
+     * Detiene el refresco y la búsqueda; el almacén sigue siendo de la instancia
+     */
+    public void dispose() {
+        if (refreshTimeline != null) {
+            refreshTimeline.stop();
+        }
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+        activeSearch = null;
+    }
+
+    @FXML
+    private void onClose(ActionEvent event) {
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Publica las líneas nuevas y lanza la búsqueda pendiente
+     */
+    private void refresh() {
+        LogSearch search = activeSearch;
+        int available = search != null ? search.getMatchCount() : store.size();
+
+        if (visibleLines.grow(available) && followCheck.isSelected()) {
+            scrollToEnd();
+        }
+
+        if (search != null && !search.isCaughtUp()) {
+            scheduleSearch(search);
+        }
+
+        updateStatus(search);
+        updateMetrics();
+    }
+
+    private void applySearch(String query) {
+        LogSearch previous = activeSearch;
+
+        if (query == null || query.isEmpty()) {
+            activeSearch = null;
+            searchField.setStyle("");
+            showLines(new LineIndexList(IntUnaryOperator.identity()));
+            visibleLines.grow(store.size());
+            return;
+        }
+
+        LogSearch search;
+        try {
+            search = LogSearch.create(store, query, previous);
+        } catch (PatternSyntaxException e) {
+            searchField.setStyle(INVALID_SEARCH_STYLE);
+            return;
+        }
+
+        searchField.setStyle("");
+        activeSearch = search;
+        showLines(new LineIndexList(search::getMatch));
+        scheduleSearch(search);
+    }
+
+    /**
+     * Avanza la búsqueda en segundo plano por lotes hasta alcanzar el final del log
+     */
+    private void scheduleSearch(LogSearch search) {
+        if (!searchRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        searchExecutor.execute(() -> {
+            try {
+                // Si el usuario cambia la consulta, el bucle abandona la anterior
+                while (activeSearch == search && !search.isCaughtUp()) {
+                    search.scan(SEARCH_BATCH_LINES);
+                }
+            } catch (Exception e) {
+                logger.warn("Error al buscar en la consola de logs", e);
+            } finally {
+                searchRunning.set(false);
+            }
+        });
+    }
+
+    private void showLines(LineIndexList lines) {
+        visibleLines = lines;
+        logListView.setItems(lines);
+    }
+
+    private void scrollToEnd() {
+        int size = visibleLines.size();
+        if (size > 0) {
+            logListView.scrollTo(size - 1);
+        }
+    }
+
+    private void updateStatus(LogSearch search) {
+        String lines = String.format("%,d líneas", store.size());
+        if (search == null) {
+            statusLabel.setText(lines);
+        } else if (search.isCaughtUp()) {
+            statusLabel.setText(String.format("%,d coincidencias · %s", search.getMatchCount(), lines));
+        } else {
+            statusLabel.setText(String.format("Buscando... %,d coincidencias en %,d de %s",
+                    search.getMatchCount(), search.getScannedLines(), lines));
+        }
+    }
+
+    private void updateMetrics() {
+        if (!instance.isAlive()) {
+            metricsLabel.setText("⏹ Terminado (código " + instance.getProcess().exitValue() + ")");
+            return;
+        }
+
+        ProcessMetrics metrics = instance.getLatestMetrics();
+        if (metrics != null) {
+            metricsLabel.setText(String.format("CPU %.0f%% · RAM %d MB · %d hilos",
+                    metrics.getCpuPercent(), metrics.getRssBytes() / (1024 * 1024), metrics.getThreadCount()));
+        }
+    }
+
+    /**
+     * Lista observable de números de línea que solo crece. No guarda elementos:
+     * cada posición se traduce a una línea del almacén al pedirla.
+     */
+    private static final class LineIndexList extends ObservableListBase<Integer> {
+        private final IntUnaryOperator lineAt;
+        private int size;
+
+        private LineIndexList(IntUnaryOperator lineAt) {
+            this.lineAt = lineAt;
+        }
+
+        /**
+         * Amplía la lista hasta {@code newSize} con un único evento de cambio
+         */
+        boolean grow(int newSize) {
+            if (newSize <= size) {
+                return false;
+            }
+            beginChange();
+            nextAdd(size, newSize);
+            size = newSize;
+            endChange();
+            return true;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Índice fuera de rango: " + index);
+            }
+            return lineAt.applyAsInt(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.klauncher.launcher.controllers;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -9,21 +10,38 @@ import javafx.scene.control.*;
 import javafx.event.ActionEvent;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.klauncher.launcher.database.DatabaseManager;
 import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.klauncher.launcher.models.entities.LogEvent;
 import org.klauncher.launcher.models.entities.UserProfile;
 import org.klauncher.launcher.services.*;
+import org.klauncher.launcher.services.backup.WorldSnapshot;
+import org.klauncher.launcher.services.gallery.ThumbnailCache;
+import org.klauncher.launcher.services.launch.GameInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 public class MainController {
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
@@ -54,6 +72,9 @@ public class MainController {
     private BackgroundManagerService backgroundManager;
     private CustomizationService customizationService;
 
+    // Miniaturas de la galería de capturas, compartidas entre ventanas
+    private ThumbnailCache thumbnailCache;
+
     // Estado
     private UserProfile currentProfile;
     private boolean userAuthenticated = false;
@@ -105,8 +126,38 @@ public class MainController {
 
         launcherService = new LauncherService();
 
+        // Un perfil guardado o eliminado deja de valer para los comandos de lanzamiento cacheados
+        profileManagerService.addChangeListener(profile ->
+                launcherService.getLaunchCommandCache().invalidateProfile(profile.getName()));
+
+        // Índice de logs y crash reports en segundo plano
+        LogIndexService.getInstance().start(launcherService.getGameDirectory().resolve("logs"),
+                () -> Stream.concat(
+                        profileManagerService.getAllProfiles().stream()
+                                .map(profile -> Paths.get(profile.getEffectiveGameDirectory())),
+                        launcherService.getWorkspaceManager().listIsolatedDirectories().stream())
+                        .toList());
+
+        // Indexar la partida terminada y abrir la consola si terminó con error
+        launcherService.getProcessSupervisor().addExitListener(instance -> {
+            LogIndexService.getInstance().requestIndex();
+            if (instance.getProcess().exitValue() != 0) {
+                Platform.runLater(() -> {
+                    showQuickNotification("💥 El juego se cerró con errores, revisa la consola");
+                    openLogConsole(instance);
+                });
+            }
+        });
+
+        // Detección de Java en segundo plano (usa la caché de SQLite si nada cambió)
+        CompletableFuture.runAsync(() -> JavaDiscoveryService.getInstance().discover())
+                .exceptionally(throwable -> {
+                    logger.warn("Error al detectar instalaciones de Java", throwable);
+                    return null;
+                });
+
         // Configuración
-        config = AdvancedLauncherConfig.load();
+        config = ConfigRegistryService.getInstance().getConfig();
 
         logger.debug("Servicios principales inicializados");
     }
@@ -261,6 +312,33 @@ public class MainController {
         // Separador
         SeparatorMenuItem separator = new SeparatorMenuItem();
 
+        // Preset de optimización JVM del perfil actual
+        Menu jvmPresetMenu = createJvmPresetMenu();
+
+        // Lanzamiento de varios perfiles a la vez
+        MenuItem multiLaunch = new MenuItem("🚀 Lanzar varios perfiles");
+        multiLaunch.setOnAction(e -> launchMultipleProfiles());
+
+        // Consola de logs de la última partida del perfil
+        MenuItem logConsole = new MenuItem("📜 Consola del juego");
+        logConsole.setOnAction(e -> openLatestLogConsole());
+
+        // Búsqueda en logs y crash reports anteriores
+        MenuItem logSearch = new MenuItem("🔎 Buscar en logs");
+        logSearch.setOnAction(e -> searchLogs());
+
+        // Galería de capturas del perfil
+        MenuItem screenshotGallery = new MenuItem("🖼️ Capturas");
+        screenshotGallery.setOnAction(e -> openScreenshotGallery());
+
+        // Importación de modpacks de Modrinth en un perfil nuevo
+        MenuItem modpackImport = new MenuItem("📦 Importar modpack");
+        modpackImport.setOnAction(e -> importModpack());
+
+        // Copias incrementales de los mundos del perfil
+        MenuItem worldBackups = new MenuItem("💾 Copias de mundos");
+        worldBackups.setOnAction(e -> manageWorldBackups());
+
         // Configuración tradicional
         MenuItem traditionalSettings = new MenuItem("⚙️ Configuración");
         traditionalSettings.setOnAction(e -> showTraditionalSettings());
@@ -268,7 +346,7 @@ public class MainController {
         settingsMenu.getItems().addAll(
                 customization, quickTheme, quickBackground,
                 separator, toggleAnimations, toggleGlass,
-                new SeparatorMenuItem(), traditionalSettings
+                new SeparatorMenuItem(), jvmPresetMenu, multiLaunch, logConsole, logSearch, screenshotGallery, worldBackups, modpackImport, traditionalSettings
         );
 
         // Configurar clic derecho
@@ -278,6 +356,36 @@ public class MainController {
         settingsButton.setOnAction(e -> openCustomizationPanel());
     }
 
+    /**
+     * Crea el menú de presets JVM para el perfil seleccionado
+     */
+    private Menu createJvmPresetMenu() {
+        Menu menu = new Menu("🚀 Preset JVM");
+        ToggleGroup group = new ToggleGroup();
+
+        for (UserProfile.JvmPreset preset : UserProfile.JvmPreset.values()) {
+            RadioMenuItem item = new RadioMenuItem(preset.getDisplayName());
+            item.setToggleGroup(group);
+            item.setUserData(preset);
+            item.setOnAction(e -> {
+                if (currentProfile == null) {
+                    showQuickNotification("⚠️ Selecciona un perfil primero");
+                    return;
+                }
+                currentProfile.setJvmPreset(preset);
+                saveProfileAsync(currentProfile);
+                showQuickNotification("Preset JVM: " + preset.getDisplayName());
+            });
+            menu.getItems().add(item);
+        }
+
+        // Marcar el preset del perfil actual al abrir el menú
+        menu.setOnShowing(e -> group.getToggles().forEach(toggle ->
+                toggle.setSelected(currentProfile != null && toggle.getUserData() == currentProfile.getJvmPreset())));
+
+        return menu;
+    }
+
     /**
      * Configura tooltips épicos
      */
@@ -420,6 +528,314 @@ public class MainController {
         }
     }
 
+    /**
+     * Lanza a la vez los perfiles elegidos; el planificador escalona los arranques
+     */
+    private void launchMultipleProfiles() {
+        if (!userAuthenticated) {
+            showQuickNotification("⚠️ Autentícate primero, guerrero");
+            return;
+        }
+
+        ListView<CheckBox> profileList = new ListView<>();
+        for (UserProfile profile : profiles) {
+            CheckBox check = new CheckBox(profile.getName());
+            check.setUserData(profile);
+            check.setSelected(profile == currentProfile);
+            profileList.getItems().add(check);
+        }
+        profileList.setPrefSize(320, 240);
+
+        Dialog<List<UserProfile>> dialog = new Dialog<>();
+        dialog.setTitle("🚀 Lanzar varios perfiles");
+        dialog.setHeaderText("Cada perfil arranca con su propio directorio y natives");
+        dialog.getDialogPane().setContent(profileList);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> button == ButtonType.OK
+                ? profileList.getItems().stream()
+                        .filter(CheckBox::isSelected)
+                        .map(check -> (UserProfile) check.getUserData())
+                        .toList()
+                : List.of());
+
+        dialog.showAndWait().filter(selected -> !selected.isEmpty()).ifPresent(selected -> {
+            String version = config.getGame().getGameVersion();
+            statusLabel.setText("🚀 Lanzando " + selected.size() + " perfiles...");
+
+            for (UserProfile profile : selected) {
+                String username = profile.getMinecraftUsername() != null && !profile.getMinecraftUsername().isBlank()
+                        ? profile.getMinecraftUsername() : profile.getName();
+
+                launcherService.scheduleLaunch(profile, version, username)
+                        .whenComplete((instance, error) -> Platform.runLater(() -> {
+                            if (error != null) {
+                                logger.error("Error al lanzar el perfil {}", profile.getName(), error);
+                                showError("💥 No se pudo lanzar " + profile.getName(), describeLaunchError(error));
+                                return;
+                            }
+
+                            showQuickNotification("🎮 " + profile.getName() + " iniciado");
+                            if (launcherService.getPendingLaunches() == 0) {
+                                statusLabel.setText("🎮 Todos los perfiles en marcha");
+                                exitIfConfigured();
+                            }
+                        }));
+            }
+        });
+    }
+
+    /**
+     * Cierra el launcher tras lanzar si así está configurado y no quedan lanzamientos pendientes
+     */
+    private void exitIfConfigured() {
+        if (!config.getApplication().isCloseLauncherOnGameStart() || launcherService.getPendingLaunches() > 0) {
+            return;
+        }
+
+        PauseTransition delay = new PauseTransition(javafx.util.Duration.seconds(3));
+        delay.setOnFinished(e -> {
+            if (launcherService.getPendingLaunches() == 0) {
+                Platform.exit();
+            }
+        });
+        delay.play();
+    }
+
+    /**
+     * Abre la consola de la última partida del perfil seleccionado
+     */
+    private void openLatestLogConsole() {
+        if (currentProfile == null) {
+            showQuickNotification("⚠️ Selecciona un perfil primero");
+            return;
+        }
+
+        launcherService.getProcessSupervisor().findLatestInstance(currentProfile.getName())
+                .ifPresentOrElse(this::openLogConsole,
+                        () -> showQuickNotification("ℹ️ Aún no has lanzado el juego con este perfil"));
+    }
+
+    /**
+     * Busca en los logs y crash reports indexados del último mes
+     */
+    private void searchLogs() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("🔎 Buscar en logs");
+        dialog.setHeaderText("Errores y crashes del último mes");
+        dialog.setContentText("Texto, excepción o mod:");
+
+        dialog.showAndWait().filter(text -> !text.isBlank()).ifPresent(text ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return LogIndexService.getInstance().search(text, Duration.ofDays(30), 50);
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                    }
+                }).thenAccept(events -> Platform.runLater(() -> showLogSearchResults(text, events)))
+                .exceptionally(throwable -> {
+                    Platform.runLater(() -> {
+                        logger.error("Error al buscar en logs", throwable);
+                        showError("Error", "No se pudo buscar en los logs: " + throwable.getMessage());
+                    });
+                    return null;
+                }));
+    }
+
+    private void showLogSearchResults(String text, List<LogEvent> events) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+        StringBuilder content = new StringBuilder();
+        for (LogEvent event : events) {
+            content.append(event.isCrash() ? "💥 " : "⚠️ ")
+                    .append(formatter.format(Instant.ofEpochMilli(event.getLoggedAt())))
+                    .append("  ").append(event.getExceptionClass() != null ? event.getExceptionClass() : event.getLevel())
+                    .append(System.lineSeparator())
+                    .append("    ").append(event.getMessage())
+                    .append(System.lineSeparator())
+                    .append("    ").append(Path.of(event.getSourcePath()).getFileName())
+                    .append(event.getMods() != null ? "  [" + event.getMods() + "]" : "")
+                    .append(System.lineSeparator());
+        }
+
+        TextArea area = new TextArea(events.isEmpty() ? "Sin resultados" : content.toString());
+        area.setEditable(false);
+        area.setWrapText(true);
+        area.setPrefSize(700, 400);
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("🔎 Resultados");
+        alert.setHeaderText(events.size() + " resultados para \"" + text + "\"");
+        alert.getDialogPane().setContent(area);
+        alert.setResizable(true);
+        alert.show();
+    }
+
+    /**
+     * Abre la consola de logs de una instancia del juego
+     */
+    private void openLogConsole(GameInstance instance) {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/log-console.fxml"));
+            Parent root = loader.load();
+            LogConsoleController controller = loader.getController();
+            controller.attach(instance);
+
+            Stage consoleStage = new Stage();
+            consoleStage.setTitle("📜 Consola - " + instance.getProfile().getName());
+            consoleStage.initStyle(StageStyle.DECORATED);
+            consoleStage.setResizable(true);
+            consoleStage.setOnHidden(e -> controller.dispose());
+
+            Scene scene = new Scene(root, 900, 600);
+            themeManager.registerScene(scene);
+            customizationService.registerScene(scene);
+
+            consoleStage.setScene(scene);
+            consoleStage.show();
+
+        } catch (IOException e) {
+            logger.error("Error al abrir la consola de logs", e);
+            showError("Error", "No se pudo abrir la consola: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abre la galería de capturas del perfil seleccionado
+     */
+    private void openScreenshotGallery() {
+        if (currentProfile == null) {
+            showQuickNotification("⚠️ Selecciona un perfil primero");
+            return;
+        }
+
+        try {
+            if (thumbnailCache == null) {
+                int megabytes = ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.UIConfig.class)
+                        .getGalleryMemoryMegabytes();
+                thumbnailCache = new ThumbnailCache(launcherService.getGameDirectory().resolve("cache").resolve("thumbnails"),
+                        megabytes * 1024L * 1024L);
+            }
+
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/screenshot-gallery.fxml"));
+            Parent root = loader.load();
+            ScreenshotGalleryController controller = loader.getController();
+            controller.attach(currentProfile, thumbnailCache);
+
+            Stage galleryStage = new Stage();
+            galleryStage.setTitle("🖼️ Capturas - " + currentProfile.getName());
+            galleryStage.initStyle(StageStyle.DECORATED);
+            galleryStage.setResizable(true);
+            galleryStage.setOnHidden(e -> controller.dispose());
+
+            Scene scene = new Scene(root, 1040, 680);
+            themeManager.registerScene(scene);
+            customizationService.registerScene(scene);
+
+            galleryStage.setScene(scene);
+            galleryStage.show();
+
+        } catch (IOException e) {
+            logger.error("Error al abrir la galería de capturas", e);
+            showError("Error", "No se pudo abrir la galería: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Crea una copia de un mundo del perfil seleccionado o lo devuelve a una copia anterior
+     */
+    private void manageWorldBackups() {
+        if (currentProfile == null) {
+            showQuickNotification("⚠️ Selecciona un perfil primero");
+            return;
+        }
+        UserProfile profile = currentProfile;
+
+        List<String> worlds;
+        try {
+            worlds = launcherService.listWorlds(profile);
+        } catch (IOException e) {
+            logger.error("Error al listar los mundos del perfil", e);
+            showError("Error", "No se pudieron leer los mundos: " + e.getMessage());
+            return;
+        }
+        if (worlds.isEmpty()) {
+            showQuickNotification("⚠️ El perfil no tiene mundos");
+            return;
+        }
+
+        ChoiceDialog<String> worldDialog = new ChoiceDialog<>(worlds.get(0), worlds);
+        worldDialog.setTitle("💾 Copias de mundos");
+        worldDialog.setHeaderText("Copias de mundos de " + profile.getName());
+        worldDialog.setContentText("Mundo:");
+        worldDialog.showAndWait().ifPresent(world -> chooseWorldBackup(profile, world));
+    }
+
+    private void chooseWorldBackup(UserProfile profile, String world) {
+        List<WorldSnapshot> snapshots;
+        try {
+            snapshots = launcherService.listWorldBackups(profile, world);
+        } catch (IOException e) {
+            logger.error("Error al listar las copias del mundo {}", world, e);
+            showError("Error", "No se pudieron leer las copias: " + e.getMessage());
+            return;
+        }
+
+        String createOption = "➕ Crear copia ahora";
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+        Map<String, WorldSnapshot> options = new LinkedHashMap<>();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            WorldSnapshot snapshot = snapshots.get(i);
+            options.put("↩️ " + formatter.format(snapshot.getCreated()) + " · "
+                    + snapshot.getTotalBytes() / (1024 * 1024) + " MB", snapshot);
+        }
+        List<String> choices = new ArrayList<>();
+        choices.add(createOption);
+        choices.addAll(options.keySet());
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(createOption, choices);
+        dialog.setTitle("💾 " + world);
+        dialog.setHeaderText(snapshots.size() + " copias guardadas");
+        dialog.setContentText("Acción:");
+        dialog.showAndWait().ifPresent(choice -> {
+            if (choice.equals(createOption)) {
+                showQuickNotification("💾 Copiando " + world + "...");
+                launcherService.backupWorld(profile, world)
+                        .thenAccept(snapshot -> Platform.runLater(() -> showQuickNotification("✅ Copia de "
+                                + world + " lista (" + snapshot.getNewBytes() / 1024 + " KB nuevos)")))
+                        .exceptionally(throwable -> {
+                            Platform.runLater(() -> {
+                                logger.error("Error al copiar el mundo {}", world, throwable);
+                                showError("Error", "No se pudo copiar el mundo: " + describeLaunchError(throwable));
+                            });
+                            return null;
+                        });
+                return;
+            }
+
+            WorldSnapshot snapshot = options.get(choice);
+            if (launcherService.getProcessSupervisor().findLatestInstance(profile.getName())
+                    .filter(GameInstance::isAlive).isPresent()) {
+                showError("Mundo en uso", "Cierra el juego antes de restaurar una copia de " + world);
+                return;
+            }
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("↩️ Restaurar copia");
+            confirm.setHeaderText("¿Restaurar " + world + " al " + formatter.format(snapshot.getCreated()) + "?");
+            confirm.setContentText("Antes se guarda una copia del estado actual, así que se puede deshacer.");
+            confirm.showAndWait().filter(ButtonType.OK::equals).ifPresent(ok -> {
+                showQuickNotification("↩️ Restaurando " + world + "...");
+                launcherService.restoreWorld(profile, world, snapshot)
+                        .thenRun(() -> Platform.runLater(() -> showQuickNotification("✅ " + world + " restaurado")))
+                        .exceptionally(throwable -> {
+                            Platform.runLater(() -> {
+                                logger.error("Error al restaurar el mundo {}", world, throwable);
+                                showError("Error", "No se pudo restaurar el mundo: " + describeLaunchError(throwable));
+                            });
+                            return null;
+                        });
+            });
+        });
+    }
+
     /**
      * Muestra configuración tradicional
      */
@@ -635,12 +1051,13 @@ public class MainController {
         downloadProgress.setVisible(true);
         downloadProgress.setProgress(0.0);
 
-        String effectiveUsername = currentProfile.getProfileType() == UserProfile.ProfileType.OFFLINE ?
-                usernameField.getText().trim() : currentProfile.getMinecraftUsername();
+        UserProfile profile = currentProfile;
+        String effectiveUsername = profile.getProfileType() == UserProfile.ProfileType.OFFLINE ?
+                usernameField.getText().trim() : profile.getMinecraftUsername();
 
         CompletableFuture.runAsync(() -> {
             try {
-                launcherService.downloadGameFiles(new LauncherService.ProgressCallback() {
+                launcherService.downloadGameFiles(profile, config.getGame().getGameVersion(), new LauncherService.ProgressCallback() {
                     @Override
                     public void onProgress(double progress, String message) {
                         Platform.runLater(() -> {
@@ -651,33 +1068,24 @@ public class MainController {
 
                     @Override
                     public void onComplete() {
-                        Platform.runLater(() -> {
-                            statusLabel.setText("🚀 Iniciando aventura épica...");
-
-                            try {
-                                launcherService.launchGame(effectiveUsername, config.getGame().getDefaultVersionType());
-
-                                showQuickNotification("🎮 ¡Aventura iniciada! ¡Que tengas épicas batallas!");
-                                downloadProgress.setVisible(false);
-
-                                if (config.getApplication().isCloseLauncherOnGameStart()) {
-                                    Platform.runLater(() -> {
-                                        try {
-                                            Thread.sleep(3000);
-                                            Platform.exit();
-                                        } catch (InterruptedException e) {
-                                            Thread.currentThread().interrupt();
-                                        }
-                                    });
-                                }
-
-                            } catch (Exception e) {
-                                logger.error("Error al lanzar el juego", e);
-                                statusLabel.setText("💥 Error al iniciar aventura");
-                            } finally {
-                                setUIEnabled(true);
-                            }
-                        });
+                        Platform.runLater(() -> statusLabel.setText("🚀 Iniciando aventura épica..."));
+
+                        // El planificador arranca el proceso fuera del hilo de JavaFX
+                        launcherService.scheduleLaunch(profile, config.getGame().getGameVersion(), effectiveUsername)
+                                .whenComplete((instance, error) -> Platform.runLater(() -> {
+                                    downloadProgress.setVisible(false);
+                                    setUIEnabled(true);
+
+                                    if (error != null) {
+                                        logger.error("Error al lanzar el juego", error);
+                                        statusLabel.setText("💥 Error al iniciar aventura");
+                                        showError("💥 No se pudo iniciar la aventura", describeLaunchError(error));
+                                        return;
+                                    }
+
+                                    showQuickNotification("🎮 ¡Aventura iniciada! ¡Que tengas épicas batallas!");
+                                    exitIfConfigured();
+                                }));
                     }
 
                     @Override
@@ -744,6 +1152,43 @@ public class MainController {
         });
     }
 
+    /**
+     * Elige un .mrpack y lo instala en un perfil nuevo; los mods se descargan en segundo plano
+     */
+    private void importModpack() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("📦 Importar modpack");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Modpacks de Modrinth (*.mrpack)", "*.mrpack"));
+        File file = chooser.showOpenDialog(settingsButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        String fileName = file.getName();
+        int dot = fileName.lastIndexOf('.');
+        TextInputDialog dialog = new TextInputDialog(dot > 0 ? fileName.substring(0, dot) : fileName);
+        dialog.setTitle("📦 Importar modpack");
+        dialog.setHeaderText("Se creará un perfil nuevo con el modpack " + fileName);
+        dialog.setContentText("Nombre del perfil:");
+
+        dialog.showAndWait().map(String::trim).filter(name -> !name.isEmpty()).ifPresent(name -> {
+            showQuickNotification("📦 Importando " + fileName + "...");
+            launcherService.importModpack(file.toPath(), name, profileManagerService)
+                    .thenAccept(pack -> Platform.runLater(() -> {
+                        profiles.add(pack.getProfile());
+                        profileSelector.setValue(pack.getProfile());
+                        showQuickNotification("✅ " + pack.getName() + " instalado: " + pack.getRemoteFiles() + " mods");
+                    }))
+                    .exceptionally(throwable -> {
+                        Platform.runLater(() -> {
+                            logger.error("Error al importar el modpack {}", file, throwable);
+                            showError("Error", "No se pudo importar el modpack: " + describeLaunchError(throwable));
+                        });
+                        return null;
+                    });
+        });
+    }
+
     private void saveProfileAsync(UserProfile profile) {
         profileManagerService.updateProfile(profile)
                 .exceptionally(throwable -> {
@@ -769,6 +1214,18 @@ public class MainController {
         }
     }
 
+    /**
+     * Mensaje de un fallo de lanzamiento: el resumen de las comprobaciones previas o la causa original
+     */
+    private static String describeLaunchError(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && (cause instanceof CompletionException || cause.getMessage() == null
+                || cause.getMessage().startsWith("Error al lanzar"))) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
     private void showError(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle(title);
@@ -799,6 +1256,10 @@ public class MainController {
             if (launcherService != null) {
                 launcherService.shutdown();
             }
+            if (thumbnailCache != null) {
+                thumbnailCache.shutdown();
+            }
+            LogIndexService.getInstance().shutdown();
             if (databaseManager != null) {
                 databaseManager.close();
             }
@@ -0,0 +1,232 @@
+package org.klauncher.launcher.controllers;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.klauncher.launcher.services.gallery.Screenshot;
+import org.klauncher.launcher.services.gallery.ThumbnailCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+/**
+ * Galería de la carpeta screenshots/ de un perfil. La lista virtualiza filas de altura fija,
+ * así que solo existen las celdas visibles aunque haya miles de capturas; cada hueco pide su
+ * miniatura al {@link ThumbnailCache} y la cancela si al desplazarse pasa a otra captura.
+ */
+public class ScreenshotGalleryController {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotGalleryController.class);
+    private static final double GAP = 8;
+    private static final double SLOT_WIDTH = ThumbnailCache.THUMBNAIL_WIDTH + GAP;
+    private static final double ROW_HEIGHT = ThumbnailCache.THUMBNAIL_HEIGHT + GAP;
+    // Margen para la barra de desplazamiento y los bordes de la lista
+    private static final double LIST_INSETS = 24;
+    private static final String SLOT_STYLE = "-fx-background-color: rgba(128, 128, 128, 0.15);";
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+    @FXML private Label titleLabel;
+    @FXML private Button refreshButton;
+    @FXML private Button closeButton;
+    @FXML private ListView<Integer> galleryListView;
+    @FXML private Label statusLabel;
+
+    private ThumbnailCache thumbnails;
+    private Path directory;
+    private List<Screenshot> screenshots = List.of();
+    private int columns = 1;
+
+    @FXML
+    public void initialize() {
+        galleryListView.setFixedCellSize(ROW_HEIGHT);
+        galleryListView.setCellFactory(list -> new RowCell());
+        galleryListView.widthProperty().addListener((obs, oldWidth, width) -> updateColumns(width.doubleValue()));
+    }
+
+    /**
+     * Muestra las capturas del perfil usando la caché de miniaturas compartida del launcher
+     */
+    public void attach(UserProfile profile, ThumbnailCache thumbnails) {
+        this.thumbnails = thumbnails;
+        this.directory = Paths.get(profile.getEffectiveGameDirectory()).resolve("screenshots");
+        titleLabel.setText("🖼️ Capturas · " + profile.getName());
+        reload();
+    }
+
+    /**
+     * Vacía la lista para que las celdas cancelen sus cargas pendientes
+     */
+    public void dispose() {
+        screenshots = List.of();
+        galleryListView.setItems(FXCollections.observableArrayList());
+    }
+
+    @FXML
+    private void onRefresh(ActionEvent event) {
+        reload();
+    }
+
+    @FXML
+    private void onClose(ActionEvent event) {
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+
+    private void reload() {
+        statusLabel.setText("Buscando capturas...");
+        refreshButton.setDisable(true);
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return Screenshot.list(directory);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).thenAccept(list -> Platform.runLater(() -> show(list)))
+                .exceptionally(throwable -> {
+                    Platform.runLater(() -> {
+                        logger.error("Error al listar capturas de {}", directory, throwable);
+                        statusLabel.setText("No se pudieron leer las capturas: " + throwable.getMessage());
+                        refreshButton.setDisable(false);
+                    });
+                    return null;
+                });
+    }
+
+    private void show(List<Screenshot> list) {
+        screenshots = list;
+        updateRows();
+        refreshButton.setDisable(false);
+        updateStatus(null);
+    }
+
+    private void updateColumns(double width) {
+        int fitting = Math.max(1, (int) ((width - LIST_INSETS) / SLOT_WIDTH));
+        if (fitting != columns) {
+            columns = fitting;
+            updateRows();
+        }
+    }
+
+    private void updateRows() {
+        int rows = (screenshots.size() + columns - 1) / columns;
+        galleryListView.setItems(FXCollections.observableArrayList(IntStream.range(0, rows).boxed().toList()));
+    }
+
+    private void updateStatus(Screenshot selected) {
+        String summary = String.format("%,d capturas · %,d miniaturas en memoria (%d MB)", screenshots.size(),
+                thumbnails.getMemoryCount(), thumbnails.getMemoryBytes() / (1024 * 1024));
+        if (selected == null) {
+            statusLabel.setText(summary);
+        } else {
+            statusLabel.setText(selected.getFileName() + " · "
+                    + DATE_FORMAT.format(Instant.ofEpochMilli(selected.getModified())) + " · " + summary);
+        }
+    }
+
+    /**
+     * Fila de miniaturas; los huecos se reutilizan al desplazarse
+     */
+    private final class RowCell extends ListCell<Integer> {
+        private final HBox row = new HBox(GAP);
+        private final List<Slot> slots = new ArrayList<>();
+
+        RowCell() {
+            row.setPadding(new Insets(GAP / 2, 0, GAP / 2, 0));
+            setPadding(Insets.EMPTY);
+        }
+
+        @Override
+        protected void updateItem(Integer index, boolean empty) {
+            super.updateItem(index, empty);
+
+            if (empty || index == null) {
+                slots.forEach(Slot::clear);
+                setGraphic(null);
+                return;
+            }
+
+            while (slots.size() < columns) {
+                Slot slot = new Slot();
+                slots.add(slot);
+                row.getChildren().add(slot.pane);
+            }
+            for (int column = 0; column < slots.size(); column++) {
+                int position = index * columns + column;
+                slots.get(column).show(column < columns && position < screenshots.size() ? screenshots.get(position) : null);
+            }
+            setGraphic(row);
+        }
+    }
+
+    private final class Slot {
+        private final StackPane pane = new StackPane();
+        private final ImageView view = new ImageView();
+        private Screenshot shown;
+        private ThumbnailCache.Request request;
+
+        Slot() {
+            view.setFitWidth(ThumbnailCache.THUMBNAIL_WIDTH);
+            view.setFitHeight(ThumbnailCache.THUMBNAIL_HEIGHT);
+            view.setPreserveRatio(true);
+            pane.getChildren().add(view);
+            pane.setAlignment(Pos.CENTER);
+            pane.setMinSize(ThumbnailCache.THUMBNAIL_WIDTH, ThumbnailCache.THUMBNAIL_HEIGHT);
+            pane.setMaxSize(ThumbnailCache.THUMBNAIL_WIDTH, ThumbnailCache.THUMBNAIL_HEIGHT);
+            pane.setStyle(SLOT_STYLE);
+            pane.setOnMouseClicked(e -> {
+                if (shown != null) {
+                    updateStatus(shown);
+                }
+            });
+        }
+
+        void show(Screenshot screenshot) {
+            if (screenshot != null && screenshot.equals(shown)) {
+                return;
+            }
+            clear();
+            if (screenshot == null) {
+                pane.setVisible(false);
+                return;
+            }
+
+            pane.setVisible(true);
+            shown = screenshot;
+            request = thumbnails.request(screenshot, image -> {
+                if (shown == screenshot) {
+                    view.setImage(image);
+                }
+            });
+        }
+
+        void clear() {
+            if (request != null) {
+                request.cancel();
+                request = null;
+            }
+            view.setImage(null);
+            shown = null;
+        }
+    }
+}
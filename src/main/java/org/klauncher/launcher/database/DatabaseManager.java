@@ -5,24 +5,41 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.*;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Gestor de base de datos SQLite para el launcher
+ * Gestor de base de datos SQLite para el launcher.
+ * Cada {@link #getConnection()} entrega una conexión del pool para uso exclusivo del hilo que la
+ * pide; al cerrarla vuelve al pool en lugar de cerrarse. Así los DAOs pueden usarse a la vez desde
+ * hilos distintos (comprobaciones previas, indexador, escáner de mods) sin compartir una conexión.
  */
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static final String DB_NAME = "karrito_launcher.db";
     private static final String DB_VERSION_KEY = "schema_version";
-    private static final int CURRENT_SCHEMA_VERSION = 1;
+    private static final int CURRENT_SCHEMA_VERSION = 8;
+    private static final int MAX_CONNECTIONS = 8;
+    private static final long CONNECTION_WAIT_SECONDS = 30;
+    // Espera de SQLite cuando otra conexión tiene el bloqueo de escritura
+    private static final String BUSY_TIMEOUT_MILLIS = "10000";
 
     private static DatabaseManager instance;
     private final Path databasePath;
+    // Conexión usada para crear y migrar el esquema; después pasa al pool
     private Connection connection;
+    private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+    private final Semaphore connectionPermits = new Semaphore(MAX_CONNECTIONS);
+    private volatile boolean closed;
 
     private DatabaseManager() {
         this.databasePath = getDataDirectory().resolve(DB_NAME);
@@ -46,10 +63,13 @@ public class DatabaseManager {
             Files.createDirectories(databasePath.getParent());
 
             // Establecer conexión
-            connect();
+            closed = false;
+            connection = openConnection();
 
             // Verificar y actualizar esquema
             checkAndUpdateSchema();
+            idleConnections.offer(connection);
+            connection = null;
 
             logger.info("Base de datos inicializada correctamente");
         } catch (IOException e) {
@@ -58,23 +78,24 @@ public class DatabaseManager {
     }
 
     /**
-     * Establece conexión con la base de datos
+     * Abre una conexión física nueva con la base de datos
      */
-    private void connect() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            return;
-        }
-
+    private Connection openConnection() throws SQLException {
         String url = "jdbc:sqlite:" + databasePath.toString();
         Properties props = new Properties();
         props.setProperty("foreign_keys", "true");
         props.setProperty("journal_mode", "WAL");
         props.setProperty("synchronous", "NORMAL");
+        props.setProperty("busy_timeout", BUSY_TIMEOUT_MILLIS);
+        // Las transacciones toman el bloqueo de escritura al empezar y no al primer INSERT,
+        // para que dos conexiones no se bloqueen mutuamente al pasar de lectura a escritura
+        props.setProperty("transaction_mode", "IMMEDIATE");
 
-        connection = DriverManager.getConnection(url, props);
-        connection.setAutoCommit(true);
+        Connection physical = DriverManager.getConnection(url, props);
+        physical.setAutoCommit(true);
 
         logger.debug("Conexión establecida con la base de datos");
+        return physical;
     }
 
     /**
@@ -121,9 +142,226 @@ public class DatabaseManager {
         if (fromVersion < 1) {
             createInitialSchema();
         }
+        if (fromVersion < 2) {
+            addJvmPresetColumn();
+        }
+        if (fromVersion < 3) {
+            createJavaRuntimesTable();
+        }
+        if (fromVersion < 4) {
+            createLogIndexTables();
+        }
+        if (fromVersion < 5) {
+            createManifestTables();
+        }
+        if (fromVersion < 6) {
+            addAssetObjectsColumn();
+        }
+        if (fromVersion < 7) {
+            createModMetadataTable();
+        }
+        if (fromVersion < 8) {
+            createLogEventsDeleteTrigger();
+        }
         // Aquí se agregarían futuras migraciones
     }
 
+    /**
+     * Migración v2: preset de optimización JVM por perfil
+     */
+    private void addJvmPresetColumn() throws SQLException {
+        logger.info("Agregando columna jvm_preset a user_profiles");
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE user_profiles ADD COLUMN jvm_preset TEXT DEFAULT 'auto'");
+        }
+    }
+
+    /**
+     * Migración v3: caché de runtimes de Java detectados
+     */
+    private void createJavaRuntimesTable() throws SQLException {
+        logger.info("Creando tabla java_runtimes");
+
+        String sql = """
+            CREATE TABLE IF NOT EXISTS java_runtimes (
+                home_path TEXT PRIMARY KEY,
+                executable_path TEXT NOT NULL,
+                version TEXT NOT NULL,
+                major_version INTEGER NOT NULL,
+                vendor TEXT,
+                architecture TEXT,
+                is_jdk BOOLEAN DEFAULT 0,
+                release_mtime INTEGER NOT NULL,
+                updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+        """;
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Migración v4: índice de texto completo (FTS5) de logs y crash reports
+     */
+    private void createLogIndexTables() throws SQLException {
+        logger.info("Creando tablas del índice de logs");
+
+        String[] statements = {
+            // Progreso por archivo: se indexa solo lo escrito desde el último offset
+            """
+            CREATE TABLE IF NOT EXISTS log_index_files (
+                path TEXT PRIMARY KEY,
+                fingerprint TEXT NOT NULL,
+                indexed_offset INTEGER NOT NULL,
+                last_event_at INTEGER,
+                file_size INTEGER NOT NULL,
+                file_mtime INTEGER NOT NULL,
+                indexed_at DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS log_events (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                source_path TEXT NOT NULL,
+                source_offset INTEGER NOT NULL,
+                logged_at INTEGER NOT NULL,
+                level TEXT,
+                kind TEXT NOT NULL,
+                exception_class TEXT,
+                message TEXT,
+                exception_trace TEXT,
+                mods TEXT
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_log_events_logged_at ON log_events(logged_at)",
+            // Tabla FTS sin contenido propio: el texto se lee de log_events por rowid
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS log_events_fts USING fts5(
+                message, exception, mods,
+                content = '',
+                tokenize = 'unicode61 remove_diacritics 2'
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS log_events_fts_insert AFTER INSERT ON log_events BEGIN
+                INSERT INTO log_events_fts (rowid, message, exception, mods)
+                VALUES (new.id, new.message,
+                        coalesce(new.exception_class, '') || ' ' || coalesce(new.exception_trace, ''),
+                        new.mods);
+            END
+            """
+        };
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Migración v5: manifiesto de archivos instalado por versión, para actualizar solo lo que cambia
+     */
+    private void createManifestTables() throws SQLException {
+        logger.info("Creando tablas de manifiestos de versiones");
+
+        String[] statements = {
+            """
+            CREATE TABLE IF NOT EXISTS installed_manifests (
+                version_id TEXT PRIMARY KEY,
+                revision TEXT NOT NULL,
+                file_count INTEGER NOT NULL,
+                total_size INTEGER NOT NULL,
+                updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            // Rutas relativas al directorio del juego con separador '/'
+            """
+            CREATE TABLE IF NOT EXISTS manifest_files (
+                version_id TEXT NOT NULL,
+                path TEXT NOT NULL,
+                size INTEGER NOT NULL,
+                sha1 TEXT,
+                PRIMARY KEY (version_id, path)
+            ) WITHOUT ROWID
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_manifest_files_path ON manifest_files(path)"
+        };
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Migración v6: objetos de assets empaquetados en binario (hash y tamaño) en lugar de una fila por objeto
+     */
+    private void addAssetObjectsColumn() throws SQLException {
+        logger.info("Agregando columna asset_objects a installed_manifests");
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE installed_manifests ADD COLUMN asset_objects BLOB");
+        }
+    }
+
+    /**
+     * Migración v8: al borrar eventos del índice de logs se borran también sus filas FTS. La tabla
+     * FTS no guarda contenido, así que el borrado necesita los mismos valores con los que se insertó.
+     */
+    private void createLogEventsDeleteTrigger() throws SQLException {
+        logger.info("Creando trigger de borrado del índice de logs");
+
+        String sql = """
+            CREATE TRIGGER IF NOT EXISTS log_events_fts_delete AFTER DELETE ON log_events BEGIN
+                INSERT INTO log_events_fts (log_events_fts, rowid, message, exception, mods)
+                VALUES ('delete', old.id, old.message,
+                        coalesce(old.exception_class, '') || ' ' || coalesce(old.exception_trace, ''),
+                        old.mods);
+            END
+            """;
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Migración v7: caché de metadatos de los jars de mods, válida mientras no cambien tamaño ni fecha
+     */
+    private void createModMetadataTable() throws SQLException {
+        logger.info("Creando tabla mod_metadata");
+
+        String[] statements = {
+            // provides y dependencies: una entrada por línea (dependencias como "id<TAB>rango")
+            """
+            CREATE TABLE IF NOT EXISTS mod_metadata (
+                path TEXT PRIMARY KEY,
+                directory TEXT NOT NULL,
+                file_size INTEGER NOT NULL,
+                file_mtime INTEGER NOT NULL,
+                loader TEXT,
+                mod_id TEXT,
+                name TEXT,
+                version TEXT,
+                provides TEXT,
+                dependencies TEXT,
+                scanned_at DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_mod_metadata_directory ON mod_metadata(directory)"
+        };
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
     /**
      * Crea el esquema inicial de la base de datos
      */
@@ -301,27 +539,118 @@ public class DatabaseManager {
     }
 
     /**
-     * Obtiene la conexión actual
+     * Obtiene una conexión del pool para el hilo actual; hay que cerrarla (con try-with-resources)
+     * para devolverla. Si todas están en uso, espera a que se libere una.
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connect();
+        if (closed) {
+            throw new SQLException("La base de datos está cerrada");
+        }
+        try {
+            if (!connectionPermits.tryAcquire(CONNECTION_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("No hay conexiones libres con la base de datos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Espera de conexión interrumpida", e);
+        }
+
+        try {
+            Connection physical = idleConnections.poll();
+            if (physical == null || physical.isClosed()) {
+                physical = openConnection();
+            }
+            return pooled(physical);
+        } catch (SQLException | RuntimeException e) {
+            connectionPermits.release();
+            throw e;
         }
-        return connection;
     }
 
     /**
-     * Cierra la conexión con la base de datos
+     * Envuelve la conexión para que close() la devuelva al pool, deshaciendo antes cualquier
+     * transacción que el DAO dejara abierta
      */
-    public void close() {
+    private Connection pooled(Connection physical) {
+        boolean[] released = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!released[0]) {
+                                released[0] = true;
+                                release(physical);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return released[0] || physical.isClosed();
+                        }
+                        case "unwrap" -> {
+                            return ((Class<?>) args[0]).isInstance(proxy) ? proxy : physical.unwrap((Class<?>) args[0]);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Conexión del pool: " + physical;
+                        }
+                        default -> {
+                            if (released[0]) {
+                                throw new SQLException("La conexión ya se devolvió al pool");
+                            }
+                            try {
+                                return method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    private void release(Connection physical) {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("Conexión con base de datos cerrada");
+            if (!physical.isClosed() && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (closed || physical.isClosed()) {
+                physical.close();
+            } else {
+                idleConnections.offer(physical);
             }
         } catch (SQLException e) {
-            logger.error("Error al cerrar conexión con base de datos", e);
+            logger.warn("Conexión descartada al devolverla al pool", e);
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // Ya estaba inservible
+            }
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    /**
+     * Cierra las conexiones con la base de datos; las que estén en uso se cierran al devolverse
+     */
+    public void close() {
+        closed = true;
+        Connection idle;
+        int count = 0;
+        while ((idle = idleConnections.poll()) != null) {
+            try {
+                idle.close();
+                count++;
+            } catch (SQLException e) {
+                logger.error("Error al cerrar conexión con base de datos", e);
+            }
         }
+        logger.info("Conexiones con base de datos cerradas: {}", count);
     }
 
     /**
@@ -337,7 +666,8 @@ public class DatabaseManager {
     public boolean testConnection() {
         try {
             String sql = "SELECT 1";
-            try (Statement stmt = getConnection().createStatement();
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
                 return rs.next();
             }
@@ -0,0 +1,180 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.models.entities.ManifestEntry;
+import org.klauncher.launcher.services.download.AssetObjectTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object para los manifiestos de versiones instaladas (installed_manifests y manifest_files)
+ */
+public class FileManifestDAO {
+    private static final Logger logger = LoggerFactory.getLogger(FileManifestDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public FileManifestDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Revisión del manifiesto instalado de una versión, o null si no hay
+     */
+    public String findRevision(String versionId) throws SQLException {
+        String sql = "SELECT revision FROM installed_manifests WHERE version_id = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, versionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("revision") : null;
+            }
+        }
+    }
+
+    /**
+     * Archivos del manifiesto instalado de una versión
+     */
+    public List<ManifestEntry> findEntries(String versionId) throws SQLException {
+        return queryEntries("SELECT path, size, sha1 FROM manifest_files WHERE version_id = ?", versionId);
+    }
+
+    /**
+     * Archivos de los manifiestos de las demás versiones (una fila por versión que los usa)
+     */
+    public List<ManifestEntry> findEntriesOutside(String versionId) throws SQLException {
+        return queryEntries("SELECT path, size, sha1 FROM manifest_files WHERE version_id <> ?", versionId);
+    }
+
+    /**
+     * Objetos de assets del manifiesto instalado de una versión (vacío si no hay)
+     */
+    public AssetObjectTable findAssetObjects(String versionId) throws SQLException {
+        return queryAssetObjects("SELECT asset_objects FROM installed_manifests WHERE version_id = ?", versionId);
+    }
+
+    /**
+     * Objetos de assets de los manifiestos de las demás versiones, en una sola tabla
+     */
+    public AssetObjectTable findAssetObjectsOutside(String versionId) throws SQLException {
+        return queryAssetObjects("SELECT asset_objects FROM installed_manifests WHERE version_id <> ?", versionId);
+    }
+
+    /**
+     * Sustituye el manifiesto de una versión y la marca como instalada en minecraft_versions.
+     * Los objetos de assets se guardan empaquetados en installed_manifests.asset_objects.
+     */
+    public void saveManifest(String versionId, String versionType, String installationPath, String revision,
+                             Collection<ManifestEntry> entries, AssetObjectTable assetObjects) throws SQLException {
+        String insertFileSql = "INSERT OR REPLACE INTO manifest_files (version_id, path, size, sha1) VALUES (?, ?, ?, ?)";
+
+        String upsertManifestSql = """
+            INSERT OR REPLACE INTO installed_manifests (
+                version_id, revision, file_count, total_size, asset_objects, updated_at
+            ) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        """;
+
+        String upsertVersionSql = """
+            INSERT INTO minecraft_versions (id, version_type, is_installed, installation_path)
+            VALUES (?, ?, 1, ?)
+            ON CONFLICT(id) DO UPDATE SET
+                is_installed = 1,
+                installation_path = excluded.installation_path,
+                updated_at = CURRENT_TIMESTAMP
+        """;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM manifest_files WHERE version_id = ?")) {
+                    stmt.setString(1, versionId);
+                    stmt.executeUpdate();
+                }
+
+                long totalSize = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(insertFileSql)) {
+                    for (ManifestEntry entry : entries) {
+                        stmt.setString(1, versionId);
+                        stmt.setString(2, entry.getPath());
+                        stmt.setLong(3, entry.getSize());
+                        stmt.setString(4, entry.getSha1());
+                        stmt.addBatch();
+                        totalSize += Math.max(0, entry.getSize());
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(upsertManifestSql)) {
+                    stmt.setString(1, versionId);
+                    stmt.setString(2, revision);
+                    stmt.setInt(3, entries.size() + assetObjects.size());
+                    stmt.setLong(4, totalSize + assetObjects.totalSize());
+                    stmt.setBytes(5, assetObjects.toBytes());
+                    stmt.executeUpdate();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(upsertVersionSql)) {
+                    stmt.setString(1, versionId);
+                    stmt.setString(2, versionType);
+                    stmt.setString(3, installationPath);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                logger.debug("Manifiesto de {} guardado: {} archivos y {} objetos, revisión {}",
+                        versionId, entries.size(), assetObjects.size(), revision);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private AssetObjectTable queryAssetObjects(String sql, String versionId) throws SQLException {
+        AssetObjectTable objects = new AssetObjectTable(0);
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, versionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    byte[] data = rs.getBytes("asset_objects");
+                    if (data != null) {
+                        objects.addAll(AssetObjectTable.fromBytes(data));
+                    }
+                }
+            }
+        }
+
+        return objects.seal();
+    }
+
+    private List<ManifestEntry> queryEntries(String sql, String versionId) throws SQLException {
+        List<ManifestEntry> entries = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, versionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new ManifestEntry(rs.getString("path"), rs.getLong("size"), rs.getString("sha1"), null));
+                }
+            }
+        }
+
+        return entries;
+    }
+}
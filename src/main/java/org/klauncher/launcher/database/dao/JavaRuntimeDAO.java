@@ -0,0 +1,104 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.models.entities.JavaRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object para la caché de runtimes de Java detectados
+ */
+public class JavaRuntimeDAO {
+    private static final Logger logger = LoggerFactory.getLogger(JavaRuntimeDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public JavaRuntimeDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Obtiene todos los runtimes cacheados
+     */
+    public List<JavaRuntime> findAll() throws SQLException {
+        String sql = "SELECT * FROM java_runtimes ORDER BY major_version DESC";
+        List<JavaRuntime> runtimes = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                runtimes.add(mapResultSetToRuntime(rs));
+            }
+        }
+
+        return runtimes;
+    }
+
+    /**
+     * Reemplaza la caché completa con los runtimes detectados
+     */
+    public void replaceAll(List<JavaRuntime> runtimes) throws SQLException {
+        String insertSql = """
+            INSERT INTO java_runtimes (
+                home_path, executable_path, version, major_version, vendor,
+                architecture, is_jdk, release_mtime
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM java_runtimes");
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                    for (JavaRuntime runtime : runtimes) {
+                        stmt.setString(1, runtime.getHomePath());
+                        stmt.setString(2, runtime.getExecutablePath());
+                        stmt.setString(3, runtime.getVersion());
+                        stmt.setInt(4, runtime.getMajorVersion());
+                        stmt.setString(5, runtime.getVendor());
+                        stmt.setString(6, runtime.getArchitecture());
+                        stmt.setBoolean(7, runtime.isJdk());
+                        stmt.setLong(8, runtime.getReleaseModified());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                conn.commit();
+                logger.debug("Caché de runtimes Java actualizada: {} entradas", runtimes.size());
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto JavaRuntime
+     */
+    private JavaRuntime mapResultSetToRuntime(ResultSet rs) throws SQLException {
+        JavaRuntime runtime = new JavaRuntime();
+        runtime.setHomePath(rs.getString("home_path"));
+        runtime.setExecutablePath(rs.getString("executable_path"));
+        runtime.setVersion(rs.getString("version"));
+        runtime.setMajorVersion(rs.getInt("major_version"));
+        runtime.setVendor(rs.getString("vendor"));
+        runtime.setArchitecture(rs.getString("architecture"));
+        runtime.setJdk(rs.getBoolean("is_jdk"));
+        runtime.setReleaseModified(rs.getLong("release_mtime"));
+        return runtime;
+    }
+}
@@ -0,0 +1,48 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+
+/**
+ * Data Access Object para la tabla launcher_logs
+ */
+public class LauncherLogDAO {
+    private static final Logger logger = LoggerFactory.getLogger(LauncherLogDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public LauncherLogDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Inserta una entrada de log
+     */
+    public void insert(String level, String loggerName, String message,
+                       String exceptionTrace, Long userProfileId) throws SQLException {
+        String sql = """
+            INSERT INTO launcher_logs (level, logger_name, message, exception_trace, user_profile_id)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, level);
+            stmt.setString(2, loggerName);
+            stmt.setString(3, message);
+            stmt.setString(4, exceptionTrace);
+            if (userProfileId != null) {
+                stmt.setLong(5, userProfileId);
+            } else {
+                stmt.setNull(5, Types.INTEGER);
+            }
+
+            stmt.executeUpdate();
+            logger.debug("Log registrado en base de datos: {}", message);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.models.entities.LogEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object para el índice de logs (log_index_files, log_events y log_events_fts)
+ */
+public class LogIndexDAO {
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public LogIndexDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Progreso de indexación de un archivo
+     */
+    public static class FileState {
+        private final String path;
+        private final String fingerprint;
+        private final long indexedOffset;
+        private final long lastEventAt;
+        private final long fileSize;
+        private final long fileModified;
+
+        public FileState(String path, String fingerprint, long indexedOffset, long lastEventAt,
+                         long fileSize, long fileModified) {
+            this.path = path;
+            this.fingerprint = fingerprint;
+            this.indexedOffset = indexedOffset;
+            this.lastEventAt = lastEventAt;
+            this.fileSize = fileSize;
+            this.fileModified = fileModified;
+        }
+
+        public String getPath() { return path; }
+        public String getFingerprint() { return fingerprint; }
+        public long getIndexedOffset() { return indexedOffset; }
+        public long getLastEventAt() { return lastEventAt; }
+        public long getFileSize() { return fileSize; }
+        public long getFileModified() { return fileModified; }
+    }
+
+    /**
+     * Obtiene el progreso de todos los archivos indexados, por ruta
+     */
+    public Map<String, FileState> findFileStates() throws SQLException {
+        String sql = "SELECT * FROM log_index_files";
+        Map<String, FileState> states = new HashMap<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                FileState state = new FileState(
+                        rs.getString("path"),
+                        rs.getString("fingerprint"),
+                        rs.getLong("indexed_offset"),
+                        rs.getLong("last_event_at"),
+                        rs.getLong("file_size"),
+                        rs.getLong("file_mtime"));
+                states.put(state.getPath(), state);
+            }
+        }
+
+        return states;
+    }
+
+    /**
+     * Guarda los eventos nuevos de un archivo y su progreso en una sola transacción. Con
+     * {@code replace} se borran antes los eventos anteriores del archivo (y sus filas FTS),
+     * para cuando el archivo se reescribió y se indexa desde el principio.
+     */
+    public void saveProgress(FileState state, List<LogEvent> events, boolean replace) throws SQLException {
+        String insertEventSql = """
+            INSERT INTO log_events (
+                source_path, source_offset, logged_at, level, kind,
+                exception_class, message, exception_trace, mods
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        String upsertFileSql = """
+            INSERT OR REPLACE INTO log_index_files (
+                path, fingerprint, indexed_offset, last_event_at, file_size, file_mtime, indexed_at
+            ) VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        """;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                if (replace) {
+                    try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM log_events WHERE source_path = ?")) {
+                        stmt.setString(1, state.getPath());
+                        int deleted = stmt.executeUpdate();
+                        logger.debug("Eliminados {} eventos anteriores de {}", deleted, state.getPath());
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(insertEventSql)) {
+                    for (LogEvent event : events) {
+                        stmt.setString(1, event.getSourcePath());
+                        stmt.setLong(2, event.getSourceOffset());
+                        stmt.setLong(3, event.getLoggedAt());
+                        stmt.setString(4, event.getLevel());
+                        stmt.setString(5, event.getKind());
+                        stmt.setString(6, event.getExceptionClass());
+                        stmt.setString(7, event.getMessage());
+                        stmt.setString(8, event.getExceptionTrace());
+                        stmt.setString(9, event.getMods());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(upsertFileSql)) {
+                    stmt.setString(1, state.getPath());
+                    stmt.setString(2, state.getFingerprint());
+                    stmt.setLong(3, state.getIndexedOffset());
+                    stmt.setLong(4, state.getLastEventAt());
+                    stmt.setLong(5, state.getFileSize());
+                    stmt.setLong(6, state.getFileModified());
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                logger.debug("Indexados {} eventos de {} (offset {})",
+                        events.size(), state.getPath(), state.getIndexedOffset());
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Busca eventos con una consulta FTS5 posteriores a {@code sinceMillis}, más recientes primero
+     */
+    public List<LogEvent> search(String ftsQuery, long sinceMillis, int limit) throws SQLException {
+        String sql = """
+            SELECT e.* FROM log_events_fts f
+            JOIN log_events e ON e.id = f.rowid
+            WHERE log_events_fts MATCH ? AND e.logged_at >= ?
+            ORDER BY e.logged_at DESC
+            LIMIT ?
+        """;
+
+        List<LogEvent> events = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, ftsQuery);
+            stmt.setLong(2, sinceMillis);
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    events.add(mapResultSetToEvent(rs));
+                }
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Aplica la retención: borra los eventos anteriores a {@code beforeMillis} y, si aún quedan
+     * más de {@code maxEvents}, los más antiguos. Los triggers borran sus filas FTS. Devuelve
+     * cuántos se eliminaron.
+     */
+    public int deleteExpired(long beforeMillis, long maxEvents) throws SQLException {
+        String deleteOldSql = "DELETE FROM log_events WHERE logged_at < ?";
+        String deleteExcessSql = """
+            DELETE FROM log_events WHERE id IN (
+                SELECT id FROM log_events ORDER BY logged_at DESC, id DESC LIMIT -1 OFFSET ?
+            )
+        """;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int deleted;
+                try (PreparedStatement stmt = conn.prepareStatement(deleteOldSql)) {
+                    stmt.setLong(1, beforeMillis);
+                    deleted = stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(deleteExcessSql)) {
+                    stmt.setLong(1, maxEvents);
+                    deleted += stmt.executeUpdate();
+                }
+
+                if (deleted > 0) {
+                    // Fusiona los segmentos del índice para recuperar el espacio de las filas borradas
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("INSERT INTO log_events_fts (log_events_fts) VALUES ('optimize')");
+                    }
+                }
+                conn.commit();
+                return deleted;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Cuenta los eventos indexados
+     */
+    public long countEvents() throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM log_events")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto LogEvent
+     */
+    private LogEvent mapResultSetToEvent(ResultSet rs) throws SQLException {
+        LogEvent event = new LogEvent();
+        event.setId(rs.getLong("id"));
+        event.setSourcePath(rs.getString("source_path"));
+        event.setSourceOffset(rs.getLong("source_offset"));
+        event.setLoggedAt(rs.getLong("logged_at"));
+        event.setLevel(rs.getString("level"));
+        event.setKind(rs.getString("kind"));
+        event.setExceptionClass(rs.getString("exception_class"));
+        event.setMessage(rs.getString("message"));
+        event.setExceptionTrace(rs.getString("exception_trace"));
+        event.setMods(rs.getString("mods"));
+        return event;
+    }
+}
@@ -0,0 +1,62 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Data Access Object para las cuentas de Microsoft (microsoft_accounts)
+ */
+public class MicrosoftAccountDAO {
+    private static final Logger logger = LoggerFactory.getLogger(MicrosoftAccountDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public MicrosoftAccountDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Indica si existe la cuenta y si tiene un token de acceso guardado
+     */
+    public boolean hasAccessToken(String accountId) throws SQLException {
+        String sql = "SELECT access_token FROM microsoft_accounts WHERE id = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getString("access_token") != null && !rs.getString("access_token").isBlank();
+            }
+        }
+    }
+
+    /**
+     * Obtiene la fecha de caducidad del token de acceso de una cuenta
+     */
+    public Optional<LocalDateTime> findTokenExpiresAt(String accountId) throws SQLException {
+        String sql = "SELECT token_expires_at FROM microsoft_accounts WHERE id = ?";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp expiresAt = rs.getTimestamp("token_expires_at");
+                    if (expiresAt != null) {
+                        return Optional.of(expiresAt.toLocalDateTime());
+                    }
+                }
+            }
+        }
+
+        logger.debug("Sin fecha de caducidad de token para la cuenta {}", accountId);
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,150 @@
+package org.klauncher.launcher.database.dao;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.models.entities.ModMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object para la caché de metadatos de mods, agrupada por carpeta de mods
+ */
+public class ModMetadataDAO {
+    private static final Logger logger = LoggerFactory.getLogger(ModMetadataDAO.class);
+
+    private final DatabaseManager databaseManager;
+
+    public ModMetadataDAO(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Metadatos cacheados de los jars de una carpeta, por ruta
+     */
+    public Map<String, ModMetadata> findByDirectory(String directory) throws SQLException {
+        String sql = "SELECT * FROM mod_metadata WHERE directory = ?";
+        Map<String, ModMetadata> mods = new LinkedHashMap<>();
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, directory);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ModMetadata mod = mapResultSetToMod(rs);
+                    mods.put(mod.getPath(), mod);
+                }
+            }
+        }
+
+        return mods;
+    }
+
+    /**
+     * Guarda los jars leídos de nuevo y elimina los que ya no están en la carpeta, en una sola transacción
+     */
+    public void update(String directory, Collection<ModMetadata> scanned, Collection<String> removedPaths)
+            throws SQLException {
+        if (scanned.isEmpty() && removedPaths.isEmpty()) {
+            return;
+        }
+
+        String upsertSql = """
+            INSERT OR REPLACE INTO mod_metadata (
+                path, directory, file_size, file_mtime, loader, mod_id,
+                name, version, provides, dependencies
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM mod_metadata WHERE path = ?")) {
+                    for (String path : removedPaths) {
+                        stmt.setString(1, path);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+                    for (ModMetadata mod : scanned) {
+                        stmt.setString(1, mod.getPath());
+                        stmt.setString(2, directory);
+                        stmt.setLong(3, mod.getFileSize());
+                        stmt.setLong(4, mod.getFileModified());
+                        stmt.setString(5, mod.getLoader());
+                        stmt.setString(6, mod.getModId());
+                        stmt.setString(7, mod.getName());
+                        stmt.setString(8, mod.getVersion());
+                        stmt.setString(9, String.join("\n", mod.getProvides()));
+                        stmt.setString(10, encodeDependencies(mod.getDependencies()));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                conn.commit();
+                logger.debug("Caché de mods de {} actualizada: {} leídos, {} eliminados",
+                        directory, scanned.size(), removedPaths.size());
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static String encodeDependencies(Map<String, String> dependencies) {
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+            if (!encoded.isEmpty()) {
+                encoded.append('\n');
+            }
+            encoded.append(dependency.getKey()).append('\t').append(dependency.getValue());
+        }
+        return encoded.toString();
+    }
+
+    private static Map<String, String> decodeDependencies(String encoded) {
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return dependencies;
+        }
+
+        for (String line : encoded.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                dependencies.put(line, "*");
+            } else {
+                dependencies.put(line.substring(0, tab), line.substring(tab + 1));
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto ModMetadata
+     */
+    private ModMetadata mapResultSetToMod(ResultSet rs) throws SQLException {
+        ModMetadata mod = new ModMetadata(rs.getString("path"), rs.getLong("file_size"), rs.getLong("file_mtime"));
+        mod.setLoader(rs.getString("loader"));
+        mod.setModId(rs.getString("mod_id"));
+        mod.setName(rs.getString("name"));
+        mod.setVersion(rs.getString("version"));
+
+        String provides = rs.getString("provides");
+        mod.setProvides(provides == null || provides.isEmpty() ? List.of() : new ArrayList<>(List.of(provides.split("\n"))));
+        mod.setDependencies(decodeDependencies(rs.getString("dependencies")));
+        return mod;
+    }
+}
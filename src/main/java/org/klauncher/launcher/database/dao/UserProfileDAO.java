@@ -33,26 +33,24 @@ public class UserProfileDAO {
             INSERT INTO user_profiles (
                 name, display_name, minecraft_username, microsoft_account_id,
                 profile_type, java_path, java_args, min_memory_mb, max_memory_mb,
-                game_directory, is_active
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                game_directory, is_active, jvm_preset
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
         """;
 
+        // El driver de SQLite ya no implementa getGeneratedKeys(); el id vuelve con RETURNING
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             setProfileParameters(stmt, profile);
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Error al crear perfil, no se insertaron filas");
-            }
-
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    profile.setId(generatedKeys.getLong(1));
-                    profile.setCreatedAt(LocalDateTime.now());
-                    profile.setUpdatedAt(LocalDateTime.now());
+            try (ResultSet generatedKeys = stmt.executeQuery()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("Error al crear perfil, no se insertaron filas");
                 }
+                profile.setId(generatedKeys.getLong(1));
+                profile.setCreatedAt(LocalDateTime.now());
+                profile.setUpdatedAt(LocalDateTime.now());
             }
 
             logger.info("Perfil creado exitosamente: {} (ID: {})", profile.getName(), profile.getId());
@@ -154,7 +152,7 @@ public class UserProfileDAO {
             UPDATE user_profiles SET
                 name = ?, display_name = ?, minecraft_username = ?, microsoft_account_id = ?,
                 profile_type = ?, java_path = ?, java_args = ?, min_memory_mb = ?, max_memory_mb = ?,
-                game_directory = ?, is_active = ?, updated_at = CURRENT_TIMESTAMP
+                game_directory = ?, is_active = ?, jvm_preset = ?, updated_at = CURRENT_TIMESTAMP
             WHERE id = ?
         """;
 
@@ -162,7 +160,7 @@ public class UserProfileDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             setProfileParameters(stmt, profile);
-            stmt.setLong(12, profile.getId());
+            stmt.setLong(13, profile.getId());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) {
@@ -283,6 +281,8 @@ public class UserProfileDAO {
         stmt.setInt(9, profile.getMaxMemoryMb());
         stmt.setString(10, profile.getGameDirectory());
         stmt.setBoolean(11, profile.isActive());
+        stmt.setString(12, profile.getJvmPreset() != null ?
+                profile.getJvmPreset().getValue() : UserProfile.JvmPreset.AUTO.getValue());
     }
 
     /**
@@ -303,6 +303,7 @@ public class UserProfileDAO {
         profile.setMaxMemoryMb(rs.getInt("max_memory_mb"));
         profile.setGameDirectory(rs.getString("game_directory"));
         profile.setActive(rs.getBoolean("is_active"));
+        profile.setJvmPreset(UserProfile.JvmPreset.fromString(rs.getString("jvm_preset")));
 
         // Mapear timestamps
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -1,5 +1,6 @@
 package org.klauncher.launcher.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -9,10 +10,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 
 /**
  * Configuración del launcher que se guarda en archivo JSON
+ *
+ * @deprecated formato heredado; {@code ConfigRegistryService} lo migra una sola vez a
+ * {@link org.klauncher.launcher.models.config.AdvancedLauncherConfig}
  */
+@Deprecated
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class LauncherConfig {
     private static final Logger logger = LoggerFactory.getLogger(LauncherConfig.class);
     private static final String CONFIG_FILE_NAME = "launcher-config.json";
@@ -167,6 +174,25 @@ public class LauncherConfig {
         }
     }
 
+    /**
+     * Lee la configuración heredada si existe, sin crear el archivo
+     */
+    public static Optional<LauncherConfig> loadIfExists() {
+        Path configPath = getConfigPath();
+
+        if (!Files.exists(configPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            return Optional.of(mapper.readValue(configPath.toFile(), LauncherConfig.class));
+        } catch (IOException e) {
+            logger.warn("No se pudo leer la configuración heredada: {}", configPath, e);
+            return Optional.empty();
+        }
+    }
+
     /**
      * Guarda la configuración en archivo
      */
@@ -186,7 +212,7 @@ public class LauncherConfig {
     /**
      * Obtiene la ruta del archivo de configuración
      */
-    private static Path getConfigPath() {
+    public static Path getConfigPath() {
         return Paths.get(System.getProperty("user.home"), ".karrito", CONFIG_FILE_NAME);
     }
 
@@ -79,6 +79,18 @@ public class AdvancedLauncherConfig {
         @JsonProperty("dataDirectory")
         private String dataDirectory = Paths.get(System.getProperty("user.home"), ".karrito").toString();
 
+        @JsonProperty("lastUsername")
+        private String lastUsername = "";
+
+        @JsonProperty("autoLogin")
+        private boolean autoLogin = false;
+
+        @JsonProperty("rememberCredentials")
+        private boolean rememberCredentials = false;
+
+        @JsonProperty("serverUrl")
+        private String serverUrl = "https://api.karrito.com";
+
         // Getters y Setters
         public String getLauncherVersion() { return launcherVersion; }
         public void setLauncherVersion(String launcherVersion) { this.launcherVersion = launcherVersion; }
@@ -100,6 +112,18 @@ public class AdvancedLauncherConfig {
 
         public String getDataDirectory() { return dataDirectory; }
         public void setDataDirectory(String dataDirectory) { this.dataDirectory = dataDirectory; }
+
+        public String getLastUsername() { return lastUsername; }
+        public void setLastUsername(String lastUsername) { this.lastUsername = lastUsername; }
+
+        public boolean isAutoLogin() { return autoLogin; }
+        public void setAutoLogin(boolean autoLogin) { this.autoLogin = autoLogin; }
+
+        public boolean isRememberCredentials() { return rememberCredentials; }
+        public void setRememberCredentials(boolean rememberCredentials) { this.rememberCredentials = rememberCredentials; }
+
+        public String getServerUrl() { return serverUrl; }
+        public void setServerUrl(String serverUrl) { this.serverUrl = serverUrl; }
     }
 
     /**
@@ -138,6 +162,11 @@ public class AdvancedLauncherConfig {
         @JsonProperty("customCss")
         private String customCss = "";
 
+        @JsonProperty("galleryMemoryMegabytes")
+        @Min(8)
+        @Max(1024)
+        private int galleryMemoryMegabytes = 64;
+
         // Getters y Setters
         public String getTheme() { return theme; }
         public void setTheme(String theme) { this.theme = theme; }
@@ -165,6 +194,12 @@ public class AdvancedLauncherConfig {
 
         public String getCustomCss() { return customCss; }
         public void setCustomCss(String customCss) { this.customCss = customCss; }
+
+        /**
+         * Memoria para miniaturas decodificadas de la galería de capturas
+         */
+        public int getGalleryMemoryMegabytes() { return galleryMemoryMegabytes; }
+        public void setGalleryMemoryMegabytes(int galleryMemoryMegabytes) { this.galleryMemoryMegabytes = galleryMemoryMegabytes; }
     }
 
     /**
@@ -191,6 +226,9 @@ public class AdvancedLauncherConfig {
         @JsonProperty("enableJvmOptimizations")
         private boolean enableJvmOptimizations = true;
 
+        @JsonProperty("enableClassDataSharing")
+        private boolean enableClassDataSharing = true;
+
         @JsonProperty("javaVersions")
         private Map<String, String> javaVersions = new HashMap<>();
 
@@ -213,6 +251,9 @@ public class AdvancedLauncherConfig {
         public boolean isEnableJvmOptimizations() { return enableJvmOptimizations; }
         public void setEnableJvmOptimizations(boolean enableJvmOptimizations) { this.enableJvmOptimizations = enableJvmOptimizations; }
 
+        public boolean isEnableClassDataSharing() { return enableClassDataSharing; }
+        public void setEnableClassDataSharing(boolean enableClassDataSharing) { this.enableClassDataSharing = enableClassDataSharing; }
+
         public Map<String, String> getJavaVersions() { return javaVersions; }
         public void setJavaVersions(Map<String, String> javaVersions) { this.javaVersions = javaVersions; }
     }
@@ -253,6 +294,36 @@ public class AdvancedLauncherConfig {
         @Max(16)
         private int maxConcurrentDownloads = 4;
 
+        @JsonProperty("adaptiveConcurrency")
+        private boolean adaptiveConcurrency = true;
+
+        @JsonProperty("maxAdaptiveConcurrentDownloads")
+        @Min(1)
+        @Max(64)
+        private int maxAdaptiveConcurrentDownloads = 16;
+
+        @JsonProperty("mirrorUrl")
+        private String mirrorUrl = "";
+
+        @JsonProperty("mirrorServerEnabled")
+        private boolean mirrorServerEnabled = false;
+
+        @JsonProperty("mirrorServerPort")
+        @Min(1024)
+        @Max(65535)
+        private int mirrorServerPort = 25580;
+
+        @JsonProperty("deltaUrl")
+        private String deltaUrl = "";
+
+        @JsonProperty("maxDownloadKibps")
+        @Min(0)
+        private int maxDownloadKibps = 0;
+
+        @JsonProperty("backgroundDownloadKibps")
+        @Min(0)
+        private int backgroundDownloadKibps = 0;
+
         // Getters y Setters
         public boolean isUseProxy() { return useProxy; }
         public void setUseProxy(boolean useProxy) { this.useProxy = useProxy; }
@@ -277,6 +348,51 @@ public class AdvancedLauncherConfig {
 
         public int getMaxConcurrentDownloads() { return maxConcurrentDownloads; }
         public void setMaxConcurrentDownloads(int maxConcurrentDownloads) { this.maxConcurrentDownloads = maxConcurrentDownloads; }
+
+        /**
+         * Ajusta las descargas simultáneas según el rendimiento medido, partiendo de maxConcurrentDownloads
+         */
+        public boolean isAdaptiveConcurrency() { return adaptiveConcurrency; }
+        public void setAdaptiveConcurrency(boolean adaptiveConcurrency) { this.adaptiveConcurrency = adaptiveConcurrency; }
+
+        /**
+         * Techo de descargas simultáneas en modo adaptativo
+         */
+        public int getMaxAdaptiveConcurrentDownloads() { return maxAdaptiveConcurrentDownloads; }
+        public void setMaxAdaptiveConcurrentDownloads(int maxAdaptiveConcurrentDownloads) { this.maxAdaptiveConcurrentDownloads = maxAdaptiveConcurrentDownloads; }
+
+        /**
+         * Espejo LAN que se prueba antes que los servidores oficiales, p. ej. http://192.168.1.10:25580/ (vacío = ninguno)
+         */
+        public String getMirrorUrl() { return mirrorUrl; }
+        public void setMirrorUrl(String mirrorUrl) { this.mirrorUrl = mirrorUrl; }
+
+        /**
+         * Sirve los archivos descargados a otros launchers de la red local
+         */
+        public boolean isMirrorServerEnabled() { return mirrorServerEnabled; }
+        public void setMirrorServerEnabled(boolean mirrorServerEnabled) { this.mirrorServerEnabled = mirrorServerEnabled; }
+
+        public int getMirrorServerPort() { return mirrorServerPort; }
+        public void setMirrorServerPort(int mirrorServerPort) { this.mirrorServerPort = mirrorServerPort; }
+
+        /**
+         * Servidor de parches binarios entre versiones de un archivo (vacío = descargar siempre completo)
+         */
+        public String getDeltaUrl() { return deltaUrl; }
+        public void setDeltaUrl(String deltaUrl) { this.deltaUrl = deltaUrl; }
+
+        /**
+         * Límite de ancho de banda total de descargas en KiB/s (0 = sin límite)
+         */
+        public int getMaxDownloadKibps() { return maxDownloadKibps; }
+        public void setMaxDownloadKibps(int maxDownloadKibps) { this.maxDownloadKibps = maxDownloadKibps; }
+
+        /**
+         * Límite adicional para las descargas en segundo plano (assets) en KiB/s (0 = sin límite propio)
+         */
+        public int getBackgroundDownloadKibps() { return backgroundDownloadKibps; }
+        public void setBackgroundDownloadKibps(int backgroundDownloadKibps) { this.backgroundDownloadKibps = backgroundDownloadKibps; }
     }
 
     /**
@@ -286,6 +402,9 @@ public class AdvancedLauncherConfig {
         @JsonProperty("defaultVersionType")
         private String defaultVersionType = "release";
 
+        @JsonProperty("gameVersion")
+        private String gameVersion = "1.20.1";
+
         @JsonProperty("enableSnapshots")
         private boolean enableSnapshots = false;
 
@@ -309,10 +428,32 @@ public class AdvancedLauncherConfig {
         @Max(100)
         private int maxLogFiles = 10;
 
+        @JsonProperty("launchStaggerSeconds")
+        @Min(0)
+        @Max(120)
+        private int launchStaggerSeconds = 8;
+
+        @JsonProperty("worldBackupCodec")
+        @Pattern(regexp = "zstd|xz")
+        private String worldBackupCodec = "zstd";
+
+        @JsonProperty("keepWorldBackups")
+        @Min(1)
+        @Max(1000)
+        private int keepWorldBackups = 48;
+
+        @JsonProperty("worldBackupIntervalMinutes")
+        @Min(0)
+        @Max(1440)
+        private int worldBackupIntervalMinutes = 60;
+
         // Getters y Setters
         public String getDefaultVersionType() { return defaultVersionType; }
         public void setDefaultVersionType(String defaultVersionType) { this.defaultVersionType = defaultVersionType; }
 
+        public String getGameVersion() { return gameVersion; }
+        public void setGameVersion(String gameVersion) { this.gameVersion = gameVersion; }
+
         public boolean isEnableSnapshots() { return enableSnapshots; }
         public void setEnableSnapshots(boolean enableSnapshots) { this.enableSnapshots = enableSnapshots; }
 
@@ -333,6 +474,30 @@ public class AdvancedLauncherConfig {
 
         public int getMaxLogFiles() { return maxLogFiles; }
         public void setMaxLogFiles(int maxLogFiles) { this.maxLogFiles = maxLogFiles; }
+
+        /**
+         * Separación mínima entre arranques consecutivos para no competir por disco al cargar clases
+         */
+        public int getLaunchStaggerSeconds() { return launchStaggerSeconds; }
+        public void setLaunchStaggerSeconds(int launchStaggerSeconds) { this.launchStaggerSeconds = launchStaggerSeconds; }
+
+        /**
+         * Compresión de los fragmentos nuevos de las copias de mundos: "zstd" (rápida) o "xz" (más compacta)
+         */
+        public String getWorldBackupCodec() { return worldBackupCodec; }
+        public void setWorldBackupCodec(String worldBackupCodec) { this.worldBackupCodec = worldBackupCodec; }
+
+        /**
+         * Copias que se conservan por mundo; las más antiguas se eliminan al crear una nueva
+         */
+        public int getKeepWorldBackups() { return keepWorldBackups; }
+        public void setKeepWorldBackups(int keepWorldBackups) { this.keepWorldBackups = keepWorldBackups; }
+
+        /**
+         * Cada cuánto se copian los mundos de los perfiles en juego; 0 solo copia al cerrar el juego
+         */
+        public int getWorldBackupIntervalMinutes() { return worldBackupIntervalMinutes; }
+        public void setWorldBackupIntervalMinutes(int worldBackupIntervalMinutes) { this.worldBackupIntervalMinutes = worldBackupIntervalMinutes; }
     }
 
     /**
@@ -381,6 +546,9 @@ public class AdvancedLauncherConfig {
         @JsonProperty("lastBackup")
         private LocalDateTime lastBackup;
 
+        @JsonProperty("legacyConfigMigrated")
+        private boolean legacyConfigMigrated = false;
+
         // Getters y Setters
         public int getConfigVersion() { return configVersion; }
         public void setConfigVersion(int configVersion) { this.configVersion = configVersion; }
@@ -393,6 +561,9 @@ public class AdvancedLauncherConfig {
 
         public LocalDateTime getLastBackup() { return lastBackup; }
         public void setLastBackup(LocalDateTime lastBackup) { this.lastBackup = lastBackup; }
+
+        public boolean isLegacyConfigMigrated() { return legacyConfigMigrated; }
+        public void setLegacyConfigMigrated(boolean legacyConfigMigrated) { this.legacyConfigMigrated = legacyConfigMigrated; }
     }
 
     // Getters principales
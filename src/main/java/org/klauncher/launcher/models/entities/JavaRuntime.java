@@ -0,0 +1,88 @@
+package org.klauncher.launcher.models.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Entidad que representa una instalación de Java (JDK o JRE) detectada en el sistema
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JavaRuntime {
+
+    @JsonProperty("homePath")
+    private String homePath;
+
+    @JsonProperty("executablePath")
+    private String executablePath;
+
+    @JsonProperty("version")
+    private String version;
+
+    @JsonProperty("majorVersion")
+    private int majorVersion;
+
+    @JsonProperty("vendor")
+    private String vendor;
+
+    @JsonProperty("architecture")
+    private String architecture;
+
+    @JsonProperty("jdk")
+    private boolean jdk;
+
+    @JsonProperty("releaseModified")
+    private long releaseModified;
+
+    public JavaRuntime() {
+    }
+
+    // Getters y Setters
+    public String getHomePath() { return homePath; }
+    public void setHomePath(String homePath) { this.homePath = homePath; }
+
+    public String getExecutablePath() { return executablePath; }
+    public void setExecutablePath(String executablePath) { this.executablePath = executablePath; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public int getMajorVersion() { return majorVersion; }
+    public void setMajorVersion(int majorVersion) { this.majorVersion = majorVersion; }
+
+    public String getVendor() { return vendor; }
+    public void setVendor(String vendor) { this.vendor = vendor; }
+
+    public String getArchitecture() { return architecture; }
+    public void setArchitecture(String architecture) { this.architecture = architecture; }
+
+    public boolean isJdk() { return jdk; }
+    public void setJdk(boolean jdk) { this.jdk = jdk; }
+
+    public long getReleaseModified() { return releaseModified; }
+    public void setReleaseModified(long releaseModified) { this.releaseModified = releaseModified; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JavaRuntime that = (JavaRuntime) o;
+        return Objects.equals(homePath, that.homePath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(homePath);
+    }
+
+    @Override
+    public String toString() {
+        return "JavaRuntime{" +
+                "homePath='" + homePath + '\'' +
+                ", version='" + version + '\'' +
+                ", vendor='" + vendor + '\'' +
+                ", jdk=" + jdk +
+                '}';
+    }
+}
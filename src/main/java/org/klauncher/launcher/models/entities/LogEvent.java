@@ -0,0 +1,79 @@
+package org.klauncher.launcher.models.entities;
+
+/**
+ * Evento extraído de un log del juego o de un crash report para el índice de búsqueda
+ */
+public class LogEvent {
+
+    public static final String KIND_LOG = "log";
+    public static final String KIND_CRASH = "crash";
+
+    private Long id;
+    private String sourcePath;
+    private long sourceOffset;
+    private long loggedAt;
+    private String level;
+    private String kind;
+    private String exceptionClass;
+    private String message;
+    private String exceptionTrace;
+    private String mods;
+
+    public LogEvent() {
+    }
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSourcePath() { return sourcePath; }
+    public void setSourcePath(String sourcePath) { this.sourcePath = sourcePath; }
+
+    /**
+     * Posición en bytes de la primera línea del evento dentro del archivo
+     */
+    public long getSourceOffset() { return sourceOffset; }
+    public void setSourceOffset(long sourceOffset) { this.sourceOffset = sourceOffset; }
+
+    /**
+     * Momento del evento en milisegundos desde epoch
+     */
+    public long getLoggedAt() { return loggedAt; }
+    public void setLoggedAt(long loggedAt) { this.loggedAt = loggedAt; }
+
+    public String getLevel() { return level; }
+    public void setLevel(String level) { this.level = level; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public String getExceptionClass() { return exceptionClass; }
+    public void setExceptionClass(String exceptionClass) { this.exceptionClass = exceptionClass; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getExceptionTrace() { return exceptionTrace; }
+    public void setExceptionTrace(String exceptionTrace) { this.exceptionTrace = exceptionTrace; }
+
+    /**
+     * Mods mencionados, separados por espacios
+     */
+    public String getMods() { return mods; }
+    public void setMods(String mods) { this.mods = mods; }
+
+    public boolean isCrash() {
+        return KIND_CRASH.equals(kind);
+    }
+
+    @Override
+    public String toString() {
+        return "LogEvent{" +
+                "level='" + level + '\'' +
+                ", kind='" + kind + '\'' +
+                ", exception='" + exceptionClass + '\'' +
+                ", source='" + sourcePath + '\'' +
+                ", loggedAt=" + loggedAt +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package org.klauncher.launcher.models.entities;
+
+import java.util.Objects;
+
+/**
+ * Archivo de una versión instalada: ruta relativa al directorio del juego (con '/'),
+ * tamaño y SHA-1 publicado por Mojang. La URL solo se conoce al leer el JSON de la
+ * versión; las entradas cargadas de la base de datos no la tienen.
+ */
+public class ManifestEntry {
+    private final String path;
+    private final long size;
+    private final String sha1;
+    private final String url;
+
+    public ManifestEntry(String path, long size, String sha1, String url) {
+        this.path = path;
+        this.size = size;
+        this.sha1 = sha1;
+        this.url = url;
+    }
+
+    public String getPath() { return path; }
+    public long getSize() { return size; }
+    public String getSha1() { return sha1; }
+    public String getUrl() { return url; }
+
+    /**
+     * Mismo contenido (tamaño y hash), sin mirar la ruta ni la URL
+     */
+    public boolean sameContent(ManifestEntry other) {
+        return size == other.size && Objects.equals(sha1, other.sha1);
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + size + " bytes, " + sha1 + ")";
+    }
+}
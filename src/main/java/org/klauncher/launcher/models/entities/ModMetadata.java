@@ -0,0 +1,152 @@
+package org.klauncher.launcher.models.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Entidad que representa un mod de la carpeta mods/ de un perfil, con los datos leídos de su
+ * fabric.mod.json, quilt.mod.json o mods.toml. El tamaño y la fecha de modificación del jar
+ * identifican la copia leída: si cambian, los metadatos se vuelven a leer.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ModMetadata {
+    public static final String DISABLED_SUFFIX = ".disabled";
+
+    @JsonProperty("path")
+    private String path;
+
+    @JsonProperty("fileSize")
+    private long fileSize;
+
+    @JsonProperty("fileModified")
+    private long fileModified;
+
+    @JsonProperty("loader")
+    private String loader;
+
+    @JsonProperty("modId")
+    private String modId;
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("version")
+    private String version;
+
+    @JsonProperty("provides")
+    private List<String> provides;
+
+    @JsonProperty("dependencies")
+    private Map<String, String> dependencies;
+
+    public ModMetadata() {
+        this.provides = List.of();
+        this.dependencies = new LinkedHashMap<>();
+    }
+
+    public ModMetadata(String path, long fileSize, long fileModified) {
+        this();
+        this.path = path;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+    }
+
+    // Getters y Setters
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public long getFileModified() { return fileModified; }
+    public void setFileModified(long fileModified) { this.fileModified = fileModified; }
+
+    /**
+     * "fabric", "quilt", "forge" o "neoforge"; null si el jar no tiene metadatos de mod reconocibles
+     */
+    public String getLoader() { return loader; }
+    public void setLoader(String loader) { this.loader = loader; }
+
+    public String getModId() { return modId; }
+    public void setModId(String modId) { this.modId = modId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    /**
+     * Otros ids que satisface el jar: alias declarados y mods incluidos dentro de él
+     */
+    public List<String> getProvides() { return provides; }
+    public void setProvides(List<String> provides) { this.provides = provides; }
+
+    /**
+     * Dependencias obligatorias: id del mod y rango de versiones tal como lo declara el jar
+     */
+    public Map<String, String> getDependencies() { return dependencies; }
+    public void setDependencies(Map<String, String> dependencies) { this.dependencies = dependencies; }
+
+    // Métodos de utilidad
+    @JsonIgnore
+    public String getFileName() {
+        return Paths.get(path).getFileName().toString();
+    }
+
+    @JsonIgnore
+    public Path getFile() {
+        return Paths.get(path);
+    }
+
+    /**
+     * Los mods desactivados se conservan en la carpeta con la extensión .disabled
+     */
+    @JsonIgnore
+    public boolean isEnabled() {
+        return !path.endsWith(DISABLED_SUFFIX);
+    }
+
+    @JsonIgnore
+    public boolean isRecognized() {
+        return modId != null;
+    }
+
+    /**
+     * Indica si la copia leída corresponde al archivo con este tamaño y fecha de modificación
+     */
+    public boolean matches(long size, long modified) {
+        return fileSize == size && fileModified == modified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ModMetadata that = (ModMetadata) o;
+        return Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path);
+    }
+
+    @Override
+    public String toString() {
+        return "ModMetadata{" +
+                "modId='" + modId + '\'' +
+                ", version='" + version + '\'' +
+                ", loader='" + loader + '\'' +
+                ", file='" + getFileName() + '\'' +
+                '}';
+    }
+}
@@ -37,6 +37,39 @@ public class UserProfile {
         }
     }
 
+    public enum JvmPreset {
+        AUTO("auto", "Automático"),
+        NONE("none", "Sin optimizaciones"),
+        BALANCED("balanced", "G1 equilibrado"),
+        LOW_LATENCY("low_latency", "ZGC baja latencia"),
+        LOW_END("low_end", "Equipos modestos");
+
+        private final String value;
+        private final String displayName;
+
+        JvmPreset(String value, String displayName) {
+            this.value = value;
+            this.displayName = displayName;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public static JvmPreset fromString(String value) {
+            for (JvmPreset preset : values()) {
+                if (preset.value.equals(value)) {
+                    return preset;
+                }
+            }
+            return AUTO;
+        }
+    }
+
     @JsonProperty("id")
     private Long id;
 
@@ -70,6 +103,9 @@ public class UserProfile {
     @JsonProperty("gameDirectory")
     private String gameDirectory;
 
+    @JsonProperty("jvmPreset")
+    private JvmPreset jvmPreset;
+
     @JsonProperty("isActive")
     private boolean isActive;
 
@@ -84,6 +120,7 @@ public class UserProfile {
         this.profileType = ProfileType.OFFLINE;
         this.minMemoryMb = 512;
         this.maxMemoryMb = 2048;
+        this.jvmPreset = JvmPreset.AUTO;
         this.isActive = false;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -186,6 +223,14 @@ public class UserProfile {
         this.gameDirectory = gameDirectory;
     }
 
+    public JvmPreset getJvmPreset() {
+        return jvmPreset;
+    }
+
+    public void setJvmPreset(JvmPreset jvmPreset) {
+        this.jvmPreset = jvmPreset;
+    }
+
     public boolean isActive() {
         return isActive;
     }
@@ -256,6 +301,7 @@ public class UserProfile {
         copy.minMemoryMb = this.minMemoryMb;
         copy.maxMemoryMb = this.maxMemoryMb;
         copy.gameDirectory = this.gameDirectory;
+        copy.jvmPreset = this.jvmPreset;
         copy.isActive = this.isActive;
         copy.createdAt = this.createdAt;
         copy.updatedAt = this.updatedAt;
@@ -128,8 +128,7 @@ public class BackgroundManagerService {
 
         // Guardar en configuración
         if (config != null) {
-            config.getUi().setCustomCss(backgroundType.getId());
-            config.save();
+            ConfigRegistryService.getInstance().update(current -> current.getUi().setCustomCss(backgroundType.getId()));
         }
 
         logger.info("Fondo cambiado exitosamente a: {}", backgroundType.getDisplayName());
@@ -0,0 +1,216 @@
+package org.klauncher.launcher.services;
+
+import org.klauncher.launcher.models.LauncherConfig;
+import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Registro único de configuración del launcher.
+ * Carga {@link AdvancedLauncherConfig} una sola vez, migra el JSON heredado y
+ * cachea las secciones tipadas para el resto de servicios.
+ */
+@SuppressWarnings("deprecation")
+public class ConfigRegistryService {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigRegistryService.class);
+    private static final String MIGRATED_SUFFIX = ".migrated";
+
+    private static ConfigRegistryService instance;
+
+    private AdvancedLauncherConfig config;
+    // Se sustituye entera al reconstruirla; los lectores nunca ven un mapa a medio rellenar
+    private volatile Map<Class<?>, Object> views;
+    private final List<Consumer<AdvancedLauncherConfig>> changeListeners;
+
+    private ConfigRegistryService() {
+        this.views = Map.of();
+        this.changeListeners = new CopyOnWriteArrayList<>();
+    }
+
+    public static synchronized ConfigRegistryService getInstance() {
+        if (instance == null) {
+            instance = new ConfigRegistryService();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene la configuración, cargándola en el primer acceso
+     */
+    public synchronized AdvancedLauncherConfig getConfig() {
+        if (config == null) {
+            load();
+        }
+        return config;
+    }
+
+    /**
+     * Obtiene una sección tipada de la configuración (JavaConfig, NetworkConfig, ...)
+     */
+    public <T> T getView(Class<T> type) {
+        Map<Class<?>, Object> current = views;
+        if (current.isEmpty()) {
+            getConfig();
+            current = views;
+        }
+
+        Object view = current.get(type);
+        if (view == null) {
+            throw new IllegalArgumentException("Sección de configuración desconocida: " + type.getSimpleName());
+        }
+        return type.cast(view);
+    }
+
+    /**
+     * Aplica cambios sobre la configuración, la guarda y notifica a los listeners
+     */
+    public void update(Consumer<AdvancedLauncherConfig> mutator) {
+        AdvancedLauncherConfig current;
+        synchronized (this) {
+            current = getConfig();
+            mutator.accept(current);
+            current.save();
+            rebuildViews();
+        }
+        notifyListeners(current);
+    }
+
+    /**
+     * Guarda la configuración actual y notifica a los listeners
+     */
+    public void save() {
+        AdvancedLauncherConfig current;
+        synchronized (this) {
+            current = getConfig();
+            current.save();
+            rebuildViews();
+        }
+        notifyListeners(current);
+    }
+
+    /**
+     * Descarta la caché y vuelve a leer la configuración desde disco
+     */
+    public void reload() {
+        AdvancedLauncherConfig current;
+        synchronized (this) {
+            config = null;
+            current = getConfig();
+        }
+        notifyListeners(current);
+    }
+
+    public void addChangeListener(Consumer<AdvancedLauncherConfig> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<AdvancedLauncherConfig> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Carga la configuración YAML y aplica la migración heredada si corresponde
+     */
+    private void load() {
+        config = AdvancedLauncherConfig.load();
+
+        if (!config.getMetadata().isLegacyConfigMigrated()) {
+            migrateLegacyConfig();
+        }
+
+        rebuildViews();
+    }
+
+    /**
+     * Migra launcher-config.json al modelo avanzado una sola vez
+     */
+    private void migrateLegacyConfig() {
+        LauncherConfig.loadIfExists().ifPresent(legacy -> {
+            logger.info("Migrando configuración heredada desde: {}", LauncherConfig.getConfigPath());
+
+            AdvancedLauncherConfig.ApplicationConfig application = config.getApplication();
+            if (legacy.getGameDirectory() != null && !legacy.getGameDirectory().isBlank()) {
+                application.setDataDirectory(legacy.getGameDirectory());
+            }
+            if (legacy.getLastUsername() != null) {
+                application.setLastUsername(legacy.getLastUsername());
+            }
+            application.setAutoLogin(legacy.isAutoLogin());
+            application.setRememberCredentials(legacy.isRememberCredentials());
+            if (legacy.getServerUrl() != null && !legacy.getServerUrl().isBlank()) {
+                application.setServerUrl(legacy.getServerUrl());
+            }
+
+            AdvancedLauncherConfig.JavaConfig java = config.getJava();
+            // El JSON heredado guardaba java.home por defecto; solo se migra una ruta elegida por el usuario
+            String legacyJavaPath = legacy.getJavaPath();
+            if (legacyJavaPath != null && !legacyJavaPath.isBlank()
+                    && !legacyJavaPath.equals(System.getProperty("java.home"))) {
+                java.setJavaExecutablePath(legacyJavaPath);
+                java.setAutoDetectJava(false);
+            }
+            if (legacy.isValid()) {
+                java.setDefaultMinMemoryMb(legacy.getMinMemoryMb());
+                java.setDefaultMaxMemoryMb(legacy.getMaxMemoryMb());
+            }
+
+            if (legacy.getGameVersion() != null && !legacy.getGameVersion().isBlank()) {
+                config.getGame().setGameVersion(legacy.getGameVersion());
+            }
+
+            archiveLegacyConfig();
+        });
+
+        config.getMetadata().setLegacyConfigMigrated(true);
+        config.save();
+    }
+
+    /**
+     * Renombra el JSON heredado para que no vuelva a leerse
+     */
+    private void archiveLegacyConfig() {
+        Path legacyPath = LauncherConfig.getConfigPath();
+        Path archivedPath = legacyPath.resolveSibling(legacyPath.getFileName() + MIGRATED_SUFFIX);
+
+        try {
+            Files.move(legacyPath, archivedPath, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Configuración heredada archivada en: {}", archivedPath);
+        } catch (IOException e) {
+            logger.warn("No se pudo archivar la configuración heredada: {}", legacyPath, e);
+        }
+    }
+
+    /**
+     * Reconstruye la caché de secciones tipadas y la publica de una sola vez
+     */
+    private void rebuildViews() {
+        views = Map.of(
+                AdvancedLauncherConfig.class, config,
+                AdvancedLauncherConfig.ApplicationConfig.class, config.getApplication(),
+                AdvancedLauncherConfig.UIConfig.class, config.getUi(),
+                AdvancedLauncherConfig.JavaConfig.class, config.getJava(),
+                AdvancedLauncherConfig.NetworkConfig.class, config.getNetwork(),
+                AdvancedLauncherConfig.GameConfig.class, config.getGame(),
+                AdvancedLauncherConfig.DeveloperConfig.class, config.getDeveloper(),
+                AdvancedLauncherConfig.ConfigMetadata.class, config.getMetadata());
+    }
+
+    private void notifyListeners(AdvancedLauncherConfig current) {
+        for (Consumer<AdvancedLauncherConfig> listener : changeListeners) {
+            try {
+                listener.accept(current);
+            } catch (Exception e) {
+                logger.error("Error en listener de configuración", e);
+            }
+        }
+    }
+}
@@ -438,11 +438,12 @@ public class CustomizationService {
      */
     private void saveCustomizationSettings() {
         if (config != null) {
-            // Guardar en la configuración existente
-            config.getUi().setAccentColor(currentSettings.getAccentColor());
-            config.getUi().setEnableAnimations(currentSettings.isEnableAnimations());
-            config.getUi().setFontSize(currentSettings.getFontSize());
-            config.save();
+            // Guardar a través del registro para que se reconstruyan sus vistas y se avise a los listeners
+            ConfigRegistryService.getInstance().update(current -> {
+                current.getUi().setAccentColor(currentSettings.getAccentColor());
+                current.getUi().setEnableAnimations(currentSettings.isEnableAnimations());
+                current.getUi().setFontSize(currentSettings.getFontSize());
+            });
         }
     }
 
@@ -0,0 +1,287 @@
+package org.klauncher.launcher.services;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.database.dao.JavaRuntimeDAO;
+import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.klauncher.launcher.models.entities.JavaRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Servicio de detección de instalaciones de Java.
+ * Lee el archivo release de cada runtime en lugar de ejecutar "java -version"
+ * y cachea el resultado en SQLite por ruta y fecha de modificación.
+ */
+public class JavaDiscoveryService {
+    private static final Logger logger = LoggerFactory.getLogger(JavaDiscoveryService.class);
+
+    private static final String[] SYSTEM_JVM_DIRECTORIES = {
+            "/usr/lib/jvm",
+            "/usr/lib64/jvm",
+            "/usr/java",
+            "/usr/local/java",
+            "/opt/java",
+            "/opt/jdk"
+    };
+
+    private static JavaDiscoveryService instance;
+
+    private final JavaRuntimeDAO runtimeDAO;
+    private Map<String, JavaRuntime> persistedRuntimes;
+    private volatile List<JavaRuntime> runtimes;
+
+    private JavaDiscoveryService() {
+        this.runtimeDAO = new JavaRuntimeDAO(DatabaseManager.getInstance());
+    }
+
+    public static synchronized JavaDiscoveryService getInstance() {
+        if (instance == null) {
+            instance = new JavaDiscoveryService();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene los runtimes detectados, ejecutando la detección la primera vez
+     */
+    public List<JavaRuntime> getRuntimes() {
+        List<JavaRuntime> current = runtimes;
+        return current != null ? current : discover();
+    }
+
+    /**
+     * Devuelve el runtime más reciente que cumpla la versión mínima
+     */
+    public Optional<JavaRuntime> findBestRuntime(int minimumMajorVersion) {
+        return getRuntimes().stream()
+                .filter(runtime -> runtime.getMajorVersion() >= minimumMajorVersion)
+                .max(Comparator.comparingInt(JavaRuntime::getMajorVersion)
+                        .thenComparing(JavaRuntime::isJdk));
+    }
+
+    /**
+     * Escanea las ubicaciones conocidas reutilizando las entradas cacheadas cuyo release no cambió
+     */
+    public synchronized List<JavaRuntime> discover() {
+        long start = System.nanoTime();
+
+        Map<String, JavaRuntime> cached = loadPersistedRuntimes();
+        List<JavaRuntime> detected = new ArrayList<>();
+        int parsed = 0;
+
+        for (Path candidate : collectCandidateHomes()) {
+            Path home;
+            long releaseModified;
+            try {
+                home = candidate.toRealPath();
+                releaseModified = Files.getLastModifiedTime(home.resolve("release")).toMillis();
+            } catch (IOException e) {
+                continue;
+            }
+
+            if (detected.stream().anyMatch(runtime -> runtime.getHomePath().equals(home.toString()))) {
+                continue;
+            }
+
+            JavaRuntime runtime = cached.get(home.toString());
+            if (runtime == null || runtime.getReleaseModified() != releaseModified) {
+                Optional<JavaRuntime> read = readRuntime(home);
+                if (read.isEmpty()) {
+                    continue;
+                }
+                runtime = read.get();
+                parsed++;
+            }
+            detected.add(runtime);
+        }
+
+        detected.sort(Comparator.comparingInt(JavaRuntime::getMajorVersion).reversed());
+
+        if (parsed > 0 || detected.size() != cached.size()) {
+            persist(detected);
+        }
+
+        runtimes = List.copyOf(detected);
+        updateJavaVersionsConfig(detected);
+
+        logger.info("Detección de Java: {} runtimes ({} leídos de disco) en {} µs",
+                detected.size(), parsed, (System.nanoTime() - start) / 1000);
+        return runtimes;
+    }
+
+    /**
+     * Lee el archivo release de un JAVA_HOME
+     */
+    public static Optional<JavaRuntime> readRuntime(Path javaHome) {
+        Path releaseFile = javaHome.resolve("release");
+        Path executable = javaHome.resolve("bin").resolve(isWindows() ? "java.exe" : "java");
+
+        if (!Files.isRegularFile(releaseFile) || !Files.isRegularFile(executable)) {
+            return Optional.empty();
+        }
+
+        try {
+            Map<String, String> properties = new HashMap<>();
+            for (String line : Files.readAllLines(releaseFile)) {
+                int separator = line.indexOf('=');
+                if (separator > 0) {
+                    properties.put(line.substring(0, separator).trim(),
+                            line.substring(separator + 1).trim().replace("\"", ""));
+                }
+            }
+
+            String version = properties.get("JAVA_VERSION");
+            if (version == null || version.isBlank()) {
+                return Optional.empty();
+            }
+
+            JavaRuntime runtime = new JavaRuntime();
+            runtime.setHomePath(javaHome.toString());
+            runtime.setExecutablePath(executable.toString());
+            runtime.setVersion(version);
+            runtime.setMajorVersion(parseMajorVersion(version));
+            runtime.setVendor(properties.getOrDefault("IMPLEMENTOR", "desconocido"));
+            runtime.setArchitecture(properties.getOrDefault("OS_ARCH", System.getProperty("os.arch")));
+            runtime.setJdk(Files.exists(javaHome.resolve("bin").resolve(isWindows() ? "javac.exe" : "javac")));
+            runtime.setReleaseModified(Files.getLastModifiedTime(releaseFile).toMillis());
+            return Optional.of(runtime);
+
+        } catch (IOException e) {
+            logger.debug("No se pudo leer {}", releaseFile, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Convierte "1.8.0_392" o "21.0.1" en la versión mayor
+     */
+    public static int parseMajorVersion(String version) {
+        String[] parts = version.trim().split("[._+-]");
+        try {
+            int first = Integer.parseInt(parts[0]);
+            if (first == 1 && parts.length > 1) {
+                return Integer.parseInt(parts[1]);
+            }
+            return first;
+        } catch (NumberFormatException e) {
+            return 8;
+        }
+    }
+
+    /**
+     * Reúne los posibles JAVA_HOME: directorios del sistema, SDKMAN, ~/.jdks, JAVA_HOME y el runtime actual
+     */
+    private Set<Path> collectCandidateHomes() {
+        Set<Path> candidates = new LinkedHashSet<>();
+
+        String javaHome = System.getenv("JAVA_HOME");
+        if (javaHome != null && !javaHome.isBlank()) {
+            candidates.add(Paths.get(javaHome));
+        }
+        candidates.add(Paths.get(System.getProperty("java.home")));
+
+        String configuredPath = ConfigRegistryService.getInstance()
+                .getView(AdvancedLauncherConfig.JavaConfig.class).getJavaExecutablePath();
+        if (configuredPath != null && !configuredPath.isBlank()) {
+            Path configured = Paths.get(configuredPath);
+            // Se acepta tanto un JAVA_HOME como la ruta a bin/java
+            candidates.add(Files.isDirectory(configured) ? configured : configured.toAbsolutePath().getParent().getParent());
+        }
+
+        for (String directory : SYSTEM_JVM_DIRECTORIES) {
+            addChildren(Paths.get(directory), candidates);
+        }
+
+        Path userHome = Paths.get(System.getProperty("user.home"));
+        String sdkmanDir = System.getenv("SDKMAN_DIR");
+        Path sdkman = sdkmanDir != null ? Paths.get(sdkmanDir) : userHome.resolve(".sdkman");
+        addChildren(sdkman.resolve("candidates").resolve("java"), candidates);
+        addChildren(userHome.resolve(".jdks"), candidates);
+
+        return candidates;
+    }
+
+    private void addChildren(Path directory, Set<Path> candidates) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path child : children) {
+                candidates.add(child);
+            }
+        } catch (IOException e) {
+            logger.debug("No se pudo listar {}", directory, e);
+        }
+    }
+
+    /**
+     * Carga la caché persistida una sola vez por sesión
+     */
+    private Map<String, JavaRuntime> loadPersistedRuntimes() {
+        if (persistedRuntimes == null) {
+            persistedRuntimes = new HashMap<>();
+            try {
+                for (JavaRuntime runtime : runtimeDAO.findAll()) {
+                    persistedRuntimes.put(runtime.getHomePath(), runtime);
+                }
+            } catch (SQLException e) {
+                logger.warn("No se pudo leer la caché de runtimes Java", e);
+            }
+        }
+        return persistedRuntimes;
+    }
+
+    private void persist(List<JavaRuntime> detected) {
+        try {
+            runtimeDAO.replaceAll(detected);
+            persistedRuntimes = new HashMap<>();
+            for (JavaRuntime runtime : detected) {
+                persistedRuntimes.put(runtime.getHomePath(), runtime);
+            }
+        } catch (SQLException e) {
+            logger.warn("No se pudo guardar la caché de runtimes Java", e);
+        }
+    }
+
+    /**
+     * Refleja los runtimes detectados en JavaConfig.javaVersions (versión mayor → ejecutable)
+     */
+    private void updateJavaVersionsConfig(List<JavaRuntime> detected) {
+        ConfigRegistryService registry = ConfigRegistryService.getInstance();
+        AdvancedLauncherConfig.JavaConfig javaConfig = registry.getView(AdvancedLauncherConfig.JavaConfig.class);
+        if (!javaConfig.isAutoDetectJava()) {
+            return;
+        }
+
+        Map<String, String> versions = new TreeMap<>();
+        // La lista está ordenada de mayor a menor; la primera entrada por versión gana
+        for (JavaRuntime runtime : detected) {
+            versions.putIfAbsent(String.valueOf(runtime.getMajorVersion()), runtime.getExecutablePath());
+        }
+
+        if (!versions.equals(javaConfig.getJavaVersions())) {
+            registry.update(config -> config.getJava().setJavaVersions(new HashMap<>(versions)));
+        }
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().contains("win");
+    }
+}
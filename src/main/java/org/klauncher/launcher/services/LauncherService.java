@@ -1,35 +1,168 @@
 package org.klauncher.launcher.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.database.dao.FileManifestDAO;
+import org.klauncher.launcher.database.dao.MicrosoftAccountDAO;
+import org.klauncher.launcher.database.dao.ModMetadataDAO;
+import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.klauncher.launcher.models.entities.JavaRuntime;
+import org.klauncher.launcher.models.entities.ModMetadata;
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.klauncher.launcher.services.backup.BackupCodec;
+import org.klauncher.launcher.services.backup.WorldBackupEngine;
+import org.klauncher.launcher.services.backup.WorldSnapshot;
+import org.klauncher.launcher.services.download.AdaptiveConcurrencyController;
+import org.klauncher.launcher.services.download.DeltaSource;
+import org.klauncher.launcher.services.download.DownloadBatch;
+import org.klauncher.launcher.services.download.DownloadScheduler;
+import org.klauncher.launcher.services.download.DownloadTask;
+import org.klauncher.launcher.services.download.HttpClientFactory;
+import org.klauncher.launcher.services.download.LanMirror;
+import org.klauncher.launcher.services.download.ManifestIndex;
+import org.klauncher.launcher.services.download.ManifestUpdate;
+import org.klauncher.launcher.services.download.MirrorServer;
+import org.klauncher.launcher.services.download.VersionDownloadPlanner;
+import org.klauncher.launcher.services.launch.CdsArchiveManager;
+import org.klauncher.launcher.services.launch.GameInstance;
+import org.klauncher.launcher.services.launch.GameProcessSupervisor;
+import org.klauncher.launcher.services.launch.InstanceWorkspace;
+import org.klauncher.launcher.services.launch.InstanceWorkspaceManager;
+import org.klauncher.launcher.services.launch.JvmTuningEngine;
+import org.klauncher.launcher.services.launch.LaunchCommand;
+import org.klauncher.launcher.services.launch.LaunchCommandCache;
+import org.klauncher.launcher.services.launch.LaunchScheduler;
+import org.klauncher.launcher.services.launch.NativesCache;
+import org.klauncher.launcher.services.launch.SystemResources;
+import org.klauncher.launcher.services.launch.VersionResolver;
+import org.klauncher.launcher.services.mods.ModDependencyResolver;
+import org.klauncher.launcher.services.mods.ModResolution;
+import org.klauncher.launcher.services.mods.ModScan;
+import org.klauncher.launcher.services.mods.ModScanner;
+import org.klauncher.launcher.services.mods.ModpackImport;
+import org.klauncher.launcher.services.mods.ModpackImporter;
+import org.klauncher.launcher.services.preflight.PreflightCheck;
+import org.klauncher.launcher.services.preflight.PreflightEngine;
+import org.klauncher.launcher.services.preflight.PreflightReport;
+import org.klauncher.launcher.services.preflight.PreflightResult;
+import org.klauncher.launcher.utils.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class LauncherService {
     private static final Logger logger = LoggerFactory.getLogger(LauncherService.class);
+    private static final long MIN_FREE_DISK_BYTES = 512L * 1024 * 1024;
+    private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofMinutes(10);
+    // Solo las versiones finales (1.20.1) se comparan con los rangos de "minecraft" de los mods
+    private static final Pattern RELEASE_VERSION = Pattern.compile("\\d+\\.\\d+(\\.\\d+)?");
 
-    private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final Path gameDirectory;
+    private final VersionResolver versionResolver;
+    private final LaunchCommandCache launchCommandCache;
+    private final JvmTuningEngine jvmTuningEngine;
+    private final CdsArchiveManager cdsArchiveManager;
+    private final NativesCache nativesCache;
+    private final GameProcessSupervisor processSupervisor;
+    private final InstanceWorkspaceManager workspaceManager;
+    private final LaunchScheduler launchScheduler;
+    private final SystemResources systemResources;
+    private final ExecutorService preflightExecutor;
+    private final DownloadScheduler downloadScheduler;
+    private final VersionDownloadPlanner downloadPlanner;
+    private final ModScanner modScanner;
+    private final Map<Path, ModDependencyResolver> modResolvers;
+    private final WorldBackupEngine worldBackupEngine;
+    // Un solo hilo para las copias de mundos: las programadas, las de cierre y las manuales se turnan
+    private final ScheduledExecutorService worldBackupExecutor;
+    // Solo se usa desde worldBackupExecutor
+    private final Map<Long, Instant> lastWorldBackups;
+    private volatile Validator configValidator;
+    private MirrorServer mirrorServer;
 
     public LauncherService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
-
         this.objectMapper = new ObjectMapper();
         this.gameDirectory = Paths.get(System.getProperty("user.home"), ".karrito");
+        this.versionResolver = new VersionResolver(gameDirectory, objectMapper);
+        this.launchCommandCache = new LaunchCommandCache();
+        this.systemResources = SystemResources.detect();
+        this.jvmTuningEngine = new JvmTuningEngine(systemResources);
+        this.cdsArchiveManager = new CdsArchiveManager(gameDirectory.resolve("cds"));
+        this.nativesCache = new NativesCache(gameDirectory.resolve("natives").resolve("cache"));
+        this.processSupervisor = new GameProcessSupervisor(gameDirectory.resolve("logs").resolve("console"));
+        this.workspaceManager = new InstanceWorkspaceManager(gameDirectory.resolve("instances"),
+                gameDirectory.resolve("natives").resolve("instances"));
+        this.launchScheduler = new LaunchScheduler(() -> Duration.ofSeconds(ConfigRegistryService.getInstance()
+                .getView(AdvancedLauncherConfig.GameConfig.class).getLaunchStaggerSeconds()));
+        this.preflightExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        AdvancedLauncherConfig.NetworkConfig network = networkConfig();
+        this.downloadScheduler = new DownloadScheduler(HttpClientFactory.getInstance()::getClient, network.getMaxConcurrentDownloads(),
+                network.getMaxDownloadKibps() * 1024L, network.getBackgroundDownloadKibps() * 1024L);
+        this.downloadPlanner = new VersionDownloadPlanner(versionResolver, objectMapper,
+                new FileManifestDAO(DatabaseManager.getInstance()), gameDirectory);
+        this.modScanner = new ModScanner(new ModMetadataDAO(DatabaseManager.getInstance()));
+        this.modResolvers = new ConcurrentHashMap<>();
+        this.worldBackupEngine = new WorldBackupEngine(gameDirectory.resolve("backups"));
+        this.lastWorldBackups = new HashMap<>();
+        this.worldBackupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "world-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        worldBackupExecutor.scheduleWithFixedDelay(this::backupRunningWorlds, 1, 1, TimeUnit.MINUTES);
+        processSupervisor.addExitListener(instance -> {
+            try {
+                worldBackupExecutor.execute(() -> backupProfileWorlds(instance.getProfile()));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Copia de mundos al cerrar omitida: el launcher se está cerrando");
+            }
+        });
 
         initializeDirectories();
+        workspaceManager.cleanupStaleNatives();
+
+        applyMirrorConfig(network);
+        applyDeltaConfig(network);
+        ConfigRegistryService.getInstance().addChangeListener(config -> {
+            applyMirrorConfig(config.getNetwork());
+            applyDeltaConfig(config.getNetwork());
+        });
     }
 
     private void initializeDirectories() {
@@ -74,74 +207,792 @@ public class LauncherService {
         }
     }
 
-    public void downloadGameFiles(ProgressCallback callback) {
-        logger.info("Iniciando descarga de archivos del juego");
+    /**
+     * Descarga lo que falte de una versión. Vuelve en cuanto están los archivos necesarios
+     * para arrancar (callback.onComplete) y deja los assets descargándose en segundo plano.
+     */
+    public DownloadBatch downloadGameFiles(UserProfile profile, String version, ProgressCallback callback) {
+        logger.info("Iniciando descarga de archivos del juego para {} ({})", profile.getName(), version);
+        applyNetworkConfig();
 
         try {
-            // Simular descarga de archivos
-            String[] files = {
-                    "minecraft.jar",
-                    "libraries/commons-lang3.jar",
-                    "libraries/gson.jar",
-                    "assets/minecraft/sounds/ambient/cave/cave1.ogg",
-                    "assets/minecraft/textures/blocks/stone.png"
-            };
+            if (!Files.exists(versionResolver.getVersionJson(version))) {
+                callback.onProgress(0.0, "Obteniendo información de la versión " + version);
+                downloadVersionMetadata(profile.getName(), version);
+            }
 
-            for (int i = 0; i < files.length; i++) {
-                String file = files[i];
-                logger.debug("Descargando: {}", file);
+            DownloadBatch batch = downloadScheduler.newBatch(profile.getName());
+            batch.setListener((task, error) -> {
+                if (error == null && task.getPriority().isNeededForLaunch() && batch.getLaunchTotal() > 0) {
+                    callback.onProgress((double) batch.getLaunchCompleted() / batch.getLaunchTotal(),
+                            "Descargando: " + task.getTarget().getFileName());
+                }
+            });
+
+            ManifestUpdate update = downloadPlanner.planVersion(version,
+                    assets -> downloadScheduler.submit(batch, assets));
+            downloadScheduler.submit(batch, update.getTasks());
+
+            batch.getLaunchReady().join();
+            // Librerías o JSON recién instalados: el comando cacheado de la versión ya no vale
+            launchCommandCache.invalidateVersion(version);
+            callback.onComplete();
+            logger.info("Archivos para arrancar listos ({} descargas); {} en segundo plano",
+                    batch.getLaunchTotal(), batch.getTotal() - batch.getCompleted());
+
+            batch.getCompletion().whenComplete((ignored, error) -> {
+                if (error == null) {
+                    logger.info("Descarga completada para {}: {} archivos", profile.getName(), batch.getTotal());
+                    launchCommandCache.invalidateVersion(version);
+                    try {
+                        downloadPlanner.commit(update);
+                    } catch (IOException | SQLException e) {
+                        logger.warn("No se pudo guardar el manifiesto de {}", version, e);
+                    }
+                } else {
+                    logger.warn("Descarga en segundo plano con {} errores para {}", batch.getFailures().size(), profile.getName());
+                }
+                HttpClientFactory.getInstance().logMetrics();
+                if (downloadScheduler.getMirror() != null) {
+                    logger.info("Espejo LAN {}", downloadScheduler.getMirror());
+                }
+                if (downloadScheduler.getDeltaSource() != null) {
+                    logger.info("Parches binarios {}", downloadScheduler.getDeltaSource());
+                }
+            });
+            return batch;
 
-                // Simular tiempo de descarga
-                Thread.sleep(500);
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("Error durante la descarga", cause);
+            callback.onError("Error durante la descarga: " + cause.getMessage());
+            return null;
+        }
+    }
 
-                double progress = (double) (i + 1) / files.length;
-                callback.onProgress(progress, "Descargando: " + file);
+    /**
+     * Descarga el manifiesto de versiones y el JSON de la versión. Sin conexión se sigue
+     * adelante si la versión está instalada sin JSON (jar cliente y librerías locales).
+     */
+    private void downloadVersionMetadata(String owner, String version) throws IOException {
+        try {
+            Optional<DownloadTask> manifest = downloadPlanner.planManifest();
+            if (manifest.isPresent()) {
+                DownloadBatch manifestBatch = downloadScheduler.newBatch(owner);
+                downloadScheduler.submit(manifestBatch, List.of(manifest.get()));
+                manifestBatch.getCompletion().join();
             }
 
-            callback.onComplete();
-            logger.info("Descarga completada");
+            Optional<DownloadTask> versionJson = downloadPlanner.planVersionJson(version);
+            if (versionJson.isPresent()) {
+                DownloadBatch versionBatch = downloadScheduler.newBatch(owner);
+                downloadScheduler.submit(versionBatch, List.of(versionJson.get()));
+                versionBatch.getCompletion().join();
+            }
+        } catch (CompletionException e) {
+            if (!Files.exists(versionResolver.getClientJar(version))) {
+                throw e;
+            }
+            logger.warn("No se pudo obtener el JSON de {}, se usará la instalación local: {}",
+                    version, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
 
-        } catch (InterruptedException e) {
-            logger.error("Descarga interrumpida", e);
-            Thread.currentThread().interrupt();
-            callback.onError("Descarga interrumpida");
-        } catch (Exception e) {
-            logger.error("Error durante la descarga", e);
-            callback.onError("Error durante la descarga: " + e.getMessage());
+    /**
+     * Aplica al planificador los límites de concurrencia y ancho de banda configurados
+     */
+    private void applyNetworkConfig() {
+        AdvancedLauncherConfig.NetworkConfig network = networkConfig();
+        AdaptiveConcurrencyController controller = downloadScheduler.getConcurrencyController();
+        if (!network.isAdaptiveConcurrency()) {
+            downloadScheduler.setConcurrencyController(null);
+            downloadScheduler.setMaxConcurrent(network.getMaxConcurrentDownloads());
+        } else if (controller == null) {
+            // maxConcurrentDownloads es el punto de partida; el controlador se mueve entre 1 y el techo
+            downloadScheduler.setConcurrencyController(new AdaptiveConcurrencyController(
+                    network.getMaxConcurrentDownloads(), 1,
+                    Math.max(network.getMaxConcurrentDownloads(), network.getMaxAdaptiveConcurrentDownloads())));
+        } else {
+            controller.setBounds(1, Math.max(network.getMaxConcurrentDownloads(), network.getMaxAdaptiveConcurrentDownloads()));
+            downloadScheduler.setMaxConcurrent(controller.getLimit());
         }
+        downloadScheduler.setBandwidth(network.getMaxDownloadKibps() * 1024L, network.getBackgroundDownloadKibps() * 1024L);
     }
 
-    public void launchGame(String username, String version) {
-        logger.info("Lanzando juego para usuario: {} con versión: {}", username, version);
+    /**
+     * Aplica el modo espejo LAN: el espejo del que descargar primero y, si está activado,
+     * el servidor que comparte los archivos propios con otros launchers
+     */
+    private synchronized void applyMirrorConfig(AdvancedLauncherConfig.NetworkConfig network) {
+        String mirrorUrl = network.getMirrorUrl();
+        if (mirrorUrl == null || mirrorUrl.isBlank()) {
+            downloadScheduler.setMirror(null);
+        } else {
+            try {
+                LanMirror mirror = new LanMirror(mirrorUrl.trim(), gameDirectory);
+                LanMirror current = downloadScheduler.getMirror();
+                if (current == null || !current.getBaseUrl().equals(mirror.getBaseUrl())) {
+                    downloadScheduler.setMirror(mirror);
+                    logger.info("Descargas a través del espejo LAN {}", mirror.getBaseUrl());
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("{}; se descargará desde los servidores oficiales", e.getMessage());
+                downloadScheduler.setMirror(null);
+            }
+        }
+
+        boolean portChanged = mirrorServer != null && mirrorServer.getPort() != network.getMirrorServerPort();
+        if (mirrorServer != null && (!network.isMirrorServerEnabled() || portChanged)) {
+            mirrorServer.stop();
+            mirrorServer = null;
+        }
+        if (network.isMirrorServerEnabled() && mirrorServer == null) {
+            // Un fallo al arrancar (puerto ocupado, o un runtime sin jdk.httpserver) solo deja el espejo desactivado
+            try {
+                MirrorServer server = new MirrorServer(gameDirectory, network.getMirrorServerPort());
+                server.start();
+                mirrorServer = server;
+            } catch (IOException | RuntimeException | LinkageError e) {
+                logger.error("No se pudo iniciar el espejo LAN en el puerto {}; queda desactivado",
+                        network.getMirrorServerPort(), e);
+            }
+        }
+    }
+
+    /**
+     * Aplica el servidor de parches binarios configurado
+     */
+    private synchronized void applyDeltaConfig(AdvancedLauncherConfig.NetworkConfig network) {
+        String deltaUrl = network.getDeltaUrl();
+        if (deltaUrl == null || deltaUrl.isBlank()) {
+            downloadScheduler.setDeltaSource(null);
+            return;
+        }
 
         try {
-            // Aquí iría la lógica para construir el comando de lanzamiento
-            // y ejecutar Minecraft con los parámetros correctos
+            DeltaSource deltas = new DeltaSource(deltaUrl.trim());
+            DeltaSource current = downloadScheduler.getDeltaSource();
+            if (current == null || !current.getBaseUrl().equals(deltas.getBaseUrl())) {
+                downloadScheduler.setDeltaSource(deltas);
+                logger.info("Parches binarios desde {}", deltas.getBaseUrl());
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("{}; se descargarán siempre los archivos completos", e.getMessage());
+            downloadScheduler.setDeltaSource(null);
+        }
+    }
+
+    public synchronized MirrorServer getMirrorServer() {
+        return mirrorServer;
+    }
+
+    /**
+     * Lanza el juego para un perfil y una versión instalada.
+     * La resolución de classpath y argumentos se cachea por (perfil, versión).
+     * Cada instancia recibe su propio directorio de trabajo y de natives; si el perfil
+     * ya está en ejecución, la nueva instancia usa un directorio aislado.
+     * El proceso queda bajo el supervisor, que escribe su salida en el log de la instancia.
+     */
+    public GameInstance launchGame(UserProfile profile, String version, String username) {
+        logger.info("Lanzando juego para usuario: {} con perfil: {} y versión: {}",
+                username, profile.getName(), version);
+
+        InstanceWorkspace workspace = null;
+        try {
+            LaunchCommand command = getLaunchCommand(profile, version);
+            workspace = workspaceManager.allocate(profile.getName(), command.getWorkingDirectory());
+
+            // CDS se decide en cada lanzamiento: el archivo aparece tras el primero
+            CdsArchiveManager.CdsSession cdsSession = javaConfig().isEnableClassDataSharing()
+                    ? cdsArchiveManager.prepare(version, command)
+                    : CdsArchiveManager.CdsSession.disabled();
+
+            List<String> launchJvmArguments = new ArrayList<>();
+            launchJvmArguments.add("-Djava.library.path=" + command.getNativeLibraryPath());
+            launchJvmArguments.add("-Dorg.lwjgl.system.SharedLibraryExtractPath=" + workspace.getNativesDirectory());
+            launchJvmArguments.addAll(cdsSession.getFlags());
 
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            // Ejemplo básico (necesitaría configuración real):
-            // processBuilder.command("java", "-jar", "minecraft.jar", "--username", username);
+            List<String> commandLine = command.toCommandLine(launchJvmArguments,
+                    buildGameVariables(profile, version, username, command, workspace.getWorkingDirectory()));
 
-            logger.info("Comando de lanzamiento preparado para: {}", username);
+            Path logFile = gameDirectory.resolve("logs").resolve(workspace.getName() + "-latest.log");
 
-            // Por ahora solo simulamos el lanzamiento
-            logger.info("Juego lanzado exitosamente");
+            writeLaunchLogHeader(logFile, command, cdsSession);
+
+            ProcessBuilder processBuilder = new ProcessBuilder(commandLine)
+                    .directory(workspace.getWorkingDirectory().toFile());
+
+            logger.debug("Comando de lanzamiento: {}", String.join(" ", commandLine));
+
+            Process process = processBuilder.start();
+            cdsArchiveManager.track(cdsSession, process);
+            logger.info("Juego lanzado exitosamente (pid {}, directorio {})", process.pid(), workspace.getWorkingDirectory());
+
+            InstanceWorkspace launchedWorkspace = workspace;
+            process.onExit().thenRun(() -> workspaceManager.release(launchedWorkspace));
+            return processSupervisor.supervise(profile, version, process, logFile);
 
         } catch (Exception e) {
+            if (workspace != null) {
+                workspaceManager.release(workspace);
+            }
             logger.error("Error al lanzar el juego", e);
             throw new RuntimeException("Error al lanzar el juego", e);
         }
     }
 
+    /**
+     * Ejecuta las comprobaciones previas y, si pasan, encola el lanzamiento en el planificador,
+     * que separa los arranques consecutivos para que las instancias no compitan por el disco
+     * mientras cargan clases. Si alguna comprobación falla, el futuro termina con su resumen.
+     */
+    public CompletableFuture<GameInstance> scheduleLaunch(UserProfile profile, String version, String username) {
+        return runPreflight(profile, version).thenCompose(report -> {
+            if (!report.isPassed()) {
+                return CompletableFuture.failedFuture(new IllegalStateException(report.describeProblems()));
+            }
+            return launchScheduler.submit(() -> launchGame(profile, version, username));
+        });
+    }
+
+    /**
+     * Comprobaciones previas al lanzamiento. Configuración, disco, autenticación y Java son
+     * independientes y corren en paralelo; la integridad depende de Java porque resuelve
+     * el comando de lanzamiento (que queda cacheado para el arranque).
+     */
+    public CompletableFuture<PreflightReport> runPreflight(UserProfile profile, String version) {
+        return new PreflightEngine(preflightExecutor)
+                .add(new PreflightCheck("config", Duration.ofSeconds(5), () -> checkConfig(profile)))
+                .add(new PreflightCheck("disk", Duration.ofSeconds(2), () -> checkDiskSpace(profile)))
+                .add(new PreflightCheck("auth", Duration.ofSeconds(5), () -> checkAuthToken(profile)))
+                .add(new PreflightCheck("java", Duration.ofSeconds(15), () -> checkJava(profile, version)))
+                .add(new PreflightCheck("integrity", Duration.ofSeconds(30), () -> checkIntegrity(profile, version), "java"))
+                .add(new PreflightCheck("mods", Duration.ofSeconds(20), () -> checkMods(profile, version)))
+                .run();
+    }
+
+    /**
+     * Mods de la carpeta mods/ del perfil; solo se abren los jars nuevos o modificados desde el último escaneo
+     */
+    public ModScan scanMods(UserProfile profile) throws IOException {
+        return modScanner.scan(Paths.get(profile.getEffectiveGameDirectory()).resolve(ModScanner.MODS_DIRECTORY));
+    }
+
+    /**
+     * Estado de las dependencias de los mods del perfil para la versión indicada. Cada carpeta de
+     * mods conserva su resolutor, así que solo se recalcula lo afectado por los jars que cambiaron.
+     */
+    public ModResolution resolveMods(UserProfile profile, String version) throws IOException {
+        return resolveMods(scanMods(profile), version);
+    }
+
+    /**
+     * Con autoInstallDependencies, los jars desactivados de la carpeta que cubren una dependencia
+     * ausente se reactivan; no hay catálogo remoto del que descargar los que falten por completo.
+     */
+    private ModResolution resolveMods(ModScan scan, String version) throws IOException {
+        ModDependencyResolver resolver = modResolvers.computeIfAbsent(scan.getDirectory(),
+                directory -> new ModDependencyResolver());
+        resolver.setPlatformVersion("minecraft", version != null && RELEASE_VERSION.matcher(version).matches()
+                ? version : null);
+        resolver.sync(scan);
+        ModResolution resolution = resolver.resolve();
+
+        if (resolution.getInstallable().isEmpty()
+                || !ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.GameConfig.class).isAutoInstallDependencies()) {
+            return resolution;
+        }
+
+        for (ModMetadata mod : resolution.getInstallable()) {
+            Path enabled = mod.getFile().resolveSibling(
+                    mod.getFileName().substring(0, mod.getFileName().length() - ModMetadata.DISABLED_SUFFIX.length()));
+            if (Files.exists(enabled)) {
+                logger.warn("No se reactiva {}: ya existe {}", mod.getFileName(), enabled.getFileName());
+                continue;
+            }
+            Files.move(mod.getFile(), enabled);
+            logger.info("Dependencia {} reactivada", enabled.getFileName());
+        }
+
+        resolver.sync(modScanner.scan(scan.getDirectory()));
+        return resolver.resolve();
+    }
+
+    /**
+     * Importa un modpack de Modrinth (.mrpack) en un perfil nuevo; sus mods se descargan con el
+     * planificador de descargas del launcher, compartiendo límites de conexiones y de ancho de banda.
+     */
+    public CompletableFuture<ModpackImport> importModpack(Path packFile, String profileName,
+                                                          ProfileManagerService profileManager) {
+        return new ModpackImporter(downloadScheduler, profileManager, objectMapper).importPack(packFile, profileName);
+    }
+
+    /**
+     * Copia incremental de un mundo del perfil en el almacén compartido de copias; solo se leen
+     * los archivos que cambiaron y solo se guardan los chunks que no estaban ya guardados.
+     */
+    public CompletableFuture<WorldSnapshot> backupWorld(UserProfile profile, String worldName) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return backupWorld(profile, worldName, worldDirectory(profile, worldName));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, worldBackupExecutor);
+    }
+
+    /**
+     * Mundos del perfil (carpetas de saves/ con level.dat), ordenados por nombre
+     */
+    public List<String> listWorlds(UserProfile profile) throws IOException {
+        Path saves = Paths.get(profile.getEffectiveGameDirectory()).resolve("saves");
+        if (!Files.isDirectory(saves)) {
+            return List.of();
+        }
+        try (Stream<Path> list = Files.list(saves)) {
+            return list.filter(world -> Files.isRegularFile(world.resolve("level.dat")))
+                    .map(world -> world.getFileName().toString())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public List<WorldSnapshot> listWorldBackups(UserProfile profile, String worldName) throws IOException {
+        return worldBackupEngine.listSnapshots(worldKey(profile, worldName));
+    }
+
+    /**
+     * Devuelve el mundo al estado de la copia. Antes se copia el estado actual, así que la
+     * restauración también se puede deshacer.
+     */
+    public CompletableFuture<Void> restoreWorld(UserProfile profile, String worldName, WorldSnapshot snapshot) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Path world = worldDirectory(profile, worldName);
+                if (Files.isDirectory(world)) {
+                    backupWorld(profile, worldName, world);
+                }
+                worldBackupEngine.replace(snapshot, world);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, worldBackupExecutor);
+    }
+
+    /**
+     * Copia periódica de los mundos de los perfiles que están en juego; se revisa cada minuto
+     * para que los cambios del intervalo en la configuración se apliquen sin reiniciar
+     */
+    private void backupRunningWorlds() {
+        int interval = ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.GameConfig.class)
+                .getWorldBackupIntervalMinutes();
+        if (interval <= 0) {
+            return;
+        }
+
+        Map<Long, UserProfile> running = new HashMap<>();
+        for (GameInstance instance : processSupervisor.getRunningInstances()) {
+            running.putIfAbsent(instance.getProfile().getId(), instance.getProfile());
+        }
+        Instant due = Instant.now().minus(Duration.ofMinutes(interval));
+        for (UserProfile profile : running.values()) {
+            Instant last = lastWorldBackups.get(profile.getId());
+            if (last == null) {
+                // La primera copia llega un intervalo después de empezar a jugar
+                lastWorldBackups.put(profile.getId(), Instant.now());
+            } else if (last.isBefore(due)) {
+                backupProfileWorlds(profile);
+            }
+        }
+        lastWorldBackups.keySet().retainAll(running.keySet());
+    }
+
+    private void backupProfileWorlds(UserProfile profile) {
+        lastWorldBackups.put(profile.getId(), Instant.now());
+        try {
+            for (String world : listWorlds(profile)) {
+                try {
+                    backupWorld(profile, world, worldDirectory(profile, world));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("No se pudo copiar el mundo {} del perfil {}", world, profile.getName(), e);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudieron listar los mundos del perfil {}", profile.getName(), e);
+        }
+    }
+
+    private WorldSnapshot backupWorld(UserProfile profile, String worldName, Path world) throws IOException {
+        AdvancedLauncherConfig.GameConfig game = ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.GameConfig.class);
+        return worldBackupEngine.backup(world, worldKey(profile, worldName),
+                BackupCodec.fromName(game.getWorldBackupCodec()), game.getKeepWorldBackups());
+    }
+
+    private static Path worldDirectory(UserProfile profile, String worldName) throws IOException {
+        Path saves = Paths.get(profile.getEffectiveGameDirectory()).resolve("saves").toAbsolutePath().normalize();
+        Path world = saves.resolve(worldName).normalize();
+        if (!world.startsWith(saves) || world.equals(saves)) {
+            throw new IOException("Nombre de mundo no válido: " + worldName);
+        }
+        return world;
+    }
+
+    private static String worldKey(UserProfile profile, String worldName) {
+        return (profile.getId() + "-" + worldName).replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Lanzamientos encolados que aún no han arrancado
+     */
+    public int getPendingLaunches() {
+        return launchScheduler.getPendingLaunches();
+    }
+
+    /**
+     * Valida las secciones de configuración y la memoria del perfil
+     */
+    private PreflightResult checkConfig(UserProfile profile) {
+        AdvancedLauncherConfig config = ConfigRegistryService.getInstance().getConfig();
+        List<String> problems = new ArrayList<>();
+
+        Validator validator = getConfigValidator();
+        for (Object section : List.of(config.getApplication(), config.getUi(), config.getJava(),
+                config.getNetwork(), config.getGame(), config.getDeveloper())) {
+            Set<ConstraintViolation<Object>> violations = validator.validate(section);
+            for (ConstraintViolation<Object> violation : violations) {
+                problems.add(section.getClass().getSimpleName() + "." + violation.getPropertyPath() + " " + violation.getMessage());
+            }
+        }
+
+        if (profile.getMinMemoryMb() > profile.getMaxMemoryMb()) {
+            problems.add("La memoria mínima (" + profile.getMinMemoryMb() + " MB) supera la máxima ("
+                    + profile.getMaxMemoryMb() + " MB)");
+        }
+        if (!problems.isEmpty()) {
+            return PreflightResult.failed("Configuración no válida: " + String.join("; ", problems));
+        }
+
+        if (systemResources.getPhysicalMemoryMb() > 0 && profile.getMaxMemoryMb() > systemResources.getPhysicalMemoryMb()) {
+            return PreflightResult.warning("El perfil pide " + profile.getMaxMemoryMb() + " MB y el equipo tiene "
+                    + systemResources.getPhysicalMemoryMb() + " MB");
+        }
+        return PreflightResult.passed("Configuración válida");
+    }
+
+    private PreflightResult checkDiskSpace(UserProfile profile) throws IOException {
+        Path profileDirectory = Paths.get(profile.getEffectiveGameDirectory());
+        Files.createDirectories(profileDirectory);
+
+        for (Path directory : List.of(gameDirectory, profileDirectory)) {
+            if (!FileUtils.hasEnoughSpace(directory, MIN_FREE_DISK_BYTES)) {
+                return PreflightResult.failed("Menos de " + FileUtils.formatBytes(MIN_FREE_DISK_BYTES)
+                        + " libres en " + directory);
+            }
+        }
+        return PreflightResult.passed("Espacio en disco suficiente");
+    }
+
+    /**
+     * Comprueba que el token de la cuenta de Microsoft no esté caducado ni a punto de caducar
+     */
+    private PreflightResult checkAuthToken(UserProfile profile) throws Exception {
+        if (!profile.isOnlineProfile()) {
+            return PreflightResult.passed("Perfil offline, sin token");
+        }
+
+        String accountId = profile.getMicrosoftAccountId();
+        MicrosoftAccountDAO accountDAO = new MicrosoftAccountDAO(DatabaseManager.getInstance());
+        if (accountId == null || !accountDAO.hasAccessToken(accountId)) {
+            return PreflightResult.failed("El perfil no tiene una cuenta de Microsoft con sesión iniciada");
+        }
+
+        Optional<LocalDateTime> expiresAt = accountDAO.findTokenExpiresAt(accountId);
+        if (expiresAt.isPresent() && expiresAt.get().isBefore(LocalDateTime.now().plus(TOKEN_REFRESH_MARGIN))) {
+            return PreflightResult.warning("El token de la cuenta caduca el " + expiresAt.get() + ", inicia sesión de nuevo");
+        }
+        return PreflightResult.passed("Token vigente");
+    }
+
+    /**
+     * Localiza el ejecutable de Java y comprueba que cumple la versión que pide el juego
+     */
+    private PreflightResult checkJava(UserProfile profile, String version) throws IOException {
+        String javaExecutable = resolveJavaExecutable(profile, version);
+        if (!Files.isExecutable(Paths.get(javaExecutable))) {
+            return PreflightResult.failed("No se encontró Java en " + javaExecutable);
+        }
+
+        int required = versionResolver.getRequiredJavaVersion(version);
+        OptionalInt detectedVersion = JvmTuningEngine.detectJavaMajorVersion(javaExecutable);
+        if (detectedVersion.isEmpty()) {
+            return PreflightResult.warning("No se pudo determinar la versión de " + javaExecutable
+                    + "; la versión " + version + " necesita Java " + required);
+        }
+        int detected = detectedVersion.getAsInt();
+        if (detected < required) {
+            return PreflightResult.failed("La versión " + version + " necesita Java " + required
+                    + " y el ejecutable configurado es Java " + detected);
+        }
+        return PreflightResult.passed("Java " + detected + " en " + javaExecutable);
+    }
+
+    /**
+     * Dependencias ausentes o en conflicto y mods duplicados; no bloquea porque el cargador da el diagnóstico final
+     */
+    private PreflightResult checkMods(UserProfile profile, String version) throws IOException {
+        if (!ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.GameConfig.class).isEnableMods()) {
+            return PreflightResult.passed("Mods desactivados");
+        }
+
+        ModScan scan = scanMods(profile);
+        ModResolution resolution = resolveMods(scan, version);
+        List<String> problems = new ArrayList<>(resolution.describeProblems());
+        scan.getDuplicates().forEach((modId, mods) ->
+                problems.add(modId + " está repetido en " + mods.stream().map(ModMetadata::getFileName)
+                        .collect(Collectors.joining(", "))));
+
+        if (!problems.isEmpty()) {
+            String sample = String.join("; ", problems.subList(0, Math.min(5, problems.size())));
+            return PreflightResult.warning(problems.size() + " problemas con los mods: " + sample
+                    + (problems.size() > 5 ? "..." : ""));
+        }
+        return PreflightResult.passed(resolution.getModCount() + " mods activos con sus dependencias");
+    }
+
+    /**
+     * Resuelve el comando de lanzamiento y comprueba que existen el classpath y los natives.
+     * Si hay índice de archivos de la versión instalada, el tamaño de cada entrada del
+     * classpath que aparece en él se compara con el esperado.
+     */
+    private PreflightResult checkIntegrity(UserProfile profile, String version) throws IOException {
+        LaunchCommand command = getLaunchCommand(profile, version);
+        ManifestIndex index = downloadPlanner.openIndex(version).orElse(null);
+        Path root = gameDirectory.toAbsolutePath().normalize();
+
+        List<String> missing = new ArrayList<>();
+        for (String entry : command.getClasspath().split(File.pathSeparator)) {
+            Path path = Paths.get(entry).toAbsolutePath().normalize();
+            long expectedSize = index != null && path.startsWith(root)
+                    ? index.sizeOf(root.relativize(path).toString().replace(File.separatorChar, '/'))
+                    : -1;
+            if (!Files.isRegularFile(path) || Files.size(path) == 0
+                    || (expectedSize >= 0 && Files.size(path) != expectedSize)) {
+                missing.add(path.getFileName().toString());
+            }
+        }
+        for (Path directory : command.getNativeDirectories()) {
+            if (!Files.isDirectory(directory)) {
+                missing.add(directory.getFileName().toString());
+            }
+        }
+
+        if (!Files.exists(versionResolver.getClientJar(version))) {
+            missing.add(versionResolver.getClientJar(version).getFileName().toString());
+        }
+
+        if (!missing.isEmpty()) {
+            String sample = String.join(", ", missing.subList(0, Math.min(5, missing.size())));
+            return PreflightResult.failed(missing.size() + " archivos del juego ausentes o incompletos: " + sample
+                    + (missing.size() > 5 ? "..." : ""));
+        }
+        return PreflightResult.passed(command.getClasspath().split(File.pathSeparator).length + " archivos verificados");
+    }
+
+    private Validator getConfigValidator() {
+        Validator validator = configValidator;
+        if (validator == null) {
+            validator = Validation.buildDefaultValidatorFactory().getValidator();
+            configValidator = validator;
+        }
+        return validator;
+    }
+
+    /**
+     * Obtiene el comando de lanzamiento desde la caché o lo construye resolviendo la versión
+     */
+    public LaunchCommand getLaunchCommand(UserProfile profile, String version) throws IOException {
+        String javaExecutable = resolveJavaExecutable(profile, version);
+        List<String> extraJvmArgs = splitArguments(profile.getJavaArgs());
+        extraJvmArgs.addAll(splitArguments(javaConfig().getAdditionalJvmArgs()));
+        Path workingDirectory = Paths.get(profile.getEffectiveGameDirectory());
+
+        boolean optimize = javaConfig().isEnableJvmOptimizations();
+        UserProfile.JvmPreset requestedPreset = profile.getJvmPreset();
+
+        String signature = String.join("|", javaExecutable,
+                String.valueOf(profile.getMinMemoryMb()), String.valueOf(profile.getMaxMemoryMb()),
+                String.join(" ", extraJvmArgs), workingDirectory.toString(),
+                String.valueOf(optimize), String.valueOf(requestedPreset));
+
+        Optional<LaunchCommand> cached = launchCommandCache.get(profile.getName(), version, signature);
+        if (cached.isPresent()) {
+            logger.debug("Usando comando de lanzamiento cacheado para {}@{}", profile.getName(), version);
+            return cached.get();
+        }
+
+        VersionResolver.ResolvedVersion resolved = versionResolver.resolve(version);
+
+        // Natives ya extraídos en la caché; la carpeta de la versión solo si alguien dejó natives a mano
+        List<Path> nativeDirectories = new ArrayList<>(nativesCache.resolve(resolved.getNativeArchives()));
+        Path versionNatives = versionResolver.getNativesDirectory(version);
+        if (Files.isDirectory(versionNatives)) {
+            nativeDirectories.add(versionNatives);
+        }
+
+        List<String> jvmArguments = new ArrayList<>();
+        jvmArguments.add("-Xms" + profile.getMinMemoryMb() + "m");
+        jvmArguments.add("-Xmx" + profile.getMaxMemoryMb() + "m");
+
+        UserProfile.JvmPreset preset = UserProfile.JvmPreset.NONE;
+        List<String> tuningFlags = List.of();
+        if (optimize) {
+            int javaVersion = JvmTuningEngine.detectJavaMajorVersion(javaExecutable)
+                    .orElse(JvmTuningEngine.CONSERVATIVE_JAVA_VERSION);
+            preset = jvmTuningEngine.resolvePreset(requestedPreset, profile.getMaxMemoryMb(), javaVersion);
+            tuningFlags = jvmTuningEngine.generateFlags(preset, profile.getMaxMemoryMb(), javaVersion, extraJvmArgs);
+            jvmArguments.addAll(tuningFlags);
+        }
+
+        // Los argumentos del usuario van al final para que prevalezcan sobre el preset
+        jvmArguments.addAll(extraJvmArgs);
+
+        String classpath = resolved.getClasspath().stream()
+                .map(Path::toString)
+                .collect(Collectors.joining(File.pathSeparator));
+
+        LaunchCommand command = new LaunchCommand(javaExecutable, jvmArguments, classpath,
+                resolved.getMainClass(), resolved.getAssetIndex(), resolved.getGameArgumentTemplates(), workingDirectory, nativeDirectories,
+                preset, tuningFlags);
+
+        // Si se borra la caché de natives, el comando se reconstruye y vuelve a extraerlos
+        List<Path> watchedFiles = new ArrayList<>(resolved.getWatchedFiles());
+        watchedFiles.addAll(nativeDirectories);
+        launchCommandCache.put(profile.getName(), version, signature, command, watchedFiles);
+
+        logger.info("Comando de lanzamiento construido para {}@{} ({} entradas en classpath)",
+                profile.getName(), version, resolved.getClasspath().size());
+        return command;
+    }
+
+    /**
+     * Escribe al inicio del log de lanzamiento el preset y las flags JVM elegidas
+     */
+    private void writeLaunchLogHeader(Path logFile, LaunchCommand command,
+                                      CdsArchiveManager.CdsSession cdsSession) throws IOException {
+        String flags = command.getTuningFlags().isEmpty() ? "(ninguna)" : String.join(" ", command.getTuningFlags());
+        String cdsFlags = cdsSession.getFlags().isEmpty() ? "(desactivado)" : String.join(" ", cdsSession.getFlags());
+        logger.info("Preset JVM: {} | Flags: {} | CDS: {}", command.getTuningPreset().getDisplayName(), flags, cdsFlags);
+
+        String header = "# KarritoLauncher - " + LocalDateTime.now() + System.lineSeparator() +
+                "# Preset JVM: " + command.getTuningPreset().getValue() + System.lineSeparator() +
+                "# Flags JVM: " + flags + System.lineSeparator() +
+                "# CDS: " + cdsFlags + System.lineSeparator();
+        Files.writeString(logFile, header, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Variables sustituidas en los argumentos del juego
+     */
+    private Map<String, String> buildGameVariables(UserProfile profile, String version, String username,
+                                                   LaunchCommand command, Path workingDirectory) {
+        String uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + username).getBytes(StandardCharsets.UTF_8))
+                .toString().replace("-", "");
+
+        Map<String, String> variables = new HashMap<>();
+        variables.put("auth_player_name", username);
+        variables.put("version_name", version);
+        variables.put("game_directory", workingDirectory.toString());
+        variables.put("assets_root", versionResolver.getAssetsDirectory().toString());
+        variables.put("assets_index_name", command.getAssetIndex());
+        variables.put("auth_uuid", uuid);
+        variables.put("auth_access_token", "0");
+        variables.put("user_type", profile.isOnlineProfile() ? "msa" : "legacy");
+        variables.put("version_type", "KarritoLauncher");
+        return variables;
+    }
+
+    /**
+     * Resuelve el ejecutable de Java: perfil, configuración global, runtime detectado o el runtime actual.
+     * La detección automática busca un runtime con la versión de Java que pide el JSON de la versión
+     * y solo si no hay ninguno se queda con el más reciente.
+     */
+    private String resolveJavaExecutable(UserProfile profile, String version) throws IOException {
+        String configured = profile.getJavaPath();
+        if (configured == null || configured.isBlank()) {
+            configured = javaConfig().getJavaExecutablePath();
+        }
+        if ((configured == null || configured.isBlank()) && javaConfig().isAutoDetectJava()) {
+            JavaDiscoveryService discovery = JavaDiscoveryService.getInstance();
+            int required = versionResolver.getRequiredJavaVersion(version);
+            Optional<JavaRuntime> runtime = discovery.findBestRuntime(required);
+            if (runtime.isEmpty()) {
+                logger.warn("No se encontró Java {} o superior para {}; se usará el runtime más reciente", required, version);
+                runtime = discovery.findBestRuntime(8);
+            }
+            configured = runtime.map(JavaRuntime::getExecutablePath).orElse(null);
+        }
+        if (configured == null || configured.isBlank()) {
+            configured = System.getProperty("java.home");
+        }
+
+        Path javaPath = Paths.get(configured);
+        if (Files.isDirectory(javaPath)) {
+            String executable = VersionResolver.currentOsName().equals("windows") ? "java.exe" : "java";
+            javaPath = javaPath.resolve("bin").resolve(executable);
+        }
+        return javaPath.toString();
+    }
+
+    private static List<String> splitArguments(String arguments) {
+        List<String> result = new ArrayList<>();
+        if (arguments != null && !arguments.isBlank()) {
+            result.addAll(Arrays.asList(arguments.trim().split("\\s+")));
+        }
+        return result;
+    }
+
+    private AdvancedLauncherConfig.NetworkConfig networkConfig() {
+        return ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.NetworkConfig.class);
+    }
+
+    private AdvancedLauncherConfig.JavaConfig javaConfig() {
+        return ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.JavaConfig.class);
+    }
+
+    public LaunchCommandCache getLaunchCommandCache() {
+        return launchCommandCache;
+    }
+
+    public GameProcessSupervisor getProcessSupervisor() {
+        return processSupervisor;
+    }
+
+    public DownloadScheduler getDownloadScheduler() {
+        return downloadScheduler;
+    }
+
+    public InstanceWorkspaceManager getWorkspaceManager() {
+        return workspaceManager;
+    }
+
     public Path getGameDirectory() {
         return gameDirectory;
     }
 
     public void shutdown() {
         logger.info("Cerrando servicio del launcher");
-        if (httpClient != null) {
-            httpClient.dispatcher().executorService().shutdown();
+        launchScheduler.shutdown();
+        preflightExecutor.shutdownNow();
+        worldBackupExecutor.shutdown();
+        downloadScheduler.shutdown();
+        synchronized (this) {
+            if (mirrorServer != null) {
+                mirrorServer.stop();
+                mirrorServer = null;
+            }
         }
+        processSupervisor.shutdown();
+        HttpClientFactory.getInstance().shutdown();
     }
 
     @FunctionalInterface
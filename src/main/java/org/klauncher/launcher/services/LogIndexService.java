@@ -0,0 +1,343 @@
+package org.klauncher.launcher.services;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.database.dao.LogIndexDAO;
+import org.klauncher.launcher.models.entities.LogEvent;
+import org.klauncher.launcher.services.logs.GameLogParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Indexa en segundo plano los logs terminados y los crash reports en una tabla FTS5.
+ * De cada archivo se recuerda el offset indexado y una huella de su inicio: las
+ * pasadas siguientes solo leen los bytes nuevos, y si el archivo se reescribió
+ * se vuelve a empezar desde cero sustituyendo sus eventos. Tras cada pasada se
+ * eliminan los eventos de más de {@link #RETENTION} y los que pasen de {@link #MAX_EVENTS}.
+ */
+public class LogIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexService.class);
+    private static final int FINGERPRINT_BYTES = 512;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final Duration FINISHED_AFTER = Duration.ofSeconds(30);
+    private static final long INITIAL_DELAY_SECONDS = 15;
+    private static final long PERIOD_MINUTES = 10;
+    private static final Duration RETENTION = Duration.ofDays(90);
+    private static final long MAX_EVENTS = 200_000;
+
+    private static LogIndexService instance;
+
+    private final LogIndexDAO indexDAO;
+    private ScheduledExecutorService executor;
+    private Path launcherLogsDirectory;
+    private Supplier<Collection<Path>> gameDirectories;
+
+    private LogIndexService() {
+        this.indexDAO = new LogIndexDAO(DatabaseManager.getInstance());
+    }
+
+    public static synchronized LogIndexService getInstance() {
+        if (instance == null) {
+            instance = new LogIndexService();
+        }
+        return instance;
+    }
+
+    /**
+     * Programa la indexación periódica de {@code launcherLogsDirectory} y de las
+     * carpetas logs/ y crash-reports/ de cada directorio de juego
+     */
+    public synchronized void start(Path launcherLogsDirectory, Supplier<Collection<Path>> gameDirectories) {
+        if (executor != null) {
+            return;
+        }
+
+        this.launcherLogsDirectory = launcherLogsDirectory;
+        this.gameDirectories = gameDirectories;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-indexer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        executor.scheduleWithFixedDelay(this::indexSafely, INITIAL_DELAY_SECONDS, PERIOD_MINUTES * 60, TimeUnit.SECONDS);
+        logger.info("Indexador de logs iniciado");
+    }
+
+    /**
+     * Solicita una pasada de indexación, por ejemplo al terminar una partida
+     */
+    public synchronized void requestIndex() {
+        if (executor != null && !executor.isShutdown()) {
+            executor.execute(this::indexSafely);
+        }
+    }
+
+    /**
+     * Busca eventos que contengan todos los términos indicados dentro del periodo {@code within}
+     */
+    public List<LogEvent> search(String text, Duration within, int limit) throws SQLException {
+        String query = toFtsQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        long since = within == null ? 0 : Instant.now().minus(within).toEpochMilli();
+        long start = System.nanoTime();
+        List<LogEvent> events = indexDAO.search(query, since, limit);
+        logger.debug("Búsqueda en logs '{}': {} resultados en {} µs", text, events.size(), (System.nanoTime() - start) / 1000);
+        return events;
+    }
+
+    /**
+     * Ejecuta una pasada completa de indexación en el hilo actual
+     */
+    public synchronized int indexNow() throws SQLException {
+        long start = System.nanoTime();
+        Map<String, LogIndexDAO.FileState> states = indexDAO.findFileStates();
+
+        int files = 0;
+        int events = 0;
+        for (Path file : collectFiles()) {
+            try {
+                int indexed = indexFile(file, states.get(file.toString()));
+                if (indexed >= 0) {
+                    files++;
+                    events += indexed;
+                }
+            } catch (IOException e) {
+                logger.warn("No se pudo indexar {}", file, e);
+            }
+        }
+
+        int expired = indexDAO.deleteExpired(Instant.now().minus(RETENTION).toEpochMilli(), MAX_EVENTS);
+
+        if (files > 0 || expired > 0) {
+            logger.info("Índice de logs: {} archivos actualizados, {} eventos nuevos, {} caducados en {} ms",
+                    files, events, expired, (System.nanoTime() - start) / 1_000_000);
+        }
+        return events;
+    }
+
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void indexSafely() {
+        try {
+            indexNow();
+        } catch (Exception e) {
+            logger.warn("Error en la indexación de logs", e);
+        }
+    }
+
+    /**
+     * Indexa lo nuevo de un archivo. Devuelve los eventos añadidos o -1 si no había cambios.
+     */
+    private int indexFile(Path file, LogIndexDAO.FileState state) throws IOException, SQLException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        if (state != null && state.getFileSize() == size && state.getFileModified() == modified
+                && state.getIndexedOffset() >= size) {
+            return -1;
+        }
+
+        // La huella nueva cubre hasta 512 bytes; la guardada se compara sobre su misma longitud
+        String fingerprint = fingerprint(file, Math.min(size, FINGERPRINT_BYTES));
+        boolean sameContent = state != null && state.getIndexedOffset() <= size && matchesFingerprint(file, size, state);
+
+        String path = file.toString();
+        List<LogEvent> events;
+        long indexedOffset;
+        long lastEventAt;
+
+        if (isCrashReport(file)) {
+            if (sameContent) {
+                return -1;
+            }
+            LogEvent crash = GameLogParser.parseCrashReport(path,
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8).lines().toList(), modified);
+            events = List.of(crash);
+            indexedOffset = size;
+            lastEventAt = crash.getLoggedAt();
+        } else {
+            long offset = sameContent ? state.getIndexedOffset() : 0;
+            LocalDateTime clock = sameContent && state.getLastEventAt() > 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(state.getLastEventAt()), ZoneId.systemDefault())
+                    : LocalDateTime.ofInstant(attributes.creationTime().toInstant(), ZoneId.systemDefault());
+            boolean finished = Instant.ofEpochMilli(modified).plus(FINISHED_AFTER).isBefore(Instant.now());
+
+            GameLogParser parser = new GameLogParser(path, clock, offset);
+            readLines(file, offset, size, finished, parser);
+            events = parser.drainEvents();
+            indexedOffset = parser.getSafeOffset();
+            lastEventAt = parser.getClock().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        // Reescrito: lo guardado del contenido anterior ya no corresponde al archivo
+        boolean replace = state != null && !sameContent;
+        indexDAO.saveProgress(new LogIndexDAO.FileState(path, fingerprint, indexedOffset, lastEventAt, size, modified),
+                events, replace);
+        return events.size();
+    }
+
+    /**
+     * Lee las líneas completas entre {@code offset} y {@code size} pasando a cada una su posición en bytes.
+     * La última línea sin salto final solo se procesa si el archivo está terminado.
+     */
+    private static void readLines(Path file, long offset, long size, boolean finished, GameLogParser parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(offset))) {
+
+            byte[] buffer = new byte[READ_BUFFER_BYTES];
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            long lineStart = offset;
+            long position = offset;
+            int read;
+
+            while (position < size && (read = in.read(buffer, 0, (int) Math.min(buffer.length, size - position))) > 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    position++;
+                    if (b == '\n') {
+                        parser.accept(decode(line, lineLength), lineStart, position);
+                        lineLength = 0;
+                        lineStart = position;
+                    } else {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = b;
+                    }
+                }
+            }
+
+            if (finished) {
+                if (lineLength > 0) {
+                    parser.accept(decode(line, lineLength), lineStart, position);
+                }
+                parser.finish(position);
+            }
+        }
+    }
+
+    private static String decode(byte[] line, int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reúne los logs del launcher y los logs/crash reports de cada directorio de juego
+     */
+    private Collection<Path> collectFiles() {
+        Set<Path> files = new LinkedHashSet<>();
+        addFiles(launcherLogsDirectory, "*.log", files);
+
+        for (Path gameDirectory : gameDirectories.get()) {
+            addFiles(gameDirectory.resolve("logs"), "*.log", files);
+            addFiles(gameDirectory.resolve("crash-reports"), "crash-*.txt", files);
+        }
+        return files;
+    }
+
+    private static void addFiles(Path directory, String glob, Set<Path> files) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, glob)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    files.add(entry.toAbsolutePath().normalize());
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("No se pudo listar {}", directory, e);
+        }
+    }
+
+    private static boolean isCrashReport(Path file) {
+        return file.getParent() != null && file.getParent().getFileName().toString().equals("crash-reports");
+    }
+
+    /**
+     * Huella de los primeros {@code length} bytes ("longitud:hash"): cambia cuando el archivo se reescribe desde cero
+     */
+    private static String fingerprint(Path file, long length) throws IOException {
+        byte[] head = new byte[(int) length];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = in.readNBytes(head, 0, head.length);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(head, 0, read);
+            return read + ":" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static boolean matchesFingerprint(Path file, long size, LogIndexDAO.FileState state) throws IOException {
+        String stored = state.getFingerprint();
+        int separator = stored.indexOf(':');
+        if (separator < 0) {
+            return false;
+        }
+
+        long length = Long.parseLong(stored.substring(0, separator));
+        return length <= size && fingerprint(file, length).equals(stored);
+    }
+
+    /**
+     * Convierte el texto del usuario en una consulta FTS5 que exige todos los términos
+     */
+    private static String toFtsQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String term : text.trim().split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add("\"" + term.replace("\"", "\"\"") + "\"");
+            }
+        }
+        return String.join(" ", terms);
+    }
+}
@@ -15,6 +15,8 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Servicio para gestión completa de perfiles de usuario
@@ -24,11 +26,24 @@ public class ProfileManagerService {
 
     private final UserProfileDAO profileDAO;
     private final DatabaseManager databaseManager;
+    private final List<Consumer<UserProfile>> changeListeners;
     private UserProfile currentActiveProfile;
 
     public ProfileManagerService() {
         this.databaseManager = DatabaseManager.getInstance();
         this.profileDAO = new UserProfileDAO(databaseManager);
+        this.changeListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registra un listener que recibe cada perfil guardado o eliminado
+     */
+    public void addChangeListener(Consumer<UserProfile> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<UserProfile> listener) {
+        changeListeners.remove(listener);
     }
 
     /**
@@ -185,6 +200,7 @@ public class ProfileManagerService {
                 }
 
                 logger.info("Perfil actualizado exitosamente: {}", updatedProfile.getName());
+                notifyChanged(updatedProfile);
                 return updatedProfile;
 
             } catch (Exception e) {
@@ -240,6 +256,7 @@ public class ProfileManagerService {
 
                 if (deleted) {
                     logger.info("Perfil {} eliminado exitosamente", profile.getName());
+                    notifyChanged(profile);
                 }
 
                 return deleted;
@@ -354,6 +371,7 @@ public class ProfileManagerService {
             Files.createDirectories(gameDir.resolve("screenshots"));
             Files.createDirectories(gameDir.resolve("resourcepacks"));
             Files.createDirectories(gameDir.resolve("config"));
+            Files.createDirectories(gameDir.resolve("mods"));
 
             logger.debug("Directorios creados para perfil: {}", profile.getName());
         } catch (IOException e) {
@@ -362,6 +380,19 @@ public class ProfileManagerService {
         }
     }
 
+    /**
+     * Avisa a los listeners de que un perfil se ha guardado o eliminado
+     */
+    private void notifyChanged(UserProfile profile) {
+        for (Consumer<UserProfile> listener : changeListeners) {
+            try {
+                listener.accept(profile);
+            } catch (Exception e) {
+                logger.error("Error en listener de perfiles", e);
+            }
+        }
+    }
+
     /**
      * Elimina los directorios de un perfil
      */
@@ -141,8 +141,7 @@ public class ThemeManagerService {
 
             // Guardar en configuración
             if (config != null) {
-                config.getUi().setTheme(theme.getId());
-                config.save();
+                ConfigRegistryService.getInstance().update(current -> current.getUi().setTheme(theme.getId()));
             }
 
             logger.info("Tema cambiado exitosamente a: {}", theme.getDisplayName());
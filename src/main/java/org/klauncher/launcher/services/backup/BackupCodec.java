@@ -0,0 +1,98 @@
+package org.klauncher.launcher.services.backup;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compresión de los segmentos del almacén de copias. Cada segmento guarda el códec con el que
+ * se escribió, así que cambiar de códec no obliga a reescribir nada.
+ */
+public enum BackupCodec {
+    STORED(0),
+    ZSTD(1),
+    XZ(2);
+
+    private static final int ZSTD_LEVEL = 3;
+    private static final int XZ_PRESET = 6;
+
+    private final int id;
+
+    BackupCodec(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static BackupCodec fromId(int id) {
+        for (BackupCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Códec de copia desconocido: " + id);
+    }
+
+    /**
+     * Códec configurado ("zstd" o "xz"); si su librería no está disponible se usa el otro
+     */
+    public static BackupCodec fromName(String name) {
+        BackupCodec preferred = "xz".equalsIgnoreCase(name) ? XZ : ZSTD;
+        if (preferred.isAvailable()) {
+            return preferred;
+        }
+        BackupCodec other = preferred == XZ ? ZSTD : XZ;
+        return other.isAvailable() ? other : STORED;
+    }
+
+    public boolean isAvailable() {
+        return switch (this) {
+            case STORED -> true;
+            case ZSTD -> ZstdUtils.isZstdCompressionAvailable();
+            case XZ -> XZUtils.isXZCompressionAvailable();
+        };
+    }
+
+    public byte[] compress(byte[] data, int length) throws IOException {
+        if (this == STORED) {
+            return Arrays.copyOf(data, length);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, length / 3));
+        try (OutputStream out = this == ZSTD
+                ? new ZstdCompressorOutputStream(buffer, ZSTD_LEVEL)
+                : new XZCompressorOutputStream(buffer, XZ_PRESET)) {
+            out.write(data, 0, length);
+        }
+        return buffer.toByteArray();
+    }
+
+    public byte[] decompress(byte[] data, int rawLength) throws IOException {
+        if (this == STORED) {
+            return data;
+        }
+
+        byte[] raw = new byte[rawLength];
+        try (InputStream in = this == ZSTD
+                ? new ZstdCompressorInputStream(new ByteArrayInputStream(data))
+                : new XZCompressorInputStream(new ByteArrayInputStream(data))) {
+            int read = in.readNBytes(raw, 0, rawLength);
+            if (read != rawLength) {
+                throw new IOException("Segmento incompleto: " + read + " de " + rawLength + " bytes");
+            }
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,696 @@
+package org.klauncher.launcher.services.backup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de fragmentos direccionado por su SHA-1 y compartido por todas las copias de mundos.
+ * Los fragmentos nuevos se agrupan en segmentos de ~1 MB que se comprimen de una vez (los
+ * códecs tienen un coste fijo por flujo que con fragmentos de pocos KB domina, sobre todo xz)
+ * y se añaden al final de archivos pack. El índice es un archivo de registros fijos que solo
+ * crece y que al abrir se carga en una tabla hash abierta sobre arrays primitivos; un registro
+ * solo se escribe después de que su segmento esté forzado a disco, así que un corte a medias deja
+ * como mucho datos sin referenciar en el pack, nunca referencias a datos que no existen.
+ * Los fragmentos que ninguna copia usa se eliminan con {@link #compact(BitSet)}.
+ */
+public class ChunkStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStore.class);
+    public static final int HASH_BYTES = 20;
+    static final int SEGMENT_SIZE = 1024 * 1024;
+    private static final long PACK_SIZE_LIMIT = 256L * 1024 * 1024;
+    // hash, pack, offset del segmento, offset dentro del segmento, tamaño
+    private static final int INDEX_RECORD_BYTES = HASH_BYTES + 4 + 8 + 4 + 4;
+    // códec, tamaño sin comprimir, tamaño comprimido
+    private static final int SEGMENT_HEADER_BYTES = 1 + 4 + 4;
+    private static final int CACHED_SEGMENTS = 4;
+    // Los packs con menos de esta fracción de bytes referenciados se reescriben al compactar
+    private static final double COMPACT_LIVE_RATIO = 0.5;
+    private static final String INDEX_FILE = "chunks.idx";
+    private static final String PACKS_DIRECTORY = "packs";
+
+    private final Path directory;
+    private final Path packsDirectory;
+    private FileChannel index;
+    private final BackupCodec codec;
+    private final Object packLock;
+    private final Map<Integer, FileChannel> readers;
+    private final Map<Long, byte[]> segmentCache;
+
+    private int[] slots;
+    private int count;
+    private byte[] hashes;
+    private int[] packs;
+    private long[] segmentOffsets;
+    private int[] offsets;
+    private int[] lengths;
+
+    // Segmento en construcción: sus fragmentos son las entradas [segmentFirst, count)
+    private byte[] segment;
+    private int segmentLength;
+    private int segmentFirst;
+
+    private FileChannel pack;
+    private int packNumber;
+    private boolean failed;
+
+    private long newChunks;
+    private long newBytes;
+    private long storedBytes;
+    private long reusedChunks;
+    private long reusedBytes;
+
+    private ChunkStore(Path directory, BackupCodec codec) throws IOException {
+        this.directory = directory;
+        this.packsDirectory = directory.resolve(PACKS_DIRECTORY);
+        this.codec = codec;
+        this.packLock = new Object();
+        this.readers = new HashMap<>();
+        this.segmentCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > CACHED_SEGMENTS;
+            }
+        };
+        this.slots = new int[1024];
+        this.hashes = new byte[512 * HASH_BYTES];
+        this.packs = new int[512];
+        this.segmentOffsets = new long[512];
+        this.offsets = new int[512];
+        this.lengths = new int[512];
+        this.segment = new byte[SEGMENT_SIZE];
+
+        Files.createDirectories(packsDirectory);
+        this.index = openIndex();
+    }
+
+    private FileChannel openIndex() throws IOException {
+        return FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Abre (o crea) el almacén; los segmentos nuevos se comprimirán con {@code codec}
+     */
+    public static ChunkStore open(Path directory, BackupCodec codec) throws IOException {
+        ChunkStore store = new ChunkStore(directory, codec);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        Map<Integer, Long> packSizes = new HashMap<>();
+        for (Map.Entry<Integer, Path> file : listPacks().entrySet()) {
+            packSizes.put(file.getKey(), Files.size(file.getValue()));
+        }
+
+        long records = index.size() / INDEX_RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_RECORD_BYTES * 4096);
+        byte[] hash = new byte[HASH_BYTES];
+        long position = 0;
+        int dropped = 0;
+
+        while (position < records * INDEX_RECORD_BYTES) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), records * INDEX_RECORD_BYTES - position));
+            while (buffer.hasRemaining()) {
+                if (index.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Índice de copias truncado");
+                }
+            }
+            position += buffer.limit();
+            buffer.flip();
+
+            while (buffer.remaining() >= INDEX_RECORD_BYTES) {
+                buffer.get(hash);
+                int recordPack = buffer.getInt();
+                long segmentOffset = buffer.getLong();
+                int offset = buffer.getInt();
+                int length = buffer.getInt();
+
+                Long packSize = packSizes.get(recordPack);
+                if (packSize == null || segmentOffset + SEGMENT_HEADER_BYTES > packSize || find(hash) >= 0) {
+                    dropped++;
+                    continue;
+                }
+                int entry = addEntry(hash, 0, offset, length);
+                packs[entry] = recordPack;
+                segmentOffsets[entry] = segmentOffset;
+            }
+        }
+
+        // Un registro a medio escribir al final se descarta
+        if (index.size() != records * INDEX_RECORD_BYTES) {
+            index.truncate(records * INDEX_RECORD_BYTES);
+        }
+        if (dropped > 0) {
+            logger.warn("{} registros del índice de copias apuntan a packs ausentes y se ignoran", dropped);
+        }
+
+        packNumber = packSizes.keySet().stream().mapToInt(Integer::intValue).max().orElse(1);
+        segmentFirst = count;
+        logger.debug("Almacén de copias abierto: {} fragmentos, pack actual {}", count, packNumber);
+    }
+
+    public synchronized boolean contains(byte[] hash) {
+        return find(hash) >= 0;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Guarda el fragmento si no estaba; devuelve true si es nuevo. La escritura al disco puede
+     * quedar pendiente hasta que se llene el segmento o se llame a {@link #flush()}.
+     */
+    public boolean put(byte[] hash, byte[] data, int offset, int length) throws IOException {
+        Segment sealed = null;
+        synchronized (this) {
+            checkUsable();
+            if (find(hash) >= 0) {
+                reusedChunks++;
+                reusedBytes += length;
+                return false;
+            }
+
+            if (segmentLength > 0 && segmentLength + length > SEGMENT_SIZE) {
+                sealed = seal();
+            }
+            if (segment.length < segmentLength + length) {
+                segment = Arrays.copyOf(segment, segmentLength + length);
+            }
+            System.arraycopy(data, offset, segment, segmentLength, length);
+            addEntry(hash, 0, segmentLength, length);
+            segmentOffsets[count - 1] = -1;
+            segmentLength += length;
+            newChunks++;
+            newBytes += length;
+        }
+
+        if (sealed != null) {
+            write(sealed);
+        }
+        return true;
+    }
+
+    /**
+     * Contenido del fragmento; el segmento que lo contiene se descomprime una vez y queda en caché
+     */
+    public byte[] get(byte[] hash) throws IOException {
+        int entry;
+        int recordPack;
+        long segmentOffset;
+        synchronized (this) {
+            entry = find(hash);
+            if (entry < 0) {
+                throw new IOException("Fragmento ausente en el almacén de copias: " + toHex(hash));
+            }
+            if (segmentOffsets[entry] < 0) {
+                throw new IllegalStateException("Fragmento aún no escrito: " + toHex(hash));
+            }
+            recordPack = packs[entry];
+            segmentOffset = segmentOffsets[entry];
+        }
+
+        byte[] raw = readSegment(recordPack, segmentOffset);
+        synchronized (this) {
+            return Arrays.copyOfRange(raw, offsets[entry], offsets[entry] + lengths[entry]);
+        }
+    }
+
+    /**
+     * Escribe el segmento en construcción y sincroniza packs e índice con el disco
+     */
+    public void flush() throws IOException {
+        Segment sealed;
+        synchronized (this) {
+            checkUsable();
+            sealed = segmentLength > 0 ? seal() : null;
+        }
+        if (sealed != null) {
+            write(sealed);
+        }
+
+        synchronized (packLock) {
+            if (pack != null) {
+                pack.force(false);
+            }
+        }
+        synchronized (this) {
+            index.force(false);
+        }
+    }
+
+    /**
+     * Marca el fragmento como referenciado por alguna copia; devuelve false si no está en el
+     * almacén o ya estaba marcado, de modo que las recetas compartidas se recorren una sola vez
+     */
+    synchronized boolean mark(BitSet live, byte[] hash) {
+        int entry = find(hash);
+        if (entry < 0 || live.get(entry)) {
+            return false;
+        }
+        live.set(entry);
+        return true;
+    }
+
+    /**
+     * Barrido tras marcar los fragmentos vivos: los packs en los que lo referenciado no llega a la
+     * mitad se reescriben copiando solo los fragmentos vivos a un pack nuevo, se escribe un índice
+     * nuevo (temporal y movido de forma atómica) y después se borran los packs viejos. Un corte en
+     * cualquier punto deja el índice anterior o el nuevo, ambos válidos; los packs huérfanos que
+     * queden se borran en la siguiente compactación. Devuelve los bytes liberados.
+     * No debe haber escrituras en curso.
+     */
+    public synchronized long compact(BitSet live) throws IOException {
+        checkUsable();
+        if (segmentLength > 0) {
+            throw new IllegalStateException("Hay fragmentos sin escribir; llama a flush() antes de compactar");
+        }
+
+        // pack -> {bytes totales, bytes vivos}
+        Map<Integer, long[]> usage = new HashMap<>();
+        for (int entry = 0; entry < count; entry++) {
+            long[] bytes = usage.computeIfAbsent(packs[entry], key -> new long[2]);
+            bytes[0] += lengths[entry];
+            if (live.get(entry)) {
+                bytes[1] += lengths[entry];
+            }
+        }
+
+        Map<Integer, Path> packFiles = listPacks();
+        Set<Integer> rewrite = new HashSet<>();
+        long freed = 0;
+        for (Map.Entry<Integer, Path> file : packFiles.entrySet()) {
+            long[] bytes = usage.get(file.getKey());
+            if (bytes == null || bytes[1] < bytes[0] * COMPACT_LIVE_RATIO) {
+                rewrite.add(file.getKey());
+                freed += Files.size(file.getValue());
+            }
+        }
+        if (rewrite.isEmpty()) {
+            return 0;
+        }
+
+        // Lo copiado va a un pack nuevo, nunca a uno que se va a borrar
+        synchronized (packLock) {
+            if (pack != null) {
+                pack.close();
+                pack = null;
+            }
+            packNumber = packFiles.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        }
+
+        // En orden de posición para descomprimir cada segmento viejo una sola vez
+        List<Integer> moved = new ArrayList<>();
+        for (int entry = 0; entry < count; entry++) {
+            if (live.get(entry) && rewrite.contains(packs[entry])) {
+                moved.add(entry);
+            }
+        }
+        moved.sort(Comparator.<Integer>comparingInt(entry -> packs[entry])
+                .thenComparingLong(entry -> segmentOffsets[entry])
+                .thenComparingInt(entry -> offsets[entry]));
+
+        byte[] buffer = new byte[SEGMENT_SIZE];
+        int length = 0;
+        List<Integer> group = new ArrayList<>();
+        int[] newOffsets = new int[count];
+        long written = 0;
+        for (int entry : moved) {
+            byte[] raw = readSegment(packs[entry], segmentOffsets[entry]);
+            if (length > 0 && length + lengths[entry] > SEGMENT_SIZE) {
+                written += relocate(buffer, length, group, newOffsets);
+                length = 0;
+            }
+            if (buffer.length < length + lengths[entry]) {
+                buffer = Arrays.copyOf(buffer, length + lengths[entry]);
+            }
+            System.arraycopy(raw, offsets[entry], buffer, length, lengths[entry]);
+            newOffsets[entry] = length;
+            length += lengths[entry];
+            group.add(entry);
+        }
+        if (length > 0) {
+            written += relocate(buffer, length, group, newOffsets);
+        }
+
+        // Índice nuevo sin los fragmentos muertos de los packs reescritos
+        Path indexFile = directory.resolve(INDEX_FILE);
+        Path temp = directory.resolve(INDEX_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer records = ByteBuffer.allocate(INDEX_RECORD_BYTES * 4096);
+            long position = 0;
+            for (int entry = 0; entry < count; entry++) {
+                if (rewrite.contains(packs[entry])) {
+                    continue;
+                }
+                if (records.remaining() < INDEX_RECORD_BYTES) {
+                    position += drain(channel, records, position);
+                }
+                putRecord(records, entry);
+            }
+            drain(channel, records, position);
+            channel.force(true);
+        }
+        index.close();
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = openIndex();
+
+        synchronized (readers) {
+            for (int number : rewrite) {
+                FileChannel reader = readers.remove(number);
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+        synchronized (segmentCache) {
+            segmentCache.clear();
+        }
+        for (int number : rewrite) {
+            Files.deleteIfExists(packFiles.get(number));
+        }
+
+        // Se recarga la tabla desde el índice nuevo
+        int before = count;
+        slots = new int[1024];
+        count = 0;
+        load();
+        logger.info("Almacén de copias compactado: {} packs reescritos, {} fragmentos eliminados, {} KB liberados",
+                rewrite.size(), before - count, Math.max(0, freed - written) / 1024);
+        return Math.max(0, freed - written);
+    }
+
+    /**
+     * Escribe un segmento con fragmentos vivos copiados de packs viejos y apunta las entradas a él
+     */
+    private long relocate(byte[] buffer, int length, List<Integer> group, int[] newOffsets) throws IOException {
+        long[] location = appendSegment(buffer, length);
+        for (int entry : group) {
+            packs[entry] = (int) location[0];
+            segmentOffsets[entry] = location[1];
+            offsets[entry] = newOffsets[entry];
+        }
+        group.clear();
+        return location[2];
+    }
+
+    private static long drain(FileChannel channel, ByteBuffer records, long position) throws IOException {
+        records.flip();
+        long written = records.remaining();
+        writeFully(channel, records, position);
+        records.clear();
+        return written;
+    }
+
+    private Map<Integer, Path> listPacks() throws IOException {
+        Map<Integer, Path> files = new HashMap<>();
+        try (Stream<Path> list = Files.list(packsDirectory)) {
+            list.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pack")) {
+                    try {
+                        files.put(Integer.parseInt(name.substring(0, name.length() - 5)), file);
+                    } catch (NumberFormatException e) {
+                        logger.warn("Pack de copias ignorado: {}", name);
+                    }
+                }
+            });
+        }
+        return files;
+    }
+
+    public synchronized long getNewChunks() { return newChunks; }
+    public synchronized long getNewBytes() { return newBytes; }
+
+    /**
+     * Bytes escritos en los packs tras comprimir
+     */
+    public synchronized long getStoredBytes() { return storedBytes; }
+    public synchronized long getReusedChunks() { return reusedChunks; }
+    public synchronized long getReusedBytes() { return reusedBytes; }
+
+    private Segment seal() {
+        Segment sealed = new Segment(segment, segmentLength, segmentFirst, count);
+        segment = new byte[SEGMENT_SIZE];
+        segmentLength = 0;
+        segmentFirst = count;
+        return sealed;
+    }
+
+    /**
+     * Comprime fuera de los bloqueos (varios segmentos pueden comprimirse a la vez), añade al pack
+     * y solo entonces registra sus fragmentos en el índice
+     */
+    private void write(Segment sealed) throws IOException {
+        try {
+            long[] location = appendSegment(sealed.data, sealed.length);
+            int writtenPack = (int) location[0];
+            long segmentOffset = location[1];
+
+            synchronized (this) {
+                ByteBuffer records = ByteBuffer.allocate((sealed.end - sealed.first) * INDEX_RECORD_BYTES);
+                for (int entry = sealed.first; entry < sealed.end; entry++) {
+                    packs[entry] = writtenPack;
+                    segmentOffsets[entry] = segmentOffset;
+                    putRecord(records, entry);
+                }
+                writeFully(index, records.flip(), index.size());
+                storedBytes += location[2];
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sus fragmentos ya cuentan como guardados en memoria: el almacén deja de ser fiable
+            synchronized (this) {
+                failed = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Comprime el segmento, lo añade al pack actual y lo fuerza a disco antes de que nadie pueda
+     * escribir en el índice una referencia a él. Devuelve pack, offset y bytes escritos.
+     */
+    private long[] appendSegment(byte[] data, int length) throws IOException {
+        byte[] compressed = codec.compress(data, length);
+        BackupCodec used = codec;
+        if (compressed.length >= length) {
+            compressed = Arrays.copyOf(data, length);
+            used = BackupCodec.STORED;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES)
+                .put((byte) used.getId()).putInt(length).putInt(compressed.length).flip();
+        synchronized (packLock) {
+            FileChannel channel = currentPack();
+            long segmentOffset = channel.size();
+            writeFully(channel, header, segmentOffset);
+            writeFully(channel, ByteBuffer.wrap(compressed), segmentOffset + SEGMENT_HEADER_BYTES);
+            channel.force(true);
+            return new long[]{packNumber, segmentOffset, SEGMENT_HEADER_BYTES + compressed.length};
+        }
+    }
+
+    private void putRecord(ByteBuffer records, int entry) {
+        records.put(hashes, entry * HASH_BYTES, HASH_BYTES)
+                .putInt(packs[entry]).putLong(segmentOffsets[entry]).putInt(offsets[entry]).putInt(lengths[entry]);
+    }
+
+    private FileChannel currentPack() throws IOException {
+        if (pack != null && pack.size() >= PACK_SIZE_LIMIT) {
+            pack.force(false);
+            pack.close();
+            pack = null;
+            packNumber++;
+        }
+        if (pack == null) {
+            pack = FileChannel.open(packFile(packNumber), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (pack.size() >= PACK_SIZE_LIMIT) {
+                pack.close();
+                pack = null;
+                packNumber++;
+                return currentPack();
+            }
+        }
+        return pack;
+    }
+
+    private byte[] readSegment(int recordPack, long segmentOffset) throws IOException {
+        long key = ((long) recordPack << 40) | segmentOffset;
+        synchronized (segmentCache) {
+            byte[] cached = segmentCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        FileChannel channel;
+        synchronized (readers) {
+            channel = readers.get(recordPack);
+            if (channel == null) {
+                channel = FileChannel.open(packFile(recordPack), StandardOpenOption.READ);
+                readers.put(recordPack, channel);
+            }
+        }
+
+        ByteBuffer header = readFully(channel, SEGMENT_HEADER_BYTES, segmentOffset);
+        BackupCodec segmentCodec = BackupCodec.fromId(header.get());
+        int rawLength = header.getInt();
+        int storedLength = header.getInt();
+        byte[] stored = readFully(channel, storedLength, segmentOffset + SEGMENT_HEADER_BYTES).array();
+        byte[] raw = segmentCodec.decompress(stored, rawLength);
+
+        synchronized (segmentCache) {
+            segmentCache.put(key, raw);
+        }
+        return raw;
+    }
+
+    private int find(byte[] hash) {
+        int mask = slots.length - 1;
+        for (int slot = slotOf(hash, 0) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (Arrays.equals(hashes, entry * HASH_BYTES, entry * HASH_BYTES + HASH_BYTES, hash, 0, HASH_BYTES)) {
+                return entry;
+            }
+        }
+    }
+
+    private int addEntry(byte[] hash, int hashOffset, int offset, int length) {
+        if (count == packs.length) {
+            int capacity = count * 2;
+            hashes = Arrays.copyOf(hashes, capacity * HASH_BYTES);
+            packs = Arrays.copyOf(packs, capacity);
+            segmentOffsets = Arrays.copyOf(segmentOffsets, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        if ((count + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+
+        int entry = count++;
+        System.arraycopy(hash, hashOffset, hashes, entry * HASH_BYTES, HASH_BYTES);
+        offsets[entry] = offset;
+        lengths[entry] = length;
+        insertSlot(entry);
+        return entry;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int entry = 0; entry < count; entry++) {
+            insertSlot(entry);
+        }
+    }
+
+    private void insertSlot(int entry) {
+        int mask = slots.length - 1;
+        int slot = slotOf(hashes, entry * HASH_BYTES) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    // Los primeros bytes de un SHA-1 ya están bien repartidos
+    private static int slotOf(byte[] hash, int offset) {
+        return (hash[offset] & 0xFF) << 24 | (hash[offset + 1] & 0xFF) << 16
+                | (hash[offset + 2] & 0xFF) << 8 | (hash[offset + 3] & 0xFF);
+    }
+
+    private void checkUsable() {
+        if (failed) {
+            throw new IllegalStateException("El almacén de copias falló al escribir; hay que volver a abrirlo");
+        }
+    }
+
+    private Path packFile(int number) {
+        return packsDirectory.resolve(String.format("%06d.pack", number));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Pack de copias truncado en " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (packLock) {
+            if (pack != null) {
+                pack.close();
+                pack = null;
+            }
+        }
+        synchronized (readers) {
+            for (FileChannel reader : readers.values()) {
+                reader.close();
+            }
+            readers.clear();
+        }
+        index.close();
+    }
+
+    private static final class Segment {
+        private final byte[] data;
+        private final int length;
+        private final int first;
+        private final int end;
+
+        Segment(byte[] data, int length, int first, int end) {
+            this.data = data;
+            this.length = length;
+            this.first = first;
+            this.end = end;
+        }
+    }
+}
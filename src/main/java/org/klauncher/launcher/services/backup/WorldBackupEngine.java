@@ -0,0 +1,453 @@
+package org.klauncher.launcher.services.backup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Copias incrementales de mundos. Cada archivo se parte en fragmentos (en los .mca, uno por
+ * chunk del juego más la cabecera; en el resto, bloques fijos) que se guardan una sola vez en
+ * el {@link ChunkStore} por su SHA-1. Los archivos con el mismo tamaño y fecha que en la copia
+ * anterior ni se leen, y de los que cambiaron solo se escriben los chunks que el juego guardó
+ * de nuevo, así que una copia horaria de un mundo grande cuesta segundos y unos pocos MB.
+ *
+ * Al eliminar copias antiguas sus fragmentos se quedan en el almacén hasta la siguiente
+ * compactación (como mucho una al día), que marca lo que usan las copias que quedan y reescribe
+ * los packs con poco contenido vivo.
+ */
+public class WorldBackupEngine {
+    private static final Logger logger = LoggerFactory.getLogger(WorldBackupEngine.class);
+    static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int SECTOR_BYTES = 4096;
+    private static final int REGION_HEADER_BYTES = 2 * SECTOR_BYTES;
+    private static final int REGION_CHUNKS = 1024;
+    // Las regiones más grandes se tratan como un archivo cualquiera para no cargarlas enteras
+    private static final long MAX_REGION_BYTES = 256L * 1024 * 1024;
+    private static final int RECIPE_PIECE_BYTES = 8 + ChunkStore.HASH_BYTES;
+    private static final Set<String> SKIPPED_FILES = Set.of("session.lock");
+    private static final Duration COMPACTION_INTERVAL = Duration.ofHours(24);
+    // Su fecha de modificación es la de la última compactación
+    private static final String COMPACTION_MARKER = "compacted";
+    private static final DateTimeFormatter SNAPSHOT_NAME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+
+    private final Path storeDirectory;
+    private final Path snapshotsDirectory;
+    private final int threads;
+
+    public WorldBackupEngine(Path backupRoot) {
+        this.storeDirectory = backupRoot.resolve("store");
+        this.snapshotsDirectory = backupRoot.resolve("snapshots");
+        this.threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Crea una copia del mundo y elimina las que pasen de {@code keep}. El mundo puede estar
+     * abierto: cada archivo se copia tal como está al leerlo. Si nada cambió desde la última
+     * copia no se crea otra y se devuelve esa.
+     */
+    public synchronized WorldSnapshot backup(Path worldDirectory, String worldKey, BackupCodec codec, int keep)
+            throws IOException {
+        long start = System.nanoTime();
+        Instant created = Instant.now();
+        List<WorldSnapshot> previous = listSnapshots(worldKey);
+        Map<String, WorldSnapshot.Entry> last = new HashMap<>();
+        if (!previous.isEmpty()) {
+            for (WorldSnapshot.Entry entry : previous.get(previous.size() - 1).getEntries()) {
+                last.put(entry.getPath(), entry);
+            }
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(worldDirectory)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> !SKIPPED_FILES.contains(file.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+
+        List<WorldSnapshot.Entry> entries = new ArrayList<>(files.size());
+        WorldSnapshot snapshot;
+        try (ChunkStore store = ChunkStore.open(storeDirectory, codec);
+             ExecutorService workers = Executors.newFixedThreadPool(threads,
+                     Thread.ofVirtual().name("world-backup-", 0).factory())) {
+            List<Future<WorldSnapshot.Entry>> pending = new ArrayList<>();
+
+            for (Path file : files) {
+                String path = relativePath(worldDirectory, file);
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long size = attributes.size();
+                long modified = attributes.lastModifiedTime().toMillis();
+
+                WorldSnapshot.Entry unchanged = last.get(path);
+                if (unchanged != null && unchanged.matches(size, modified) && store.contains(unchanged.getRecipe())) {
+                    entries.add(unchanged);
+                } else {
+                    pending.add(workers.submit(() -> new WorldSnapshot.Entry(path, size, modified, storeFile(file, store))));
+                }
+            }
+
+            for (Future<WorldSnapshot.Entry> future : pending) {
+                entries.add(await(future));
+            }
+            store.flush();
+
+            if (pending.isEmpty() && !previous.isEmpty() && entries.size() == last.size()) {
+                WorldSnapshot latest = previous.get(previous.size() - 1);
+                logger.debug("El mundo {} no ha cambiado desde la copia {}", worldKey, latest.getId());
+                return latest;
+            }
+
+            entries.sort(Comparator.comparing(WorldSnapshot.Entry::getPath));
+            snapshot = new WorldSnapshot(snapshotsDirectory.resolve(worldKey).resolve(SNAPSHOT_NAME.format(created)
+                    + WorldSnapshot.EXTENSION), worldKey, created, entries, pending.size(), store.getNewBytes(),
+                    store.getStoredBytes(), (System.nanoTime() - start) / 1_000_000);
+        }
+
+        snapshot.write();
+        logger.info("Copia de mundo creada: {}", snapshot);
+        if (prune(worldKey, keep) > 0 && isCompactionDue()) {
+            try {
+                compact(codec);
+            } catch (IOException e) {
+                logger.warn("No se pudo compactar el almacén de copias", e);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Copias del mundo, de la más antigua a la más reciente
+     */
+    public List<WorldSnapshot> listSnapshots(String worldKey) throws IOException {
+        Path directory = snapshotsDirectory.resolve(worldKey);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(WorldSnapshot.EXTENSION))
+                    .sorted()
+                    .toList();
+        }
+
+        List<WorldSnapshot> snapshots = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                snapshots.add(WorldSnapshot.read(file));
+            } catch (IOException e) {
+                logger.warn("Copia de mundo ilegible, se ignora: {}", file, e);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Reconstruye la copia en {@code target}, que no debe existir; si algo falla no queda nada a medias
+     */
+    public synchronized void restore(WorldSnapshot snapshot, Path target) throws IOException {
+        if (Files.exists(target)) {
+            throw new IOException("El destino de la restauración ya existe: " + target);
+        }
+
+        long start = System.nanoTime();
+        Files.createDirectories(target);
+        try (ChunkStore store = ChunkStore.open(storeDirectory, BackupCodec.STORED)) {
+            for (WorldSnapshot.Entry entry : snapshot.getEntries()) {
+                Path file = target.resolve(entry.getPath()).normalize();
+                if (!file.startsWith(target)) {
+                    throw new IOException("Ruta fuera del mundo en la copia: " + entry.getPath());
+                }
+                Files.createDirectories(file.getParent());
+                restoreFile(store, entry.getRecipe(), file);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(entry.getModified()));
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(target);
+            throw e;
+        }
+        logger.info("Copia {} restaurada en {} ({} ms)", snapshot.getId(), target, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Sustituye el mundo por la copia. Se restaura junto a él y solo al terminar se intercambian
+     * las carpetas, de modo que un fallo deja el mundo actual intacto.
+     */
+    public synchronized void replace(WorldSnapshot snapshot, Path worldDirectory) throws IOException {
+        String name = worldDirectory.getFileName().toString();
+        Path restored = worldDirectory.resolveSibling("." + name + ".restoring");
+        Path replaced = worldDirectory.resolveSibling("." + name + ".replaced");
+        deleteRecursively(restored);
+        deleteRecursively(replaced);
+
+        restore(snapshot, restored);
+        if (Files.exists(worldDirectory)) {
+            Files.move(worldDirectory, replaced);
+        }
+        Files.move(restored, worldDirectory);
+        deleteRecursively(replaced);
+    }
+
+    public synchronized void deleteSnapshot(WorldSnapshot snapshot) throws IOException {
+        Files.deleteIfExists(snapshot.getFile());
+    }
+
+    /**
+     * Deja solo las {@code keep} copias más recientes y devuelve cuántas se eliminaron. Los
+     * fragmentos que dejan de estar referenciados siguen en el almacén hasta {@link #compact}.
+     */
+    public synchronized int prune(String worldKey, int keep) throws IOException {
+        List<WorldSnapshot> snapshots = listSnapshots(worldKey);
+        int deleted = 0;
+        for (int i = 0; i < snapshots.size() - Math.max(1, keep); i++) {
+            deleteSnapshot(snapshots.get(i));
+            logger.debug("Copia antigua eliminada: {}", snapshots.get(i).getFile());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Marca los fragmentos que usan las copias de todos los mundos y elimina el resto del
+     * almacén. Si alguna copia no se puede leer no se borra nada, porque sus fragmentos
+     * quedarían sin marcar. Devuelve los bytes liberados.
+     */
+    public synchronized long compact(BackupCodec codec) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(snapshotsDirectory)) {
+            try (Stream<Path> walk = Files.walk(snapshotsDirectory)) {
+                walk.filter(file -> file.getFileName().toString().endsWith(WorldSnapshot.EXTENSION)).forEach(files::add);
+            }
+        }
+
+        long freed;
+        try (ChunkStore store = ChunkStore.open(storeDirectory, codec)) {
+            BitSet live = new BitSet(store.size());
+            byte[] hash = new byte[ChunkStore.HASH_BYTES];
+            for (Path file : files) {
+                for (WorldSnapshot.Entry entry : WorldSnapshot.read(file).getEntries()) {
+                    if (!store.mark(live, entry.getRecipe())) {
+                        continue;
+                    }
+                    ByteBuffer recipe = ByteBuffer.wrap(store.get(entry.getRecipe()));
+                    recipe.getLong();
+                    int count = recipe.getInt();
+                    for (int i = 0; i < count; i++) {
+                        recipe.getLong();
+                        recipe.get(hash);
+                        store.mark(live, hash);
+                    }
+                }
+            }
+            freed = store.compact(live);
+        }
+
+        Path marker = storeDirectory.resolve(COMPACTION_MARKER);
+        if (Files.exists(marker)) {
+            Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+        } else {
+            Files.createFile(marker);
+        }
+        logger.info("Compactación de copias: {} copias revisadas, {} KB liberados ({} ms)", files.size(),
+                freed / 1024, (System.nanoTime() - start) / 1_000_000);
+        return freed;
+    }
+
+    private boolean isCompactionDue() {
+        Path marker = storeDirectory.resolve(COMPACTION_MARKER);
+        try {
+            return !Files.exists(marker) || Files.getLastModifiedTime(marker).toInstant()
+                    .isBefore(Instant.now().minus(COMPACTION_INTERVAL));
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Trocea el archivo, guarda los fragmentos nuevos y devuelve el hash de su receta:
+     * [tamaño][número de piezas] y por cada pieza [posición][hash]
+     */
+    private byte[] storeFile(Path file, ChunkStore store) throws IOException {
+        MessageDigest digest = sha1();
+        long size = Files.size(file);
+        List<Long> positions = new ArrayList<>();
+        List<byte[]> hashes = new ArrayList<>();
+
+        byte[] region = null;
+        if (file.getFileName().toString().endsWith(".mca") && size >= REGION_HEADER_BYTES && size <= MAX_REGION_BYTES) {
+            region = Files.readAllBytes(file);
+        }
+        List<int[]> pieces = region != null ? regionPieces(region) : null;
+
+        if (pieces != null) {
+            for (int[] piece : pieces) {
+                byte[] hash = digest.digest(Arrays.copyOfRange(region, piece[0], piece[0] + piece[1]));
+                store.put(hash, region, piece[0], piece[1]);
+                positions.add((long) piece[0]);
+                hashes.add(hash);
+            }
+            size = region.length;
+        } else {
+            try (InputStream in = Files.newInputStream(file)) {
+                byte[] block = new byte[BLOCK_SIZE];
+                long position = 0;
+                int read;
+                while ((read = in.readNBytes(block, 0, BLOCK_SIZE)) > 0) {
+                    digest.update(block, 0, read);
+                    byte[] hash = digest.digest();
+                    store.put(hash, block, 0, read);
+                    positions.add(position);
+                    hashes.add(hash);
+                    position += read;
+                }
+                size = position;
+            }
+        }
+
+        ByteBuffer recipe = ByteBuffer.allocate(8 + 4 + hashes.size() * RECIPE_PIECE_BYTES);
+        recipe.putLong(size).putInt(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            recipe.putLong(positions.get(i)).put(hashes.get(i));
+        }
+        byte[] recipeHash = digest.digest(recipe.array());
+        store.put(recipeHash, recipe.array(), 0, recipe.capacity());
+        return recipeHash;
+    }
+
+    /**
+     * Cabecera de la región y un trozo por chunk guardado (4 bytes de longitud + datos), o null si
+     * la tabla de posiciones no es coherente y el archivo debe tratarse por bloques. El relleno
+     * entre sectores no se guarda y se restaura como ceros.
+     */
+    private static List<int[]> regionPieces(byte[] region) {
+        ByteBuffer buffer = ByteBuffer.wrap(region);
+        List<int[]> pieces = new ArrayList<>(REGION_CHUNKS + 1);
+
+        for (int i = 0; i < REGION_CHUNKS; i++) {
+            int location = buffer.getInt(i * 4);
+            int sector = location >>> 8;
+            if (sector == 0) {
+                continue;
+            }
+            long offset = (long) sector * SECTOR_BYTES;
+            if (sector < 2 || offset + 4 > region.length) {
+                return null;
+            }
+            int length = buffer.getInt((int) offset);
+            if (length <= 0 || offset + 4 + length > region.length) {
+                return null;
+            }
+            pieces.add(new int[]{(int) offset, 4 + length});
+        }
+
+        pieces.sort(Comparator.comparingInt(piece -> piece[0]));
+        for (int i = 1; i < pieces.size(); i++) {
+            if (pieces.get(i - 1)[0] + pieces.get(i - 1)[1] > pieces.get(i)[0]) {
+                return null;
+            }
+        }
+        pieces.add(0, new int[]{0, REGION_HEADER_BYTES});
+        return pieces;
+    }
+
+    private static void restoreFile(ChunkStore store, byte[] recipeHash, Path file) throws IOException {
+        ByteBuffer recipe = ByteBuffer.wrap(store.get(recipeHash));
+        long size = recipe.getLong();
+        int count = recipe.getInt();
+        byte[] hash = new byte[ChunkStore.HASH_BYTES];
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < count; i++) {
+                long position = recipe.getLong();
+                recipe.get(hash);
+                ByteBuffer data = ByteBuffer.wrap(store.get(hash));
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+            }
+            if (channel.size() < size) {
+                channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+            }
+        }
+    }
+
+    private static String relativePath(Path root, Path file) {
+        StringBuilder path = new StringBuilder();
+        for (Path part : root.relativize(file)) {
+            if (!path.isEmpty()) {
+                path.append('/');
+            }
+            path.append(part);
+        }
+        return path.toString();
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Copia de mundo interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Error al copiar el mundo", e.getCause());
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("No se pudo borrar {}", path);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("No se pudo limpiar {}", directory, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.klauncher.launcher.services.backup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copia de un mundo en un instante: la lista de sus archivos con el hash de la receta que
+ * describe los fragmentos de cada uno. Los datos viven en el {@link ChunkStore}; el archivo de
+ * la copia ocupa unos pocos KB aunque el mundo ocupe varios GB.
+ */
+public class WorldSnapshot {
+    private static final int MAGIC = 0x4B534E50; // "KSNP"
+    private static final int FORMAT_VERSION = 1;
+    static final String EXTENSION = ".snap";
+
+    /**
+     * Archivo del mundo tal como estaba al hacer la copia
+     */
+    public static class Entry {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final byte[] recipe;
+
+        Entry(String path, long size, long modified, byte[] recipe) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.recipe = recipe;
+        }
+
+        /**
+         * Ruta relativa al mundo, separada siempre por '/'
+         */
+        public String getPath() { return path; }
+        public long getSize() { return size; }
+        public long getModified() { return modified; }
+        byte[] getRecipe() { return recipe; }
+
+        boolean matches(long size, long modified) {
+            return this.size == size && this.modified == modified;
+        }
+    }
+
+    private final Path file;
+    private final String worldKey;
+    private final Instant created;
+    private final List<Entry> entries;
+    private final int changedFiles;
+    private final long newBytes;
+    private final long storedBytes;
+    private final long elapsedMillis;
+
+    WorldSnapshot(Path file, String worldKey, Instant created, List<Entry> entries, int changedFiles,
+                  long newBytes, long storedBytes, long elapsedMillis) {
+        this.file = file;
+        this.worldKey = worldKey;
+        this.created = created;
+        this.entries = List.copyOf(entries);
+        this.changedFiles = changedFiles;
+        this.newBytes = newBytes;
+        this.storedBytes = storedBytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Path getFile() { return file; }
+    public String getWorldKey() { return worldKey; }
+    public Instant getCreated() { return created; }
+    public List<Entry> getEntries() { return entries; }
+
+    public String getId() {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - EXTENSION.length());
+    }
+
+    public long getTotalBytes() {
+        return entries.stream().mapToLong(Entry::getSize).sum();
+    }
+
+    /**
+     * Archivos que hubo que leer por haber cambiado desde la copia anterior
+     */
+    public int getChangedFiles() { return changedFiles; }
+
+    /**
+     * Bytes de fragmentos que no estaban ya en el almacén, antes y después de comprimir
+     */
+    public long getNewBytes() { return newBytes; }
+    public long getStoredBytes() { return storedBytes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Escribe la copia en un temporal y lo mueve a su sitio, de modo que nunca queda a medias
+     */
+    void write() throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(worldKey);
+            out.writeLong(created.toEpochMilli());
+            out.writeInt(changedFiles);
+            out.writeLong(newBytes);
+            out.writeLong(storedBytes);
+            out.writeLong(elapsedMillis);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.path);
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.write(entry.recipe);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static WorldSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Formato de copia no reconocido: " + file);
+            }
+            String worldKey = in.readUTF();
+            Instant created = Instant.ofEpochMilli(in.readLong());
+            int changedFiles = in.readInt();
+            long newBytes = in.readLong();
+            long storedBytes = in.readLong();
+            long elapsedMillis = in.readLong();
+
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                byte[] recipe = new byte[ChunkStore.HASH_BYTES];
+                in.readFully(recipe);
+                entries.add(new Entry(path, size, modified, recipe));
+            }
+            return new WorldSnapshot(file, worldKey, created, entries, changedFiles, newBytes, storedBytes, elapsedMillis);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s: %d archivos (%d cambiados), %d KB nuevos, %d KB escritos en %d ms",
+                worldKey, getId(), entries.size(), changedFiles, newBytes / 1024, storedBytes / 1024, elapsedMillis);
+    }
+}
@@ -0,0 +1,219 @@
+package org.klauncher.launcher.services.download;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Ajusta el número de descargas simultáneas a partir de lo que mide cada conexión.
+ * Las descargas terminadas se agrupan en ventanas; al cerrar cada ventana se compara
+ * el caudal total con el de la anterior y la latencia hasta el primer byte con la
+ * mínima observada:
+ * <ul>
+ *   <li>si la conexión añadida en la ventana anterior subió el caudal, se prueba otra más (+1);</li>
+ *   <li>si la conexión retirada no lo bajó, se retira otra (-1): menos conexiones con el mismo caudal es mejor;</li>
+ *   <li>si la prueba sale mal se deshace, se mantiene el valor unas ventanas y se prueba en el otro sentido;</li>
+ *   <li>con errores o latencia disparada (colas en el enlace) se reduce a tres cuartos.</li>
+ * </ul>
+ * Solo cuentan las ventanas en las que había descargas esperando hueco: con la cola
+ * vacía el caudal no depende de la concurrencia y no dice nada sobre el enlace.
+ */
+public class AdaptiveConcurrencyController {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyController.class);
+    private static final long MIN_WINDOW_NANOS = 1_000_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 4;
+    private static final double MIN_GAIN = 1.05;
+    private static final double MAX_LOSS = 0.95;
+    private static final double MAX_LATENCY_RATIO = 2.0;
+    private static final double BASELINE_AGING = 1.02;
+    private static final double ERROR_RATE_LIMIT = 0.1;
+    private static final int HOLD_WINDOWS = 5;
+
+    private int minConcurrent;
+    private int maxConcurrent;
+    private int limit;
+    private LongSupplier receivedBytes;
+
+    // Ventana en curso
+    private long windowStart;
+    private long windowStartBytes;
+    private long windowBytes;
+    private long windowFirstByteNanos;
+    private long windowTransferNanos;
+    private int windowSamples;
+    private int windowErrors;
+    private int windowSaturated;
+
+    // Resultado de ventanas anteriores
+    private double lastThroughput;
+    private double baselineLatency;
+    private int lastStep;
+    private int nextProbe = 1;
+    private int holdWindows;
+
+    public AdaptiveConcurrencyController(int initialConcurrent, int minConcurrent, int maxConcurrent) {
+        this.minConcurrent = Math.max(1, minConcurrent);
+        this.maxConcurrent = Math.max(this.minConcurrent, maxConcurrent);
+        this.limit = clamp(initialConcurrent);
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Registra una descarga completada y devuelve el límite a aplicar
+     *
+     * @param firstByteNanos tiempo hasta recibir las cabeceras de la respuesta
+     * @param transferNanos tiempo total de la descarga
+     * @param saturated si al terminar había tareas esperando hueco
+     */
+    public synchronized int recordSuccess(long bytes, long firstByteNanos, long transferNanos, boolean saturated) {
+        windowBytes += bytes;
+        windowFirstByteNanos += firstByteNanos;
+        windowTransferNanos += transferNanos;
+        windowSamples++;
+        if (saturated) {
+            windowSaturated++;
+        }
+        return evaluateIfDue();
+    }
+
+    /**
+     * Registra un intento fallido (error de red o de HTTP) y devuelve el límite a aplicar
+     */
+    public synchronized int recordFailure(boolean saturated) {
+        windowErrors++;
+        windowSamples++;
+        if (saturated) {
+            windowSaturated++;
+        }
+        return evaluateIfDue();
+    }
+
+    /**
+     * Cambia los límites configurados conservando el valor aprendido si sigue dentro
+     */
+    public synchronized void setBounds(int minConcurrent, int maxConcurrent) {
+        this.minConcurrent = Math.max(1, minConcurrent);
+        this.maxConcurrent = Math.max(this.minConcurrent, maxConcurrent);
+        this.limit = clamp(limit);
+    }
+
+    /**
+     * Contador de bytes recibidos por todas las descargas; el caudal de cada ventana se
+     * calcula con él para contar también lo que llega de descargas aún sin terminar
+     */
+    synchronized void bind(LongSupplier receivedBytes) {
+        this.receivedBytes = receivedBytes;
+        this.windowStart = System.nanoTime();
+        this.windowStartBytes = receivedBytes.getAsLong();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Caudal total medido en la última ventana válida, en bytes/s
+     */
+    public synchronized double getLastThroughput() {
+        return lastThroughput;
+    }
+
+    private int evaluateIfDue() {
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        // Cada hueco debe haber terminado al menos una descarga para que la ventana sea representativa
+        if (elapsed < MIN_WINDOW_NANOS || windowSamples < Math.max(MIN_WINDOW_SAMPLES, limit)) {
+            return limit;
+        }
+
+        int successes = windowSamples - windowErrors;
+        boolean representative = windowSaturated * 2 >= windowSamples;
+        if (representative) {
+            long bytes = receivedBytes != null ? receivedBytes.getAsLong() - windowStartBytes : windowBytes;
+            double throughput = bytes * 1e9 / elapsed;
+            double latency = successes > 0 ? (double) windowFirstByteNanos / successes : 0;
+            double errorRate = (double) windowErrors / windowSamples;
+            adjust(throughput, latency, errorRate, successes > 0 ? (double) windowBytes * 1e9 / windowTransferNanos : 0);
+        }
+
+        windowStart = now;
+        windowStartBytes = receivedBytes != null ? receivedBytes.getAsLong() : 0;
+        windowBytes = 0;
+        windowFirstByteNanos = 0;
+        windowTransferNanos = 0;
+        windowSamples = 0;
+        windowErrors = 0;
+        windowSaturated = 0;
+        return limit;
+    }
+
+    private void adjust(double throughput, double latency, double errorRate, double perConnection) {
+        int previous = limit;
+
+        if (latency > 0) {
+            // La base sube poco a poco para reaprender si cambia la ruta o el servidor
+            baselineLatency = baselineLatency == 0 ? latency : Math.min(latency, baselineLatency * BASELINE_AGING);
+        }
+        boolean congested = errorRate >= ERROR_RATE_LIMIT
+                || (baselineLatency > 0 && latency > baselineLatency * MAX_LATENCY_RATIO);
+
+        if (congested) {
+            limit = clamp(Math.min(limit - 1, limit * 3 / 4));
+            lastStep = 0;
+            nextProbe = 1;
+            holdWindows = 2;
+        } else if (lastStep > 0 && throughput < lastThroughput * MIN_GAIN) {
+            // La conexión añadida no aportó caudal: el enlace ya está lleno
+            revert(-1);
+        } else if (lastStep < 0 && throughput < lastThroughput * MAX_LOSS) {
+            // La conexión retirada sí hacía falta
+            revert(1);
+        } else if (lastStep != 0) {
+            step(lastStep);
+        } else if (holdWindows > 0) {
+            holdWindows--;
+        } else {
+            step(nextProbe);
+        }
+        lastThroughput = throughput;
+
+        if (limit != previous) {
+            logger.info("Descargas simultáneas {} → {} ({} KiB/s, {} KiB/s por conexión, primer byte {} ms, errores {}%)",
+                    previous, limit, Math.round(throughput / 1024), Math.round(perConnection / 1024),
+                    Math.round(latency / 1_000_000), Math.round(errorRate * 100));
+        } else {
+            logger.debug("Descargas simultáneas sin cambios en {} ({} KiB/s, primer byte {} ms)",
+                    limit, Math.round(throughput / 1024), Math.round(latency / 1_000_000));
+        }
+    }
+
+    /**
+     * Avanza un paso en el sentido indicado; en los extremos la prueba cambia de sentido
+     */
+    private void step(int direction) {
+        int next = clamp(limit + direction);
+        if (next == limit) {
+            lastStep = 0;
+            nextProbe = -direction;
+            return;
+        }
+        limit = next;
+        lastStep = direction;
+    }
+
+    private void revert(int direction) {
+        limit = clamp(limit + direction);
+        lastStep = 0;
+        nextProbe = direction;
+        holdWindows = HOLD_WINDOWS;
+    }
+
+    private int clamp(int value) {
+        return Math.max(minConcurrent, Math.min(maxConcurrent, value));
+    }
+}
@@ -0,0 +1,248 @@
+package org.klauncher.launcher.services.download;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Objetos de un índice de assets en arrays primitivos: 20 bytes de SHA-1 y un int de tamaño
+ * por objeto, unos 24 bytes frente a los cientos de una entrada con cadenas. La ruta de cada
+ * objeto se deriva del hash (assets/objects/xx/hash), así que no se guarda; los nombres lógicos
+ * del índice tampoco, porque la descarga y la limpieza solo dependen del contenido.
+ * Tras {@link #seal()} la tabla queda ordenada por hash, sin duplicados, y admite búsquedas binarias.
+ */
+public class AssetObjectTable {
+    public static final int HASH_BYTES = 20;
+    private static final int RECORD_BYTES = HASH_BYTES + Integer.BYTES;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private byte[] hashes;
+    private int[] sizes;
+    private int count;
+    private boolean sealed;
+    private final byte[] swapBuffer = new byte[HASH_BYTES];
+
+    public AssetObjectTable(int expectedObjects) {
+        int capacity = Math.max(16, expectedObjects);
+        this.hashes = new byte[capacity * HASH_BYTES];
+        this.sizes = new int[capacity];
+    }
+
+    /**
+     * Añade un objeto a partir del hash en hexadecimal tal como lo entrega el parser, sin crear cadenas.
+     * Devuelve false si el hash no es un SHA-1 válido.
+     */
+    public boolean add(char[] hex, int offset, int length, long size) {
+        if (length != HASH_BYTES * 2) {
+            return false;
+        }
+
+        ensureCapacity();
+        int base = count * HASH_BYTES;
+        for (int i = 0; i < HASH_BYTES; i++) {
+            int high = Character.digit(hex[offset + i * 2], 16);
+            int low = Character.digit(hex[offset + i * 2 + 1], 16);
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            hashes[base + i] = (byte) (high << 4 | low);
+        }
+        sizes[count++] = (int) Math.min(Integer.MAX_VALUE, size);
+        sealed = false;
+        return true;
+    }
+
+    public boolean add(String hex, long size) {
+        return add(hex.toCharArray(), 0, hex.length(), size);
+    }
+
+    /**
+     * Ordena por hash y elimina duplicados (varios nombres del índice pueden compartir objeto)
+     */
+    public AssetObjectTable seal() {
+        if (sealed) {
+            return this;
+        }
+
+        quickSort(0, count - 1);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || compare(i, unique - 1) != 0) {
+                if (i != unique) {
+                    System.arraycopy(hashes, i * HASH_BYTES, hashes, unique * HASH_BYTES, HASH_BYTES);
+                    sizes[unique] = sizes[i];
+                }
+                unique++;
+            }
+        }
+        count = unique;
+        sealed = true;
+        return this;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int sizeAt(int index) {
+        return sizes[index];
+    }
+
+    public String hashAt(int index) {
+        return HexFormat.of().formatHex(hashes, index * HASH_BYTES, (index + 1) * HASH_BYTES);
+    }
+
+    /**
+     * Ruta relativa al directorio del juego del objeto
+     */
+    public String pathAt(int index) {
+        String hash = hashAt(index);
+        return ManifestReader.ASSET_OBJECTS_PREFIX + hash.substring(0, 2) + "/" + hash;
+    }
+
+    public long totalSize() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += Math.max(0, sizes[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Si esta tabla (sellada) contiene el objeto {@code index} de {@code other} con el mismo tamaño
+     */
+    public boolean contains(AssetObjectTable other, int index) {
+        int position = indexOf(other, index);
+        return position >= 0 && sizes[position] == other.sizes[index];
+    }
+
+    /**
+     * Posición en esta tabla (sellada) del hash del objeto {@code index} de {@code other}, o -1
+     */
+    public int indexOf(AssetObjectTable other, int index) {
+        if (!sealed) {
+            throw new IllegalStateException("La tabla de objetos debe sellarse antes de buscar");
+        }
+
+        int low = 0;
+        int high = count - 1;
+        int otherOffset = index * HASH_BYTES;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Arrays.compareUnsigned(hashes, middle * HASH_BYTES, (middle + 1) * HASH_BYTES,
+                    other.hashes, otherOffset, otherOffset + HASH_BYTES);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Formato binario compacto para la base de datos: registros de hash y tamaño
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_BYTES);
+        for (int i = 0; i < count; i++) {
+            buffer.put(hashes, i * HASH_BYTES, HASH_BYTES).putInt(sizes[i]);
+        }
+        return buffer.array();
+    }
+
+    public static AssetObjectTable fromBytes(byte[] data) {
+        int records = data.length / RECORD_BYTES;
+        AssetObjectTable table = new AssetObjectTable(records);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        for (int i = 0; i < records; i++) {
+            buffer.get(table.hashes, i * HASH_BYTES, HASH_BYTES);
+            table.sizes[i] = buffer.getInt();
+        }
+        table.count = records;
+        return table.seal();
+    }
+
+    /**
+     * Añade todos los objetos de otra tabla
+     */
+    public void addAll(AssetObjectTable other) {
+        for (int i = 0; i < other.count; i++) {
+            ensureCapacity();
+            System.arraycopy(other.hashes, i * HASH_BYTES, hashes, count * HASH_BYTES, HASH_BYTES);
+            sizes[count++] = other.sizes[i];
+        }
+        sealed = false;
+    }
+
+    private void ensureCapacity() {
+        if (count == sizes.length) {
+            int capacity = sizes.length * 2;
+            hashes = Arrays.copyOf(hashes, capacity * HASH_BYTES);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+    }
+
+    private int compare(int a, int b) {
+        return Arrays.compareUnsigned(hashes, a * HASH_BYTES, (a + 1) * HASH_BYTES,
+                hashes, b * HASH_BYTES, (b + 1) * HASH_BYTES);
+    }
+
+    private void quickSort(int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int pivot = partition(from, to);
+            // Recursión sobre la mitad pequeña para acotar la pila
+            if (pivot - from < to - pivot) {
+                quickSort(from, pivot - 1);
+                from = pivot + 1;
+            } else {
+                quickSort(pivot + 1, to);
+                to = pivot - 1;
+            }
+        }
+
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && compare(j, j - 1) < 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private int partition(int from, int to) {
+        int middle = (from + to) >>> 1;
+        // Mediana de tres como pivote, colocada al final
+        if (compare(middle, from) < 0) {
+            swap(middle, from);
+        }
+        if (compare(to, from) < 0) {
+            swap(to, from);
+        }
+        if (compare(middle, to) < 0) {
+            swap(middle, to);
+        }
+
+        int store = from;
+        for (int i = from; i < to; i++) {
+            if (compare(i, to) < 0) {
+                swap(i, store++);
+            }
+        }
+        swap(store, to);
+        return store;
+    }
+
+    private void swap(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        System.arraycopy(hashes, a * HASH_BYTES, swapBuffer, 0, HASH_BYTES);
+        System.arraycopy(hashes, b * HASH_BYTES, hashes, a * HASH_BYTES, HASH_BYTES);
+        System.arraycopy(swapBuffer, 0, hashes, b * HASH_BYTES, HASH_BYTES);
+
+        int size = sizes[a];
+        sizes[a] = sizes[b];
+        sizes[b] = size;
+    }
+}
@@ -0,0 +1,151 @@
+package org.klauncher.launcher.services.download;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Aplica parches binarios en formato bsdiff (BSDIFF40): una cabecera con las longitudes y tres
+ * secciones comprimidas con bzip2 (control, diferencias y bytes nuevos). Cada tupla de control
+ * suma un tramo de diferencias al archivo antiguo, copia un tramo de bytes nuevos y desplaza la
+ * posición en el antiguo. El resultado se escribe en streaming; el archivo antiguo se lee por
+ * posiciones sin cargarlo entero.
+ */
+public final class BinaryPatch {
+    private static final byte[] MAGIC = "BSDIFF40".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 32;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BinaryPatch() {
+    }
+
+    /**
+     * Reconstruye en {@code out} el archivo nuevo a partir de {@code oldFile} y el parche.
+     * Devuelve el tamaño del archivo nuevo.
+     */
+    public static long apply(Path oldFile, Path patchFile, OutputStream out) throws IOException {
+        byte[] header;
+        try (InputStream in = Files.newInputStream(patchFile)) {
+            header = in.readNBytes(HEADER_BYTES);
+        }
+        if (header.length < HEADER_BYTES || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("Parche binario no reconocido: " + patchFile.getFileName());
+        }
+
+        long controlLength = offset(header, 8);
+        long diffLength = offset(header, 16);
+        long newSize = offset(header, 24);
+        if (controlLength < 0 || diffLength < 0 || newSize < 0
+                || HEADER_BYTES + controlLength + diffLength > Files.size(patchFile)) {
+            throw new IOException("Cabecera de parche binario corrupta: " + patchFile.getFileName());
+        }
+
+        try (FileChannel old = FileChannel.open(oldFile, StandardOpenOption.READ);
+             InputStream control = section(patchFile, HEADER_BYTES);
+             InputStream diff = section(patchFile, HEADER_BYTES + controlLength);
+             InputStream extra = section(patchFile, HEADER_BYTES + controlLength + diffLength)) {
+
+            long oldSize = old.size();
+            byte[] tuple = new byte[3 * Long.BYTES];
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer oldBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long newPosition = 0;
+            long oldPosition = 0;
+
+            while (newPosition < newSize) {
+                readFully(control, tuple, tuple.length);
+                long addLength = offset(tuple, 0);
+                long copyLength = offset(tuple, 8);
+                long seek = offset(tuple, 16);
+                if (addLength < 0 || copyLength < 0 || newPosition + addLength + copyLength > newSize) {
+                    throw new IOException("Tupla de control fuera de rango en " + patchFile.getFileName());
+                }
+
+                // Diferencias sumadas byte a byte a los del archivo antiguo
+                for (long done = 0; done < addLength; ) {
+                    int chunk = (int) Math.min(BUFFER_SIZE, addLength - done);
+                    readFully(diff, buffer, chunk);
+                    addOld(old, oldSize, oldPosition + done, buffer, chunk, oldBuffer);
+                    out.write(buffer, 0, chunk);
+                    done += chunk;
+                }
+                newPosition += addLength;
+                oldPosition += addLength;
+
+                // Bytes que no están en el archivo antiguo
+                for (long done = 0; done < copyLength; ) {
+                    int chunk = (int) Math.min(BUFFER_SIZE, copyLength - done);
+                    readFully(extra, buffer, chunk);
+                    out.write(buffer, 0, chunk);
+                    done += chunk;
+                }
+                newPosition += copyLength;
+                oldPosition += seek;
+            }
+        }
+        return newSize;
+    }
+
+    /**
+     * Suma a {@code buffer} los bytes del archivo antiguo desde {@code position}; fuera de él no suma nada
+     */
+    private static void addOld(FileChannel old, long oldSize, long position, byte[] buffer, int length,
+                               ByteBuffer oldBuffer) throws IOException {
+        long from = Math.max(0, position);
+        long to = Math.min(oldSize, position + length);
+        if (from >= to) {
+            return;
+        }
+
+        oldBuffer.clear().limit((int) (to - from));
+        while (oldBuffer.hasRemaining()) {
+            if (old.read(oldBuffer, from + oldBuffer.position()) < 0) {
+                throw new IOException("El archivo base terminó antes de lo esperado");
+            }
+        }
+
+        int offset = (int) (from - position);
+        byte[] oldBytes = oldBuffer.array();
+        for (int i = 0; i < to - from; i++) {
+            buffer[offset + i] += oldBytes[i];
+        }
+    }
+
+    private static InputStream section(Path patchFile, long offset) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(patchFile), BUFFER_SIZE);
+        try {
+            in.skipNBytes(offset);
+            return new BZip2CompressorInputStream(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        if (in.readNBytes(buffer, 0, length) != length) {
+            throw new IOException("Parche binario truncado");
+        }
+    }
+
+    /**
+     * Entero de 64 bits de bsdiff: little-endian con el bit alto como signo (no complemento a dos)
+     */
+    private static long offset(byte[] bytes, int start) {
+        long value = bytes[start + 7] & 0x7F;
+        for (int i = 6; i >= 0; i--) {
+            value = (value << 8) | (bytes[start + i] & 0xFF);
+        }
+        return (bytes[start + 7] & 0x80) != 0 ? -value : value;
+    }
+}
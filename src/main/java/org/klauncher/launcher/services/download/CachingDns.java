@@ -0,0 +1,71 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.Dns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolución DNS con caché por TTL. Si una consulta falla y hay una respuesta caducada
+ * se reutiliza, para que un fallo puntual del resolvedor no corte las descargas.
+ */
+public class CachingDns implements Dns {
+    private static final Logger logger = LoggerFactory.getLogger(CachingDns.class);
+
+    private final Dns delegate;
+    private final long ttlNanos;
+    private final Map<String, Entry> cache;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public CachingDns(Dns delegate, Duration ttl) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        Entry entry = cache.get(hostname);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.resolvedAt < ttlNanos) {
+            hits.incrementAndGet();
+            return entry.addresses;
+        }
+
+        misses.incrementAndGet();
+        try {
+            List<InetAddress> addresses = List.copyOf(delegate.lookup(hostname));
+            cache.put(hostname, new Entry(addresses, now));
+            return addresses;
+        } catch (UnknownHostException e) {
+            if (entry != null) {
+                logger.debug("DNS sin respuesta para {}, usando la entrada caducada", hostname);
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    private static final class Entry {
+        private final List<InetAddress> addresses;
+        private final long resolvedAt;
+
+        private Entry(List<InetAddress> addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas de conexiones del cliente HTTP compartido. Una petición reutiliza conexión
+ * cuando la obtiene del pool sin abrir socket (ni handshake TLS) propio.
+ */
+public class ConnectionMetrics {
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong http2Connections = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+
+    public long getCalls() { return calls.get(); }
+    public long getNewConnections() { return newConnections.get(); }
+    public long getReusedConnections() { return reusedConnections.get(); }
+    public long getTlsHandshakes() { return tlsHandshakes.get(); }
+    public long getHttp2Connections() { return http2Connections.get(); }
+    public long getFailedCalls() { return failedCalls.get(); }
+
+    /**
+     * Fracción de conexiones obtenidas del pool (0..1)
+     */
+    public double getReuseRate() {
+        long reused = reusedConnections.get();
+        long total = reused + newConnections.get();
+        return total == 0 ? 0 : (double) reused / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d peticiones, %d conexiones nuevas (%d HTTP/2, %d TLS), %d reutilizadas (%.0f%%), %d fallidas",
+                getCalls(), getNewConnections(), getHttp2Connections(), getTlsHandshakes(),
+                getReusedConnections(), getReuseRate() * 100, getFailedCalls());
+    }
+
+    /**
+     * Fábrica de listeners para OkHttp; cada llamada tiene el suyo
+     */
+    EventListener.Factory listenerFactory() {
+        return call -> new CallListener();
+    }
+
+    private final class CallListener extends EventListener {
+        private boolean connected;
+
+        @Override
+        public void callStart(Call call) {
+            calls.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connected = true;
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsHandshakes.incrementAndGet();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            if (protocol == Protocol.HTTP_2) {
+                http2Connections.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            if (connected) {
+                newConnections.incrementAndGet();
+            } else {
+                reusedConnections.incrementAndGet();
+            }
+            // Tras un reintento o redirección la siguiente conexión se evalúa de nuevo
+            connected = false;
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            failedCalls.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.HttpUrl;
+
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor de parches binarios entre revisiones de un mismo archivo ({@link BinaryPatch}).
+ * Para una tarea con archivo base se pide {@code {base}/{sha1 base}/{sha1 destino}.bsdiff};
+ * si no existe (404), no se puede aplicar o el resultado no verifica, la descarga sigue por
+ * el archivo completo, así que el servidor solo necesita tener los parches que compensen.
+ */
+public class DeltaSource {
+    public static final String PATCH_EXTENSION = ".bsdiff";
+
+    private final HttpUrl baseUrl;
+    private final AtomicLong applied;
+    private final AtomicLong fallbacks;
+    private final AtomicLong patchBytes;
+    private final AtomicLong savedBytes;
+
+    public DeltaSource(String baseUrl) {
+        HttpUrl parsed = HttpUrl.parse(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        if (parsed == null) {
+            throw new IllegalArgumentException("URL de parches no válida: " + baseUrl);
+        }
+        this.baseUrl = parsed;
+        this.applied = new AtomicLong();
+        this.fallbacks = new AtomicLong();
+        this.patchBytes = new AtomicLong();
+        this.savedBytes = new AtomicLong();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl.toString();
+    }
+
+    /**
+     * URL del parche para la tarea, o null si no tiene archivo base presente o hash de destino
+     */
+    public String urlFor(DownloadTask task) {
+        if (task.getSha1() == null || task.getDeltaBasis() == null || task.getDeltaBasisSha1() == null
+                || task.getDeltaBasisSha1().equalsIgnoreCase(task.getSha1())
+                || !Files.isRegularFile(task.getDeltaBasis())) {
+            return null;
+        }
+
+        return baseUrl.newBuilder()
+                .addPathSegment(task.getDeltaBasisSha1().toLowerCase())
+                .addPathSegment(task.getSha1().toLowerCase() + PATCH_EXTENSION)
+                .build()
+                .toString();
+    }
+
+    void recordApplied(long patchSize, long fileSize) {
+        applied.incrementAndGet();
+        patchBytes.addAndGet(patchSize);
+        savedBytes.addAndGet(Math.max(0, fileSize - patchSize));
+    }
+
+    void recordFallback() {
+        fallbacks.incrementAndGet();
+    }
+
+    public long getApplied() {
+        return applied.get();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d parches aplicados (%d MB descargados, %d MB ahorrados), %d descargas completas",
+                baseUrl, applied.get(), patchBytes.get() / (1024 * 1024), savedBytes.get() / (1024 * 1024),
+                fallbacks.get());
+    }
+}
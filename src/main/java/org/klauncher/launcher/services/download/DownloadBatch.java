@@ -0,0 +1,146 @@
+package org.klauncher.launcher.services.download;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Conjunto de descargas de un propietario (normalmente un perfil). Distingue lo necesario
+ * para arrancar del resto: {@link #getLaunchReady()} se completa en cuanto llegan los
+ * archivos críticos y de lanzamiento, mientras los de segundo plano siguen descargándose.
+ * Si las tareas se añaden poco a poco (p. ej. leyendo un manifiesto en streaming), {@link #hold()}
+ * evita que el lote se dé por terminado entre una entrega y la siguiente.
+ */
+public class DownloadBatch {
+    private static final Logger logger = LoggerFactory.getLogger(DownloadBatch.class);
+
+    private final String owner;
+    private final CompletableFuture<Void> launchReady;
+    private final CompletableFuture<Void> completion;
+    private final AtomicInteger launchTotal;
+    private final AtomicInteger launchPending;
+    private final AtomicInteger total;
+    private final AtomicInteger pending;
+    private final AtomicInteger holds;
+    private final List<Throwable> failures;
+    private volatile BiConsumer<DownloadTask, Throwable> listener;
+
+    DownloadBatch(String owner) {
+        this.owner = owner;
+        this.launchReady = new CompletableFuture<>();
+        this.completion = new CompletableFuture<>();
+        this.launchTotal = new AtomicInteger();
+        this.launchPending = new AtomicInteger();
+        this.total = new AtomicInteger();
+        this.pending = new AtomicInteger();
+        this.holds = new AtomicInteger();
+        this.failures = new CopyOnWriteArrayList<>();
+    }
+
+    public String getOwner() { return owner; }
+
+    /**
+     * Se completa cuando han llegado todos los archivos necesarios para arrancar
+     */
+    public CompletableFuture<Void> getLaunchReady() { return launchReady; }
+
+    /**
+     * Se completa cuando ha terminado todo, incluidas las descargas en segundo plano
+     */
+    public CompletableFuture<Void> getCompletion() { return completion; }
+
+    public int getLaunchTotal() { return launchTotal.get(); }
+    public int getLaunchCompleted() { return launchTotal.get() - launchPending.get(); }
+    public int getTotal() { return total.get(); }
+    public int getCompleted() { return total.get() - pending.get(); }
+    public List<Throwable> getFailures() { return List.copyOf(failures); }
+
+    /**
+     * Recibe cada tarea terminada con su error, si lo hubo
+     */
+    public void setListener(BiConsumer<DownloadTask, Throwable> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Retiene la finalización del lote hasta el {@link #release()} correspondiente
+     */
+    public void hold() {
+        holds.incrementAndGet();
+    }
+
+    /**
+     * Libera una retención; si ya no queda nada pendiente, el lote se completa
+     */
+    public void release() {
+        if (holds.decrementAndGet() == 0) {
+            checkCompleted();
+        }
+    }
+
+    /**
+     * Registra una tarea con la prioridad que este lote necesita
+     */
+    void track(DownloadTask task, DownloadPriority requested) {
+        boolean forLaunch = requested.isNeededForLaunch();
+        total.incrementAndGet();
+        pending.incrementAndGet();
+        if (forLaunch) {
+            launchTotal.incrementAndGet();
+            launchPending.incrementAndGet();
+        }
+
+        task.getFuture().whenComplete((path, error) -> finished(task, forLaunch, error));
+    }
+
+    /**
+     * Completa los futuros si no queda nada pendiente (lotes vacíos o ya descargados)
+     */
+    void checkCompleted() {
+        if (holds.get() > 0) {
+            return;
+        }
+        if (launchPending.get() == 0) {
+            launchReady.complete(null);
+        }
+        if (pending.get() == 0) {
+            complete();
+        }
+    }
+
+    private void finished(DownloadTask task, boolean forLaunch, Throwable error) {
+        if (error != null) {
+            failures.add(error);
+            if (forLaunch) {
+                launchReady.completeExceptionally(error);
+            } else {
+                logger.warn("No se pudo descargar {} para {}: {}", task.getTarget().getFileName(), owner, error.getMessage());
+            }
+        }
+
+        BiConsumer<DownloadTask, Throwable> current = listener;
+        if (current != null) {
+            current.accept(task, error);
+        }
+
+        if (forLaunch && launchPending.decrementAndGet() == 0 && holds.get() == 0) {
+            launchReady.complete(null);
+        }
+        if (pending.decrementAndGet() == 0 && holds.get() == 0) {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (failures.isEmpty()) {
+            completion.complete(null);
+        } else {
+            completion.completeExceptionally(failures.get(0));
+        }
+    }
+}
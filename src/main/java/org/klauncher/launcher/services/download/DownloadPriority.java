@@ -0,0 +1,17 @@
+package org.klauncher.launcher.services.download;
+
+/**
+ * Clases de prioridad de descarga, de mayor a menor
+ */
+public enum DownloadPriority {
+    /** Sin estos archivos no se puede ni resolver la versión (JSON de versión, jar cliente) */
+    CRITICAL,
+    /** Necesarios para arrancar (librerías, natives, índice de assets) */
+    LAUNCH,
+    /** El juego puede arrancar sin ellos (assets) */
+    BACKGROUND;
+
+    public boolean isNeededForLaunch() {
+        return this != BACKGROUND;
+    }
+}
@@ -0,0 +1,587 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Planificador de descargas con tres colas de prioridad ({@link DownloadPriority}).
+ * Siempre se atiende primero la clase más urgente; dentro de cada clase los propietarios
+ * (perfiles) se turnan, así que dos perfiles descargando a la vez avanzan por igual.
+ * Las descargas en segundo plano nunca ocupan todos los huecos, de modo que un archivo
+ * urgente que llegue después empieza sin esperar. El ancho de banda se limita con un
+ * cubo de tokens global y otro propio del segundo plano.
+ * Con un {@link AdaptiveConcurrencyController} asignado, el número de huecos lo decide
+ * el controlador a partir del caudal y la latencia de cada descarga desde internet (las del
+ * espejo LAN no le dicen nada sobre el enlace y no cuentan). Con un {@link LanMirror}
+ * los archivos con hash conocido se piden antes al espejo de la red local, y con un
+ * {@link DeltaSource} los que tienen versión instalada se intentan reconstruir con un parche.
+ */
+public class DownloadScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DownloadScheduler.class);
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Supplier<OkHttpClient> httpClient;
+    private final TokenBucket totalBandwidth;
+    private final TokenBucket backgroundBandwidth;
+    private final Object lock = new Object();
+    private final Map<DownloadPriority, FairQueue> queues;
+    private final Map<Path, DownloadTask> activeByTarget;
+    private final AtomicLong downloadedBytes;
+    // Solo lo recibido de internet, que es lo que mide el controlador adaptativo
+    private final AtomicLong internetBytes;
+    private final Thread dispatcher;
+    private volatile AdaptiveConcurrencyController concurrencyController;
+    private volatile LanMirror mirror;
+    private volatile DeltaSource deltaSource;
+
+    // Protegidos por lock
+    private int maxConcurrent;
+    private int running;
+    private int runningBackground;
+    private boolean shutdown;
+
+    public DownloadScheduler(Supplier<OkHttpClient> httpClient, int maxConcurrent, long maxBytesPerSecond,
+                             long backgroundBytesPerSecond) {
+        this.httpClient = httpClient;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.totalBandwidth = new TokenBucket(maxBytesPerSecond);
+        this.backgroundBandwidth = new TokenBucket(backgroundBytesPerSecond);
+        this.queues = new EnumMap<>(DownloadPriority.class);
+        for (DownloadPriority priority : DownloadPriority.values()) {
+            queues.put(priority, new FairQueue());
+        }
+        this.activeByTarget = new HashMap<>();
+        this.downloadedBytes = new AtomicLong();
+        this.internetBytes = new AtomicLong();
+
+        this.dispatcher = new Thread(this::dispatchLoop, "download-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Crea un lote vacío para un propietario
+     */
+    public DownloadBatch newBatch(String owner) {
+        return new DownloadBatch(owner);
+    }
+
+    /**
+     * Encola tareas en un lote. Si el mismo destino ya está en cola o descargándose,
+     * el lote espera a esa descarga (subiéndole la prioridad si hace falta).
+     * Tras {@link #shutdown()} las tareas se fallan y se lanza IllegalStateException.
+     */
+    public void submit(DownloadBatch batch, Collection<DownloadTask> tasks) {
+        boolean rejected;
+        synchronized (lock) {
+            rejected = shutdown;
+            if (!rejected) {
+                enqueue(batch, tasks);
+                lock.notifyAll();
+            }
+        }
+
+        if (rejected) {
+            // Se fallan igualmente para que quien espere al lote no se quede bloqueado
+            IllegalStateException closed = closedError();
+            for (DownloadTask task : tasks) {
+                batch.track(task, task.getPriority());
+                task.getFuture().completeExceptionally(closed);
+            }
+            throw closed;
+        }
+        batch.checkCompleted();
+    }
+
+    /**
+     * Pone las tareas en cola o engancha el lote a la descarga del mismo destino. Requiere lock.
+     */
+    private void enqueue(DownloadBatch batch, Collection<DownloadTask> tasks) {
+        for (DownloadTask task : tasks) {
+            DownloadTask active = activeByTarget.get(task.getTarget());
+            if (active == null) {
+                activeByTarget.put(task.getTarget(), task);
+                queues.get(task.getPriority()).add(batch.getOwner(), task);
+                batch.track(task, task.getPriority());
+                continue;
+            }
+
+            // Se saca de su cola para que getQueued() e isSaturated() no la cuenten dos veces
+            if (!active.isStarted() && task.getPriority().compareTo(active.getPriority()) < 0) {
+                queues.get(active.getPriority()).remove(active);
+                active.setPriority(task.getPriority());
+                queues.get(task.getPriority()).add(batch.getOwner(), active);
+            }
+            batch.track(active, task.getPriority());
+        }
+    }
+
+    /**
+     * Cambia el número de descargas simultáneas
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        synchronized (lock) {
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Asigna el controlador adaptativo (null para volver a un límite fijo) y aplica su límite actual
+     */
+    public void setConcurrencyController(AdaptiveConcurrencyController controller) {
+        if (controller != null) {
+            controller.bind(internetBytes::get);
+        }
+        this.concurrencyController = controller;
+        if (controller != null) {
+            setMaxConcurrent(controller.getLimit());
+        }
+    }
+
+    public AdaptiveConcurrencyController getConcurrencyController() {
+        return concurrencyController;
+    }
+
+    /**
+     * Asigna el espejo LAN que se prueba antes del origen (null para no usar ninguno)
+     */
+    public void setMirror(LanMirror mirror) {
+        this.mirror = mirror;
+    }
+
+    public LanMirror getMirror() {
+        return mirror;
+    }
+
+    /**
+     * Asigna el servidor de parches binarios (null para descargar siempre los archivos completos)
+     */
+    public void setDeltaSource(DeltaSource deltaSource) {
+        this.deltaSource = deltaSource;
+    }
+
+    public DeltaSource getDeltaSource() {
+        return deltaSource;
+    }
+
+    public int getMaxConcurrent() {
+        synchronized (lock) {
+            return maxConcurrent;
+        }
+    }
+
+    /**
+     * Cambia los límites de ancho de banda en bytes/s (0 = sin límite)
+     */
+    public void setBandwidth(long maxBytesPerSecond, long backgroundBytesPerSecond) {
+        totalBandwidth.setRate(maxBytesPerSecond);
+        backgroundBandwidth.setRate(backgroundBytesPerSecond);
+    }
+
+    public int getRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    public int getQueued(DownloadPriority priority) {
+        synchronized (lock) {
+            return queues.get(priority).size();
+        }
+    }
+
+    public long getDownloadedBytes() {
+        return downloadedBytes.get();
+    }
+
+    /**
+     * Detiene el despachador y falla las tareas que seguían en cola, de modo que los lotes
+     * que las esperan terminan con error en lugar de quedarse bloqueados. Las descargas ya
+     * empezadas terminan por su cuenta.
+     */
+    public void shutdown() {
+        List<DownloadTask> pending = new ArrayList<>();
+        synchronized (lock) {
+            shutdown = true;
+            for (FairQueue queue : queues.values()) {
+                DownloadTask task;
+                while ((task = queue.poll()) != null) {
+                    activeByTarget.remove(task.getTarget(), task);
+                    pending.add(task);
+                }
+            }
+            lock.notifyAll();
+        }
+        dispatcher.interrupt();
+
+        if (!pending.isEmpty()) {
+            logger.info("Planificador de descargas cerrado con {} descargas en cola", pending.size());
+        }
+        IllegalStateException closed = closedError();
+        for (DownloadTask task : pending) {
+            task.getFuture().completeExceptionally(closed);
+        }
+    }
+
+    private static IllegalStateException closedError() {
+        return new IllegalStateException("El planificador de descargas está cerrado");
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (true) {
+                DownloadTask task = null;
+                synchronized (lock) {
+                    while (!shutdown && (task = nextTask()) == null) {
+                        lock.wait();
+                    }
+                    if (shutdown) {
+                        return;
+                    }
+                    task.markStarted();
+                    running++;
+                    if (task.getPriority() == DownloadPriority.BACKGROUND) {
+                        runningBackground++;
+                    }
+                }
+
+                DownloadTask started = task;
+                Thread.ofVirtual().name("download-" + task.getTarget().getFileName()).start(() -> execute(started));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Siguiente tarea elegible, o null si no hay huecos o no hay nada en cola
+     */
+    private DownloadTask nextTask() {
+        if (running >= maxConcurrent) {
+            return null;
+        }
+
+        for (DownloadPriority priority : DownloadPriority.values()) {
+            // Un hueco queda siempre libre para trabajo urgente
+            if (priority == DownloadPriority.BACKGROUND && maxConcurrent > 1 && runningBackground >= maxConcurrent - 1) {
+                return null;
+            }
+
+            DownloadTask task = queues.get(priority).poll();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void execute(DownloadTask task) {
+        boolean background = task.getPriority() == DownloadPriority.BACKGROUND;
+        try {
+            download(task, background);
+            if (task.getOnDownloaded() != null) {
+                task.getOnDownloaded().accept(task);
+            }
+            task.getFuture().complete(task.getTarget());
+        } catch (Exception e) {
+            task.getFuture().completeExceptionally(e);
+        } finally {
+            synchronized (lock) {
+                activeByTarget.remove(task.getTarget(), task);
+                running--;
+                if (background) {
+                    runningBackground--;
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Descarga con reintentos a un archivo temporal, verifica y lo mueve a su destino
+     */
+    private void download(DownloadTask task, boolean background) throws IOException, InterruptedException {
+        IOException lastError = null;
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transfer(task, background);
+                return;
+            } catch (IOException e) {
+                lastError = e;
+                AdaptiveConcurrencyController controller = concurrencyController;
+                if (controller != null) {
+                    applyLimit(controller, controller.recordFailure(isSaturated()));
+                }
+                logger.debug("Intento {} de {} fallido para {}: {}", attempt, MAX_ATTEMPTS, task.getUrl(), e.getMessage());
+                if (attempt < MAX_ATTEMPTS) {
+                    Thread.sleep(500L * attempt);
+                }
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * Descarga desde el espejo LAN si lo hay y tiene el archivo; si no, con un parche binario
+     * sobre la versión instalada si el servidor de parches lo tiene; si no, desde el origen
+     */
+    private void transfer(DownloadTask task, boolean background) throws IOException, InterruptedException {
+        LanMirror lanMirror = mirror;
+        String mirrorUrl = lanMirror != null ? lanMirror.urlFor(task) : null;
+        if (mirrorUrl != null) {
+            try {
+                // Los límites de ancho de banda son para el enlace a internet, no para la red local
+                lanMirror.recordHit(fetch(task, mirrorUrl, lanMirror.client(httpClient.get()), false, false));
+                return;
+            } catch (IOException e) {
+                lanMirror.recordMiss(e);
+                logger.debug("Espejo LAN sin {}: {}", task.getTarget().getFileName(), e.getMessage());
+            }
+        }
+
+        DeltaSource deltas = deltaSource;
+        String patchUrl = deltas != null ? deltas.urlFor(task) : null;
+        if (patchUrl != null) {
+            try {
+                deltas.recordApplied(patch(task, patchUrl, background), task.getSize());
+                return;
+            } catch (IOException e) {
+                deltas.recordFallback();
+                logger.debug("Sin parche para {}: {}", task.getTarget().getFileName(), e.getMessage());
+            }
+        }
+        fetch(task, task.getUrl(), httpClient.get(), true, background);
+    }
+
+    /**
+     * Descarga el parche, reconstruye el archivo desde su base y lo verifica como una descarga
+     * completa. Devuelve el tamaño del parche.
+     */
+    private long patch(DownloadTask task, String url, boolean background) throws IOException, InterruptedException {
+        Path target = task.getTarget();
+        Path patchFile = target.resolveSibling(target.getFileName() + DeltaSource.PATCH_EXTENSION);
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.createDirectories(target.getParent());
+
+        try {
+            long patchSize = receive(url, httpClient.get(), patchFile, null, true, background).bytes;
+
+            MessageDigest digest = sha1Digest();
+            long size;
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(partial), BUFFER_SIZE), digest)) {
+                size = BinaryPatch.apply(task.getDeltaBasis(), patchFile, out);
+            }
+            verifyAndMove(task, partial, size, digest);
+            return patchSize;
+        } finally {
+            Files.deleteIfExists(patchFile);
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private long fetch(DownloadTask task, String url, OkHttpClient client, boolean shaped, boolean background)
+            throws IOException, InterruptedException {
+        Path target = task.getTarget();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.createDirectories(target.getParent());
+
+        MessageDigest digest = sha1Digest();
+        long start = System.nanoTime();
+        Received received = receive(url, client, partial, digest, shaped, background);
+        verifyAndMove(task, partial, received.bytes, digest);
+
+        AdaptiveConcurrencyController controller = concurrencyController;
+        if (controller != null && shaped) {
+            applyLimit(controller, controller.recordSuccess(received.bytes, received.firstByteNanos,
+                    System.nanoTime() - start, isSaturated()));
+        }
+        return received.bytes;
+    }
+
+    /**
+     * Vuelca la respuesta a {@code file} aplicando los límites de ancho de banda si {@code shaped}
+     */
+    private Received receive(String url, OkHttpClient client, Path file, MessageDigest digest, boolean shaped,
+                             boolean background) throws IOException, InterruptedException {
+        long received = 0;
+        long start = System.nanoTime();
+        long firstByte;
+
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = client.newCall(request).execute()) {
+            firstByte = System.nanoTime() - start;
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " al descargar " + url);
+            }
+
+            try (InputStream in = body.byteStream();
+                 OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    if (shaped) {
+                        totalBandwidth.acquire(read);
+                    }
+                    if (shaped && background) {
+                        backgroundBandwidth.acquire(read);
+                    }
+                    out.write(buffer, 0, read);
+                    if (digest != null) {
+                        digest.update(buffer, 0, read);
+                    }
+                    received += read;
+                    downloadedBytes.addAndGet(read);
+                    if (shaped) {
+                        internetBytes.addAndGet(read);
+                    }
+                }
+            }
+        }
+        return new Received(received, firstByte);
+    }
+
+    /**
+     * Comprueba tamaño y SHA-1 del archivo temporal y lo mueve a su destino
+     */
+    private static void verifyAndMove(DownloadTask task, Path partial, long size, MessageDigest digest)
+            throws IOException {
+        Path target = task.getTarget();
+        if (task.getSize() >= 0 && size != task.getSize()) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Tamaño incorrecto de " + target.getFileName() + ": " + size + " de " + task.getSize());
+        }
+        if (task.getSha1() != null && !task.getSha1().equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()))) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Hash SHA-1 incorrecto en " + target.getFileName());
+        }
+
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Si había tareas esperando hueco, es decir, si la concurrencia era el cuello de botella
+     */
+    private boolean isSaturated() {
+        synchronized (lock) {
+            for (FairQueue queue : queues.values()) {
+                if (queue.size() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void applyLimit(AdaptiveConcurrencyController controller, int limit) {
+        // Un controlador sustituido entre medias ya no manda
+        if (controller == concurrencyController && limit != getMaxConcurrent()) {
+            setMaxConcurrent(limit);
+        }
+    }
+
+    private static MessageDigest sha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-1 algorithm not available", e);
+        }
+    }
+
+    private static final class Received {
+        private final long bytes;
+        private final long firstByteNanos;
+
+        Received(long bytes, long firstByteNanos) {
+            this.bytes = bytes;
+            this.firstByteNanos = firstByteNanos;
+        }
+    }
+
+    /**
+     * Cola que reparte turnos entre propietarios: cada extracción toma una tarea del
+     * primero y lo pasa al final
+     */
+    private static final class FairQueue {
+        private final LinkedHashMap<String, ArrayDeque<DownloadTask>> byOwner = new LinkedHashMap<>();
+        private int size;
+
+        void add(String owner, DownloadTask task) {
+            byOwner.computeIfAbsent(owner, key -> new ArrayDeque<>()).add(task);
+            size++;
+        }
+
+        DownloadTask poll() {
+            if (byOwner.isEmpty()) {
+                return null;
+            }
+
+            Map.Entry<String, ArrayDeque<DownloadTask>> first = byOwner.entrySet().iterator().next();
+            String owner = first.getKey();
+            ArrayDeque<DownloadTask> tasks = byOwner.remove(owner);
+            DownloadTask task = tasks.poll();
+            if (!tasks.isEmpty()) {
+                byOwner.put(owner, tasks);
+            }
+            size--;
+            return task;
+        }
+
+        /**
+         * Quita una tarea de la cola, esté en la del propietario que esté
+         */
+        boolean remove(DownloadTask task) {
+            var owners = byOwner.values().iterator();
+            while (owners.hasNext()) {
+                ArrayDeque<DownloadTask> tasks = owners.next();
+                if (tasks.removeFirstOccurrence(task)) {
+                    if (tasks.isEmpty()) {
+                        owners.remove();
+                    }
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
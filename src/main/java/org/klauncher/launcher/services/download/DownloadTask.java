@@ -0,0 +1,72 @@
+package org.klauncher.launcher.services.download;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Archivo a descargar: origen, destino, hash SHA-1 y tamaño esperados (si se conocen) y prioridad.
+ * El futuro se completa con la ruta cuando el archivo está verificado en su destino.
+ */
+public class DownloadTask {
+    private final String url;
+    private final Path target;
+    private final String sha1;
+    private final long size;
+    private final CompletableFuture<Path> future;
+    private volatile DownloadPriority priority;
+    private volatile boolean started;
+    private Consumer<DownloadTask> onDownloaded;
+    private Path deltaBasis;
+    private String deltaBasisSha1;
+
+    public DownloadTask(String url, Path target, String sha1, long size, DownloadPriority priority) {
+        this.url = url;
+        this.target = target;
+        this.sha1 = sha1;
+        this.size = size;
+        this.priority = priority;
+        this.future = new CompletableFuture<>();
+    }
+
+    /**
+     * Acción que se ejecuta tras descargar y antes de dar la tarea por terminada
+     * (p. ej. planificar los assets al llegar su índice)
+     */
+    public DownloadTask onDownloaded(Consumer<DownloadTask> action) {
+        this.onDownloaded = action;
+        return this;
+    }
+
+    /**
+     * Versión instalada del archivo (u otro parecido) desde la que se puede reconstruir con un parche binario
+     */
+    public DownloadTask withDeltaBasis(Path basis, String basisSha1) {
+        this.deltaBasis = basis;
+        this.deltaBasisSha1 = basisSha1;
+        return this;
+    }
+
+    public String getUrl() { return url; }
+    public Path getTarget() { return target; }
+    public String getSha1() { return sha1; }
+
+    /**
+     * Tamaño esperado en bytes, o -1 si no se conoce
+     */
+    public long getSize() { return size; }
+    public DownloadPriority getPriority() { return priority; }
+    public CompletableFuture<Path> getFuture() { return future; }
+    public Path getDeltaBasis() { return deltaBasis; }
+    public String getDeltaBasisSha1() { return deltaBasisSha1; }
+
+    void setPriority(DownloadPriority priority) { this.priority = priority; }
+    boolean isStarted() { return started; }
+    void markStarted() { this.started = true; }
+    Consumer<DownloadTask> getOnDownloaded() { return onDownloaded; }
+
+    @Override
+    public String toString() {
+        return target.getFileName() + " [" + priority + "]";
+    }
+}
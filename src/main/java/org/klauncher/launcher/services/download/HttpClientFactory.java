@@ -0,0 +1,167 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+import org.klauncher.launcher.services.ConfigRegistryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP compartido por todo el launcher. Reutiliza conexiones (HTTP/2 cuando el
+ * servidor lo admite, así miles de assets pequeños comparten unas pocas conexiones TLS),
+ * cachea el DNS y aplica el proxy y los tiempos de espera de {@link AdvancedLauncherConfig.NetworkConfig}.
+ * Al cambiar la configuración de red el cliente se reconstruye.
+ */
+public class HttpClientFactory {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientFactory.class);
+    private static final Duration DNS_TTL = Duration.ofMinutes(5);
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(5);
+
+    private static HttpClientFactory instance;
+
+    private final ConnectionMetrics metrics;
+    private final CachingDns dns;
+    private volatile OkHttpClient client;
+    private String networkSignature;
+
+    private HttpClientFactory() {
+        this.metrics = new ConnectionMetrics();
+        this.dns = new CachingDns(Dns.SYSTEM, DNS_TTL);
+        ConfigRegistryService.getInstance().addChangeListener(config -> reconfigure(config.getNetwork()));
+    }
+
+    public static synchronized HttpClientFactory getInstance() {
+        if (instance == null) {
+            instance = new HttpClientFactory();
+        }
+        return instance;
+    }
+
+    /**
+     * Cliente compartido con la configuración de red actual
+     */
+    public OkHttpClient getClient() {
+        OkHttpClient current = client;
+        if (current == null) {
+            current = reconfigure(networkConfig());
+        }
+        return current;
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public CachingDns getDns() {
+        return dns;
+    }
+
+    /**
+     * Reconstruye el cliente si cambió algo que le afecte; el pool anterior se vacía
+     */
+    private synchronized OkHttpClient reconfigure(AdvancedLauncherConfig.NetworkConfig network) {
+        String signature = signature(network);
+        if (client != null && signature.equals(networkSignature)) {
+            return client;
+        }
+
+        OkHttpClient previous = client;
+        client = build(network);
+        networkSignature = signature;
+
+        if (previous != null) {
+            previous.connectionPool().evictAll();
+            logger.info("Cliente HTTP reconstruido con la nueva configuración de red");
+        }
+        return client;
+    }
+
+    private OkHttpClient build(AdvancedLauncherConfig.NetworkConfig network) {
+        int concurrency = maxConcurrency(network);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(64, concurrency * 2));
+        dispatcher.setMaxRequestsPerHost(Math.max(5, concurrency));
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(network.getConnectionTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(network.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .writeTimeout(network.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                // Una conexión inactiva por descarga simultánea, más margen para metadatos
+                .connectionPool(new ConnectionPool(concurrency + 2, KEEP_ALIVE.toMinutes(), TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .dns(dns)
+                .eventListenerFactory(metrics.listenerFactory())
+                .retryOnConnectionFailure(true);
+
+        if (network.isUseProxy() && network.getProxyHost() != null && !network.getProxyHost().isBlank()) {
+            builder.proxy(new Proxy(Proxy.Type.HTTP,
+                    InetSocketAddress.createUnresolved(network.getProxyHost(), network.getProxyPort())));
+
+            String username = network.getProxyUsername();
+            if (username != null && !username.isBlank()) {
+                String credentials = Credentials.basic(username, Objects.requireNonNullElse(network.getProxyPassword(), ""));
+                builder.proxyAuthenticator((route, response) -> {
+                    // Si ya se enviaron credenciales y el proxy las rechaza, no insistir
+                    if (response.request().header("Proxy-Authorization") != null) {
+                        return null;
+                    }
+                    return response.request().newBuilder().header("Proxy-Authorization", credentials).build();
+                });
+            }
+            logger.info("Usando proxy HTTP {}:{}", network.getProxyHost(), network.getProxyPort());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Descargas simultáneas que puede llegar a haber: con concurrencia adaptativa, el techo del
+     * controlador y no el valor inicial, para que las conexiones que añade no se cierren al quedar libres
+     */
+    static int maxConcurrency(AdvancedLauncherConfig.NetworkConfig network) {
+        if (network.isAdaptiveConcurrency()) {
+            return Math.max(network.getMaxConcurrentDownloads(), network.getMaxAdaptiveConcurrentDownloads());
+        }
+        return network.getMaxConcurrentDownloads();
+    }
+
+    /**
+     * Registra en el log las métricas de conexión acumuladas
+     */
+    public void logMetrics() {
+        logger.info("HTTP: {} | DNS: {} aciertos, {} consultas", metrics, dns.getHits(), dns.getMisses());
+    }
+
+    public synchronized void shutdown() {
+        if (client != null) {
+            logMetrics();
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    private static String signature(AdvancedLauncherConfig.NetworkConfig network) {
+        return String.join("|", String.valueOf(network.isUseProxy()), String.valueOf(network.getProxyHost()),
+                String.valueOf(network.getProxyPort()), String.valueOf(network.getProxyUsername()),
+                String.valueOf(network.getProxyPassword()), String.valueOf(network.getConnectionTimeoutSeconds()),
+                String.valueOf(network.getReadTimeoutSeconds()), String.valueOf(maxConcurrency(network)));
+    }
+
+    private static AdvancedLauncherConfig.NetworkConfig networkConfig() {
+        return ConfigRegistryService.getInstance().getView(AdvancedLauncherConfig.NetworkConfig.class);
+    }
+}
@@ -0,0 +1,131 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.Proxy;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Espejo de otro launcher de la red local ({@link MirrorServer}). Solo se usa para tareas con
+ * SHA-1 conocido, así que cualquier respuesta se verifica como si viniera del servidor oficial.
+ * Si el espejo no responde se deja de usar durante un rato y las descargas van directamente
+ * al origen; un 404 solo significa que ese archivo aún no está en el espejo.
+ */
+public class LanMirror {
+    private static final Logger logger = LoggerFactory.getLogger(LanMirror.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(1);
+
+    private final HttpUrl baseUrl;
+    private final Path rootDirectory;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong servedBytes;
+    private volatile long unavailableUntil;
+
+    // Cliente derivado del compartido: mismo pool, sin proxy y con conexión rápida
+    private OkHttpClient baseClient;
+    private OkHttpClient mirrorClient;
+
+    public LanMirror(String baseUrl, Path rootDirectory) {
+        HttpUrl parsed = HttpUrl.parse(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        if (parsed == null) {
+            throw new IllegalArgumentException("URL de espejo no válida: " + baseUrl);
+        }
+        this.baseUrl = parsed;
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.servedBytes = new AtomicLong();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl.toString();
+    }
+
+    /**
+     * URL del archivo en el espejo, o null si la tarea no se puede pedir al espejo
+     */
+    public String urlFor(DownloadTask task) {
+        if (task.getSha1() == null || isParked()) {
+            return null;
+        }
+
+        Path target = task.getTarget().toAbsolutePath().normalize();
+        if (!target.startsWith(rootDirectory)) {
+            return null;
+        }
+
+        HttpUrl.Builder url = baseUrl.newBuilder().addPathSegment(MirrorServer.FILES_SEGMENT);
+        for (Path segment : rootDirectory.relativize(target)) {
+            url.addPathSegment(segment.toString());
+        }
+        return url.build().toString();
+    }
+
+    synchronized OkHttpClient client(OkHttpClient shared) {
+        if (shared != baseClient) {
+            baseClient = shared;
+            mirrorClient = shared.newBuilder()
+                    .proxy(Proxy.NO_PROXY)
+                    .connectTimeout(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                    .retryOnConnectionFailure(false)
+                    .build();
+        }
+        return mirrorClient;
+    }
+
+    void recordHit(long bytes) {
+        hits.incrementAndGet();
+        servedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Registra un fallo; si el espejo no es alcanzable se aparca durante {@link #RETRY_AFTER}
+     */
+    void recordMiss(IOException error) {
+        misses.incrementAndGet();
+        boolean unreachable = error instanceof ConnectException || error instanceof NoRouteToHostException
+                || error instanceof UnknownHostException
+                || (error instanceof InterruptedIOException && !(error.getCause() instanceof InterruptedException));
+        if (unreachable && !isParked()) {
+            unavailableUntil = System.nanoTime() + RETRY_AFTER.toNanos();
+            logger.warn("Espejo LAN {} no disponible ({}), se usarán los servidores oficiales durante {} s",
+                    baseUrl, error.getMessage(), RETRY_AFTER.toSeconds());
+        }
+    }
+
+    private boolean isParked() {
+        long until = unavailableUntil;
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getServedBytes() {
+        return servedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d desde el espejo (%d MB), %d al origen",
+                baseUrl, hits.get(), servedBytes.get() / (1024 * 1024), misses.get());
+    }
+}
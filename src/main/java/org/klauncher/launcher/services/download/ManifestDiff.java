@@ -0,0 +1,100 @@
+package org.klauncher.launcher.services.download;
+
+import org.klauncher.launcher.models.entities.ManifestEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diferencia entre el manifiesto instalado de una versión y el de su nueva revisión.
+ * Todo se resuelve con mapas por ruta y por hash, en tiempo lineal en el número de archivos.
+ */
+public class ManifestDiff {
+    private final List<ManifestEntry> added;
+    private final List<ManifestEntry> changed;
+    private final List<ManifestEntry> unchanged;
+    private final Map<String, String> relinkSources;
+
+    private ManifestDiff() {
+        this.added = new ArrayList<>();
+        this.changed = new ArrayList<>();
+        this.unchanged = new ArrayList<>();
+        this.relinkSources = new HashMap<>();
+    }
+
+    /**
+     * Clasifica los archivos de {@code target} frente a {@code installed}. Para los nuevos o
+     * modificados cuyo contenido ya está instalado en otra ruta (de esta u otra versión) se
+     * anota esa ruta, de modo que se puedan enlazar en lugar de descargar.
+     */
+    public static ManifestDiff compute(Collection<ManifestEntry> installed, Collection<ManifestEntry> target,
+                                       Collection<ManifestEntry> otherVersions) {
+        Map<String, ManifestEntry> installedByPath = new HashMap<>(installed.size() * 2);
+        Map<String, String> pathByContent = new HashMap<>((installed.size() + otherVersions.size()) * 2);
+        for (ManifestEntry entry : installed) {
+            installedByPath.put(entry.getPath(), entry);
+            pathByContent.put(contentKey(entry), entry.getPath());
+        }
+        for (ManifestEntry entry : otherVersions) {
+            pathByContent.putIfAbsent(contentKey(entry), entry.getPath());
+        }
+
+        ManifestDiff diff = new ManifestDiff();
+        for (ManifestEntry entry : target) {
+            ManifestEntry previous = installedByPath.get(entry.getPath());
+            if (previous != null && previous.sameContent(entry)) {
+                diff.unchanged.add(entry);
+                continue;
+            }
+
+            (previous == null ? diff.added : diff.changed).add(entry);
+            String source = entry.getSha1() != null ? pathByContent.get(contentKey(entry)) : null;
+            if (source != null && !source.equals(entry.getPath())) {
+                diff.relinkSources.put(entry.getPath(), source);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Rutas del manifiesto instalado que la nueva revisión ya no usa y ninguna otra versión comparte
+     */
+    public static List<String> removedPaths(Collection<ManifestEntry> installed, Collection<ManifestEntry> target,
+                                            Collection<ManifestEntry> otherVersions) {
+        Set<String> kept = new HashSet<>((target.size() + otherVersions.size()) * 2);
+        for (ManifestEntry entry : target) {
+            kept.add(entry.getPath());
+        }
+        for (ManifestEntry entry : otherVersions) {
+            kept.add(entry.getPath());
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (ManifestEntry entry : installed) {
+            if (!kept.contains(entry.getPath())) {
+                removed.add(entry.getPath());
+            }
+        }
+        return removed;
+    }
+
+    public List<ManifestEntry> getAdded() { return added; }
+    public List<ManifestEntry> getChanged() { return changed; }
+    public List<ManifestEntry> getUnchanged() { return unchanged; }
+
+    /**
+     * Ruta instalada con el mismo contenido que {@code path}, o null
+     */
+    public String getRelinkSource(String path) {
+        return relinkSources.get(path);
+    }
+
+    private static String contentKey(ManifestEntry entry) {
+        return entry.getSha1() + ":" + entry.getSize();
+    }
+}
@@ -0,0 +1,276 @@
+package org.klauncher.launcher.services.download;
+
+import org.klauncher.launcher.models.entities.ManifestEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Índice inmutable de los archivos de una versión ordenado por ruta, para consultar
+ * ruta → (tamaño, SHA-1, estado) sin un mapa de objetos. Los tamaños, los hashes, el estado
+ * y los desplazamientos de las rutas van en secciones contiguas de tipos primitivos, y las
+ * rutas en una tabla de cadenas UTF-8. En disco se guarda con el mismo formato con que se
+ * consulta: abrirlo es mapear el archivo y las búsquedas binarias leen directamente del mapa.
+ */
+public final class ManifestIndex {
+    /** El archivo hace falta para arrancar (versión, librerías, índice de assets) */
+    public static final byte FLAG_LAUNCH = 1;
+    /** Se conoce el SHA-1 del archivo */
+    public static final byte FLAG_SHA1 = 2;
+
+    private static final int MAGIC = 0x4B4D4958; // "KMIX"
+    private static final int FORMAT_VERSION = 1;
+    private static final int REVISION_BYTES = 32;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + REVISION_BYTES;
+
+    private final ByteBuffer buffer;
+    private final String revision;
+    private final int count;
+    private final int offsetsStart;
+    private final int hashesStart;
+    private final int statesStart;
+    private final int stringsStart;
+
+    private ManifestIndex(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Índice de manifiesto con formato desconocido");
+        }
+
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        int stringBytes = buffer.getInt(12);
+        if (count < 0 || count > buffer.capacity() / Long.BYTES || stringBytes < 0) {
+            throw new IOException("Índice de manifiesto corrupto");
+        }
+        byte[] revisionBytes = new byte[REVISION_BYTES];
+        buffer.get(4 * Integer.BYTES, revisionBytes);
+        this.revision = HexFormat.of().formatHex(revisionBytes);
+
+        // Tamaños primero para que los long queden alineados a 8 bytes
+        this.offsetsStart = HEADER_BYTES + count * Long.BYTES;
+        this.hashesStart = offsetsStart + (count + 1) * Integer.BYTES;
+        this.statesStart = hashesStart + count * AssetObjectTable.HASH_BYTES;
+        this.stringsStart = statesStart + count;
+
+        if ((long) stringsStart + stringBytes != buffer.capacity()) {
+            throw new IOException("Índice de manifiesto truncado o corrupto");
+        }
+    }
+
+    /**
+     * Construye el índice en memoria a partir del manifiesto de una versión
+     */
+    public static ManifestIndex build(String revision, List<ManifestEntry> entries, AssetObjectTable objects) {
+        List<Row> rows = new ArrayList<>(entries.size() + objects.size());
+        for (ManifestEntry entry : entries) {
+            boolean objectPath = entry.getPath().startsWith(ManifestReader.ASSET_OBJECTS_PREFIX);
+            rows.add(new Row(entry.getPath(), entry.getSize(), entry.getSha1(), objectPath ? 0 : FLAG_LAUNCH));
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            rows.add(new Row(objects.pathAt(i), objects.sizeAt(i), objects.hashAt(i), 0));
+        }
+        rows.sort((a, b) -> Arrays.compareUnsigned(a.path, b.path));
+
+        // Una ruta repetida se queda con la última aparición
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (!unique.isEmpty() && Arrays.equals(unique.get(unique.size() - 1).path, row.path)) {
+                unique.set(unique.size() - 1, row);
+            } else {
+                unique.add(row);
+            }
+        }
+
+        int count = unique.size();
+        int stringBytes = 0;
+        for (Row row : unique) {
+            stringBytes += row.path.length;
+        }
+
+        int total = HEADER_BYTES + count * (Long.BYTES + Integer.BYTES + AssetObjectTable.HASH_BYTES + 1)
+                + Integer.BYTES + stringBytes;
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(count).putInt(stringBytes).put(revisionBytes(revision));
+
+        for (Row row : unique) {
+            buffer.putLong(row.size);
+        }
+        int offset = 0;
+        for (Row row : unique) {
+            buffer.putInt(offset);
+            offset += row.path.length;
+        }
+        buffer.putInt(offset);
+        for (Row row : unique) {
+            buffer.put(row.hash);
+        }
+        for (Row row : unique) {
+            buffer.put(row.flags);
+        }
+        for (Row row : unique) {
+            buffer.put(row.path);
+        }
+
+        try {
+            return new ManifestIndex(buffer.clear());
+        } catch (IOException e) {
+            throw new IllegalStateException("Índice de manifiesto mal construido", e);
+        }
+    }
+
+    /**
+     * Mapea un índice guardado con {@link #writeTo}; las lecturas van directamente al archivo
+     */
+    public static ManifestIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ManifestIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Escribe el índice en un archivo temporal y lo mueve a {@code file}
+     */
+    public void writeTo(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer source = buffer.duplicate().clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Revisión (SHA-256 del JSON de versión) con la que se construyó el índice
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Posición de la ruta (relativa al directorio del juego, con '/') o -1 si no está
+     */
+    public int indexOf(String path) {
+        byte[] key = path.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        // Prefijo común de la clave con los extremos del intervalo: todo lo que queda entre
+        // ambos lo comparte, así que no se vuelve a comparar (las rutas tienen prefijos largos)
+        int lowPrefix = 0;
+        int highPrefix = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int start = stringsStart + pathStart(middle);
+            int length = stringsStart + pathStart(middle + 1) - start;
+            int common = Math.min(length, key.length);
+
+            int matched = Math.min(lowPrefix, highPrefix);
+            while (matched < common && buffer.get(start + matched) == key[matched]) {
+                matched++;
+            }
+            int comparison = matched < common
+                    ? Byte.compareUnsigned(buffer.get(start + matched), key[matched])
+                    : Integer.compare(length, key.length);
+
+            if (comparison < 0) {
+                low = middle + 1;
+                lowPrefix = matched;
+            } else if (comparison > 0) {
+                high = middle - 1;
+                highPrefix = matched;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tamaño esperado de la ruta, o -1 si no está en el índice o no se conoce
+     */
+    public long sizeOf(String path) {
+        int index = indexOf(path);
+        return index < 0 ? -1 : sizeAt(index);
+    }
+
+    public long sizeAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * Long.BYTES);
+    }
+
+    public byte stateAt(int index) {
+        return buffer.get(statesStart + index);
+    }
+
+    /**
+     * SHA-1 en hexadecimal, o null si no se conoce
+     */
+    public String sha1At(int index) {
+        if ((stateAt(index) & FLAG_SHA1) == 0) {
+            return null;
+        }
+        byte[] hash = new byte[AssetObjectTable.HASH_BYTES];
+        buffer.get(hashesStart + index * AssetObjectTable.HASH_BYTES, hash);
+        return HexFormat.of().formatHex(hash);
+    }
+
+    public String pathAt(int index) {
+        int start = pathStart(index);
+        byte[] path = new byte[pathStart(index + 1) - start];
+        buffer.get(stringsStart + start, path);
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+    private int pathStart(int index) {
+        return buffer.getInt(offsetsStart + index * Integer.BYTES);
+    }
+
+    private static byte[] revisionBytes(String revision) {
+        if (revision == null || revision.length() != REVISION_BYTES * 2) {
+            throw new IllegalArgumentException("Revisión de manifiesto inválida: " + revision);
+        }
+        return HexFormat.of().parseHex(revision);
+    }
+
+    private static final class Row {
+        private final byte[] path;
+        private final long size;
+        private final byte[] hash;
+        private final byte flags;
+
+        Row(String path, long size, String sha1, int flags) {
+            this.path = path.getBytes(StandardCharsets.UTF_8);
+            this.size = size;
+            byte[] hash = new byte[AssetObjectTable.HASH_BYTES];
+            boolean hashed = false;
+            if (sha1 != null && sha1.length() == AssetObjectTable.HASH_BYTES * 2) {
+                try {
+                    hash = HexFormat.of().parseHex(sha1);
+                    hashed = true;
+                } catch (IllegalArgumentException e) {
+                    // Hash no hexadecimal: se trata como desconocido
+                }
+            }
+            this.hash = hash;
+            this.flags = (byte) (hashed ? flags | FLAG_SHA1 : flags);
+        }
+    }
+}
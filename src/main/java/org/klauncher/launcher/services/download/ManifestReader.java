@@ -0,0 +1,186 @@
+package org.klauncher.launcher.services.download;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.klauncher.launcher.models.entities.ManifestEntry;
+import org.klauncher.launcher.services.launch.VersionResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee los archivos de una versión con el {@link JsonParser} de Jackson en streaming.
+ * El índice de assets (decenas de miles de objetos) se recorre token a token hacia una
+ * {@link AssetObjectTable}; del JSON de versión solo se materializa cada librería por
+ * separado para evaluar sus reglas.
+ * Las rutas son relativas al directorio del juego con separador '/'.
+ */
+public class ManifestReader {
+    public static final String ASSET_INDEXES_PREFIX = "assets/indexes/";
+    public static final String ASSET_OBJECTS_PREFIX = "assets/objects/";
+
+    private final JsonFactory jsonFactory;
+    // Sin canonicalizar nombres: cada nombre de asset es distinto y con decenas de miles la tabla
+    // de símbolos de Jackson se desborda y se reconstruye una y otra vez (cientos de MB por lectura)
+    private final JsonFactory assetIndexFactory;
+
+    public ManifestReader(ObjectMapper objectMapper) {
+        // La fábrica del ObjectMapper trae el codec que necesita readValueAsTree
+        this.jsonFactory = objectMapper.getFactory();
+        this.assetIndexFactory = JsonFactory.builder()
+                .disable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+                .build();
+    }
+
+    /**
+     * Archivos declarados en el JSON de una versión
+     */
+    public static class VersionFiles {
+        private final String versionType;
+        private final List<ManifestEntry> entries;
+        private final ManifestEntry assetIndex;
+
+        VersionFiles(String versionType, List<ManifestEntry> entries, ManifestEntry assetIndex) {
+            this.versionType = versionType;
+            this.entries = entries;
+            this.assetIndex = assetIndex;
+        }
+
+        public String getVersionType() { return versionType; }
+
+        /**
+         * Jar cliente, librerías y natives de esta plataforma, e índice de assets si lo hay
+         */
+        public List<ManifestEntry> getEntries() { return entries; }
+
+        public ManifestEntry getAssetIndex() { return assetIndex; }
+    }
+
+    public VersionFiles readVersion(Path versionJson, String versionId) throws IOException {
+        List<ManifestEntry> entries = new ArrayList<>();
+        String versionType = "release";
+        ManifestEntry assetIndex = null;
+
+        try (JsonParser parser = jsonFactory.createParser(versionJson.toFile())) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, versionJson);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "type" -> versionType = parser.getValueAsString(versionType);
+                    case "downloads" -> {
+                        JsonNode client = parser.<JsonNode>readValueAsTree().path("client");
+                        if (client.hasNonNull("url")) {
+                            entries.add(entry("versions/" + versionId + "/" + versionId + ".jar", client));
+                        }
+                    }
+                    case "libraries" -> readLibraries(parser, value, entries);
+                    case "assetIndex" -> {
+                        JsonNode index = parser.readValueAsTree();
+                        if (index.hasNonNull("url")) {
+                            assetIndex = entry(ASSET_INDEXES_PREFIX + index.path("id").asText(versionId) + ".json", index);
+                            entries.add(assetIndex);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        return new VersionFiles(versionType, entries, assetIndex);
+    }
+
+    /**
+     * Lee los objetos del índice de assets directamente a una tabla de arrays primitivos:
+     * los hashes se decodifican desde el buffer de caracteres del parser sin crear cadenas
+     */
+    public AssetObjectTable readAssetIndex(Path indexFile) throws IOException {
+        // Unos 110 bytes por objeto en el JSON; evita redimensionar la tabla
+        AssetObjectTable objects = new AssetObjectTable((int) Math.min(Integer.MAX_VALUE / 64, Files.size(indexFile) / 110));
+
+        try (JsonParser parser = assetIndexFactory.createParser(indexFile.toFile())) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, indexFile);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"objects".equals(field) || value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                // "nombre": { "hash": "...", "size": n }
+                char[] hash = new char[AssetObjectTable.HASH_BYTES * 2];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    expect(parser.nextToken(), JsonToken.START_OBJECT, indexFile);
+                    int hashLength = 0;
+                    long size = -1;
+
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String property = parser.currentName();
+                        JsonToken token = parser.nextToken();
+                        if ("hash".equals(property) && token == JsonToken.VALUE_STRING) {
+                            hashLength = parser.getTextLength();
+                            if (hashLength == hash.length) {
+                                System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), hash, 0, hashLength);
+                            }
+                        } else if ("size".equals(property) && token == JsonToken.VALUE_NUMBER_INT) {
+                            size = parser.getLongValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    objects.add(hash, 0, hashLength, size);
+                }
+            }
+        }
+
+        return objects.seal();
+    }
+
+    private static void readLibraries(JsonParser parser, JsonToken value, List<ManifestEntry> entries) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            JsonNode library = parser.readValueAsTree();
+            if (!VersionResolver.isAllowed(library.path("rules"))) {
+                continue;
+            }
+
+            JsonNode downloads = library.path("downloads");
+            JsonNode artifact = downloads.path("artifact");
+            if (artifact.hasNonNull("url") && artifact.hasNonNull("path")) {
+                entries.add(entry("libraries/" + artifact.path("path").asText(), artifact));
+            }
+
+            String classifier = VersionResolver.legacyNativesClassifier(library);
+            JsonNode natives = classifier != null ? downloads.path("classifiers").path(classifier) : null;
+            if (natives != null && natives.hasNonNull("url") && natives.hasNonNull("path")) {
+                entries.add(entry("libraries/" + natives.path("path").asText(), natives));
+            }
+        }
+    }
+
+    private static ManifestEntry entry(String path, JsonNode download) {
+        JsonNode sha1 = download.path("sha1");
+        return new ManifestEntry(path, download.path("size").asLong(-1), sha1.isTextual() ? sha1.asText() : null,
+                download.path("url").asText());
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, Path file) throws IOException {
+        if (actual != expected) {
+            throw new IOException("JSON inesperado en " + file.getFileName() + ": " + actual + " en lugar de " + expected);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.klauncher.launcher.services.download;
+
+import org.klauncher.launcher.models.entities.ManifestEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de planificar una versión: las descargas pendientes y el manifiesto de la
+ * nueva revisión, que se guarda cuando el lote termina sin errores
+ * ({@link VersionDownloadPlanner#commit}). Si el índice de assets aún no estaba descargado,
+ * sus objetos se añaden al llegar y hasta entonces la actualización no está completa.
+ */
+public class ManifestUpdate {
+    private final String versionId;
+    private final String versionType;
+    private final String revision;
+    private final List<DownloadTask> tasks;
+    private final List<ManifestEntry> entries;
+    private final List<ManifestEntry> installed;
+    private final AssetObjectTable installedObjects;
+    private volatile AssetObjectTable assetObjects;
+    private volatile boolean upToDate;
+    private volatile boolean assetsPlanned;
+    private int relinked;
+
+    ManifestUpdate(String versionId, String versionType, String revision, List<ManifestEntry> installed,
+                   AssetObjectTable installedObjects) {
+        this.versionId = versionId;
+        this.versionType = versionType;
+        this.revision = revision;
+        this.tasks = new ArrayList<>();
+        this.entries = Collections.synchronizedList(new ArrayList<>());
+        this.installed = installed;
+        this.installedObjects = installedObjects;
+        this.assetObjects = new AssetObjectTable(0).seal();
+    }
+
+    public String getVersionId() { return versionId; }
+    public String getVersionType() { return versionType; }
+    public String getRevision() { return revision; }
+
+    /**
+     * Descargas planificadas al crear la actualización (los assets que lleguen después van aparte)
+     */
+    public List<DownloadTask> getTasks() { return tasks; }
+
+    /**
+     * La revisión ya estaba instalada: solo se han comprobado los archivos para arrancar
+     */
+    public boolean isUpToDate() { return upToDate; }
+
+    /**
+     * El manifiesto nuevo está entero (versión y objetos del índice de assets)
+     */
+    public boolean isComplete() { return assetsPlanned; }
+
+    public synchronized int getRelinked() { return relinked; }
+
+    List<ManifestEntry> getEntries() { return entries; }
+    List<ManifestEntry> getInstalled() { return installed; }
+    AssetObjectTable getInstalledObjects() { return installedObjects; }
+    AssetObjectTable getAssetObjects() { return assetObjects; }
+
+    void markUpToDate() { this.upToDate = true; }
+    void markAssetsPlanned() { this.assetsPlanned = true; }
+
+    synchronized void addRelinked(int count) { this.relinked += count; }
+
+    void setAssetObjects(AssetObjectTable assetObjects) {
+        this.assetObjects = assetObjects;
+        this.assetsPlanned = true;
+    }
+}
@@ -0,0 +1,152 @@
+package org.klauncher.launcher.services.download;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor HTTP mínimo que comparte con la red local los archivos ya descargados.
+ * Responde a {@code GET /files/<ruta relativa>} solo dentro de assets/objects, assets/indexes,
+ * libraries y versions, nunca con archivos .part a medio descargar ni con listados de directorio.
+ * El servidor no verifica nada: los clientes solo piden archivos con SHA-1 conocido y lo comprueban.
+ */
+public class MirrorServer {
+    private static final Logger logger = LoggerFactory.getLogger(MirrorServer.class);
+    static final String FILES_SEGMENT = "files";
+    private static final String FILES_PREFIX = "/" + FILES_SEGMENT + "/";
+    private static final Set<String> SHARED_ROOTS = Set.of("assets/objects", "assets/indexes", "libraries", "versions");
+
+    private final Path rootDirectory;
+    private final int port;
+    private final AtomicLong servedFiles;
+    private final AtomicLong servedBytes;
+    private final AtomicLong notFound;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MirrorServer(Path rootDirectory, int port) {
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.port = port;
+        this.servedFiles = new AtomicLong();
+        this.servedBytes = new AtomicLong();
+        this.notFound = new AtomicLong();
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(FILES_PREFIX, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Espejo LAN sirviendo {} en el puerto {}", rootDirectory, getPort());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+
+        server.stop(1);
+        executor.shutdownNow();
+        logger.info("Espejo LAN detenido: {} archivos servidos ({} MB), {} no encontrados",
+                servedFiles.get(), servedBytes.get() / (1024 * 1024), notFound.get());
+        server = null;
+        executor = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Puerto real de escucha (útil si se pidió el 0)
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    public long getServedFiles() {
+        return servedFiles.get();
+    }
+
+    public long getServedBytes() {
+        return servedBytes.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            Path file = resolve(exchange.getRequestURI().getPath());
+            if (file == null || !Files.isRegularFile(file)) {
+                notFound.incrementAndGet();
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            long size = Files.size(file);
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            if ("HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(size));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, size == 0 ? -1 : size);
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(file, out);
+            }
+            servedFiles.incrementAndGet();
+            servedBytes.addAndGet(size);
+        } catch (IOException e) {
+            // El cliente puede cortar la conexión al pasar al servidor oficial
+            logger.debug("Error sirviendo {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    /**
+     * Traduce la ruta pedida a un archivo compartible, o null si queda fuera de lo permitido
+     */
+    private Path resolve(String path) {
+        if (path == null || !path.startsWith(FILES_PREFIX)) {
+            return null;
+        }
+
+        String relative = path.substring(FILES_PREFIX.length());
+        if (relative.isEmpty() || relative.contains("\\") || relative.endsWith(".part")) {
+            return null;
+        }
+
+        Path file = rootDirectory.resolve(relative).normalize();
+        if (!file.startsWith(rootDirectory)) {
+            return null;
+        }
+
+        Path relativeFile = rootDirectory.relativize(file);
+        for (String shared : SHARED_ROOTS) {
+            if (relativeFile.startsWith(shared) && relativeFile.getNameCount() > Path.of(shared).getNameCount()) {
+                return file;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package org.klauncher.launcher.services.download;
+
+/**
+ * Limitador de ancho de banda por cubo de tokens. Cada byte consume un token y el cubo
+ * se rellena a {@code bytesPerSecond}, con ráfagas de hasta un segundo. Si no hay tokens
+ * suficientes el consumo queda en deuda y el hilo duerme lo necesario para saldarla,
+ * así varios hilos comparten el límite sin esperas activas.
+ */
+public class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private long bytesPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = bytesPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Cambia el límite; 0 o negativo desactiva la limitación
+     */
+    public synchronized void setRate(long bytesPerSecond) {
+        refill();
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = Math.min(tokens, Math.max(bytesPerSecond, 0));
+    }
+
+    public synchronized long getRate() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Consume {@code bytes} tokens, esperando si el cubo está en deuda
+     */
+    public void acquire(int bytes) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            refill();
+            tokens -= bytes;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens * NANOS_PER_SECOND / bytesPerSecond);
+        }
+
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (bytesPerSecond > 0) {
+            tokens = Math.min(bytesPerSecond, tokens + (double) (now - lastRefillNanos) * bytesPerSecond / NANOS_PER_SECOND);
+        }
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,472 @@
+package org.klauncher.launcher.services.download;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.klauncher.launcher.database.dao.FileManifestDAO;
+import org.klauncher.launcher.models.entities.ManifestEntry;
+import org.klauncher.launcher.services.launch.VersionResolver;
+import org.klauncher.launcher.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Traduce una versión a tareas de descarga con su prioridad: JSON de versión y jar cliente
+ * son críticos, librerías e índice de assets son necesarios para arrancar y los assets van
+ * en segundo plano. Cada versión instalada guarda su manifiesto de archivos en la base de
+ * datos, y una actualización solo descarga lo que cambia respecto a él ({@link ManifestDiff}).
+ * Los objetos de assets van aparte en una {@link AssetObjectTable}, comparados por hash.
+ */
+public class VersionDownloadPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(VersionDownloadPlanner.class);
+    public static final String VERSION_MANIFEST_URL = "https://piston-meta.mojang.com/mc/game/version_manifest_v2.json";
+    public static final String RESOURCES_URL = "https://resources.download.minecraft.net/";
+    private static final Duration MANIFEST_MAX_AGE = Duration.ofHours(1);
+    // Por debajo de este tamaño la petición extra del parche no compensa
+    private static final long DELTA_MIN_SIZE = 1024 * 1024;
+
+    private final VersionResolver versionResolver;
+    private final ObjectMapper objectMapper;
+    private final ManifestReader manifestReader;
+    private final FileManifestDAO manifestDAO;
+    private final Path gameDirectory;
+    private final Path versionsDirectory;
+
+    public VersionDownloadPlanner(VersionResolver versionResolver, ObjectMapper objectMapper, FileManifestDAO manifestDAO,
+                                  Path gameDirectory) {
+        this.versionResolver = versionResolver;
+        this.objectMapper = objectMapper;
+        this.manifestReader = new ManifestReader(objectMapper);
+        this.manifestDAO = manifestDAO;
+        this.gameDirectory = gameDirectory.toAbsolutePath().normalize();
+        this.versionsDirectory = this.gameDirectory.resolve("versions");
+    }
+
+    public Path getManifestFile() {
+        return versionsDirectory.resolve("version_manifest_v2.json");
+    }
+
+    /**
+     * Tarea para refrescar el manifiesto de versiones, o vacío si la copia local es reciente
+     */
+    public Optional<DownloadTask> planManifest() throws IOException {
+        Path manifest = getManifestFile();
+        if (Files.exists(manifest)
+                && Files.getLastModifiedTime(manifest).toInstant().plus(MANIFEST_MAX_AGE).isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(new DownloadTask(VERSION_MANIFEST_URL, manifest, null, -1, DownloadPriority.CRITICAL));
+    }
+
+    /**
+     * Tarea para el JSON de la versión según el manifiesto, o vacío si ya existe o no aparece
+     */
+    public Optional<DownloadTask> planVersionJson(String versionId) throws IOException {
+        Path versionJson = versionResolver.getVersionJson(versionId);
+        if (Files.exists(versionJson) || !Files.exists(getManifestFile())) {
+            return Optional.empty();
+        }
+
+        for (JsonNode version : objectMapper.readTree(getManifestFile().toFile()).path("versions")) {
+            if (versionId.equals(version.path("id").asText())) {
+                return Optional.of(new DownloadTask(version.path("url").asText(), versionJson,
+                        textOrNull(version.path("sha1")), -1, DownloadPriority.CRITICAL));
+            }
+        }
+
+        logger.warn("La versión {} no aparece en el manifiesto", versionId);
+        return Optional.empty();
+    }
+
+    /**
+     * Planifica la instalación o actualización de una versión cuyo JSON ya está presente.
+     * Si la revisión del JSON coincide con la del manifiesto instalado solo se comprueban los
+     * archivos necesarios para arrancar. Si no, se compara con el manifiesto instalado y se
+     * descargan únicamente los archivos nuevos o modificados; los que ya existen con el mismo
+     * contenido en otra ruta se enlazan. Si el índice de assets aún no está, sus objetos se
+     * planifican cuando llega y se entregan a {@code assetSink}.
+     */
+    public ManifestUpdate planVersion(String versionId, Consumer<List<DownloadTask>> assetSink) throws IOException {
+        Path versionJson = versionResolver.getVersionJson(versionId);
+        if (!Files.exists(versionJson)) {
+            ManifestUpdate empty = new ManifestUpdate(versionId, null, null, List.of(), emptyObjects());
+            empty.markUpToDate();
+            return empty;
+        }
+
+        long start = System.nanoTime();
+        String revision = FileUtils.calculateSHA256(versionJson);
+        ManifestReader.VersionFiles files = manifestReader.readVersion(versionJson, versionId);
+
+        if (revision.equals(findRevision(versionId))) {
+            ManifestUpdate update = new ManifestUpdate(versionId, files.getVersionType(), revision, List.of(),
+                    emptyObjects());
+            update.markUpToDate();
+            update.markAssetsPlanned();
+            for (ManifestEntry entry : files.getEntries()) {
+                if (!isPresent(resolve(entry), entry.getSize())) {
+                    update.getTasks().add(task(entry));
+                }
+            }
+            logger.info("Versión {} al día: {} archivos para arrancar pendientes ({} ms)",
+                    versionId, update.getTasks().size(), (System.nanoTime() - start) / 1_000_000);
+            return update;
+        }
+
+        List<ManifestEntry> installed = new ArrayList<>();
+        AssetObjectTable installedObjects = findAssetObjects(versionId);
+        splitObjects(findEntries(versionId), installed, installedObjects);
+        List<ManifestEntry> otherVersions = findEntriesOutside(versionId);
+        ManifestUpdate update = new ManifestUpdate(versionId, files.getVersionType(), revision, installed,
+                installedObjects.seal());
+        update.getEntries().addAll(files.getEntries());
+
+        ManifestDiff diff = ManifestDiff.compute(installed, files.getEntries(), otherVersions);
+        ManifestEntry assetIndex = files.getAssetIndex();
+        boolean indexPending = false;
+
+        for (DownloadTask task : planDiff(diff, update, otherVersions)) {
+            if (assetIndex != null && task.getTarget().equals(resolve(assetIndex))) {
+                indexPending = true;
+                task.onDownloaded(downloaded -> {
+                    try {
+                        assetSink.accept(planAssets(update, resolve(assetIndex)));
+                    } catch (IOException e) {
+                        logger.warn("No se pudo leer el índice de assets {}", downloaded.getTarget(), e);
+                    }
+                });
+            }
+            update.getTasks().add(task);
+        }
+
+        if (assetIndex == null) {
+            update.markAssetsPlanned();
+        } else if (!indexPending) {
+            update.getTasks().addAll(planAssets(update, resolve(assetIndex)));
+        }
+
+        logger.info("Versión {}: {} archivos nuevos, {} modificados, {} sin cambios; {} descargas, {} enlazados ({} ms)",
+                versionId, diff.getAdded().size(), diff.getChanged().size(), diff.getUnchanged().size(),
+                update.getTasks().size(), update.getRelinked(), (System.nanoTime() - start) / 1_000_000);
+        return update;
+    }
+
+    /**
+     * Guarda el manifiesto de una actualización terminada y borra los archivos que la nueva
+     * revisión ya no usa y que ninguna otra versión instalada comparte
+     */
+    public void commit(ManifestUpdate update) throws IOException, SQLException {
+        if (update.isUpToDate()) {
+            return;
+        }
+        if (!update.isComplete()) {
+            logger.warn("Manifiesto de {} incompleto (falta el índice de assets); no se guarda", update.getVersionId());
+            return;
+        }
+
+        List<ManifestEntry> entries = List.copyOf(update.getEntries());
+        List<ManifestEntry> otherVersions = new ArrayList<>();
+        AssetObjectTable otherObjects = manifestDAO.findAssetObjectsOutside(update.getVersionId());
+        splitObjects(manifestDAO.findEntriesOutside(update.getVersionId()), otherVersions, otherObjects);
+        otherObjects.seal();
+
+        List<String> removed = ManifestDiff.removedPaths(update.getInstalled(), entries, otherVersions);
+        AssetObjectTable installedObjects = update.getInstalledObjects();
+        AssetObjectTable assetObjects = update.getAssetObjects();
+        for (int i = 0; i < installedObjects.size(); i++) {
+            if (assetObjects.indexOf(installedObjects, i) < 0 && otherObjects.indexOf(installedObjects, i) < 0) {
+                removed.add(installedObjects.pathAt(i));
+            }
+        }
+
+        int deleted = 0;
+        for (String path : removed) {
+            Path file = gameDirectory.resolve(path).normalize();
+            if (file.startsWith(gameDirectory) && Files.deleteIfExists(file)) {
+                deleted++;
+            }
+        }
+
+        manifestDAO.saveManifest(update.getVersionId(), update.getVersionType(),
+                versionResolver.getVersionDirectory(update.getVersionId()).toString(), update.getRevision(), entries,
+                assetObjects);
+        writeIndex(update.getVersionId(), ManifestIndex.build(update.getRevision(), entries, assetObjects));
+        logger.info("Manifiesto de {} actualizado: {} archivos y {} objetos, {} obsoletos borrados",
+                update.getVersionId(), entries.size(), assetObjects.size(), deleted);
+    }
+
+    public Path getIndexFile(String versionId) {
+        return versionResolver.getVersionDirectory(versionId).resolve(versionId + ".idx");
+    }
+
+    /**
+     * Índice de archivos de la revisión instalada de una versión, mapeado desde su directorio.
+     * Si falta o es de otra revisión se reconstruye desde la base de datos cuando el manifiesto
+     * guardado corresponde al JSON actual; si no, vacío.
+     */
+    public Optional<ManifestIndex> openIndex(String versionId) throws IOException {
+        Path versionJson = versionResolver.getVersionJson(versionId);
+        if (!Files.exists(versionJson)) {
+            return Optional.empty();
+        }
+
+        String revision = FileUtils.calculateSHA256(versionJson);
+        Path indexFile = getIndexFile(versionId);
+        if (Files.isRegularFile(indexFile)) {
+            try {
+                ManifestIndex index = ManifestIndex.open(indexFile);
+                if (revision.equals(index.getRevision())) {
+                    return Optional.of(index);
+                }
+            } catch (IOException e) {
+                logger.debug("Índice de {} ilegible, se reconstruye: {}", versionId, e.getMessage());
+            }
+        }
+
+        if (!revision.equals(findRevision(versionId))) {
+            return Optional.empty();
+        }
+        try {
+            List<ManifestEntry> entries = new ArrayList<>();
+            AssetObjectTable objects = manifestDAO.findAssetObjects(versionId);
+            splitObjects(manifestDAO.findEntries(versionId), entries, objects);
+            ManifestIndex index = ManifestIndex.build(revision, entries, objects.seal());
+            writeIndex(versionId, index);
+            return Optional.of(index);
+        } catch (SQLException e) {
+            logger.warn("No se pudo leer el manifiesto instalado de {}", versionId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * El índice es una caché del manifiesto: si no se puede escribir (p. ej. el anterior sigue
+     * mapeado en Windows) se reconstruye la próxima vez
+     */
+    private void writeIndex(String versionId, ManifestIndex index) {
+        try {
+            index.writeTo(getIndexFile(versionId));
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar el índice de archivos de {}: {}", versionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Tareas para los objetos del índice de assets que no estaban en el manifiesto instalado.
+     * Los que sí estaban se dan por buenos sin tocar el disco; de los nuevos se omiten los
+     * ya presentes con su tamaño (compartidos con otras versiones).
+     */
+    private List<DownloadTask> planAssets(ManifestUpdate update, Path indexFile) throws IOException {
+        AssetObjectTable objects = manifestReader.readAssetIndex(indexFile);
+        AssetObjectTable installed = update.getInstalledObjects();
+        List<DownloadTask> tasks = new ArrayList<>();
+
+        for (int i = 0; i < objects.size(); i++) {
+            if (installed.contains(objects, i)) {
+                continue;
+            }
+
+            String hash = objects.hashAt(i);
+            String location = hash.substring(0, 2) + "/" + hash;
+            Path target = gameDirectory.resolve(ManifestReader.ASSET_OBJECTS_PREFIX + location);
+            if (!isPresent(target, objects.sizeAt(i))) {
+                tasks.add(new DownloadTask(RESOURCES_URL + location, target, hash, objects.sizeAt(i),
+                        DownloadPriority.BACKGROUND));
+            }
+        }
+        update.setAssetObjects(objects);
+
+        logger.info("Índice {}: {} objetos, {} pendientes", indexFile.getFileName(), objects.size(), tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Convierte una diferencia en descargas. De los archivos sin cambios solo se comprueba el tamaño;
+     * los nuevos ya presentes en disco (compartidos con versiones anteriores al manifiesto) se omiten.
+     * Los archivos grandes que cambian llevan como base para un parche binario su versión instalada
+     * o, si son nuevos, la de otra versión del mismo artefacto.
+     */
+    private List<DownloadTask> planDiff(ManifestDiff diff, ManifestUpdate update, List<ManifestEntry> otherVersions)
+            throws IOException {
+        Map<String, ManifestEntry> installedByPath = new HashMap<>();
+        Map<String, ManifestEntry> byFamily = new HashMap<>();
+        for (List<ManifestEntry> entries : List.of(otherVersions, update.getInstalled())) {
+            for (ManifestEntry entry : entries) {
+                String family = familyOf(entry.getPath());
+                if (family != null && entry.getSha1() != null && entry.getSize() >= DELTA_MIN_SIZE
+                        && isPresent(resolve(entry), entry.getSize())) {
+                    byFamily.put(family, entry);
+                }
+            }
+        }
+        for (ManifestEntry entry : update.getInstalled()) {
+            installedByPath.put(entry.getPath(), entry);
+        }
+
+        List<DownloadTask> tasks = new ArrayList<>();
+
+        for (ManifestEntry entry : diff.getUnchanged()) {
+            if (!isPresent(resolve(entry), entry.getSize())) {
+                tasks.add(task(entry));
+            }
+        }
+
+        int relinked = 0;
+        for (List<ManifestEntry> entries : List.of(diff.getAdded(), diff.getChanged())) {
+            boolean added = entries == diff.getAdded();
+            for (ManifestEntry entry : entries) {
+                Path target = resolve(entry);
+                if (added && isPresent(target, entry.getSize())) {
+                    continue;
+                }
+
+                String source = diff.getRelinkSource(entry.getPath());
+                if (source != null && relink(gameDirectory.resolve(source), target, entry.getSize())) {
+                    relinked++;
+                } else {
+                    ManifestEntry basis = entry.getSize() >= DELTA_MIN_SIZE
+                            ? (added ? byFamily.get(familyOf(entry.getPath())) : installedByPath.get(entry.getPath()))
+                            : null;
+                    DownloadTask task = task(entry);
+                    if (basis != null && basis.getSha1() != null && isPresent(resolve(basis), basis.getSize())) {
+                        task.withDeltaBasis(resolve(basis), basis.getSha1());
+                    }
+                    tasks.add(task);
+                }
+            }
+        }
+
+        update.addRelinked(relinked);
+        return tasks;
+    }
+
+    /**
+     * Clave que comparten las versiones de un mismo archivo: el jar cliente de cualquier versión,
+     * o grupo, artefacto y clasificador de una librería Maven. Null si la ruta no encaja.
+     */
+    private static String familyOf(String path) {
+        String[] parts = path.split("/");
+        if (parts.length == 3 && parts[0].equals("versions") && parts[2].equals(parts[1] + ".jar")) {
+            return "versions/*.jar";
+        }
+        if (parts.length >= 5 && parts[0].equals("libraries")) {
+            String artifact = parts[parts.length - 3];
+            String version = parts[parts.length - 2];
+            String file = parts[parts.length - 1];
+            String prefix = artifact + "-" + version;
+            if (file.startsWith(prefix)) {
+                return String.join("/", Arrays.copyOf(parts, parts.length - 2)) + "/*" + file.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Enlaza (o copia si el sistema de archivos no admite enlaces) un archivo ya instalado
+     */
+    private static boolean relink(Path source, Path target, long size) {
+        try {
+            if (!isPresent(source, size)) {
+                return false;
+            }
+
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            logger.debug("No se pudo enlazar {} desde {}: {}", target, source, e.getMessage());
+            return false;
+        }
+    }
+
+    private DownloadTask task(ManifestEntry entry) {
+        return new DownloadTask(entry.getUrl(), resolve(entry), entry.getSha1(), entry.getSize(), priorityOf(entry));
+    }
+
+    private Path resolve(ManifestEntry entry) {
+        return gameDirectory.resolve(entry.getPath());
+    }
+
+    private static DownloadPriority priorityOf(ManifestEntry entry) {
+        return entry.getPath().startsWith("versions/") ? DownloadPriority.CRITICAL : DownloadPriority.LAUNCH;
+    }
+
+    /**
+     * Separa las filas de objetos de assets (manifiestos guardados antes de la tabla empaquetada)
+     */
+    private static void splitObjects(List<ManifestEntry> rows, List<ManifestEntry> entries, AssetObjectTable objects) {
+        for (ManifestEntry row : rows) {
+            if (!row.getPath().startsWith(ManifestReader.ASSET_OBJECTS_PREFIX) || row.getSha1() == null
+                    || !objects.add(row.getSha1(), row.getSize())) {
+                entries.add(row);
+            }
+        }
+    }
+
+    private static AssetObjectTable emptyObjects() {
+        return new AssetObjectTable(0).seal();
+    }
+
+    private String findRevision(String versionId) {
+        try {
+            return manifestDAO.findRevision(versionId);
+        } catch (SQLException e) {
+            logger.warn("No se pudo leer el manifiesto instalado de {}", versionId, e);
+            return null;
+        }
+    }
+
+    private List<ManifestEntry> findEntries(String versionId) {
+        try {
+            return manifestDAO.findEntries(versionId);
+        } catch (SQLException e) {
+            logger.warn("No se pudo leer el manifiesto instalado de {}", versionId, e);
+            return List.of();
+        }
+    }
+
+    private AssetObjectTable findAssetObjects(String versionId) {
+        try {
+            return manifestDAO.findAssetObjects(versionId);
+        } catch (SQLException e) {
+            logger.warn("No se pudo leer el manifiesto instalado de {}", versionId, e);
+            return new AssetObjectTable(0);
+        }
+    }
+
+    private List<ManifestEntry> findEntriesOutside(String versionId) {
+        try {
+            return manifestDAO.findEntriesOutside(versionId);
+        } catch (SQLException e) {
+            logger.warn("No se pudieron leer los manifiestos de otras versiones", e);
+            return List.of();
+        }
+    }
+
+    private static boolean isPresent(Path file, long expectedSize) throws IOException {
+        return Files.isRegularFile(file) && (expectedSize < 0 || Files.size(file) == expectedSize);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isTextual() ? node.asText() : null;
+    }
+}
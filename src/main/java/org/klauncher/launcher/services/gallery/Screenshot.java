@@ -0,0 +1,82 @@
+package org.klauncher.launcher.services.gallery;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Captura de la carpeta screenshots/ de un perfil
+ */
+public class Screenshot {
+    private static final Set<String> EXTENSIONS = Set.of(".png", ".jpg", ".jpeg");
+
+    private final Path path;
+    private final long size;
+    private final long modified;
+
+    Screenshot(Path path, long size, long modified) {
+        this.path = path;
+        this.size = size;
+        this.modified = modified;
+    }
+
+    /**
+     * Capturas de la carpeta, de la más reciente a la más antigua
+     */
+    public static List<Screenshot> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        List<Screenshot> screenshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+                int dot = name.lastIndexOf('.');
+                if (dot < 0 || !EXTENSIONS.contains(name.substring(dot))) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    screenshots.add(new Screenshot(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        screenshots.sort(Comparator.comparingLong(Screenshot::getModified).reversed()
+                .thenComparing(Screenshot::getFileName));
+        return screenshots;
+    }
+
+    public Path getPath() { return path; }
+    public long getSize() { return size; }
+    public long getModified() { return modified; }
+
+    public String getFileName() {
+        return path.getFileName().toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Screenshot that = (Screenshot) o;
+        return size == that.size && modified == that.modified && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getFileName();
+    }
+}
@@ -0,0 +1,257 @@
+package org.klauncher.launcher.services.gallery;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Miniaturas de capturas en tres niveles: imágenes ya decodificadas en memoria (LRU limitado por
+ * bytes), JPEG pequeños en disco y, solo si no hay ninguno, la captura original decodificada por
+ * JavaFX en segundo plano directamente al tamaño de la miniatura. El hilo de JavaFX nunca
+ * decodifica ni escribe imágenes; solo copia los píxeles de la miniatura recién hecha.
+ *
+ * Las miniaturas en disco se nombran por el hash de la ruta de la captura y su fecha, así que una
+ * captura modificada genera una nueva y la anterior se borra al escribirla.
+ */
+public class ThumbnailCache {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailCache.class);
+    public static final int THUMBNAIL_WIDTH = 240;
+    public static final int THUMBNAIL_HEIGHT = 135;
+    private static final String THUMBNAIL_EXTENSION = ".jpg";
+
+    /**
+     * Carga en curso de una miniatura; la celda que la pidió la cancela si pasa a mostrar otra captura
+     */
+    public static final class Request {
+        private Image loading;
+        private boolean cancelled;
+
+        private Request() {}
+
+        public void cancel() {
+            cancelled = true;
+            if (loading != null && loading.getProgress() < 1) {
+                loading.cancel();
+            }
+            loading = null;
+        }
+
+        public boolean isDone() {
+            return loading == null;
+        }
+    }
+
+    private final Path directory;
+    private final ExecutorService writer;
+    private final Map<String, Image> memory;
+    private final long maxMemoryBytes;
+    private long memoryBytes;
+
+    public ThumbnailCache(Path directory, long maxMemoryBytes) {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.memory = new LinkedHashMap<>(256, 0.75f, true);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pide la miniatura de la captura. Si está en memoria se entrega en el acto; si no, se carga
+     * en segundo plano y {@code display} se llama en el hilo de JavaFX cuando está lista.
+     * Debe llamarse desde el hilo de JavaFX.
+     */
+    public Request request(Screenshot screenshot, Consumer<Image> display) {
+        Request request = new Request();
+        String key = cacheKey(screenshot);
+        String version = key + "-" + Long.toHexString(screenshot.getModified());
+
+        Image cached = memory.get(version);
+        if (cached != null) {
+            display.accept(cached);
+            return request;
+        }
+
+        // Primero la miniatura en disco; si no existe, la captura reducida
+        Path thumbnail = directory.resolve(key.substring(0, 2)).resolve(version + THUMBNAIL_EXTENSION);
+        load(request, thumbnail.toUri().toString(), 0, 0, image -> {
+            remember(version, image);
+            display.accept(image);
+        }, () -> load(request, screenshot.getPath().toUri().toString(), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT, image -> {
+            remember(version, image);
+            display.accept(image);
+            store(image, key, thumbnail);
+        }, () -> logger.debug("No se pudo cargar la captura {}", screenshot.getPath())));
+        return request;
+    }
+
+    /**
+     * Bytes que ocupan las miniaturas decodificadas que hay en memoria
+     */
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getMemoryCount() {
+        return memory.size();
+    }
+
+    /**
+     * Vacía la memoria; las miniaturas en disco se conservan para la próxima vez
+     */
+    public void clearMemory() {
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    public void shutdown() {
+        writer.shutdown();
+        clearMemory();
+    }
+
+    private void load(Request request, String url, int width, int height, Consumer<Image> loaded, Runnable failed) {
+        if (request.cancelled) {
+            return;
+        }
+
+        Image image = new Image(url, width, height, true, true, true);
+        request.loading = image;
+
+        ChangeListener<Number> progress = new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> obs, Number old, Number value) {
+                if (value.doubleValue() < 1 || image.isError()) {
+                    return;
+                }
+                image.progressProperty().removeListener(this);
+                if (!request.cancelled && request.loading == image) {
+                    request.loading = null;
+                    loaded.accept(image);
+                }
+            }
+        };
+        image.progressProperty().addListener(progress);
+        image.errorProperty().addListener((obs, old, error) -> {
+            if (error) {
+                image.progressProperty().removeListener(progress);
+                if (!request.cancelled && request.loading == image) {
+                    request.loading = null;
+                    failed.run();
+                }
+            }
+        });
+
+        // Puede haber terminado antes de registrar los listeners
+        if (image.isError()) {
+            request.loading = null;
+            failed.run();
+        } else if (image.getProgress() >= 1) {
+            image.progressProperty().removeListener(progress);
+            request.loading = null;
+            loaded.accept(image);
+        }
+    }
+
+    private void remember(String key, Image image) {
+        long weight = weightOf(image);
+        if (weight > maxMemoryBytes) {
+            return;
+        }
+
+        Image previous = memory.put(key, image);
+        if (previous != null) {
+            memoryBytes -= weightOf(previous);
+        }
+        memoryBytes += weight;
+
+        var eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            memoryBytes -= weightOf(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Copia los píxeles en el hilo de JavaFX (son pocos) y codifica y escribe el JPEG en segundo plano
+     */
+    private void store(Image image, String key, Path thumbnail) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (width == 0 || height == 0 || image.getPixelReader() == null) {
+            return;
+        }
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+        writer.execute(() -> {
+            try {
+                BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                buffered.setRGB(0, 0, width, height, pixels, 0, width);
+
+                Files.createDirectories(thumbnail.getParent());
+                Path temp = thumbnail.resolveSibling(thumbnail.getFileName() + ".tmp");
+                if (!ImageIO.write(buffered, "jpg", temp.toFile())) {
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+                Files.move(temp, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                deleteStale(key, thumbnail);
+            } catch (IOException e) {
+                logger.debug("No se pudo guardar la miniatura {}", thumbnail, e);
+            }
+        });
+    }
+
+    /**
+     * Borra las miniaturas de versiones anteriores de la misma captura
+     */
+    private static void deleteStale(String key, Path current) throws IOException {
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(current.getParent(), key + "-*" + THUMBNAIL_EXTENSION)) {
+            for (Path sibling : siblings) {
+                if (!sibling.equals(current)) {
+                    Files.deleteIfExists(sibling);
+                }
+            }
+        }
+    }
+
+    private static long weightOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * Hash de la ruta: hashear el contenido obligaría a leer cada captura completa, que es
+     * justo lo que la caché evita. Los cambios de contenido se detectan por la fecha.
+     */
+    private static String cacheKey(Screenshot screenshot) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(screenshot.getPath().toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.services.JavaDiscoveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gestiona archivos AppCDS dinámicos para la JVM del juego.
+ * El primer lanzamiento de un par (versión, runtime) graba el archivo con
+ * -XX:ArchiveClassesAtExit; los siguientes lo reutilizan con -XX:SharedArchiveFile.
+ * El nombre incluye un hash del classpath, así que un classpath distinto genera
+ * un archivo nuevo y el anterior se elimina.
+ */
+public class CdsArchiveManager {
+    private static final Logger logger = LoggerFactory.getLogger(CdsArchiveManager.class);
+    private static final String ARCHIVE_EXTENSION = ".jsa";
+    private static final String RECORDING_EXTENSION = ".recording";
+    private static final int MIN_DYNAMIC_CDS_VERSION = 13;
+
+    private final Path archiveDirectory;
+    private final Set<Path> recordingArchives;
+
+    public CdsArchiveManager(Path archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+        this.recordingArchives = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Flags de CDS para un lanzamiento concreto y el archivo que se está grabando, si aplica
+     */
+    public static class CdsSession {
+        private static final CdsSession DISABLED = new CdsSession(List.of(), null, null);
+
+        private final List<String> flags;
+        private final Path recordingFile;
+        private final Path archiveFile;
+
+        private CdsSession(List<String> flags, Path recordingFile, Path archiveFile) {
+            this.flags = flags;
+            this.recordingFile = recordingFile;
+            this.archiveFile = archiveFile;
+        }
+
+        public static CdsSession disabled() {
+            return DISABLED;
+        }
+
+        public List<String> getFlags() { return flags; }
+        public boolean isRecording() { return recordingFile != null; }
+    }
+
+    /**
+     * Prepara las flags de CDS para lanzar una versión con el comando indicado
+     */
+    public CdsSession prepare(String versionId, LaunchCommand command) {
+        int javaVersion = JvmTuningEngine.detectJavaMajorVersion(command.getJavaExecutable()).orElse(0);
+        if (javaVersion < MIN_DYNAMIC_CDS_VERSION) {
+            logger.debug("CDS dinámico no disponible en Java {}", javaVersion);
+            return CdsSession.disabled();
+        }
+
+        try {
+            Files.createDirectories(archiveDirectory);
+
+            String prefix = sanitize(versionId) + "-" + hash(runtimeKey(command.getJavaExecutable())) + "-";
+            Path archive = archiveDirectory.resolve(prefix + hash(command.getClasspath()) + ARCHIVE_EXTENSION);
+
+            deleteStaleArchives(prefix, archive);
+
+            if (Files.isRegularFile(archive)) {
+                logger.info("Usando archivo CDS: {}", archive);
+                return new CdsSession(List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto"), null, archive);
+            }
+
+            // Solo una instancia graba el archivo; las demás arrancan sin CDS
+            if (!recordingArchives.add(archive)) {
+                logger.debug("Archivo CDS en grabación por otra instancia: {}", archive);
+                return CdsSession.disabled();
+            }
+
+            Path recording = archive.resolveSibling(archive.getFileName() + RECORDING_EXTENSION);
+            Files.deleteIfExists(recording);
+            logger.info("Grabando archivo CDS en la salida del juego: {}", archive);
+            return new CdsSession(List.of("-XX:ArchiveClassesAtExit=" + recording), recording, archive);
+
+        } catch (IOException e) {
+            logger.warn("No se pudo preparar el archivo CDS, lanzando sin CDS", e);
+            return CdsSession.disabled();
+        }
+    }
+
+    /**
+     * Publica el archivo grabado cuando el juego termina correctamente
+     */
+    public void track(CdsSession session, Process process) {
+        if (!session.isRecording()) {
+            return;
+        }
+
+        process.onExit().thenAccept(exited -> {
+            try {
+                if (exited.exitValue() == 0 && Files.isRegularFile(session.recordingFile)) {
+                    Files.move(session.recordingFile, session.archiveFile, StandardCopyOption.ATOMIC_MOVE);
+                    logger.info("Archivo CDS generado: {}", session.archiveFile);
+                } else {
+                    Files.deleteIfExists(session.recordingFile);
+                    logger.debug("Juego terminó con código {}, archivo CDS descartado", exited.exitValue());
+                }
+            } catch (IOException e) {
+                logger.warn("No se pudo publicar el archivo CDS: {}", session.archiveFile, e);
+            } finally {
+                recordingArchives.remove(session.archiveFile);
+            }
+        });
+    }
+
+    /**
+     * Elimina los archivos del mismo par (versión, runtime) con otro classpath
+     */
+    private void deleteStaleArchives(String prefix, Path current) throws IOException {
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(archiveDirectory, prefix + "*" + ARCHIVE_EXTENSION)) {
+            for (Path archive : archives) {
+                if (!archive.equals(current)) {
+                    Files.deleteIfExists(archive);
+                    logger.info("Archivo CDS invalidado por cambio de classpath: {}", archive);
+                }
+            }
+        }
+    }
+
+    /**
+     * Identifica el runtime por ejecutable, versión y fecha del archivo release
+     */
+    private static String runtimeKey(String javaExecutable) {
+        Path javaHome = Paths.get(javaExecutable).toAbsolutePath().getParent().getParent();
+        return JavaDiscoveryService.readRuntime(javaHome)
+                .map(runtime -> javaExecutable + "|" + runtime.getVersion() + "|" + runtime.getReleaseModified())
+                .orElse(javaExecutable);
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[^A-Za-z0-9._]", "_");
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.klauncher.launcher.services.launch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacén de solo escritura al final para la salida completa del juego.
+ * El texto se guarda en bloques de un archivo mapeado en memoria, de modo que
+ * millones de líneas no ocupan heap; en heap solo queda un long por línea
+ * (posición y longitud) en bloques de índice de tamaño fijo.
+ */
+public class ChunkedLogStore implements Closeable {
+    private static final int CHUNK_BYTES = 8 * 1024 * 1024;
+    private static final int INDEX_CHUNK_LINES = 1 << 16;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int LENGTH_BITS = 24;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks;
+    private final List<long[]> index;
+
+    private int chunkOffset;
+    private volatile int lineCount;
+    private volatile boolean closed;
+
+    /**
+     * Crea el almacén sobre {@code file}; el archivo se borra al cerrarlo
+     */
+    public ChunkedLogStore(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+        this.chunks = new ArrayList<>();
+        this.index = new ArrayList<>();
+        this.chunkOffset = 0;
+    }
+
+    /**
+     * Añade una línea. Las líneas de más de 64 KiB se truncan.
+     */
+    public synchronized void append(String line) throws IOException {
+        if (closed) {
+            return;
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_LINE_BYTES);
+
+        if (chunks.isEmpty() || chunkOffset + length > CHUNK_BYTES) {
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * CHUNK_BYTES, CHUNK_BYTES));
+            chunkOffset = 0;
+        }
+
+        int chunk = chunks.size() - 1;
+        chunks.get(chunk).put(chunkOffset, bytes, 0, length);
+
+        long position = (long) chunk * CHUNK_BYTES + chunkOffset;
+        int count = lineCount;
+        if (count % INDEX_CHUNK_LINES == 0) {
+            index.add(new long[INDEX_CHUNK_LINES]);
+        }
+        index.get(count / INDEX_CHUNK_LINES)[count % INDEX_CHUNK_LINES] = (position << LENGTH_BITS) | length;
+
+        chunkOffset += length;
+        lineCount = count + 1;
+    }
+
+    /**
+     * Devuelve la línea {@code line} (0 es la primera)
+     */
+    public synchronized String getLine(int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Línea fuera de rango: " + line);
+        }
+        if (closed) {
+            return "";
+        }
+
+        long entry = index.get(line / INDEX_CHUNK_LINES)[line % INDEX_CHUNK_LINES];
+        long position = entry >>> LENGTH_BITS;
+        int length = (int) (entry & LENGTH_MASK);
+
+        byte[] bytes = new byte[length];
+        chunks.get((int) (position / CHUNK_BYTES)).get((int) (position % CHUNK_BYTES), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Número de líneas almacenadas; se puede leer sin bloquear
+     */
+    public int size() {
+        return lineCount;
+    }
+
+    /**
+     * Bytes de texto ocupados en el archivo mapeado
+     */
+    public synchronized long getStoredBytes() {
+        return chunks.isEmpty() ? 0 : (long) (chunks.size() - 1) * CHUNK_BYTES + chunkOffset;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Los bloques mapeados se liberan cuando el GC recoge los buffers
+        chunks.clear();
+        index.clear();
+        channel.close();
+    }
+}
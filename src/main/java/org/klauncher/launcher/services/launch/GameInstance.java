@@ -0,0 +1,146 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Instancia del juego en ejecución vigilada por {@link GameProcessSupervisor}
+ */
+public class GameInstance {
+    private static final Logger logger = LoggerFactory.getLogger(GameInstance.class);
+
+    private final String instanceId;
+    private final UserProfile profile;
+    private final String versionId;
+    private final Process process;
+    private final Path logFile;
+    private final Instant startedAt;
+    private final LogRingBuffer output;
+    private final ChunkedLogStore logStore;
+
+    private final List<Consumer<String>> outputListeners;
+    private final List<Consumer<ProcessMetrics>> metricsListeners;
+
+    private volatile ProcessMetrics latestMetrics;
+    private long peakRssBytes;
+    private int peakThreadCount;
+    private double cpuPercentSum;
+    private int metricsSamples;
+
+    // Estado del muestreo de CPU
+    long lastCpuTimeNanos = -1;
+    long lastSampleNanos;
+
+    GameInstance(String instanceId, UserProfile profile, String versionId, Process process,
+                 Path logFile, int outputCapacity, ChunkedLogStore logStore) {
+        this.instanceId = instanceId;
+        this.profile = profile;
+        this.versionId = versionId;
+        this.process = process;
+        this.logFile = logFile;
+        this.startedAt = Instant.now();
+        this.output = new LogRingBuffer(outputCapacity);
+        this.logStore = logStore;
+        this.outputListeners = new CopyOnWriteArrayList<>();
+        this.metricsListeners = new CopyOnWriteArrayList<>();
+    }
+
+    public String getInstanceId() { return instanceId; }
+    public UserProfile getProfile() { return profile; }
+    public String getVersionId() { return versionId; }
+    public Process getProcess() { return process; }
+    public Path getLogFile() { return logFile; }
+    public Instant getStartedAt() { return startedAt; }
+    public LogRingBuffer getOutput() { return output; }
+
+    /**
+     * Salida completa de la sesión, para la consola de logs
+     */
+    public ChunkedLogStore getLogStore() { return logStore; }
+    public ProcessMetrics getLatestMetrics() { return latestMetrics; }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    public synchronized long getPeakRssBytes() { return peakRssBytes; }
+    public synchronized int getPeakThreadCount() { return peakThreadCount; }
+
+    public synchronized double getAverageCpuPercent() {
+        return metricsSamples == 0 ? 0 : cpuPercentSum / metricsSamples;
+    }
+
+    /**
+     * Suscribe un listener a cada línea de salida (se invoca desde el hilo lector)
+     */
+    public void addOutputListener(Consumer<String> listener) {
+        outputListeners.add(listener);
+    }
+
+    public void removeOutputListener(Consumer<String> listener) {
+        outputListeners.remove(listener);
+    }
+
+    /**
+     * Suscribe un listener a cada muestra de métricas (se invoca desde el hilo de muestreo)
+     */
+    public void addMetricsListener(Consumer<ProcessMetrics> listener) {
+        metricsListeners.add(listener);
+    }
+
+    public void removeMetricsListener(Consumer<ProcessMetrics> listener) {
+        metricsListeners.remove(listener);
+    }
+
+    void publishLine(String line) {
+        output.add(line);
+        try {
+            logStore.append(line);
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar la línea en la consola de {}", instanceId, e);
+        }
+        for (Consumer<String> listener : outputListeners) {
+            try {
+                listener.accept(line);
+            } catch (Exception e) {
+                logger.error("Error en listener de salida del juego", e);
+            }
+        }
+    }
+
+    void publishMetrics(ProcessMetrics metrics) {
+        synchronized (this) {
+            latestMetrics = metrics;
+            peakRssBytes = Math.max(peakRssBytes, metrics.getRssBytes());
+            peakThreadCount = Math.max(peakThreadCount, metrics.getThreadCount());
+            cpuPercentSum += metrics.getCpuPercent();
+            metricsSamples++;
+        }
+
+        for (Consumer<ProcessMetrics> listener : metricsListeners) {
+            try {
+                listener.accept(metrics);
+            } catch (Exception e) {
+                logger.error("Error en listener de métricas del juego", e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GameInstance{" +
+                "id='" + instanceId + '\'' +
+                ", profile='" + profile.getName() + '\'' +
+                ", version='" + versionId + '\'' +
+                ", pid=" + process.pid() +
+                '}';
+    }
+}
@@ -0,0 +1,272 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.database.dao.LauncherLogDAO;
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Supervisa los procesos del juego lanzados: lee stdout/stderr en hilos virtuales,
+ * guarda las últimas líneas en memoria, escribe el log de la sesión y muestrea
+ * CPU, memoria e hilos una vez por segundo. La salida completa se guarda en un
+ * {@link ChunkedLogStore} para la consola de logs. Al terminar registra un resumen en launcher_logs.
+ */
+public class GameProcessSupervisor {
+    private static final Logger logger = LoggerFactory.getLogger(GameProcessSupervisor.class);
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+    private static final int OUTPUT_BUFFER_LINES = 5000;
+    private static final int CRASH_TAIL_LINES = 200;
+
+    private final Path consoleDirectory;
+    private final ScheduledExecutorService sampler;
+    private final LauncherLogDAO logDAO;
+    private final Map<String, GameInstance> instances;
+    private final Map<String, GameInstance> latestByProfile;
+    private final List<Consumer<GameInstance>> startListeners;
+    private final List<Consumer<GameInstance>> exitListeners;
+    private final AtomicLong instanceCounter;
+
+    public GameProcessSupervisor(Path consoleDirectory) {
+        this.consoleDirectory = consoleDirectory;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.logDAO = new LauncherLogDAO(DatabaseManager.getInstance());
+        this.instances = new ConcurrentHashMap<>();
+        this.latestByProfile = new ConcurrentHashMap<>();
+        this.startListeners = new CopyOnWriteArrayList<>();
+        this.exitListeners = new CopyOnWriteArrayList<>();
+        this.instanceCounter = new AtomicLong();
+    }
+
+    /**
+     * Empieza a supervisar un proceso recién lanzado. La salida se añade a {@code logFile}.
+     */
+    public GameInstance supervise(UserProfile profile, String versionId, Process process, Path logFile) throws IOException {
+        String instanceId = profile.getName() + "#" + instanceCounter.incrementAndGet();
+        ChunkedLogStore logStore = new ChunkedLogStore(
+                consoleDirectory.resolve(instanceId.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + process.pid() + ".buf"));
+        GameInstance instance = new GameInstance(instanceId, profile, versionId, process, logFile,
+                OUTPUT_BUFFER_LINES, logStore);
+
+        BufferedWriter logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        Thread stdout = startPump(instance, process.getInputStream(), logWriter, "stdout");
+        Thread stderr = startPump(instance, process.getErrorStream(), logWriter, "stderr");
+
+        ScheduledFuture<?> sampling = sampler.scheduleAtFixedRate(() -> sample(instance, logWriter),
+                0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        instances.put(instanceId, instance);
+        // La salida de la sesión anterior del perfil se conserva hasta el siguiente lanzamiento
+        GameInstance previous = latestByProfile.put(profile.getName(), instance);
+        if (previous != null && !previous.isAlive()) {
+            closeQuietly(previous.getLogStore());
+        }
+        notifyListeners(startListeners, instance);
+        logger.info("Supervisando instancia {} (pid {})", instanceId, process.pid());
+
+        process.onExit().thenRun(() -> {
+            sampling.cancel(false);
+            try {
+                // Las tuberías se cierran al terminar el proceso; se espera a vaciarlas
+                stdout.join();
+                stderr.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeQuietly(logWriter, logFile);
+            onExit(instance);
+        });
+
+        return instance;
+    }
+
+    /**
+     * Última instancia lanzada para un perfil, aunque ya haya terminado
+     */
+    public Optional<GameInstance> findLatestInstance(String profileName) {
+        return Optional.ofNullable(latestByProfile.get(profileName));
+    }
+
+    /**
+     * Instancias del juego que siguen en ejecución
+     */
+    public List<GameInstance> getRunningInstances() {
+        return new ArrayList<>(instances.values());
+    }
+
+    public void addStartListener(Consumer<GameInstance> listener) {
+        startListeners.add(listener);
+    }
+
+    public void removeStartListener(Consumer<GameInstance> listener) {
+        startListeners.remove(listener);
+    }
+
+    public void addExitListener(Consumer<GameInstance> listener) {
+        exitListeners.add(listener);
+    }
+
+    public void removeExitListener(Consumer<GameInstance> listener) {
+        exitListeners.remove(listener);
+    }
+
+    /**
+     * Detiene el muestreo. Los juegos en ejecución no se cierran.
+     */
+    public void shutdown() {
+        sampler.shutdownNow();
+        for (GameInstance instance : latestByProfile.values()) {
+            if (!instance.isAlive()) {
+                closeQuietly(instance.getLogStore());
+            }
+        }
+    }
+
+    private Thread startPump(GameInstance instance, InputStream stream, BufferedWriter logWriter, String name) {
+        return Thread.ofVirtual()
+                .name("game-" + name + "-" + instance.getProcess().pid())
+                .start(() -> {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            instance.publishLine(line);
+                            synchronized (logWriter) {
+                                logWriter.write(line);
+                                logWriter.newLine();
+                            }
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Lectura de {} terminada para {}", name, instance.getInstanceId(), e);
+                    }
+                });
+    }
+
+    /**
+     * Toma una muestra y vacía el log a disco
+     */
+    private void sample(GameInstance instance, BufferedWriter logWriter) {
+        Process process = instance.getProcess();
+        if (!process.isAlive()) {
+            return;
+        }
+
+        try {
+            ProcStatReader.RawSample raw = ProcStatReader.read(process.toHandle());
+            long now = System.nanoTime();
+
+            double cpuPercent = 0;
+            if (instance.lastCpuTimeNanos >= 0 && now > instance.lastSampleNanos) {
+                cpuPercent = (raw.getCpuTimeNanos() - instance.lastCpuTimeNanos) * 100.0
+                        / (now - instance.lastSampleNanos);
+            }
+            instance.lastCpuTimeNanos = raw.getCpuTimeNanos();
+            instance.lastSampleNanos = now;
+
+            instance.publishMetrics(new ProcessMetrics(Instant.now(), cpuPercent, raw.getRssBytes(), raw.getThreadCount()));
+
+            synchronized (logWriter) {
+                logWriter.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // El proceso puede haber terminado entre la comprobación y la lectura
+            logger.debug("No se pudo muestrear la instancia {}", instance.getInstanceId(), e);
+        }
+    }
+
+    /**
+     * Registra el resumen de la sesión y notifica a los listeners
+     */
+    private void onExit(GameInstance instance) {
+        instances.remove(instance.getInstanceId());
+
+        int exitCode = instance.getProcess().exitValue();
+        Duration duration = Duration.between(instance.getStartedAt(), Instant.now());
+        boolean crashed = exitCode != 0;
+
+        String message = String.format("Instancia %s (%s) terminó con código %d tras %ds | CPU media %.1f%% | RSS máx %d MB | hilos máx %d | %d líneas",
+                instance.getInstanceId(), instance.getVersionId(), exitCode, duration.toSeconds(),
+                instance.getAverageCpuPercent(), instance.getPeakRssBytes() / (1024 * 1024),
+                instance.getPeakThreadCount(), instance.getOutput().getTotalLines());
+
+        if (crashed) {
+            logger.warn(message);
+        } else {
+            logger.info(message);
+        }
+
+        try {
+            String trace = crashed ? String.join(System.lineSeparator(), instance.getOutput().tail(CRASH_TAIL_LINES)) : null;
+            logDAO.insert(crashed ? "ERROR" : "INFO", GameProcessSupervisor.class.getName(), message,
+                    trace, instance.getProfile().getId());
+        } catch (SQLException e) {
+            logger.warn("No se pudo registrar el resumen de la instancia {}", instance.getInstanceId(), e);
+        }
+
+        notifyListeners(exitListeners, instance);
+
+        // Si otra sesión del perfil la sustituyó mientras seguía abierta, nadie más cerrará su buffer
+        if (latestByProfile.get(instance.getProfile().getName()) != instance) {
+            closeQuietly(instance.getLogStore());
+        }
+    }
+
+    private void notifyListeners(List<Consumer<GameInstance>> listeners, GameInstance instance) {
+        for (Consumer<GameInstance> listener : listeners) {
+            try {
+                listener.accept(instance);
+            } catch (Exception e) {
+                logger.error("Error en listener de instancias del juego", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(ChunkedLogStore store) {
+        try {
+            store.close();
+        } catch (IOException e) {
+            logger.warn("No se pudo cerrar el buffer de consola {}", store.getFile(), e);
+        }
+    }
+
+    private static void closeQuietly(BufferedWriter writer, Path logFile) {
+        try {
+            synchronized (writer) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo cerrar el log {}", logFile, e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.klauncher.launcher.services.launch;
+
+import java.nio.file.Path;
+
+/**
+ * Directorios propios de una instancia en ejecución: directorio de trabajo y directorio
+ * de extracción de natives en tiempo de ejecución. Las librerías, los natives cacheados
+ * y los assets se comparten en solo lectura entre instancias.
+ */
+public class InstanceWorkspace {
+    private final String name;
+    private final Path workingDirectory;
+    private final Path nativesDirectory;
+    private final boolean isolated;
+
+    InstanceWorkspace(String name, Path workingDirectory, Path nativesDirectory, boolean isolated) {
+        this.name = name;
+        this.workingDirectory = workingDirectory;
+        this.nativesDirectory = nativesDirectory;
+        this.isolated = isolated;
+    }
+
+    /**
+     * Nombre único entre las instancias activas (perfil, o perfil-N si el perfil ya está en ejecución)
+     */
+    public String getName() { return name; }
+    public Path getWorkingDirectory() { return workingDirectory; }
+    public Path getNativesDirectory() { return nativesDirectory; }
+
+    /**
+     * Indica si se usa un directorio de trabajo alternativo porque el del perfil estaba ocupado
+     */
+    public boolean isIsolated() { return isolated; }
+}
@@ -0,0 +1,232 @@
+package org.klauncher.launcher.services.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Reparte directorios de trabajo y de natives entre instancias simultáneas.
+ * Un perfil usa su directorio de juego si está libre; si ya hay una instancia en él,
+ * la nueva recibe instances/&lt;perfil&gt;-N con una copia de sus opciones y configuración de mods
+ * y un enlace a su carpeta de mods. Las librerías y
+ * los natives se leen de la caché compartida; cada instancia solo recibe un directorio
+ * propio para las librerías que el juego extraiga en tiempo de ejecución.
+ */
+public class InstanceWorkspaceManager {
+    private static final Logger logger = LoggerFactory.getLogger(InstanceWorkspaceManager.class);
+    private static final List<String> SEEDED_FILES = List.of("options.txt", "servers.dat");
+    // Se copian: el juego y los mods escriben en ellas y cada instancia conserva sus cambios
+    private static final List<String> SEEDED_DIRECTORIES = List.of("config");
+    // Se enlazan: deben coincidir siempre con las del perfil
+    private static final List<String> LINKED_DIRECTORIES = List.of("mods");
+
+    private final Path instancesDirectory;
+    private final Path nativesRoot;
+    private final Set<Path> workingDirectoriesInUse;
+    private final AtomicLong nativesCounter;
+
+    public InstanceWorkspaceManager(Path instancesDirectory, Path nativesRoot) {
+        this.instancesDirectory = instancesDirectory;
+        this.nativesRoot = nativesRoot;
+        this.workingDirectoriesInUse = ConcurrentHashMap.newKeySet();
+        this.nativesCounter = new AtomicLong();
+    }
+
+    /**
+     * Reserva los directorios de una nueva instancia del perfil
+     */
+    public InstanceWorkspace allocate(String profileName, Path profileDirectory) throws IOException {
+        String safeName = profileName.replaceAll("[^A-Za-z0-9._-]", "_");
+
+        String name = profileName;
+        Path workingDirectory = profileDirectory.toAbsolutePath().normalize();
+        boolean isolated = false;
+
+        if (!workingDirectoriesInUse.add(workingDirectory)) {
+            isolated = true;
+            for (int n = 2; ; n++) {
+                Path candidate = instancesDirectory.resolve(safeName + "-" + n).toAbsolutePath().normalize();
+                if (workingDirectoriesInUse.add(candidate)) {
+                    name = profileName + "-" + n;
+                    workingDirectory = candidate;
+                    break;
+                }
+            }
+        }
+
+        try {
+            Files.createDirectories(workingDirectory);
+            if (isolated) {
+                seedFromProfile(profileDirectory, workingDirectory);
+                logger.info("Directorio de {} ocupado, usando {}", profileName, workingDirectory);
+            }
+
+            Path nativesDirectory = nativesRoot.resolve(safeName + "-" + ProcessHandle.current().pid()
+                    + "-" + nativesCounter.incrementAndGet());
+            Files.createDirectories(nativesDirectory);
+
+            return new InstanceWorkspace(name, workingDirectory, nativesDirectory, isolated);
+
+        } catch (IOException e) {
+            workingDirectoriesInUse.remove(workingDirectory);
+            throw e;
+        }
+    }
+
+    /**
+     * Libera el directorio de trabajo y borra los natives de la instancia
+     */
+    public void release(InstanceWorkspace workspace) {
+        workingDirectoriesInUse.remove(workspace.getWorkingDirectory());
+        deleteRecursively(workspace.getNativesDirectory());
+    }
+
+    /**
+     * Borra natives de instancias que no llegaron a liberarse (cierre abrupto de un launcher).
+     * Los directorios de otro launcher aún en ejecución se respetan.
+     */
+    public void cleanupStaleNatives() {
+        if (!Files.isDirectory(nativesRoot)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(nativesRoot)) {
+            for (Path entry : entries) {
+                if (!isOwnerAlive(entry.getFileName().toString())) {
+                    deleteRecursively(entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("No se pudo limpiar {}", nativesRoot, e);
+        }
+    }
+
+    /**
+     * Directorios aislados creados hasta ahora, para indexar sus logs y crash reports
+     */
+    public List<Path> listIsolatedDirectories() {
+        if (!Files.isDirectory(instancesDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> entries = Files.list(instancesDirectory)) {
+            return entries.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            logger.debug("No se pudo listar {}", instancesDirectory, e);
+            return List.of();
+        }
+    }
+
+    public boolean isInUse(Path workingDirectory) {
+        return workingDirectoriesInUse.contains(workingDirectory.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Comprueba si sigue vivo el launcher que creó un directorio "&lt;perfil&gt;-&lt;pid&gt;-&lt;n&gt;"
+     */
+    private static boolean isOwnerAlive(String directoryName) {
+        String[] parts = directoryName.split("-");
+        if (parts.length < 3) {
+            return false;
+        }
+
+        try {
+            long pid = Long.parseLong(parts[parts.length - 2]);
+            return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copia los archivos de opciones y la configuración del perfil a un directorio aislado si aún
+     * no existen, y enlaza sus mods
+     */
+    private static void seedFromProfile(Path profileDirectory, Path workingDirectory) throws IOException {
+        for (String fileName : SEEDED_FILES) {
+            Path source = profileDirectory.resolve(fileName);
+            Path target = workingDirectory.resolve(fileName);
+            if (Files.isRegularFile(source) && !Files.exists(target)) {
+                Files.copy(source, target);
+            }
+        }
+        for (String directoryName : SEEDED_DIRECTORIES) {
+            copyMissing(profileDirectory.resolve(directoryName), workingDirectory.resolve(directoryName));
+        }
+        for (String directoryName : LINKED_DIRECTORIES) {
+            linkDirectory(profileDirectory.resolve(directoryName), workingDirectory.resolve(directoryName));
+        }
+    }
+
+    /**
+     * Enlaza la carpeta del perfil; si el sistema no permite enlaces (Windows sin permisos) se
+     * copia entera, rehaciendo la copia de lanzamientos anteriores para que no quede desfasada
+     */
+    private static void linkDirectory(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+
+        Path absoluteSource = source.toAbsolutePath().normalize();
+        if (Files.isSymbolicLink(target)) {
+            if (Files.readSymbolicLink(target).equals(absoluteSource)) {
+                return;
+            }
+            Files.delete(target);
+        } else if (Files.exists(target)) {
+            deleteRecursively(target);
+        }
+
+        try {
+            Files.createSymbolicLink(target, absoluteSource);
+        } catch (UnsupportedOperationException | IOException e) {
+            logger.debug("No se pudo enlazar {}, se copia", target, e);
+            copyMissing(source, target);
+        }
+    }
+
+    private static void copyMissing(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path destination = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else if (Files.isRegularFile(path) && !Files.exists(destination)) {
+                    Files.copy(path, destination);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.debug("No se pudo borrar {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("No se pudo borrar {}", directory, e);
+        }
+    }
+}
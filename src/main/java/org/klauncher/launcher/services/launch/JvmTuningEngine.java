@@ -0,0 +1,235 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.models.entities.JavaRuntime;
+import org.klauncher.launcher.models.entities.UserProfile.JvmPreset;
+import org.klauncher.launcher.services.JavaDiscoveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Genera flags de GC y JIT para la JVM del juego según el preset elegido,
+ * los núcleos, la RAM física y el heap máximo del perfil
+ */
+public class JvmTuningEngine {
+    private static final Logger logger = LoggerFactory.getLogger(JvmTuningEngine.class);
+    // Versión con la que se generan las flags cuando no se puede determinar la del runtime
+    public static final int CONSERVATIVE_JAVA_VERSION = 8;
+    private static final long VERSION_PROBE_TIMEOUT_SECONDS = 10;
+    private static final Pattern VERSION_OUTPUT = Pattern.compile("version \"(\\d+)(?:\\.(\\d+))?");
+    // Ejecutable real y fecha de modificación -> versión mayor (0 si no se pudo determinar)
+    private static final Map<String, Integer> detectedVersions = new ConcurrentHashMap<>();
+
+    private final SystemResources resources;
+
+    public JvmTuningEngine(SystemResources resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * Resuelve AUTO al preset concreto que corresponde al equipo
+     */
+    public JvmPreset resolvePreset(JvmPreset requested, int maxMemoryMb, int javaMajorVersion) {
+        if (requested != null && requested != JvmPreset.AUTO) {
+            if (requested == JvmPreset.LOW_LATENCY && javaMajorVersion < 15) {
+                logger.warn("ZGC no disponible en Java {}, usando G1", javaMajorVersion);
+                return JvmPreset.BALANCED;
+            }
+            return requested;
+        }
+
+        int cores = resources.getAvailableCores();
+        long ramMb = resources.getPhysicalMemoryMb();
+
+        if (cores <= 2 || ramMb < 4096) {
+            return JvmPreset.LOW_END;
+        }
+        // ZGC generacional compensa con muchos núcleos, heaps grandes y margen de RAM
+        if (javaMajorVersion >= 21 && cores >= 8 && ramMb >= 16384 && maxMemoryMb >= 4096) {
+            return JvmPreset.LOW_LATENCY;
+        }
+        return JvmPreset.BALANCED;
+    }
+
+    /**
+     * Genera las flags del preset. No añade selección de GC si el usuario ya fijó uno en sus argumentos.
+     */
+    public List<String> generateFlags(JvmPreset preset, int maxMemoryMb, int javaMajorVersion,
+                                      List<String> userArguments) {
+        List<String> flags = new ArrayList<>();
+        if (preset == JvmPreset.NONE || preset == JvmPreset.AUTO) {
+            return flags;
+        }
+
+        boolean userSelectedGc = userArguments.stream()
+                .anyMatch(arg -> arg.startsWith("-XX:+Use") && arg.endsWith("GC"));
+
+        if (!userSelectedGc) {
+            switch (preset) {
+                case BALANCED -> addG1Flags(flags, maxMemoryMb);
+                case LOW_LATENCY -> addZgcFlags(flags, javaMajorVersion);
+                case LOW_END -> addLowEndFlags(flags);
+                default -> { }
+            }
+        }
+
+        addCommonFlags(flags, preset, maxMemoryMb);
+        return flags;
+    }
+
+    private void addG1Flags(List<String> flags, int maxMemoryMb) {
+        int cores = resources.getAvailableCores();
+
+        flags.add("-XX:+UseG1GC");
+        flags.add("-XX:+ParallelRefProcEnabled");
+        flags.add("-XX:MaxGCPauseMillis=200");
+        flags.add("-XX:+UnlockExperimentalVMOptions");
+        flags.add("-XX:G1NewSizePercent=30");
+        flags.add("-XX:G1MaxNewSizePercent=40");
+        flags.add("-XX:G1HeapRegionSize=" + g1RegionSizeMb(maxMemoryMb) + "M");
+        flags.add("-XX:G1ReservePercent=20");
+        flags.add("-XX:G1MixedGCCountTarget=4");
+        flags.add("-XX:InitiatingHeapOccupancyPercent=15");
+        flags.add("-XX:G1MixedGCLiveThresholdPercent=90");
+        flags.add("-XX:SurvivorRatio=32");
+        flags.add("-XX:MaxTenuringThreshold=1");
+        flags.add("-XX:ParallelGCThreads=" + cores);
+        flags.add("-XX:ConcGCThreads=" + Math.max(1, cores / 4));
+    }
+
+    private void addZgcFlags(List<String> flags, int javaMajorVersion) {
+        flags.add("-XX:+UseZGC");
+        if (javaMajorVersion >= 21 && javaMajorVersion < 23) {
+            // A partir de Java 23 el modo generacional es el predeterminado
+            flags.add("-XX:+ZGenerational");
+        }
+    }
+
+    private void addLowEndFlags(List<String> flags) {
+        flags.add("-XX:+UseSerialGC");
+        flags.add("-XX:CICompilerCount=2");
+    }
+
+    private void addCommonFlags(List<String> flags, JvmPreset preset, int maxMemoryMb) {
+        flags.add("-XX:+DisableExplicitGC");
+        flags.add("-XX:ReservedCodeCacheSize=" + (preset == JvmPreset.LOW_END ? "128m" : "256m"));
+
+        // Pre-tocar el heap solo si sobra RAM física; si no, retrasa el arranque y presiona el swap
+        if (preset != JvmPreset.LOW_END && maxMemoryMb <= resources.getPhysicalMemoryMb() / 2) {
+            flags.add("-XX:+AlwaysPreTouch");
+        }
+    }
+
+    /**
+     * Versión mayor de Java del ejecutable. Sigue los enlaces simbólicos (/usr/bin/java suele
+     * apuntar al JDK del sistema) y lee el archivo release del runtime; si no lo hay, ejecuta
+     * "java -version" una vez y memoriza el resultado mientras el ejecutable no cambie.
+     */
+    public static OptionalInt detectJavaMajorVersion(String javaExecutable) {
+        Path executable = Paths.get(javaExecutable).toAbsolutePath();
+        try {
+            executable = executable.toRealPath();
+        } catch (IOException e) {
+            logger.debug("No se pudo resolver la ruta real de {}", javaExecutable);
+        }
+
+        String key;
+        try {
+            key = executable + "@" + Files.getLastModifiedTime(executable).toMillis();
+        } catch (IOException e) {
+            key = executable.toString();
+        }
+        Path resolved = executable;
+        int version = detectedVersions.computeIfAbsent(key, k -> readJavaMajorVersion(resolved));
+        if (version <= 0) {
+            logger.debug("No se pudo determinar la versión de Java de {}", javaExecutable);
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(version);
+    }
+
+    private static int readJavaMajorVersion(Path executable) {
+        Path javaHome = executable.getParent() != null ? executable.getParent().getParent() : null;
+        if (javaHome != null) {
+            Optional<JavaRuntime> runtime = JavaDiscoveryService.readRuntime(javaHome);
+            // Los JDK 8 llevan el ejecutable en jre/bin y el archivo release en la raíz
+            if (runtime.isEmpty() && javaHome.getFileName() != null && javaHome.getFileName().toString().equals("jre")
+                    && javaHome.getParent() != null && Files.isRegularFile(javaHome.getParent().resolve("release"))) {
+                runtime = JavaDiscoveryService.readRuntime(javaHome.getParent());
+            }
+            if (runtime.isPresent()) {
+                return runtime.get().getMajorVersion();
+            }
+            if (javaHome.equals(Paths.get(System.getProperty("java.home")).toAbsolutePath())) {
+                return Runtime.version().feature();
+            }
+        }
+        return probeJavaMajorVersion(executable);
+    }
+
+    /**
+     * Ejecuta "java -version" y extrae la versión mayor de la salida ("1.8.0_392" -> 8, "21.0.1" -> 21)
+     */
+    private static int probeJavaMajorVersion(Path executable) {
+        try {
+            Process process = new ProcessBuilder(executable.toString(), "-version")
+                    .redirectErrorStream(true)
+                    .start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readNBytes(4096), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(VERSION_PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return 0;
+            }
+
+            Matcher matcher = VERSION_OUTPUT.matcher(output);
+            if (!matcher.find()) {
+                return 0;
+            }
+            int major = Integer.parseInt(matcher.group(1));
+            if (major == 1 && matcher.group(2) != null) {
+                major = Integer.parseInt(matcher.group(2));
+            }
+            return major;
+        } catch (IOException e) {
+            logger.debug("No se pudo ejecutar {} -version: {}", executable, e.getMessage());
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Tamaño de región G1 en MB según el heap máximo (potencia de dos entre 4 y 32)
+     */
+    static int g1RegionSizeMb(int maxMemoryMb) {
+        if (maxMemoryMb < 4096) {
+            return 4;
+        }
+        if (maxMemoryMb < 8192) {
+            return 8;
+        }
+        if (maxMemoryMb < 16384) {
+            return 16;
+        }
+        return 32;
+    }
+}
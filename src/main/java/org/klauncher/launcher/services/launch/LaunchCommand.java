@@ -0,0 +1,107 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.models.entities.UserProfile.JvmPreset;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comando de lanzamiento precalculado para un par (perfil, versión).
+ * Los argumentos del juego se guardan como plantillas ${variable} y se
+ * sustituyen en cada lanzamiento (usuario, token...).
+ */
+public class LaunchCommand {
+    private final String javaExecutable;
+    private final List<String> jvmArguments;
+    private final String classpath;
+    private final String mainClass;
+    private final String assetIndex;
+    private final List<String> gameArgumentTemplates;
+    private final Path workingDirectory;
+    private final List<Path> nativeDirectories;
+    private final JvmPreset tuningPreset;
+    private final List<String> tuningFlags;
+
+    public LaunchCommand(String javaExecutable, List<String> jvmArguments, String classpath, String mainClass,
+                         String assetIndex, List<String> gameArgumentTemplates, Path workingDirectory, List<Path> nativeDirectories,
+                         JvmPreset tuningPreset, List<String> tuningFlags) {
+        this.javaExecutable = javaExecutable;
+        this.jvmArguments = Collections.unmodifiableList(new ArrayList<>(jvmArguments));
+        this.classpath = classpath;
+        this.mainClass = mainClass;
+        this.assetIndex = assetIndex;
+        this.gameArgumentTemplates = Collections.unmodifiableList(new ArrayList<>(gameArgumentTemplates));
+        this.workingDirectory = workingDirectory;
+        this.nativeDirectories = Collections.unmodifiableList(new ArrayList<>(nativeDirectories));
+        this.tuningPreset = tuningPreset;
+        this.tuningFlags = Collections.unmodifiableList(new ArrayList<>(tuningFlags));
+    }
+
+    public String getJavaExecutable() { return javaExecutable; }
+    public List<String> getJvmArguments() { return jvmArguments; }
+    public String getClasspath() { return classpath; }
+    public String getMainClass() { return mainClass; }
+    public String getAssetIndex() { return assetIndex; }
+    public List<String> getGameArgumentTemplates() { return gameArgumentTemplates; }
+    public Path getWorkingDirectory() { return workingDirectory; }
+    public List<Path> getNativeDirectories() { return nativeDirectories; }
+    public JvmPreset getTuningPreset() { return tuningPreset; }
+    public List<String> getTuningFlags() { return tuningFlags; }
+
+    /**
+     * Valor de java.library.path: los directorios de natives separados por el separador del sistema
+     */
+    public String getNativeLibraryPath() {
+        StringBuilder path = new StringBuilder();
+        for (Path directory : nativeDirectories) {
+            if (!path.isEmpty()) {
+                path.append(File.pathSeparatorChar);
+            }
+            path.append(directory);
+        }
+        return path.toString();
+    }
+
+    /**
+     * Construye la línea de comandos completa sustituyendo las variables del juego
+     */
+    public List<String> toCommandLine(Map<String, String> variables) {
+        return toCommandLine(List.of(), variables);
+    }
+
+    /**
+     * Igual que {@link #toCommandLine(Map)} añadiendo flags JVM propias de este lanzamiento (p. ej. CDS)
+     */
+    public List<String> toCommandLine(List<String> launchJvmArguments, Map<String, String> variables) {
+        List<String> command = new ArrayList<>(
+                jvmArguments.size() + launchJvmArguments.size() + gameArgumentTemplates.size() + 4);
+        command.add(javaExecutable);
+        command.addAll(launchJvmArguments);
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(mainClass);
+
+        for (String template : gameArgumentTemplates) {
+            command.add(substitute(template, variables));
+        }
+
+        return command;
+    }
+
+    private static String substitute(String template, Map<String, String> variables) {
+        if (template.indexOf('$') < 0) {
+            return template;
+        }
+
+        String result = template;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            result = result.replace("${" + variable.getKey() + "}", variable.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package org.klauncher.launcher.services.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de comandos de lanzamiento por (perfil, versión).
+ * Una entrada se invalida cuando cambia la configuración del perfil o cuando
+ * cambia la fecha o el tamaño de algún archivo instalado de la versión.
+ */
+public class LaunchCommandCache {
+    private static final Logger logger = LoggerFactory.getLogger(LaunchCommandCache.class);
+
+    private final Map<String, CacheEntry> entries;
+
+    public LaunchCommandCache() {
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    private static class CacheEntry {
+        private final String profileSignature;
+        private final LaunchCommand command;
+        private final List<Path> watchedFiles;
+        private final long[] stamps;
+
+        private CacheEntry(String profileSignature, LaunchCommand command, List<Path> watchedFiles, long[] stamps) {
+            this.profileSignature = profileSignature;
+            this.command = command;
+            this.watchedFiles = watchedFiles;
+            this.stamps = stamps;
+        }
+    }
+
+    /**
+     * Obtiene el comando cacheado si sigue siendo válido
+     */
+    public Optional<LaunchCommand> get(String profileName, String versionId, String profileSignature) {
+        String key = key(profileName, versionId);
+        CacheEntry entry = entries.get(key);
+
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (!entry.profileSignature.equals(profileSignature)) {
+            logger.debug("Configuración del perfil cambiada, invalidando caché: {}", key);
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        if (!Arrays.equals(entry.stamps, stamp(entry.watchedFiles))) {
+            logger.debug("Archivos instalados cambiados, invalidando caché: {}", key);
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.command);
+    }
+
+    /**
+     * Guarda un comando junto con la huella de los archivos de los que depende
+     */
+    public void put(String profileName, String versionId, String profileSignature,
+                    LaunchCommand command, List<Path> watchedFiles) {
+        entries.put(key(profileName, versionId),
+                new CacheEntry(profileSignature, command, List.copyOf(watchedFiles), stamp(watchedFiles)));
+    }
+
+    /**
+     * Invalida todas las entradas de una versión (p. ej. tras reinstalarla)
+     */
+    public void invalidateVersion(String versionId) {
+        entries.keySet().removeIf(key -> key.endsWith("@" + versionId));
+    }
+
+    /**
+     * Invalida todas las entradas de un perfil
+     */
+    public void invalidateProfile(String profileName) {
+        entries.keySet().removeIf(key -> key.startsWith(profileName + "@"));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String key(String profileName, String versionId) {
+        return profileName + "@" + versionId;
+    }
+
+    /**
+     * Huella de fecha de modificación y tamaño de cada archivo (-1 si no existe)
+     */
+    private static long[] stamp(List<Path> files) {
+        long[] stamps = new long[files.size() * 2];
+
+        for (int i = 0; i < files.size(); i++) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(files.get(i), BasicFileAttributes.class);
+                stamps[i * 2] = attributes.lastModifiedTime().toMillis();
+                stamps[i * 2 + 1] = attributes.size();
+            } catch (IOException e) {
+                stamps[i * 2] = -1;
+                stamps[i * 2 + 1] = -1;
+            }
+        }
+
+        return stamps;
+    }
+}
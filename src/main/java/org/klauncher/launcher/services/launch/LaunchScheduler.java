@@ -0,0 +1,94 @@
+package org.klauncher.launcher.services.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Escalona los lanzamientos: los ejecuta de uno en uno y deja al menos el intervalo
+ * configurado desde el arranque anterior, para que varias instancias no carguen
+ * clases a la vez. Si la instancia anterior termina antes, el siguiente arranque no espera.
+ */
+public class LaunchScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(LaunchScheduler.class);
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final ExecutorService executor;
+    private final Supplier<Duration> stagger;
+    private final AtomicInteger pendingLaunches;
+
+    // Solo se usan desde el hilo del planificador
+    private GameInstance lastInstance;
+    private long lastLaunchNanos;
+
+    public LaunchScheduler(Supplier<Duration> stagger) {
+        this.stagger = stagger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "launch-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingLaunches = new AtomicInteger();
+    }
+
+    /**
+     * Encola un lanzamiento; el futuro se completa cuando el proceso ha arrancado
+     */
+    public CompletableFuture<GameInstance> submit(Callable<GameInstance> launch) {
+        pendingLaunches.incrementAndGet();
+        CompletableFuture<GameInstance> future = new CompletableFuture<>();
+
+        executor.execute(() -> {
+            try {
+                waitForStagger();
+                GameInstance instance = launch.call();
+                lastInstance = instance;
+                lastLaunchNanos = System.nanoTime();
+                future.complete(instance);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                pendingLaunches.decrementAndGet();
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Lanzamientos encolados o en curso
+     */
+    public int getPendingLaunches() {
+        return pendingLaunches.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void waitForStagger() throws InterruptedException {
+        if (lastInstance == null) {
+            return;
+        }
+
+        long deadline = lastLaunchNanos + stagger.get().toNanos();
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0 && lastInstance.isAlive()) {
+            logger.info("Esperando {} ms antes del siguiente lanzamiento", remaining / 1_000_000);
+        }
+
+        while (System.nanoTime() < deadline && lastInstance.isAlive()) {
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.klauncher.launcher.services.launch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer circular acotado de líneas de salida.
+ * Al llenarse, cada línea nueva sobrescribe la más antigua.
+ */
+public class LogRingBuffer {
+    private final String[] lines;
+    private int head;
+    private int size;
+    private long totalLines;
+
+    public LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        this.lines = new String[capacity];
+    }
+
+    public synchronized void add(String line) {
+        lines[(head + size) % lines.length] = line;
+        if (size < lines.length) {
+            size++;
+        } else {
+            head = (head + 1) % lines.length;
+        }
+        totalLines++;
+    }
+
+    /**
+     * Últimas {@code count} líneas en orden cronológico
+     */
+    public synchronized List<String> tail(int count) {
+        int n = Math.min(count, size);
+        List<String> result = new ArrayList<>(n);
+        for (int i = size - n; i < size; i++) {
+            result.add(lines[(head + i) % lines.length]);
+        }
+        return result;
+    }
+
+    public synchronized List<String> snapshot() {
+        return tail(size);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Total de líneas recibidas, incluidas las ya descartadas
+     */
+    public synchronized long getTotalLines() {
+        return totalLines;
+    }
+
+    public int getCapacity() {
+        return lines.length;
+    }
+}
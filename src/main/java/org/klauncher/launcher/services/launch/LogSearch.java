@@ -0,0 +1,149 @@
+package org.klauncher.launcher.services.launch;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda incremental por expresión regular sobre un {@link ChunkedLogStore}.
+ * Cada llamada a {@link #scan(int)} examina como mucho un número de líneas y
+ * continúa donde lo dejó la anterior, así que las líneas nuevas no obligan a
+ * recorrer de nuevo el log. Si la consulta nueva es un texto literal que contiene
+ * la anterior, solo se revisan las coincidencias ya encontradas.
+ */
+public class LogSearch {
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final ChunkedLogStore store;
+    private final String query;
+    private final boolean literal;
+    private final Matcher matcher;
+
+    // Un solo hilo escribe (scan); los lectores leen matchCount antes que matches
+    private volatile int[] matches;
+    private volatile int matchCount;
+    private volatile int scannedLines;
+
+    // Coincidencias de la búsqueda anterior pendientes de revisar
+    private int[] candidates;
+    private int candidateCount;
+    private int candidatePosition;
+    private volatile boolean refining;
+
+    private LogSearch(ChunkedLogStore store, String query) {
+        this.store = store;
+        this.query = query;
+        this.literal = isLiteral(query);
+        String regex = literal ? Pattern.quote(query) : query;
+        this.matcher = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE).matcher("");
+        this.matches = new int[256];
+    }
+
+    /**
+     * Compila una búsqueda reutilizando los resultados de {@code previous} cuando es un refinamiento literal
+     *
+     * @throws java.util.regex.PatternSyntaxException si la expresión no es válida
+     */
+    public static LogSearch create(ChunkedLogStore store, String query, LogSearch previous) {
+        LogSearch search = new LogSearch(store, query);
+
+        if (previous != null && previous.store == store && previous.literal && search.literal && !previous.refining
+                && search.query.toLowerCase(Locale.ROOT).contains(previous.query.toLowerCase(Locale.ROOT))) {
+            // Se lee scannedLines antes que las coincidencias: toda coincidencia por debajo ya está publicada
+            int scanned = previous.scannedLines;
+            int count = previous.matchCount;
+            int[] previousMatches = previous.matches;
+
+            int[] reusable = new int[count];
+            int reusableCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (previousMatches[i] < scanned) {
+                    reusable[reusableCount++] = previousMatches[i];
+                }
+            }
+
+            search.candidates = reusable;
+            search.candidateCount = reusableCount;
+            search.scannedLines = scanned;
+            search.refining = true;
+        }
+        return search;
+    }
+
+    /**
+     * Examina hasta {@code maxLines} líneas pendientes y devuelve cuántas revisó
+     */
+    public synchronized int scan(int maxLines) {
+        int examined = 0;
+
+        while (candidatePosition < candidateCount && examined < maxLines) {
+            int line = candidates[candidatePosition++];
+            testLine(line);
+            examined++;
+        }
+        if (refining && candidatePosition >= candidateCount) {
+            candidates = null;
+            refining = false;
+        }
+
+        int available = store.size();
+        while (!refining && scannedLines < available && examined < maxLines) {
+            testLine(scannedLines);
+            scannedLines++;
+            examined++;
+        }
+        return examined;
+    }
+
+    /**
+     * Indica si no quedan líneas por examinar
+     */
+    public boolean isCaughtUp() {
+        return !refining && scannedLines >= store.size();
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * Número de línea de la coincidencia {@code position}
+     */
+    public int getMatch(int position) {
+        if (position < 0 || position >= matchCount) {
+            throw new IndexOutOfBoundsException("Coincidencia fuera de rango: " + position);
+        }
+        return matches[position];
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getScannedLines() {
+        return scannedLines;
+    }
+
+    private void testLine(int line) {
+        if (matcher.reset(store.getLine(line)).find()) {
+            int count = matchCount;
+            int[] current = matches;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                matches = current;
+            }
+            current[count] = line;
+            matchCount = count + 1;
+        }
+    }
+
+    private static boolean isLiteral(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(query.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
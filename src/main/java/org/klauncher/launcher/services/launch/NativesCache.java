@@ -0,0 +1,156 @@
+package org.klauncher.launcher.services.launch;
+
+import org.klauncher.launcher.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Caché de librerías nativas extraídas, indexada por plataforma y SHA-256 de cada jar de natives.
+ * Cada jar se extrae una sola vez a natives/cache/&lt;plataforma&gt;/&lt;sha256&gt;/ (solo las librerías,
+ * en un único nivel) y los lanzamientos apuntan java.library.path a esos directorios.
+ * Como el contenido depende solo del hash, los directorios son de solo lectura y se comparten
+ * entre versiones, perfiles e instancias.
+ */
+public class NativesCache {
+    private static final Logger logger = LoggerFactory.getLogger(NativesCache.class);
+    private static final List<String> LIBRARY_EXTENSIONS = List.of(".so", ".dll", ".dylib", ".jnilib");
+
+    private final Path cacheDirectory;
+    private final String platform;
+
+    // Hash por (ruta, tamaño, fecha) para no releer jars ya calculados en esta sesión
+    private final Map<String, String> hashByFile;
+
+    public NativesCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        this.platform = VersionResolver.currentOsName() + "-" + normalizedArch();
+        this.hashByFile = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Devuelve los directorios extraídos de los jars indicados, extrayendo solo los que faltan
+     */
+    public List<Path> resolve(List<Path> nativeArchives) throws IOException {
+        List<Path> directories = new ArrayList<>(nativeArchives.size());
+        int extracted = 0;
+        long start = System.nanoTime();
+
+        for (Path archive : nativeArchives) {
+            if (!Files.isRegularFile(archive)) {
+                logger.warn("Jar de natives no instalado: {}", archive);
+                continue;
+            }
+
+            Path directory = cacheDirectory.resolve(platform).resolve(hash(archive));
+            if (!Files.isDirectory(directory)) {
+                extract(archive, directory);
+                extracted++;
+            }
+            directories.add(directory);
+        }
+
+        if (extracted > 0) {
+            logger.info("Natives: {} de {} jars extraídos a la caché en {} ms",
+                    extracted, directories.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return directories;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    private String hash(Path archive) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        String key = archive.toAbsolutePath() + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis();
+
+        String hash = hashByFile.get(key);
+        if (hash == null) {
+            hash = FileUtils.calculateSHA256(archive);
+            hashByFile.put(key, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Extrae el jar a un directorio temporal, deja solo las librerías en la raíz y lo publica
+     * con un movimiento atómico, de modo que un directorio presente siempre está completo
+     */
+    private void extract(Path archive, Path directory) throws IOException {
+        Path staging = directory.resolveSibling(directory.getFileName() + ".tmp-" + ProcessHandle.current().pid()
+                + "-" + Thread.currentThread().threadId());
+        FileUtils.deleteDirectory(staging);
+
+        try {
+            Path unpacked = staging.resolve("unpacked");
+            FileUtils.extractZipWithProgress(archive, unpacked, null);
+
+            Path libraries = staging.resolve("libraries");
+            Files.createDirectories(libraries);
+            try (Stream<Path> files = Files.walk(unpacked)) {
+                for (Path file : files.filter(Files::isRegularFile)
+                        .filter(file -> isNativeLibrary(unpacked.relativize(file))).toList()) {
+                    Path target = libraries.resolve(file.getFileName().toString());
+                    // Si dos rutas traen la misma librería se conserva la primera
+                    if (!Files.exists(target)) {
+                        Files.move(file, target);
+                    }
+                }
+            }
+
+            try {
+                Files.move(libraries, directory, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(libraries, directory);
+            }
+            logger.debug("Natives de {} extraídos en {}", archive.getFileName(), directory);
+
+        } catch (IOException e) {
+            // Otro launcher pudo publicar el mismo directorio a la vez
+            if (!Files.isDirectory(directory)) {
+                throw e;
+            }
+        } finally {
+            FileUtils.deleteDirectory(staging);
+        }
+    }
+
+    private static boolean isNativeLibrary(Path relativePath) {
+        if (relativePath.startsWith("META-INF")) {
+            return false;
+        }
+        String name = relativePath.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : LIBRARY_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Arquitectura en el formato de los clasificadores de natives (x64, x86, arm64)
+     */
+    static String normalizedArch() {
+        String arch = System.getProperty("os.arch").toLowerCase(Locale.ROOT);
+        return switch (arch) {
+            case "amd64", "x86_64" -> "x64";
+            case "x86", "i386", "i686" -> "x86";
+            case "aarch64", "arm64" -> "arm64";
+            default -> arch;
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package org.klauncher.launcher.services.launch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Lee el consumo de un proceso desde /proc/&lt;pid&gt; (Linux).
+ * En otros sistemas solo se obtiene el tiempo de CPU a través de ProcessHandle.
+ */
+public class ProcStatReader {
+    // USER_HZ es 100 en prácticamente todos los kernels Linux
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final Path PROC = Paths.get("/proc");
+
+    /**
+     * Datos brutos leídos en un instante
+     */
+    public static class RawSample {
+        private final long cpuTimeNanos;
+        private final long rssBytes;
+        private final int threadCount;
+
+        RawSample(long cpuTimeNanos, long rssBytes, int threadCount) {
+            this.cpuTimeNanos = cpuTimeNanos;
+            this.rssBytes = rssBytes;
+            this.threadCount = threadCount;
+        }
+
+        public long getCpuTimeNanos() { return cpuTimeNanos; }
+        public long getRssBytes() { return rssBytes; }
+        public int getThreadCount() { return threadCount; }
+    }
+
+    public static boolean isProcAvailable() {
+        return Files.isDirectory(PROC.resolve("self"));
+    }
+
+    /**
+     * Lee CPU acumulada, RSS e hilos del proceso
+     */
+    public static RawSample read(ProcessHandle process) throws IOException {
+        if (!isProcAvailable()) {
+            long cpu = process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+            return new RawSample(cpu, 0, 0);
+        }
+
+        Path procDir = PROC.resolve(String.valueOf(process.pid()));
+
+        // /proc/<pid>/stat: el nombre va entre paréntesis y puede contener espacios
+        String stat = Files.readString(procDir.resolve("stat"));
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long utime = Long.parseLong(fields[11]);
+        long stime = Long.parseLong(fields[12]);
+        long cpuNanos = (utime + stime) * (1_000_000_000L / CLOCK_TICKS_PER_SECOND);
+
+        long rssBytes = 0;
+        int threads = 0;
+        for (String line : Files.readAllLines(procDir.resolve("status"))) {
+            if (line.startsWith("VmRSS:")) {
+                rssBytes = Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            } else if (line.startsWith("Threads:")) {
+                threads = Integer.parseInt(line.replaceAll("\\D", ""));
+            }
+        }
+
+        return new RawSample(cpuNanos, rssBytes, threads);
+    }
+}
@@ -0,0 +1,38 @@
+package org.klauncher.launcher.services.launch;
+
+import java.time.Instant;
+
+/**
+ * Muestra de consumo de recursos de un proceso del juego
+ */
+public class ProcessMetrics {
+    private final Instant timestamp;
+    private final double cpuPercent;
+    private final long rssBytes;
+    private final int threadCount;
+
+    public ProcessMetrics(Instant timestamp, double cpuPercent, long rssBytes, int threadCount) {
+        this.timestamp = timestamp;
+        this.cpuPercent = cpuPercent;
+        this.rssBytes = rssBytes;
+        this.threadCount = threadCount;
+    }
+
+    public Instant getTimestamp() { return timestamp; }
+
+    /**
+     * Porcentaje de CPU desde la muestra anterior; puede superar 100 con varios núcleos
+     */
+    public double getCpuPercent() { return cpuPercent; }
+    public long getRssBytes() { return rssBytes; }
+    public int getThreadCount() { return threadCount; }
+
+    @Override
+    public String toString() {
+        return "ProcessMetrics{" +
+                "cpu=" + String.format("%.1f%%", cpuPercent) +
+                ", rss=" + rssBytes +
+                ", threads=" + threadCount +
+                '}';
+    }
+}
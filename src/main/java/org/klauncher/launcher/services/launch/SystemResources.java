@@ -0,0 +1,47 @@
+package org.klauncher.launcher.services.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * Recursos del equipo usados para ajustar los procesos del juego
+ */
+public class SystemResources {
+    private static final Logger logger = LoggerFactory.getLogger(SystemResources.class);
+
+    private final int availableCores;
+    private final long physicalMemoryMb;
+
+    public SystemResources(int availableCores, long physicalMemoryMb) {
+        this.availableCores = availableCores;
+        this.physicalMemoryMb = physicalMemoryMb;
+    }
+
+    /**
+     * Detecta núcleos y memoria física del equipo actual
+     */
+    public static SystemResources detect() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long memoryMb = 0;
+
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean sunOsBean) {
+            memoryMb = sunOsBean.getTotalMemorySize() / (1024 * 1024);
+        }
+
+        if (memoryMb <= 0) {
+            // Sin información fiable: se asume el heap máximo del launcher multiplicado
+            memoryMb = Runtime.getRuntime().maxMemory() / (1024 * 1024) * 4;
+            logger.warn("No se pudo detectar la memoria física, asumiendo {} MB", memoryMb);
+        }
+
+        logger.debug("Recursos detectados: {} núcleos, {} MB de RAM", cores, memoryMb);
+        return new SystemResources(cores, memoryMb);
+    }
+
+    public int getAvailableCores() { return availableCores; }
+    public long getPhysicalMemoryMb() { return physicalMemoryMb; }
+}
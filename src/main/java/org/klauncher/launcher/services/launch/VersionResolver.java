@@ -0,0 +1,362 @@
+package org.klauncher.launcher.services.launch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resuelve una versión instalada (JSON de versión, jar cliente y librerías) a partir
+ * de la estructura de directorios del launcher
+ */
+public class VersionResolver {
+    private static final Logger logger = LoggerFactory.getLogger(VersionResolver.class);
+    private static final String DEFAULT_MAIN_CLASS = "net.minecraft.client.main.Main";
+
+    private final Path gameDirectory;
+    private final ObjectMapper objectMapper;
+    // JSON de versión → {fecha de modificación, versión de Java exigida}
+    private final Map<Path, long[]> requiredJavaVersions;
+
+    public VersionResolver(Path gameDirectory, ObjectMapper objectMapper) {
+        this.gameDirectory = gameDirectory;
+        this.objectMapper = objectMapper;
+        this.requiredJavaVersions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resultado de resolver una versión
+     */
+    public static class ResolvedVersion {
+        private final String versionId;
+        private final String versionType;
+        private final String mainClass;
+        private final String assetIndex;
+        private final List<Path> classpath;
+        private final List<String> gameArgumentTemplates;
+        private final List<Path> nativeArchives;
+        private final List<Path> watchedFiles;
+
+        public ResolvedVersion(String versionId, String versionType, String mainClass, String assetIndex,
+                               List<Path> classpath, List<Path> nativeArchives, List<String> gameArgumentTemplates,
+                               List<Path> watchedFiles) {
+            this.versionId = versionId;
+            this.versionType = versionType;
+            this.mainClass = mainClass;
+            this.assetIndex = assetIndex;
+            this.classpath = Collections.unmodifiableList(classpath);
+            this.nativeArchives = Collections.unmodifiableList(nativeArchives);
+            this.gameArgumentTemplates = Collections.unmodifiableList(gameArgumentTemplates);
+            this.watchedFiles = Collections.unmodifiableList(watchedFiles);
+        }
+
+        public String getVersionId() { return versionId; }
+        public String getVersionType() { return versionType; }
+        public String getMainClass() { return mainClass; }
+        public String getAssetIndex() { return assetIndex; }
+        public List<Path> getClasspath() { return classpath; }
+
+        /**
+         * Jars con las librerías nativas de la plataforma actual
+         */
+        public List<Path> getNativeArchives() { return nativeArchives; }
+        public List<String> getGameArgumentTemplates() { return gameArgumentTemplates; }
+
+        /**
+         * Archivos cuyo cambio invalida la resolución (JSON de versión y entradas del classpath)
+         */
+        public List<Path> getWatchedFiles() { return watchedFiles; }
+    }
+
+    public Path getVersionDirectory(String versionId) {
+        return gameDirectory.resolve("versions").resolve(versionId);
+    }
+
+    public Path getVersionJson(String versionId) {
+        return getVersionDirectory(versionId).resolve(versionId + ".json");
+    }
+
+    public Path getClientJar(String versionId) {
+        return getVersionDirectory(versionId).resolve(versionId + ".jar");
+    }
+
+    public Path getNativesDirectory(String versionId) {
+        return getVersionDirectory(versionId).resolve("natives");
+    }
+
+    /**
+     * Versión mayor de Java que exige la versión (javaVersion.majorVersion), o 8 si no la declara.
+     * Se recuerda mientras el JSON no cambie para no volver a leerlo en cada lanzamiento.
+     */
+    public int getRequiredJavaVersion(String versionId) throws IOException {
+        Path versionJson = getVersionJson(versionId);
+        if (!Files.exists(versionJson)) {
+            return 8;
+        }
+
+        long modified = Files.getLastModifiedTime(versionJson).toMillis();
+        long[] cached = requiredJavaVersions.get(versionJson);
+        if (cached != null && cached[0] == modified) {
+            return (int) cached[1];
+        }
+        int required = objectMapper.readTree(versionJson.toFile()).path("javaVersion").path("majorVersion").asInt(8);
+        requiredJavaVersions.put(versionJson, new long[] {modified, required});
+        return required;
+    }
+
+    public Path getLibrariesDirectory() {
+        return gameDirectory.resolve("libraries");
+    }
+
+    public Path getAssetsDirectory() {
+        return gameDirectory.resolve("assets");
+    }
+
+    /**
+     * Resuelve la versión indicada. Si no existe JSON de versión se usa el jar cliente
+     * más todas las librerías instaladas.
+     */
+    public ResolvedVersion resolve(String versionId) throws IOException {
+        Path versionJson = getVersionJson(versionId);
+        Path clientJar = getClientJar(versionId);
+
+        if (!Files.exists(versionJson)) {
+            logger.warn("No existe JSON de versión para {}, usando todas las librerías instaladas", versionId);
+            return resolveWithoutManifest(versionId, clientJar);
+        }
+
+        JsonNode root = objectMapper.readTree(versionJson.toFile());
+
+        String mainClass = root.path("mainClass").asText(DEFAULT_MAIN_CLASS);
+        String versionType = root.path("type").asText("release");
+        String assetIndex = root.path("assetIndex").path("id").asText(root.path("assets").asText(versionId));
+
+        List<Path> classpath = new ArrayList<>();
+        List<Path> nativeArchives = new ArrayList<>();
+        List<Path> missingLibraries = new ArrayList<>();
+        for (JsonNode library : root.path("libraries")) {
+            if (!isAllowed(library.path("rules"))) {
+                continue;
+            }
+
+            // Formato antiguo: natives en un clasificador aparte, fuera del classpath
+            Path legacyNatives = resolveLegacyNativesPath(library);
+            if (legacyNatives != null) {
+                nativeArchives.add(legacyNatives);
+                if (!library.path("downloads").has("artifact")) {
+                    continue;
+                }
+            }
+
+            Path libraryPath = resolveLibraryPath(library);
+            if (libraryPath == null) {
+                continue;
+            }
+
+            // Formato moderno: el jar de natives es una librería más del classpath
+            if (isNativesForCurrentPlatform(library.path("name").asText(""))) {
+                nativeArchives.add(libraryPath);
+            }
+
+            if (Files.exists(libraryPath)) {
+                classpath.add(libraryPath);
+            } else {
+                logger.warn("Librería no instalada: {}", libraryPath);
+                missingLibraries.add(libraryPath);
+            }
+        }
+
+        if (Files.exists(clientJar)) {
+            classpath.add(clientJar);
+        }
+
+        List<String> gameArguments = new ArrayList<>();
+        JsonNode modernArguments = root.path("arguments").path("game");
+        if (modernArguments.isArray()) {
+            for (JsonNode argument : modernArguments) {
+                // Los argumentos condicionales (resolución, demo...) se omiten
+                if (argument.isTextual()) {
+                    gameArguments.add(argument.asText());
+                }
+            }
+        } else if (root.hasNonNull("minecraftArguments")) {
+            gameArguments.addAll(Arrays.asList(root.get("minecraftArguments").asText().trim().split("\\s+")));
+        }
+
+        // Las librerías ausentes también se vigilan para invalidar la caché al instalarlas
+        List<Path> watchedFiles = new ArrayList<>(classpath);
+        watchedFiles.addAll(nativeArchives);
+        watchedFiles.addAll(missingLibraries);
+        watchedFiles.add(clientJar);
+        watchedFiles.add(versionJson);
+
+        logger.debug("Versión {} resuelta: {} entradas en classpath", versionId, classpath.size());
+        return new ResolvedVersion(versionId, versionType, mainClass, assetIndex,
+                classpath, nativeArchives, gameArguments, watchedFiles);
+    }
+
+    /**
+     * Resolución de respaldo cuando la versión no tiene JSON
+     */
+    private ResolvedVersion resolveWithoutManifest(String versionId, Path clientJar) throws IOException {
+        List<Path> classpath = new ArrayList<>();
+
+        Path librariesDir = getLibrariesDirectory();
+        if (Files.isDirectory(librariesDir)) {
+            try (Stream<Path> files = Files.walk(librariesDir)) {
+                files.filter(path -> path.toString().endsWith(".jar"))
+                        .sorted()
+                        .forEach(classpath::add);
+            }
+        }
+
+        if (Files.exists(clientJar)) {
+            classpath.add(clientJar);
+        }
+
+        List<String> gameArguments = List.of(
+                "--username", "${auth_player_name}",
+                "--version", "${version_name}",
+                "--gameDir", "${game_directory}",
+                "--assetsDir", "${assets_root}",
+                "--assetIndex", "${assets_index_name}",
+                "--uuid", "${auth_uuid}",
+                "--accessToken", "${auth_access_token}",
+                "--userType", "${user_type}"
+        );
+
+        List<Path> watchedFiles = new ArrayList<>(classpath);
+        watchedFiles.add(librariesDir);
+        watchedFiles.add(clientJar);
+        watchedFiles.add(getVersionJson(versionId));
+
+        return new ResolvedVersion(versionId, "release", DEFAULT_MAIN_CLASS, versionId,
+                classpath, List.of(), gameArguments, watchedFiles);
+    }
+
+    /**
+     * Obtiene la ruta local de una librería a partir de downloads.artifact.path o de sus coordenadas Maven
+     */
+    private Path resolveLibraryPath(JsonNode library) {
+        JsonNode artifactPath = library.path("downloads").path("artifact").path("path");
+        if (artifactPath.isTextual()) {
+            return getLibrariesDirectory().resolve(artifactPath.asText());
+        }
+
+        String name = library.path("name").asText("");
+        String[] parts = name.split(":");
+        if (parts.length < 3) {
+            // Entradas solo de natives o mal formadas
+            return null;
+        }
+
+        String group = parts[0].replace('.', '/');
+        String artifact = parts[1];
+        String version = parts[2];
+        String classifier = parts.length > 3 ? "-" + parts[3] : "";
+
+        return getLibrariesDirectory()
+                .resolve(group)
+                .resolve(artifact)
+                .resolve(version)
+                .resolve(artifact + "-" + version + classifier + ".jar");
+    }
+
+    /**
+     * Jar de natives del formato antiguo ("natives": {"linux": "natives-linux"}) para el sistema actual
+     */
+    private Path resolveLegacyNativesPath(JsonNode library) {
+        String classifier = legacyNativesClassifier(library);
+        if (classifier == null) {
+            return null;
+        }
+
+        JsonNode classifierPath = library.path("downloads").path("classifiers").path(classifier).path("path");
+        if (classifierPath.isTextual()) {
+            return getLibrariesDirectory().resolve(classifierPath.asText());
+        }
+
+        String[] parts = library.path("name").asText("").split(":");
+        if (parts.length < 3) {
+            return null;
+        }
+
+        String artifact = parts[1];
+        String version = parts[2];
+        return getLibrariesDirectory()
+                .resolve(parts[0].replace('.', '/'))
+                .resolve(artifact)
+                .resolve(version)
+                .resolve(artifact + "-" + version + "-" + classifier + ".jar");
+    }
+
+    /**
+     * Clasificador de natives del formato antiguo para el sistema actual, o null si la librería no tiene
+     */
+    public static String legacyNativesClassifier(JsonNode library) {
+        JsonNode classifierNode = library.path("natives").path(currentOsName());
+        if (!classifierNode.isTextual()) {
+            return null;
+        }
+        return classifierNode.asText().replace("${arch}", NativesCache.normalizedArch().equals("x86") ? "32" : "64");
+    }
+
+    /**
+     * Indica si una librería "grupo:artefacto:versión:natives-so[-arq]" corresponde a esta plataforma.
+     * Sin sufijo de arquitectura el jar es de x64.
+     */
+    public static boolean isNativesForCurrentPlatform(String name) {
+        String[] parts = name.split(":");
+        if (parts.length < 4 || !parts[3].startsWith("natives-")) {
+            return false;
+        }
+
+        String[] classifier = parts[3].split("-");
+        String arch = classifier.length > 2 ? classifier[classifier.length - 1] : "x64";
+        if (arch.equals("aarch64")) {
+            arch = "arm64";
+        }
+        return arch.equals(NativesCache.normalizedArch());
+    }
+
+    /**
+     * Evalúa las reglas de sistema operativo de una librería
+     */
+    public static boolean isAllowed(JsonNode rules) {
+        if (!rules.isArray() || rules.isEmpty()) {
+            return true;
+        }
+
+        boolean allowed = false;
+        for (JsonNode rule : rules) {
+            JsonNode os = rule.path("os").path("name");
+            if (os.isMissingNode() || os.asText().equals(currentOsName())) {
+                allowed = "allow".equals(rule.path("action").asText());
+            }
+        }
+        return allowed;
+    }
+
+    public static String currentOsName() {
+        String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        if (os.contains("win")) {
+            return "windows";
+        }
+        if (os.contains("mac")) {
+            return "osx";
+        }
+        return "linux";
+    }
+}
@@ -0,0 +1,347 @@
+package org.klauncher.launcher.services.logs;
+
+import org.klauncher.launcher.models.entities.LogEvent;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extrae eventos indexables (avisos, errores y excepciones) de un log del juego.
+ * Se alimenta línea a línea con su offset en bytes y mantiene el offset hasta el
+ * que todos los eventos están cerrados, para reanudar en la siguiente pasada.
+ * También interpreta los crash reports como un único evento.
+ */
+public class GameLogParser {
+    private static final int MAX_MESSAGE_CHARS = 2000;
+    private static final int MAX_TRACE_CHARS = 8000;
+
+    // [19Oct2026 12:34:56.789] [main/ERROR] [logger/]: ... (el formato vanilla se reconoce sin regex)
+    private static final Pattern LOG_LINE = Pattern.compile(
+            "^\\[(?:(\\d{1,2})([A-Za-z]{3})(\\d{4}) )?(\\d{2}):(\\d{2}):(\\d{2})(?:[.,]\\d{1,3})?] " +
+            "\\[[^\\]]*/([A-Z]+)](?: \\[[^\\]]*])?:? ?(.*)$");
+    private static final Pattern LAUNCHER_HEADER = Pattern.compile("^# KarritoLauncher - (\\S+)");
+    private static final Pattern EXCEPTION_HEADER = Pattern.compile(
+            "^(?:Caused by: |Exception in thread \"[^\"]*\" )?((?:[\\w$]+\\.)+[\\w$]*(?:Exception|Error|Throwable))(?::.*)?$");
+    private static final Pattern CONTINUATION = Pattern.compile("^(?:\\s+(?:at |\\.\\.\\. \\d+ more|Suppressed: |Caused by: )|Caused by: )");
+    private static final Pattern EXCEPTION_CLASS = Pattern.compile("((?:[\\w$]+\\.)+[\\w$]*(?:Exception|Error))\\b");
+    private static final Pattern JAR_REFERENCE = Pattern.compile("[\\[(/]([A-Za-z][\\w.+-]*?)(?:-\\d[\\w.+-]*)?\\.jar");
+    private static final Pattern MOD_REFERENCE = Pattern.compile("\\b(?:from|for|by) mod '?([a-z][a-z0-9_-]{1,63})'?");
+    private static final List<String> INDEXED_LEVELS = List.of("WARN", "ERROR", "FATAL");
+    private static final Set<String> NON_MOD_JARS = Set.of("client", "server", "minecraft", "unknown");
+
+    private static final DateTimeFormatter LOG_MONTH = DateTimeFormatter.ofPattern("MMM", Locale.ENGLISH);
+    private static final DateTimeFormatter[] CRASH_TIME_FORMATS = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm"),
+            DateTimeFormatter.ofPattern("M/d/yy, h:mm a", Locale.US),
+            DateTimeFormatter.ofPattern("dd/MM/yy HH:mm")
+    };
+
+    private final String sourcePath;
+    private final List<LogEvent> closedEvents;
+
+    private LocalDate clockDate;
+    private int clockSeconds;
+    private LogEvent pending;
+    private StringBuilder pendingTrace;
+    private Set<String> pendingMods;
+    private long safeOffset;
+
+    /**
+     * @param clock fecha y hora de referencia para las líneas que solo traen la hora
+     * @param startOffset offset en bytes desde el que se leerá el archivo
+     */
+    public GameLogParser(String sourcePath, LocalDateTime clock, long startOffset) {
+        this.sourcePath = sourcePath;
+        this.clockDate = clock.toLocalDate();
+        this.clockSeconds = clock.toLocalTime().toSecondOfDay();
+        this.closedEvents = new ArrayList<>();
+        this.safeOffset = startOffset;
+    }
+
+    /**
+     * Procesa una línea completa que empieza en {@code offset} y termina antes de {@code nextOffset}
+     */
+    public void accept(String line, long offset, long nextOffset) {
+        // Comprobación barata del primer carácter antes de aplicar las expresiones regulares
+        char first = line.isEmpty() ? '\0' : line.charAt(0);
+        Matcher header = first == '#' ? LAUNCHER_HEADER.matcher(line) : null;
+        Matcher logLine = first == '[' ? LOG_LINE.matcher(line) : null;
+
+        if (header != null && header.find()) {
+            closePending();
+            try {
+                LocalDateTime headerTime = LocalDateTime.parse(header.group(1));
+                clockDate = headerTime.toLocalDate();
+                clockSeconds = headerTime.toLocalTime().toSecondOfDay();
+            } catch (DateTimeParseException e) {
+                // Cabecera con otro formato: se mantiene el reloj actual
+            }
+        } else if (first == '[' && hasVanillaTimestamp(line)) {
+            // Formato vanilla "[HH:MM:SS] [hilo/NIVEL]: mensaje", sin expresión regular
+            closePending();
+            advanceClock(digits(line, 1) * 3600 + digits(line, 4) * 60 + digits(line, 7));
+            int levelEnd = line.indexOf(']', 12);
+            if (levelEnd > 0) {
+                int levelStart = line.lastIndexOf('/', levelEnd) + 1;
+                String level = indexedLevel(line, levelStart, levelEnd);
+                if (level != null) {
+                    int messageStart = line.startsWith(": ", levelEnd + 1) ? levelEnd + 3 : levelEnd + 1;
+                    startEvent(level, line.substring(Math.min(messageStart, line.length())), offset);
+                }
+            }
+        } else if (logLine != null && logLine.matches()) {
+            closePending();
+            advanceClock(logLine);
+            String level = logLine.group(7);
+            if (INDEXED_LEVELS.contains(level)) {
+                startEvent(level, logLine.group(8), offset);
+            }
+        } else if (pending != null && (CONTINUATION.matcher(line).find() || EXCEPTION_HEADER.matcher(line).matches())) {
+            appendTrace(line);
+        } else if (first != '[' && EXCEPTION_HEADER.matcher(line).matches()) {
+            // Excepción impresa directamente en stderr
+            closePending();
+            startEvent("ERROR", line, offset);
+        } else {
+            closePending();
+        }
+
+        if (pending == null) {
+            safeOffset = nextOffset;
+        }
+    }
+
+    /**
+     * Cierra el evento en curso; se usa al llegar al final de un archivo terminado
+     */
+    public void finish(long endOffset) {
+        closePending();
+        safeOffset = endOffset;
+    }
+
+    /**
+     * Devuelve y vacía los eventos cerrados
+     */
+    public List<LogEvent> drainEvents() {
+        List<LogEvent> events = new ArrayList<>(closedEvents);
+        closedEvents.clear();
+        return events;
+    }
+
+    /**
+     * Offset hasta el que todos los eventos están cerrados
+     */
+    public long getSafeOffset() {
+        return safeOffset;
+    }
+
+    public LocalDateTime getClock() {
+        return LocalDateTime.of(clockDate, LocalTime.ofSecondOfDay(clockSeconds));
+    }
+
+    /**
+     * Interpreta un crash report completo como un único evento
+     */
+    public static LogEvent parseCrashReport(String sourcePath, List<String> lines, long fallbackMillis) {
+        LogEvent event = new LogEvent();
+        event.setSourcePath(sourcePath);
+        event.setSourceOffset(0);
+        event.setKind(LogEvent.KIND_CRASH);
+        event.setLevel("FATAL");
+        event.setLoggedAt(fallbackMillis);
+
+        Set<String> mods = new LinkedHashSet<>();
+        StringBuilder trace = new StringBuilder();
+        boolean inTrace = false;
+
+        for (String line : lines) {
+            if (line.startsWith("Time: ")) {
+                Long time = parseCrashTime(line.substring(6).trim());
+                if (time != null) {
+                    event.setLoggedAt(time);
+                }
+            } else if (line.startsWith("Description: ")) {
+                event.setMessage(truncate(line.substring(13).trim(), MAX_MESSAGE_CHARS));
+                inTrace = true;
+            } else if (line.startsWith("Suspected Mods: ") || line.startsWith("Suspected Mod: ")) {
+                for (String mod : line.substring(line.indexOf(':') + 1).split(",")) {
+                    String name = mod.trim();
+                    int open = name.indexOf('(');
+                    int close = name.indexOf(')', open + 1);
+                    mods.add(open >= 0 && close > open ? name.substring(open + 1, close) : name);
+                }
+            } else if (inTrace) {
+                if (line.isBlank()) {
+                    inTrace = trace.isEmpty();
+                } else if (trace.length() < MAX_TRACE_CHARS) {
+                    trace.append(line).append('\n');
+                    collectMods(line, mods);
+                }
+            }
+        }
+
+        String traceText = trace.toString().trim();
+        event.setExceptionTrace(traceText.isEmpty() ? null : truncate(traceText, MAX_TRACE_CHARS));
+        event.setExceptionClass(findExceptionClass(traceText));
+        if (event.getMessage() == null) {
+            event.setMessage("Crash report");
+        }
+        mods.remove("");
+        event.setMods(mods.isEmpty() ? null : String.join(" ", mods));
+        return event;
+    }
+
+    private void startEvent(String level, String message, long offset) {
+        pending = new LogEvent();
+        pending.setSourcePath(sourcePath);
+        pending.setSourceOffset(offset);
+        pending.setKind(LogEvent.KIND_LOG);
+        pending.setLevel(level);
+        pending.setLoggedAt(getClock().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        pending.setMessage(truncate(message, MAX_MESSAGE_CHARS));
+        pendingTrace = new StringBuilder();
+        pendingMods = new LinkedHashSet<>();
+        collectMods(message, pendingMods);
+
+        if (EXCEPTION_HEADER.matcher(message).matches()) {
+            pendingTrace.append(message).append('\n');
+        }
+    }
+
+    private void appendTrace(String line) {
+        if (pendingTrace.length() < MAX_TRACE_CHARS) {
+            pendingTrace.append(line).append('\n');
+        }
+        collectMods(line, pendingMods);
+    }
+
+    private void closePending() {
+        if (pending == null) {
+            return;
+        }
+
+        String trace = pendingTrace.toString().trim();
+        if (!trace.isEmpty()) {
+            pending.setExceptionTrace(truncate(trace, MAX_TRACE_CHARS));
+        }
+        String exceptionClass = findExceptionClass(trace);
+        pending.setExceptionClass(exceptionClass != null ? exceptionClass : findExceptionClass(pending.getMessage()));
+        pending.setMods(pendingMods.isEmpty() ? null : String.join(" ", pendingMods));
+
+        closedEvents.add(pending);
+        pending = null;
+        pendingTrace = null;
+        pendingMods = null;
+    }
+
+    /**
+     * Actualiza el reloj con la marca de tiempo de una línea con formato Forge (con o sin fecha)
+     */
+    private void advanceClock(Matcher logLine) {
+        int seconds = Integer.parseInt(logLine.group(4)) * 3600
+                + Integer.parseInt(logLine.group(5)) * 60 + Integer.parseInt(logLine.group(6));
+
+        if (logLine.group(1) != null) {
+            try {
+                int month = LOG_MONTH.parse(logLine.group(2)).get(ChronoField.MONTH_OF_YEAR);
+                clockDate = LocalDate.of(Integer.parseInt(logLine.group(3)), month, Integer.parseInt(logLine.group(1)));
+                clockSeconds = seconds;
+                return;
+            } catch (DateTimeException e) {
+                // Fecha no reconocida: se usa solo la hora
+            }
+        }
+        advanceClock(seconds);
+    }
+
+    /**
+     * Avanza el reloj a una hora del día; si retrocede más de una hora se asume que pasó la medianoche
+     */
+    private void advanceClock(int seconds) {
+        if (seconds < clockSeconds - 3600) {
+            clockDate = clockDate.plusDays(1);
+        }
+        clockSeconds = seconds;
+    }
+
+    private static boolean hasVanillaTimestamp(String line) {
+        return line.length() > 12
+                && isDigit(line, 1) && isDigit(line, 2) && line.charAt(3) == ':'
+                && isDigit(line, 4) && isDigit(line, 5) && line.charAt(6) == ':'
+                && isDigit(line, 7) && isDigit(line, 8)
+                && line.charAt(9) == ']' && line.charAt(10) == ' ' && line.charAt(11) == '[';
+    }
+
+    private static boolean isDigit(String line, int index) {
+        char c = line.charAt(index);
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digits(String line, int index) {
+        return (line.charAt(index) - '0') * 10 + (line.charAt(index + 1) - '0');
+    }
+
+    /**
+     * Nivel entre {@code start} y {@code end} si es uno de los que se indexan, sin crear cadenas para el resto
+     */
+    private static String indexedLevel(String line, int start, int end) {
+        for (String level : INDEXED_LEVELS) {
+            if (end - start == level.length() && line.startsWith(level, start)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    private static void collectMods(String line, Set<String> mods) {
+        Matcher jar = JAR_REFERENCE.matcher(line);
+        while (jar.find()) {
+            String name = jar.group(1).toLowerCase(Locale.ROOT);
+            if (!NON_MOD_JARS.contains(name)) {
+                mods.add(name);
+            }
+        }
+
+        Matcher mod = MOD_REFERENCE.matcher(line);
+        while (mod.find()) {
+            mods.add(mod.group(1));
+        }
+    }
+
+    private static String findExceptionClass(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = EXCEPTION_CLASS.matcher(text);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static Long parseCrashTime(String value) {
+        for (DateTimeFormatter format : CRASH_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(value, format).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Probar el siguiente formato
+            }
+        }
+        return null;
+    }
+
+    private static String truncate(String value, int maxChars) {
+        return value.length() <= maxChars ? value : value.substring(0, maxChars);
+    }
+}
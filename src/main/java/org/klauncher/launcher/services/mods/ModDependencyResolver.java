@@ -0,0 +1,388 @@
+package org.klauncher.launcher.services.mods;
+
+import org.klauncher.launcher.models.entities.ModMetadata;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Resolutor incremental de dependencias de una carpeta de mods. Cada mod guarda en memoria su
+ * resultado directo (dependencias ausentes, en conflicto y qué jar cubre cada una) y si puede
+ * cargar teniendo en cuenta toda su cadena de dependencias. Al añadir o quitar un jar solo se
+ * recalculan los mods que dependen de los ids que ese jar proporciona, y solo se invalida la
+ * parte del grafo que está por encima de ellos; el resto de resultados se reutiliza.
+ */
+public class ModDependencyResolver {
+
+    private static final class Node {
+        private final ModMetadata mod;
+        private final Map<String, VersionRange> ranges;
+        private final List<String> missing;
+        private final List<ModResolution.Conflict> conflicts;
+        private final Map<String, Node> chosen;
+        private boolean solved;
+        private Boolean loadable;
+
+        Node(ModMetadata mod, Map<String, VersionRange> ranges) {
+            this.mod = mod;
+            this.ranges = ranges;
+            this.missing = new ArrayList<>(0);
+            this.conflicts = new ArrayList<>(0);
+            this.chosen = new HashMap<>();
+        }
+
+        boolean isDirectlySatisfied() {
+            return missing.isEmpty() && conflicts.isEmpty();
+        }
+    }
+
+    private final Map<String, Node> nodes;
+    private final Map<String, List<Node>> providers;
+    private final Map<String, List<Node>> disabledProviders;
+    private final Map<String, Set<Node>> dependents;
+    private final Map<String, VersionRange> rangeCache;
+    private final Map<String, String> platformVersions;
+    private final Set<Node> dirty;
+    private int lastSolved;
+
+    public ModDependencyResolver() {
+        this.nodes = new LinkedHashMap<>();
+        this.providers = new HashMap<>();
+        this.disabledProviders = new HashMap<>();
+        this.dependents = new HashMap<>();
+        this.rangeCache = new HashMap<>();
+        this.platformVersions = new HashMap<>();
+        this.dirty = new LinkedHashSet<>();
+    }
+
+    /**
+     * Versión de un id que proporciona el juego o el cargador (p. ej. "minecraft"), para comprobar
+     * los rangos que piden los mods; sin ella esas dependencias se dan por buenas
+     */
+    public synchronized void setPlatformVersion(String id, String version) {
+        String previous = version == null ? platformVersions.remove(id) : platformVersions.put(id, version);
+        if (!Objects.equals(previous, version)) {
+            markDirty(dependents.getOrDefault(id, Set.of()));
+        }
+    }
+
+    /**
+     * Aplica las diferencias con un escaneo nuevo: los jars que desaparecen o cambian se quitan
+     * y los nuevos se añaden, así que un escaneo sin cambios no recalcula nada
+     */
+    public synchronized void sync(ModScan scan) {
+        Map<String, ModMetadata> current = new HashMap<>();
+        for (ModMetadata mod : scan.getMods()) {
+            current.put(mod.getPath(), mod);
+        }
+
+        for (Node node : List.copyOf(nodes.values())) {
+            ModMetadata now = current.get(node.mod.getPath());
+            if (now == null || !now.matches(node.mod.getFileSize(), node.mod.getFileModified())) {
+                remove(node.mod.getPath());
+            }
+        }
+        for (ModMetadata mod : scan.getMods()) {
+            if (!nodes.containsKey(mod.getPath())) {
+                add(mod);
+            }
+        }
+    }
+
+    public synchronized void add(ModMetadata mod) {
+        if (nodes.containsKey(mod.getPath())) {
+            remove(mod.getPath());
+        }
+
+        Map<String, VersionRange> ranges = new LinkedHashMap<>();
+        mod.getDependencies().forEach((id, range) -> ranges.put(id, parseRange(range, mod.getLoader())));
+        Node node = new Node(mod, ranges);
+        nodes.put(mod.getPath(), node);
+
+        if (!mod.isRecognized()) {
+            return;
+        }
+        if (!mod.isEnabled()) {
+            for (String id : idsOf(mod)) {
+                disabledProviders.computeIfAbsent(id, key -> new ArrayList<>(1)).add(node);
+            }
+            return;
+        }
+
+        for (String dependency : ranges.keySet()) {
+            dependents.computeIfAbsent(dependency, key -> new HashSet<>()).add(node);
+        }
+        for (String id : idsOf(mod)) {
+            providers.computeIfAbsent(id, key -> new ArrayList<>(1)).add(node);
+            markDirty(dependents.getOrDefault(id, Set.of()));
+        }
+        markDirty(List.of(node));
+    }
+
+    public synchronized void remove(String path) {
+        Node node = nodes.remove(path);
+        if (node == null || !node.mod.isRecognized()) {
+            return;
+        }
+        if (!node.mod.isEnabled()) {
+            for (String id : idsOf(node.mod)) {
+                removeFrom(disabledProviders, id, node);
+            }
+            return;
+        }
+
+        dirty.remove(node);
+        for (String dependency : node.ranges.keySet()) {
+            Set<Node> waiting = dependents.get(dependency);
+            if (waiting != null && waiting.remove(node) && waiting.isEmpty()) {
+                dependents.remove(dependency);
+            }
+        }
+        for (String id : idsOf(node.mod)) {
+            removeFrom(providers, id, node);
+            markDirty(dependents.getOrDefault(id, Set.of()));
+        }
+    }
+
+    /**
+     * Resuelve lo que haya cambiado desde la última llamada y devuelve el estado completo
+     */
+    public synchronized ModResolution resolve() {
+        lastSolved = dirty.size();
+        for (Node node : dirty) {
+            solve(node);
+        }
+        dirty.clear();
+
+        Map<String, List<ModMetadata>> missing = new TreeMap<>();
+        List<ModResolution.Conflict> conflicts = new ArrayList<>();
+        List<ModMetadata> blocked = new ArrayList<>();
+        computeLoadable();
+        int modCount = 0;
+
+        for (Node node : nodes.values()) {
+            if (!node.mod.isEnabled() || !node.mod.isRecognized()) {
+                continue;
+            }
+            modCount++;
+            for (String dependency : node.missing) {
+                missing.computeIfAbsent(dependency, id -> new ArrayList<>()).add(node.mod);
+            }
+            conflicts.addAll(node.conflicts);
+            if (node.isDirectlySatisfied() && !node.loadable) {
+                blocked.add(node.mod);
+            }
+        }
+        blocked.sort(Comparator.comparing(ModMetadata::getFileName, String.CASE_INSENSITIVE_ORDER));
+
+        return new ModResolution(missing, conflicts, blocked, findInstallable(missing), modCount);
+    }
+
+    /**
+     * Mods cuyo resultado directo hubo que recalcular en la última resolución
+     */
+    public synchronized int getLastSolved() {
+        return lastSolved;
+    }
+
+    private void solve(Node node) {
+        node.missing.clear();
+        node.conflicts.clear();
+        node.chosen.clear();
+
+        for (Map.Entry<String, VersionRange> dependency : node.ranges.entrySet()) {
+            String id = dependency.getKey();
+            VersionRange range = dependency.getValue();
+
+            if (ModScan.PLATFORM_IDS.contains(id)) {
+                String version = platformVersions.get(id);
+                if (version != null && !range.contains(version)) {
+                    node.conflicts.add(new ModResolution.Conflict(node.mod, id, range, null));
+                }
+                continue;
+            }
+
+            List<Node> candidates = providers.get(id);
+            if (candidates == null || candidates.isEmpty()) {
+                node.missing.add(id);
+                continue;
+            }
+
+            Node pick = null;
+            for (Node candidate : candidates) {
+                if (satisfies(candidate.mod, id, range)) {
+                    pick = candidate;
+                    break;
+                }
+            }
+            if (pick == null) {
+                node.conflicts.add(new ModResolution.Conflict(node.mod, id, range, candidates.get(0).mod));
+            } else {
+                node.chosen.put(id, pick);
+            }
+        }
+        node.solved = true;
+    }
+
+    /**
+     * Un mod carga si sus dependencias directas están cubiertas y los jars elegidos también cargan.
+     * Se calcula por componentes fuertemente conexas (Tarjan) sobre las dependencias elegidas: los
+     * mods de un ciclo cargan o no todos juntos, y solo si todos tienen sus dependencias directas
+     * cubiertas y todo lo que el ciclo usa fuera de él carga. Tarjan cierra cada componente después
+     * de las que usa, así que el resultado no depende del orden en que se añadieron los mods.
+     * Solo se recorren los mods sin resultado memorizado; el resto actúa como hoja ya resuelta.
+     */
+    private void computeLoadable() {
+        Tarjan tarjan = new Tarjan();
+        for (Node node : nodes.values()) {
+            if (node.mod.isEnabled() && node.mod.isRecognized() && node.loadable == null
+                    && !tarjan.index.containsKey(node)) {
+                tarjan.connect(node);
+            }
+        }
+    }
+
+    private final class Tarjan {
+        private final Map<Node, Integer> index = new HashMap<>();
+        private final Map<Node, Integer> low = new HashMap<>();
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private final Set<Node> onStack = new HashSet<>();
+
+        void connect(Node node) {
+            if (!node.solved) {
+                solve(node);
+            }
+            int order = index.size();
+            index.put(node, order);
+            low.put(node, order);
+            stack.push(node);
+            onStack.add(node);
+
+            for (Node dependency : node.chosen.values()) {
+                if (dependency.loadable != null) {
+                    continue;
+                }
+                if (!index.containsKey(dependency)) {
+                    connect(dependency);
+                    low.put(node, Math.min(low.get(node), low.get(dependency)));
+                } else if (onStack.contains(dependency)) {
+                    low.put(node, Math.min(low.get(node), index.get(dependency)));
+                }
+            }
+
+            if (low.get(node).equals(index.get(node))) {
+                Set<Node> component = new HashSet<>();
+                Node member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.add(member);
+                } while (member != node);
+
+                // Las componentes de las que depende ya están cerradas y tienen resultado
+                boolean loadable = true;
+                for (Node candidate : component) {
+                    if (!candidate.isDirectlySatisfied()) {
+                        loadable = false;
+                        break;
+                    }
+                    for (Node dependency : candidate.chosen.values()) {
+                        if (!component.contains(dependency) && !dependency.loadable) {
+                            loadable = false;
+                            break;
+                        }
+                    }
+                }
+                for (Node candidate : component) {
+                    candidate.loadable = loadable;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca los mods para recalcular su resultado directo e invalida la carga memorizada de
+     * ellos y de todo lo que depende de ellos. Si un mod ya estaba invalidado, lo que está por
+     * encima también lo está, así que el recorrido se detiene ahí.
+     */
+    private void markDirty(Collection<Node> changed) {
+        Deque<Node> pending = new ArrayDeque<>();
+        for (Node node : changed) {
+            node.solved = false;
+            dirty.add(node);
+            node.loadable = null;
+            pending.push(node);
+        }
+
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            for (String id : idsOf(node.mod)) {
+                for (Node dependent : dependents.getOrDefault(id, Set.of())) {
+                    if (dependent.loadable != null) {
+                        dependent.loadable = null;
+                        pending.push(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<ModMetadata> findInstallable(Map<String, List<ModMetadata>> missing) {
+        Set<ModMetadata> installable = new LinkedHashSet<>();
+
+        for (Map.Entry<String, List<ModMetadata>> dependency : missing.entrySet()) {
+            for (Node candidate : disabledProviders.getOrDefault(dependency.getKey(), List.of())) {
+                boolean fits = dependency.getValue().stream().allMatch(mod -> satisfies(candidate.mod, dependency.getKey(),
+                        nodes.get(mod.getPath()).ranges.get(dependency.getKey())));
+                if (fits) {
+                    installable.add(candidate.mod);
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(installable);
+    }
+
+    /**
+     * Los alias y mods incluidos no tienen versión propia conocida y se aceptan
+     */
+    private static boolean satisfies(ModMetadata provider, String id, VersionRange range) {
+        return !id.equals(provider.getModId()) || range.contains(provider.getVersion());
+    }
+
+    private VersionRange parseRange(String range, String loader) {
+        return rangeCache.computeIfAbsent(loader + '\n' + range, key -> VersionRange.parse(range, loader));
+    }
+
+    private static List<String> idsOf(ModMetadata mod) {
+        if (!mod.isRecognized()) {
+            return List.of();
+        }
+        if (mod.getProvides().isEmpty()) {
+            return List.of(mod.getModId());
+        }
+        List<String> ids = new ArrayList<>(mod.getProvides().size() + 1);
+        ids.add(mod.getModId());
+        ids.addAll(mod.getProvides());
+        return ids;
+    }
+
+    private static void removeFrom(Map<String, List<Node>> index, String id, Node node) {
+        List<Node> candidates = index.get(id);
+        if (candidates != null && candidates.remove(node) && candidates.isEmpty()) {
+            index.remove(id);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package org.klauncher.launcher.services.mods;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.klauncher.launcher.models.entities.ModMetadata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Lee los metadatos de un jar de mod desde su directorio central: solo se descomprimen el
+ * descriptor (fabric.mod.json, quilt.mod.json o mods.toml) y, si hace falta, el MANIFEST.MF
+ * y los descriptores de los jars incluidos, nunca el jar completo. Se usa el ZipFile del JDK
+ * porque abre el directorio central de jars con miles de clases mucho más rápido que commons-compress.
+ */
+final class ModMetadataReader {
+    static final String FABRIC_DESCRIPTOR = "fabric.mod.json";
+    static final String QUILT_DESCRIPTOR = "quilt.mod.json";
+    static final String NEOFORGE_DESCRIPTOR = "META-INF/neoforge.mods.toml";
+    static final String FORGE_DESCRIPTOR = "META-INF/mods.toml";
+    private static final String JAR_VERSION_PLACEHOLDER = "${file.jarVersion}";
+
+    // Los fabric.mod.json reales a menudo traen saltos de línea sin escapar o comentarios
+    private static final ObjectMapper LENIENT_MAPPER = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .build();
+
+    private ModMetadataReader() {
+    }
+
+    /**
+     * Completa {@code mod} con lo que declara el jar; si no tiene descriptor conocido queda sin modId
+     */
+    static void read(Path jar, ModMetadata mod) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            ZipEntry descriptor;
+            if ((descriptor = zip.getEntry(FABRIC_DESCRIPTOR)) != null) {
+                readFabric(zip, readTree(zip, descriptor), mod);
+            } else if ((descriptor = zip.getEntry(QUILT_DESCRIPTOR)) != null) {
+                readQuilt(zip, readTree(zip, descriptor), mod);
+            } else if ((descriptor = zip.getEntry(NEOFORGE_DESCRIPTOR)) != null) {
+                readModsToml(zip, descriptor, "neoforge", mod);
+            } else if ((descriptor = zip.getEntry(FORGE_DESCRIPTOR)) != null) {
+                readModsToml(zip, descriptor, "forge", mod);
+            }
+        }
+    }
+
+    private static JsonNode readTree(ZipFile zip, ZipEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return LENIENT_MAPPER.readTree(in);
+        }
+    }
+
+    private static void readFabric(ZipFile zip, JsonNode json, ModMetadata mod) throws IOException {
+        mod.setLoader("fabric");
+        mod.setModId(textOrNull(json.get("id")));
+        mod.setVersion(textOrNull(json.get("version")));
+        mod.setName(textOrNull(json.get("name")));
+
+        Set<String> provides = new LinkedHashSet<>();
+        json.path("provides").forEach(id -> provides.add(id.asText()));
+
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        json.path("depends").fields().forEachRemaining(dependency ->
+                dependencies.put(dependency.getKey(), versionRange(dependency.getValue())));
+
+        for (JsonNode nested : json.path("jars")) {
+            provides.addAll(readNestedIds(zip, nested.path("file").asText("")));
+        }
+        finish(mod, provides, dependencies);
+    }
+
+    private static void readQuilt(ZipFile zip, JsonNode json, ModMetadata mod) throws IOException {
+        JsonNode loader = json.path("quilt_loader");
+        mod.setLoader("quilt");
+        mod.setModId(textOrNull(loader.get("id")));
+        mod.setVersion(textOrNull(loader.get("version")));
+        mod.setName(textOrNull(loader.path("metadata").get("name")));
+
+        Set<String> provides = new LinkedHashSet<>();
+        for (JsonNode provided : loader.path("provides")) {
+            provides.add(provided.isObject() ? provided.path("id").asText() : provided.asText());
+        }
+
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        for (JsonNode dependency : loader.path("depends")) {
+            if (dependency.isObject()) {
+                if (!dependency.path("optional").asBoolean(false)) {
+                    dependencies.put(dependency.path("id").asText(), versionRange(dependency.path("versions")));
+                }
+            } else {
+                dependencies.put(dependency.asText(), "*");
+            }
+        }
+
+        for (JsonNode nested : loader.path("jars")) {
+            provides.addAll(readNestedIds(zip, nested.asText("")));
+        }
+        finish(mod, provides, dependencies);
+    }
+
+    /**
+     * Ids de un jar incluido en otro (jar-in-jar): se recorre en streaming hasta su descriptor
+     */
+    private static List<String> readNestedIds(ZipFile zip, String path) throws IOException {
+        ZipEntry entry = path.isEmpty() ? null : zip.getEntry(path);
+        if (entry == null) {
+            return List.of();
+        }
+
+        List<String> ids = new ArrayList<>();
+        try (ZipInputStream nested = new ZipInputStream(zip.getInputStream(entry))) {
+            ZipEntry inner;
+            while ((inner = nested.getNextEntry()) != null) {
+                if (FABRIC_DESCRIPTOR.equals(inner.getName())) {
+                    JsonNode json = LENIENT_MAPPER.readTree(nested);
+                    ids.add(json.path("id").asText());
+                    json.path("provides").forEach(id -> ids.add(id.asText()));
+                    break;
+                }
+                if (QUILT_DESCRIPTOR.equals(inner.getName())) {
+                    ids.add(LENIENT_MAPPER.readTree(nested).path("quilt_loader").path("id").asText());
+                    break;
+                }
+            }
+        }
+        ids.removeIf(String::isEmpty);
+        return ids;
+    }
+
+    /**
+     * mods.toml de Forge y NeoForge. Solo se necesitan claves simples de las tablas [[mods]] y
+     * [[dependencies.*]], así que basta con leer línea a línea sin un parser TOML completo.
+     */
+    private static void readModsToml(ZipFile zip, ZipEntry descriptor, String loader, ModMetadata mod)
+            throws IOException {
+        List<Map<String, String>> mods = new ArrayList<>();
+        List<Map<String, String>> dependencyTables = new ArrayList<>();
+        Map<String, String> current = null;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(zip.getInputStream(descriptor), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if (line.startsWith("[")) {
+                    String table = line.substring(0, line.lastIndexOf(']') + 1).replace("[", "").replace("]", "").strip();
+                    current = new LinkedHashMap<>();
+                    if (table.equals("mods")) {
+                        mods.add(current);
+                    } else if (table.startsWith("dependencies.")) {
+                        dependencyTables.add(current);
+                    }
+                    continue;
+                }
+
+                int equals = line.indexOf('=');
+                if (equals <= 0) {
+                    continue;
+                }
+                String key = line.substring(0, equals).strip();
+                String value = line.substring(equals + 1).strip();
+
+                // Cadenas multilínea (descripciones): se saltan hasta su cierre
+                if (value.startsWith("'''") || value.startsWith("\"\"\"")) {
+                    String delimiter = value.substring(0, 3);
+                    if (value.indexOf(delimiter, 3) < 0) {
+                        skipUntil(reader, delimiter);
+                    }
+                    continue;
+                }
+                if (current != null) {
+                    current.put(key, unquote(value));
+                }
+            }
+        }
+
+        if (mods.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> primary = mods.get(0);
+        mod.setLoader(loader);
+        mod.setModId(primary.get("modId"));
+        mod.setName(primary.get("displayName"));
+
+        String version = primary.get("version");
+        if (version == null || version.contains(JAR_VERSION_PLACEHOLDER)) {
+            version = readImplementationVersion(zip);
+        }
+        mod.setVersion(version);
+
+        Set<String> provides = new LinkedHashSet<>();
+        for (Map<String, String> other : mods.subList(1, mods.size())) {
+            if (other.get("modId") != null) {
+                provides.add(other.get("modId"));
+            }
+        }
+
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        for (Map<String, String> dependency : dependencyTables) {
+            String id = dependency.get("modId");
+            boolean required = dependency.containsKey("type")
+                    ? "required".equalsIgnoreCase(dependency.get("type"))
+                    : Boolean.parseBoolean(dependency.getOrDefault("mandatory", "false"));
+            if (id != null && required && !"SERVER".equalsIgnoreCase(dependency.get("side"))) {
+                dependencies.put(id, dependency.getOrDefault("versionRange", "*"));
+            }
+        }
+
+        // Un mods.toml clásico que depende de NeoForge pertenece a NeoForge
+        if (dependencies.containsKey("neoforge")) {
+            mod.setLoader("neoforge");
+        }
+        finish(mod, provides, dependencies);
+    }
+
+    private static void skipUntil(BufferedReader reader, String delimiter) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && !line.contains(delimiter));
+    }
+
+    private static String readImplementationVersion(ZipFile zip) throws IOException {
+        ZipEntry entry = zip.getEntry("META-INF/MANIFEST.MF");
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return new Manifest(in).getMainAttributes().getValue("Implementation-Version");
+        }
+    }
+
+    /**
+     * Valor simple de TOML sin comillas ni comentario final
+     */
+    private static String unquote(String value) {
+        if (value.startsWith("\"") || value.startsWith("'")) {
+            int end = value.indexOf(value.charAt(0), 1);
+            return end < 0 ? value.substring(1) : value.substring(1, end);
+        }
+        int comment = value.indexOf('#');
+        return (comment < 0 ? value : value.substring(0, comment)).strip();
+    }
+
+    private static String versionRange(JsonNode node) {
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return "*";
+        }
+        if (node.isArray()) {
+            List<String> ranges = new ArrayList<>();
+            node.forEach(range -> ranges.add(range.isValueNode() ? range.asText() : range.toString()));
+            return ranges.isEmpty() ? "*" : String.join(" || ", ranges);
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node == null || node.isNull() || node.asText().isEmpty() ? null : node.asText();
+    }
+
+    private static void finish(ModMetadata mod, Set<String> provides, Map<String, String> dependencies) {
+        if (mod.getModId() == null) {
+            mod.setLoader(null);
+            return;
+        }
+        provides.remove(mod.getModId());
+        // Las dependencias que satisface el propio jar no cuentan
+        dependencies.keySet().removeIf(id -> id.equals(mod.getModId()) || provides.contains(id));
+        mod.setProvides(new ArrayList<>(provides));
+        mod.setDependencies(dependencies);
+    }
+}
@@ -0,0 +1,98 @@
+package org.klauncher.launcher.services.mods;
+
+import org.klauncher.launcher.models.entities.ModMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de las dependencias de una carpeta de mods en un momento dado
+ */
+public class ModResolution {
+
+    /**
+     * Dependencia presente pero en una versión fuera del rango que pide el mod
+     */
+    public static class Conflict {
+        private final ModMetadata mod;
+        private final String dependency;
+        private final VersionRange range;
+        private final ModMetadata provider;
+
+        Conflict(ModMetadata mod, String dependency, VersionRange range, ModMetadata provider) {
+            this.mod = mod;
+            this.dependency = dependency;
+            this.range = range;
+            this.provider = provider;
+        }
+
+        public ModMetadata getMod() { return mod; }
+        public String getDependency() { return dependency; }
+        public VersionRange getRange() { return range; }
+
+        /**
+         * Jar que proporciona la dependencia, o null si la proporciona el juego o el cargador
+         */
+        public ModMetadata getProvider() { return provider; }
+
+        @Override
+        public String toString() {
+            String found = provider != null ? provider.getVersion() + " (" + provider.getFileName() + ")" : "otra versión";
+            return mod.getModId() + " necesita " + dependency + " " + range + " y hay " + found;
+        }
+    }
+
+    private final Map<String, List<ModMetadata>> missing;
+    private final List<Conflict> conflicts;
+    private final List<ModMetadata> blocked;
+    private final List<ModMetadata> installable;
+    private final int modCount;
+
+    ModResolution(Map<String, List<ModMetadata>> missing, List<Conflict> conflicts, List<ModMetadata> blocked,
+                  List<ModMetadata> installable, int modCount) {
+        this.missing = missing;
+        this.conflicts = conflicts;
+        this.blocked = blocked;
+        this.installable = installable;
+        this.modCount = modCount;
+    }
+
+    /**
+     * Ids que no proporciona ningún jar activo, con los mods que los necesitan
+     */
+    public Map<String, List<ModMetadata>> getMissing() { return missing; }
+    public List<Conflict> getConflicts() { return conflicts; }
+
+    /**
+     * Mods sin problemas propios que no podrán cargar porque alguna de sus dependencias (directa o no) tampoco
+     */
+    public List<ModMetadata> getBlocked() { return blocked; }
+
+    /**
+     * Jars desactivados de la carpeta que cubren dependencias ausentes y cumplen sus rangos
+     */
+    public List<ModMetadata> getInstallable() { return installable; }
+    public int getModCount() { return modCount; }
+
+    public boolean isSatisfied() {
+        return missing.isEmpty() && conflicts.isEmpty();
+    }
+
+    /**
+     * Descripción de cada problema, para avisos y comprobaciones previas
+     */
+    public List<String> describeProblems() {
+        List<String> problems = new ArrayList<>();
+        missing.forEach((id, mods) -> problems.add(id + " no está instalado (lo necesita "
+                + String.join(", ", mods.stream().map(ModMetadata::getModId).toList()) + ")"));
+        conflicts.forEach(conflict -> problems.add(conflict.toString()));
+        return problems;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d mods: %d dependencias ausentes, %d conflictos, %d bloqueados, %d instalables",
+                modCount, missing.size(), conflicts.size(), blocked.size(), installable.size());
+    }
+}
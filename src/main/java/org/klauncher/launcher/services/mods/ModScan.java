@@ -0,0 +1,128 @@
+package org.klauncher.launcher.services.mods;
+
+import org.klauncher.launcher.models.entities.ModMetadata;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Contenido de una carpeta de mods. Al construirse indexa qué jar activo proporciona cada id
+ * (el suyo, sus alias y los mods incluidos), de modo que las comprobaciones de dependencias
+ * trabajan sobre ese grafo en memoria sin volver a abrir ningún jar.
+ */
+public class ModScan {
+    // Ids que satisface el propio juego o el cargador, no un jar de la carpeta
+    static final Set<String> PLATFORM_IDS = Set.of("minecraft", "java", "fabricloader", "fabric-loader",
+            "quilt_loader", "forge", "neoforge", "javafml", "lowcodefml");
+
+    private final Path directory;
+    private final List<ModMetadata> mods;
+    private final int cachedCount;
+    private final int readCount;
+    private final long elapsedMillis;
+    private final Map<String, List<ModMetadata>> providers;
+
+    ModScan(Path directory, List<ModMetadata> mods, int cachedCount, int readCount, long elapsedMillis) {
+        this.directory = directory;
+        this.mods = List.copyOf(mods);
+        this.cachedCount = cachedCount;
+        this.readCount = readCount;
+        this.elapsedMillis = elapsedMillis;
+        this.providers = new HashMap<>();
+
+        for (ModMetadata mod : this.mods) {
+            if (!mod.isEnabled() || !mod.isRecognized()) {
+                continue;
+            }
+            providers.computeIfAbsent(mod.getModId(), id -> new ArrayList<>(1)).add(mod);
+            for (String alias : mod.getProvides()) {
+                providers.computeIfAbsent(alias, id -> new ArrayList<>(1)).add(mod);
+            }
+        }
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /**
+     * Todos los jars de la carpeta, activos y desactivados, ordenados por nombre de archivo
+     */
+    public List<ModMetadata> getMods() { return mods; }
+
+    public List<ModMetadata> getEnabledMods() {
+        return mods.stream().filter(ModMetadata::isEnabled).toList();
+    }
+
+    /**
+     * Jars activos sin descriptor de mod reconocible (librerías sueltas o archivos dañados)
+     */
+    public List<ModMetadata> getUnrecognized() {
+        return mods.stream().filter(mod -> mod.isEnabled() && !mod.isRecognized()).toList();
+    }
+
+    /**
+     * Jars cuyos metadatos salieron de la caché
+     */
+    public int getCachedCount() { return cachedCount; }
+
+    /**
+     * Jars nuevos o modificados que hubo que abrir
+     */
+    public int getReadCount() { return readCount; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Jar activo que proporciona el id, ya sea como id propio, alias o mod incluido
+     */
+    public Optional<ModMetadata> findProvider(String modId) {
+        List<ModMetadata> candidates = providers.get(modId);
+        return candidates == null ? Optional.empty() : Optional.of(candidates.get(0));
+    }
+
+    public boolean isProvided(String modId) {
+        return PLATFORM_IDS.contains(modId) || providers.containsKey(modId);
+    }
+
+    /**
+     * Dependencias obligatorias de los mods activos que ningún otro jar activo proporciona
+     */
+    public Map<ModMetadata, List<String>> getMissingDependencies() {
+        Map<ModMetadata, List<String>> missing = new LinkedHashMap<>();
+        for (ModMetadata mod : mods) {
+            if (!mod.isEnabled()) {
+                continue;
+            }
+            for (String dependency : mod.getDependencies().keySet()) {
+                if (!isProvided(dependency)) {
+                    missing.computeIfAbsent(mod, m -> new ArrayList<>()).add(dependency);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Ids de mod que aparecen como id propio en más de un jar activo
+     */
+    public Map<String, List<ModMetadata>> getDuplicates() {
+        Map<String, List<ModMetadata>> duplicates = new LinkedHashMap<>();
+        providers.forEach((id, candidates) -> {
+            List<ModMetadata> owners = candidates.stream().filter(mod -> id.equals(mod.getModId())).toList();
+            if (owners.size() > 1) {
+                duplicates.put(id, owners);
+            }
+        });
+        return duplicates;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d mods (%d de caché, %d leídos) en %d ms",
+                directory, mods.size(), cachedCount, readCount, elapsedMillis);
+    }
+}
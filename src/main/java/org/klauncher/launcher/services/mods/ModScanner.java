@@ -0,0 +1,123 @@
+package org.klauncher.launcher.services.mods;
+
+import org.klauncher.launcher.database.dao.ModMetadataDAO;
+import org.klauncher.launcher.models.entities.ModMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Escanea la carpeta mods/ de un perfil. Los metadatos de cada jar se guardan en SQLite junto
+ * con su tamaño y fecha de modificación; en los escaneos siguientes solo se abren los jars
+ * nuevos o modificados, así que listar una carpeta ya conocida solo cuesta leer el directorio.
+ */
+public class ModScanner {
+    private static final Logger logger = LoggerFactory.getLogger(ModScanner.class);
+    public static final String MODS_DIRECTORY = "mods";
+
+    private final ModMetadataDAO metadataDAO;
+    private final int readThreads;
+
+    public ModScanner(ModMetadataDAO metadataDAO) {
+        this.metadataDAO = metadataDAO;
+        this.readThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ModScan scan(Path modsDirectory) throws IOException {
+        long start = System.nanoTime();
+        Path directory = modsDirectory.toAbsolutePath().normalize();
+        if (!Files.isDirectory(directory)) {
+            return new ModScan(directory, List.of(), 0, 0, 0);
+        }
+
+        Map<String, ModMetadata> cached = loadCache(directory);
+        Map<String, ModMetadata> removed = new HashMap<>(cached);
+        List<ModMetadata> mods = new ArrayList<>();
+        List<ModMetadata> stale = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ModScanner::isModFile)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+
+                String path = file.toString();
+                long modified = attributes.lastModifiedTime().toMillis();
+                ModMetadata known = removed.remove(path);
+                if (known != null && known.matches(attributes.size(), modified)) {
+                    mods.add(known);
+                } else {
+                    stale.add(new ModMetadata(path, attributes.size(), modified));
+                }
+            }
+        }
+
+        readAll(stale);
+        mods.addAll(stale);
+        mods.sort(Comparator.comparing(ModMetadata::getFileName, String.CASE_INSENSITIVE_ORDER));
+
+        try {
+            metadataDAO.update(directory.toString(), stale, removed.keySet());
+        } catch (SQLException e) {
+            logger.warn("No se pudo actualizar la caché de mods de {}: {}", directory, e.getMessage());
+        }
+
+        ModScan scan = new ModScan(directory, mods, mods.size() - stale.size(), stale.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        logger.debug("Mods escaneados: {}", scan);
+        return scan;
+    }
+
+    private Map<String, ModMetadata> loadCache(Path directory) {
+        try {
+            return metadataDAO.findByDirectory(directory.toString());
+        } catch (SQLException e) {
+            logger.warn("No se pudo leer la caché de mods de {}: {}", directory, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Lee en paralelo los jars nuevos o modificados. Un jar ilegible queda como no reconocido
+     * (y cacheado así) para no reintentarlo en cada escaneo mientras no cambie.
+     */
+    private void readAll(List<ModMetadata> stale) {
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        try (ExecutorService readers = Executors.newFixedThreadPool(Math.min(readThreads, stale.size()),
+                Thread.ofVirtual().name("mod-scan-", 0).factory())) {
+            for (ModMetadata mod : stale) {
+                readers.execute(() -> {
+                    try {
+                        ModMetadataReader.read(mod.getFile(), mod);
+                    } catch (IOException | RuntimeException e) {
+                        mod.setModId(null);
+                        mod.setLoader(null);
+                        logger.warn("No se pudieron leer los metadatos de {}: {}", mod.getFileName(), e.getMessage());
+                    }
+                });
+            }
+        }
+    }
+
+    private static boolean isModFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".jar") || name.endsWith(".jar" + ModMetadata.DISABLED_SUFFIX);
+    }
+}
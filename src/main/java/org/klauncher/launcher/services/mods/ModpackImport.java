@@ -0,0 +1,72 @@
+package org.klauncher.launcher.services.mods;
+
+import org.klauncher.launcher.models.entities.UserProfile;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resultado de importar un modpack: el perfil creado, los datos del pack y lo que se instaló.
+ * Los contadores se actualizan desde los hilos de extracción y descarga mientras dura la importación.
+ */
+public class ModpackImport {
+    private final UserProfile profile;
+    private final Map<String, String> dependencies;
+    private final AtomicInteger extractedFiles;
+    private final AtomicLong extractedBytes;
+    private final AtomicInteger remoteFiles;
+    private final AtomicInteger skippedFiles;
+    private volatile String name;
+    private volatile String versionId;
+    private volatile long elapsedMillis;
+
+    ModpackImport(UserProfile profile) {
+        this.profile = profile;
+        this.dependencies = Collections.synchronizedMap(new LinkedHashMap<>());
+        this.extractedFiles = new AtomicInteger();
+        this.extractedBytes = new AtomicLong();
+        this.remoteFiles = new AtomicInteger();
+        this.skippedFiles = new AtomicInteger();
+    }
+
+    public UserProfile getProfile() { return profile; }
+    public String getName() { return name; }
+    public String getVersionId() { return versionId; }
+
+    /**
+     * Versiones que requiere el pack: "minecraft" y el cargador de mods (fabric-loader, forge, neoforge, quilt-loader)
+     */
+    public Map<String, String> getDependencies() { return Map.copyOf(dependencies); }
+
+    public String getMinecraftVersion() { return dependencies.get("minecraft"); }
+    public int getExtractedFiles() { return extractedFiles.get(); }
+    public long getExtractedBytes() { return extractedBytes.get(); }
+    public int getRemoteFiles() { return remoteFiles.get(); }
+
+    /**
+     * Archivos del índice marcados como no soportados en el cliente
+     */
+    public int getSkippedFiles() { return skippedFiles.get(); }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    void setName(String name) { this.name = name; }
+    void setVersionId(String versionId) { this.versionId = versionId; }
+    void addDependency(String id, String version) { dependencies.put(id, version); }
+    void addExtracted(long bytes) {
+        extractedFiles.incrementAndGet();
+        extractedBytes.addAndGet(bytes);
+    }
+    void addRemote() { remoteFiles.incrementAndGet(); }
+    void addSkipped() { skippedFiles.incrementAndGet(); }
+    void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s en %s: %d mods descargados, %d archivos extraídos (%d MB), %d omitidos",
+                name, versionId, profile.getName(), remoteFiles.get(), extractedFiles.get(),
+                extractedBytes.get() / (1024 * 1024), skippedFiles.get());
+    }
+}
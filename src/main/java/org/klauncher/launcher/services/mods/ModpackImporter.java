@@ -0,0 +1,253 @@
+package org.klauncher.launcher.services.mods;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.klauncher.launcher.services.ProfileManagerService;
+import org.klauncher.launcher.services.download.DownloadBatch;
+import org.klauncher.launcher.services.download.DownloadPriority;
+import org.klauncher.launcher.services.download.DownloadScheduler;
+import org.klauncher.launcher.services.download.DownloadTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Importa modpacks de Modrinth (.mrpack) en un perfil nuevo en una sola pasada. El zip se abre
+ * una vez: los archivos incluidos (overrides) se extraen en paralelo mientras el índice se lee
+ * en streaming, y cada mod remoto se encola en el {@link DownloadScheduler} en cuanto aparece,
+ * que lo descarga y verifica por SHA-1 junto con los demás.
+ */
+public class ModpackImporter {
+    private static final Logger logger = LoggerFactory.getLogger(ModpackImporter.class);
+    public static final String MODRINTH_INDEX = "modrinth.index.json";
+    private static final String CURSEFORGE_MANIFEST = "manifest.json";
+    // En orden de precedencia: client-overrides pisa a overrides
+    private static final List<String> OVERRIDE_PREFIXES = List.of("overrides/", "client-overrides/");
+
+    private final DownloadScheduler downloadScheduler;
+    private final ProfileManagerService profileManager;
+    private final JsonFactory jsonFactory;
+    private final int extractionThreads;
+
+    public ModpackImporter(DownloadScheduler downloadScheduler, ProfileManagerService profileManager,
+                           ObjectMapper objectMapper) {
+        this.downloadScheduler = downloadScheduler;
+        this.profileManager = profileManager;
+        this.jsonFactory = objectMapper.getFactory();
+        this.extractionThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea el perfil {@code profileName} e instala en él el modpack. Si algo falla, el perfil se elimina.
+     */
+    public CompletableFuture<ModpackImport> importPack(Path packFile, String profileName) {
+        CompletableFuture<ModpackImport> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("modpack-import-" + profileName).start(() -> {
+            try {
+                result.complete(runImport(packFile, profileName));
+            } catch (Exception e) {
+                result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return result;
+    }
+
+    private ModpackImport runImport(Path packFile, String profileName) throws Exception {
+        long start = System.nanoTime();
+
+        try (ZipFile zip = ZipFile.builder().setPath(packFile).get()) {
+            ZipArchiveEntry index = zip.getEntry(MODRINTH_INDEX);
+            if (index == null) {
+                throw new IllegalArgumentException(zip.getEntry(CURSEFORGE_MANIFEST) != null
+                        ? "Los modpacks de CurseForge no se pueden importar: sus mods solo se resuelven con la API de CurseForge"
+                        : "No es un modpack de Modrinth: falta " + MODRINTH_INDEX);
+            }
+
+            UserProfile profile = profileManager.createProfile(profileName, profileName, UserProfile.ProfileType.OFFLINE).join();
+            Path root = Paths.get(profile.getEffectiveGameDirectory()).toAbsolutePath().normalize();
+            ModpackImport pack = new ModpackImport(profile);
+            logger.info("Importando {} en el perfil {}", packFile.getFileName(), profile.getName());
+
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            DownloadBatch batch = downloadScheduler.newBatch(profile.getName());
+            batch.hold();
+
+            // El executor espera a las extracciones al cerrarse, antes de cerrar el zip
+            try (ExecutorService extractor = Executors.newFixedThreadPool(extractionThreads,
+                    Thread.ofVirtual().name("modpack-extract-", 0).factory())) {
+                for (Map.Entry<Path, ZipArchiveEntry> file : planOverrides(zip, root).entrySet()) {
+                    extractor.execute(() -> {
+                        try {
+                            pack.addExtracted(extract(zip, file.getValue(), file.getKey()));
+                        } catch (IOException e) {
+                            errors.add(e);
+                        }
+                    });
+                }
+
+                try {
+                    readIndex(zip, index, root, batch, pack);
+                } catch (Exception e) {
+                    errors.add(e);
+                } finally {
+                    batch.release();
+                }
+            }
+
+            try {
+                batch.getCompletion().join();
+            } catch (CompletionException e) {
+                errors.add(e.getCause() != null ? e.getCause() : e);
+            }
+
+            pack.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            if (!errors.isEmpty()) {
+                logger.error("Importación de {} fallida con {} errores; se elimina el perfil {}",
+                        packFile.getFileName(), errors.size(), profile.getName());
+                discard(profile);
+                Throwable first = errors.get(0);
+                throw first instanceof Exception exception ? exception : new RuntimeException(first);
+            }
+
+            logger.info("Modpack {} importado en {} ms", pack, pack.getElapsedMillis());
+            return pack;
+        }
+    }
+
+    /**
+     * Destino de cada archivo incluido en el pack; si está en overrides y en client-overrides gana el segundo
+     */
+    private static Map<Path, ZipArchiveEntry> planOverrides(ZipFile zip, Path root) throws IOException {
+        Map<Path, ZipArchiveEntry> files = new LinkedHashMap<>();
+
+        for (String prefix : OVERRIDE_PREFIXES) {
+            for (Iterator<ZipArchiveEntry> entries = zip.getEntries().asIterator(); entries.hasNext(); ) {
+                ZipArchiveEntry entry = entries.next();
+                if (entry.isDirectory() || !entry.getName().startsWith(prefix) || entry.getName().length() == prefix.length()) {
+                    continue;
+                }
+                files.put(resolveInside(root, entry.getName().substring(prefix.length())), entry);
+            }
+        }
+        return files;
+    }
+
+    private static long extract(ZipFile zip, ZipArchiveEntry entry, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+
+        InputStream in;
+        // Solo la apertura toca el estado compartido del zip; la lectura usa posiciones propias
+        synchronized (zip) {
+            in = zip.getInputStream(entry);
+        }
+        try (in) {
+            return Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void readIndex(ZipFile zip, ZipArchiveEntry index, Path root, DownloadBatch batch, ModpackImport pack)
+            throws IOException {
+        InputStream in;
+        synchronized (zip) {
+            in = zip.getInputStream(index);
+        }
+
+        try (in; JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException(MODRINTH_INDEX + " no es un objeto JSON");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "game" -> {
+                        if (!"minecraft".equals(parser.getValueAsString())) {
+                            throw new IllegalArgumentException("El modpack no es de Minecraft: " + parser.getValueAsString());
+                        }
+                    }
+                    case "name" -> pack.setName(parser.getValueAsString());
+                    case "versionId" -> pack.setVersionId(parser.getValueAsString());
+                    case "files" -> readFiles(parser, value, root, batch, pack);
+                    case "dependencies" -> {
+                        JsonNode dependencies = parser.readValueAsTree();
+                        dependencies.fields().forEachRemaining(dependency ->
+                                pack.addDependency(dependency.getKey(), dependency.getValue().asText()));
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Encola cada archivo remoto según se lee, sin esperar al resto del índice
+     */
+    private void readFiles(JsonParser parser, JsonToken value, Path root, DownloadBatch batch, ModpackImport pack)
+            throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            JsonNode file = parser.readValueAsTree();
+            String path = file.path("path").asText("");
+            if ("unsupported".equals(file.path("env").path("client").asText())) {
+                pack.addSkipped();
+                continue;
+            }
+
+            String url = file.path("downloads").path(0).asText("");
+            String sha1 = file.path("hashes").path("sha1").asText("");
+            if (path.isEmpty() || url.isEmpty() || sha1.isEmpty()) {
+                throw new IOException("Entrada incompleta en " + MODRINTH_INDEX + ": " + (path.isEmpty() ? url : path));
+            }
+
+            DownloadTask task = new DownloadTask(url, resolveInside(root, path), sha1, file.path("fileSize").asLong(-1),
+                    DownloadPriority.LAUNCH);
+            downloadScheduler.submit(batch, List.of(task));
+            pack.addRemote();
+        }
+    }
+
+    private static Path resolveInside(Path root, String relative) throws IOException {
+        Path target = root.resolve(relative).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new IOException("Ruta fuera del perfil en el modpack: " + relative);
+        }
+        return target;
+    }
+
+    private void discard(UserProfile profile) {
+        try {
+            profileManager.deleteProfile(profile.getId()).join();
+        } catch (CompletionException e) {
+            logger.warn("No se pudo eliminar el perfil {} tras la importación fallida: {}",
+                    profile.getName(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
+}
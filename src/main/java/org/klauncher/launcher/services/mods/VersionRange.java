@@ -0,0 +1,267 @@
+package org.klauncher.launcher.services.mods;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rango de versiones aceptado por una dependencia. Entiende los predicados de Fabric y Quilt
+ * ({@code >=0.15 <1}, {@code ~1.2}, {@code ^1.2}, {@code 1.20.x}, alternativas con {@code ||})
+ * y los rangos de Maven de Forge y NeoForge ({@code [47,)}, {@code [1.0,2.0),[3.0,)}, {@code [1.2]}).
+ * Lo que no se sabe interpretar se acepta, para no inventar conflictos.
+ */
+public final class VersionRange {
+    public static final VersionRange ANY = new VersionRange("*", List.of());
+
+    private final String text;
+    // Alternativas (OR) de conjuntos de restricciones (AND)
+    private final List<List<Constraint>> alternatives;
+
+    private VersionRange(String text, List<List<Constraint>> alternatives) {
+        this.text = text;
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Interpreta el rango según el formato del cargador del mod que lo declara
+     */
+    public static VersionRange parse(String text, String loader) {
+        if (text == null || text.isBlank() || text.strip().equals("*")) {
+            return ANY;
+        }
+        String range = text.strip();
+        try {
+            List<List<Constraint>> alternatives = "forge".equals(loader) || "neoforge".equals(loader)
+                    ? parseMaven(range)
+                    : parseSemver(range);
+            return alternatives.isEmpty() ? ANY : new VersionRange(range, alternatives);
+        } catch (RuntimeException e) {
+            return ANY;
+        }
+    }
+
+    public boolean isAny() {
+        return alternatives.isEmpty();
+    }
+
+    /**
+     * Indica si la versión cumple el rango; una versión desconocida lo cumple siempre
+     */
+    public boolean contains(String version) {
+        if (alternatives.isEmpty() || version == null || version.isBlank()) {
+            return true;
+        }
+
+        for (List<Constraint> constraints : alternatives) {
+            boolean matches = true;
+            for (Constraint constraint : constraints) {
+                if (!constraint.test(version)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<List<Constraint>> parseSemver(String range) {
+        List<List<Constraint>> alternatives = new ArrayList<>();
+
+        for (String alternative : range.split("\\|\\|")) {
+            List<Constraint> constraints = new ArrayList<>();
+            for (String predicate : alternative.strip().split("\\s+")) {
+                if (predicate.isEmpty() || predicate.equals("*")) {
+                    continue;
+                }
+
+                String operator = predicate.startsWith(">=") || predicate.startsWith("<=") ? predicate.substring(0, 2)
+                        : "><=~^".indexOf(predicate.charAt(0)) >= 0 ? predicate.substring(0, 1)
+                        : "=";
+                String version = predicate.substring(operator.equals("=") && !predicate.startsWith("=") ? 0 : operator.length());
+
+                int wildcard = wildcardIndex(version);
+                if (wildcard >= 0) {
+                    // 1.20.x equivale a >=1.20 <1.21
+                    String prefix = version.substring(0, Math.max(0, wildcard - 1));
+                    if (!prefix.isEmpty()) {
+                        constraints.add(new Constraint(">=", prefix));
+                        constraints.add(new Constraint("<", nextVersion(prefix, prefix.split("\\.").length - 1)));
+                    }
+                    continue;
+                }
+
+                switch (operator) {
+                    case "~" -> {
+                        constraints.add(new Constraint(">=", version));
+                        constraints.add(new Constraint("<", nextVersion(version, Math.min(1, version.split("\\.").length - 1))));
+                    }
+                    case "^" -> {
+                        constraints.add(new Constraint(">=", version));
+                        constraints.add(new Constraint("<", nextVersion(version, 0)));
+                    }
+                    default -> constraints.add(new Constraint(operator, version));
+                }
+            }
+            if (constraints.isEmpty()) {
+                return List.of();
+            }
+            alternatives.add(constraints);
+        }
+        return alternatives;
+    }
+
+    private static List<List<Constraint>> parseMaven(String range) {
+        List<List<Constraint>> alternatives = new ArrayList<>();
+        if (range.charAt(0) != '[' && range.charAt(0) != '(') {
+            // Una versión suelta en Maven es solo una recomendación
+            return alternatives;
+        }
+
+        int position = 0;
+        while (position < range.length()) {
+            char open = range.charAt(position);
+            int close = indexOfAny(range, position + 1);
+            if ((open != '[' && open != '(') || close < 0) {
+                throw new IllegalArgumentException("Rango Maven no válido: " + range);
+            }
+
+            String body = range.substring(position + 1, close);
+            List<Constraint> constraints = new ArrayList<>(2);
+            int comma = body.indexOf(',');
+            if (comma < 0) {
+                constraints.add(new Constraint("=", body.strip()));
+            } else {
+                String lower = body.substring(0, comma).strip();
+                String upper = body.substring(comma + 1).strip();
+                if (!lower.isEmpty()) {
+                    constraints.add(new Constraint(open == '[' ? ">=" : ">", lower));
+                }
+                if (!upper.isEmpty()) {
+                    constraints.add(new Constraint(range.charAt(close) == ']' ? "<=" : "<", upper));
+                }
+            }
+            alternatives.add(constraints);
+
+            position = close + 1;
+            while (position < range.length() && (range.charAt(position) == ',' || range.charAt(position) == ' ')) {
+                position++;
+            }
+        }
+        return alternatives;
+    }
+
+    private static int indexOfAny(String range, int from) {
+        for (int i = from; i < range.length(); i++) {
+            if (range.charAt(i) == ']' || range.charAt(i) == ')') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int wildcardIndex(String version) {
+        String[] parts = version.split("\\.");
+        int offset = 0;
+        for (String part : parts) {
+            if (part.equals("x") || part.equals("X") || part.equals("*")) {
+                return offset;
+            }
+            offset += part.length() + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Primera versión que deja de cumplir el prefijo: incrementa el componente indicado y descarta el resto
+     */
+    private static String nextVersion(String version, int component) {
+        String[] parts = version.split("[-+]", 2)[0].split("\\.");
+        StringBuilder next = new StringBuilder();
+        for (int i = 0; i <= component && i < parts.length; i++) {
+            if (i > 0) {
+                next.append('.');
+            }
+            next.append(i == component ? String.valueOf(parseNumber(parts[i]) + 1) : parts[i]);
+        }
+        return next.toString();
+    }
+
+    private static long parseNumber(String part) {
+        int end = 0;
+        while (end < part.length() && Character.isDigit(part.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? 0 : Long.parseLong(part.substring(0, Math.min(end, 18)));
+    }
+
+    /**
+     * Compara versiones por componentes: numéricos como números, el resto como texto; una
+     * versión preliminar ({@code 1.0-beta}) va antes que la final y los metadatos tras {@code +} no cuentan
+     */
+    public static int compareVersions(String a, String b) {
+        String[] left = a.split("\\+", 2)[0].split("-", 2);
+        String[] right = b.split("\\+", 2)[0].split("-", 2);
+
+        int result = compareComponents(left[0], right[0]);
+        if (result != 0) {
+            return result;
+        }
+        if (left.length != right.length) {
+            return left.length == 1 ? 1 : -1;
+        }
+        return left.length == 1 ? 0 : compareComponents(left[1], right[1]);
+    }
+
+    private static int compareComponents(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            String l = i < left.length ? left[i] : "0";
+            String r = i < right.length ? right[i] : "0";
+            boolean lNumeric = !l.isEmpty() && l.chars().allMatch(Character::isDigit);
+            boolean rNumeric = !r.isEmpty() && r.chars().allMatch(Character::isDigit);
+
+            int result;
+            if (lNumeric && rNumeric) {
+                result = Long.compare(parseNumber(l), parseNumber(r));
+            } else if (lNumeric != rNumeric) {
+                result = lNumeric ? 1 : -1;
+            } else {
+                result = l.compareTo(r);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static final class Constraint {
+        private final String operator;
+        private final String version;
+
+        Constraint(String operator, String version) {
+            this.operator = operator;
+            this.version = version;
+        }
+
+        boolean test(String candidate) {
+            int comparison = compareVersions(candidate, version);
+            return switch (operator) {
+                case ">=" -> comparison >= 0;
+                case ">" -> comparison > 0;
+                case "<=" -> comparison <= 0;
+                case "<" -> comparison < 0;
+                default -> comparison == 0;
+            };
+        }
+    }
+}
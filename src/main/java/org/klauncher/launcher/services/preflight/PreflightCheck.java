@@ -0,0 +1,28 @@
+package org.klauncher.launcher.services.preflight;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Comprobación previa al lanzamiento: un nombre, las comprobaciones de las que depende,
+ * un tiempo máximo y la tarea que la ejecuta
+ */
+public class PreflightCheck {
+    private final String name;
+    private final List<String> dependencies;
+    private final Duration timeout;
+    private final Callable<PreflightResult> task;
+
+    public PreflightCheck(String name, Duration timeout, Callable<PreflightResult> task, String... dependencies) {
+        this.name = name;
+        this.timeout = timeout;
+        this.task = task;
+        this.dependencies = List.of(dependencies);
+    }
+
+    public String getName() { return name; }
+    public List<String> getDependencies() { return dependencies; }
+    public Duration getTimeout() { return timeout; }
+    public Callable<PreflightResult> getTask() { return task; }
+}
@@ -0,0 +1,129 @@
+package org.klauncher.launcher.services.preflight;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ejecuta comprobaciones previas como un grafo de dependencias. Cada comprobación arranca
+ * en cuanto terminan las suyas, así que las independientes corren en paralelo y la fase
+ * dura lo que la cadena más lenta, no la suma. Si una dependencia no pasa, las que
+ * dependen de ella se omiten.
+ */
+public class PreflightEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PreflightEngine.class);
+
+    private final ExecutorService executor;
+    private final Map<String, PreflightCheck> checks;
+
+    public PreflightEngine(ExecutorService executor) {
+        this.executor = executor;
+        this.checks = new LinkedHashMap<>();
+    }
+
+    /**
+     * Registra una comprobación. Sus dependencias deben estar registradas antes,
+     * lo que garantiza un grafo sin ciclos.
+     */
+    public PreflightEngine add(PreflightCheck check) {
+        for (String dependency : check.getDependencies()) {
+            if (!checks.containsKey(dependency)) {
+                throw new IllegalArgumentException("Dependencia desconocida '" + dependency + "' en " + check.getName());
+            }
+        }
+        if (checks.putIfAbsent(check.getName(), check) != null) {
+            throw new IllegalArgumentException("Comprobación duplicada: " + check.getName());
+        }
+        return this;
+    }
+
+    /**
+     * Lanza todas las comprobaciones; el futuro nunca termina con excepción
+     */
+    public CompletableFuture<PreflightReport> run() {
+        long start = System.nanoTime();
+        Map<String, CompletableFuture<PreflightResult>> futures = new LinkedHashMap<>();
+
+        for (PreflightCheck check : checks.values()) {
+            List<CompletableFuture<PreflightResult>> dependencies = check.getDependencies().stream()
+                    .map(futures::get)
+                    .toList();
+
+            CompletableFuture<PreflightResult> future = CompletableFuture
+                    .allOf(dependencies.toArray(CompletableFuture[]::new))
+                    .thenCompose(ignored -> {
+                        List<String> blocked = dependencies.stream()
+                                .map(CompletableFuture::join)
+                                .filter(result -> result.getStatus().isBlocking())
+                                .map(PreflightResult::getCheckName)
+                                .toList();
+
+                        if (!blocked.isEmpty()) {
+                            return CompletableFuture.completedFuture(PreflightResult.of(check.getName(),
+                                    PreflightResult.Status.SKIPPED, "Omitida: falló " + String.join(", ", blocked), 0));
+                        }
+                        return execute(check);
+                    });
+
+            futures.put(check.getName(), future);
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<PreflightResult> results = new ArrayList<>(futures.size());
+                    futures.values().forEach(future -> results.add(future.join()));
+
+                    PreflightReport report = new PreflightReport(results, (System.nanoTime() - start) / 1_000_000);
+                    results.forEach(result -> logger.info("Preflight {}", result));
+                    logger.info("Preflight completado en {} ms (en serie habría tardado {} ms)",
+                            report.getTotalMillis(), report.getSerialMillis());
+                    return report;
+                });
+    }
+
+    /**
+     * Ejecuta una comprobación con su tiempo máximo; al agotarse se interrumpe la tarea
+     */
+    private CompletableFuture<PreflightResult> execute(PreflightCheck check) {
+        long start = System.nanoTime();
+        CompletableFuture<PreflightResult> result = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(check.getTask().call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        return result
+                .orTimeout(check.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handle((outcome, error) -> {
+                    long elapsed = (System.nanoTime() - start) / 1_000_000;
+                    if (error == null) {
+                        return outcome.timed(check.getName(), elapsed);
+                    }
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        task.cancel(true);
+                        return PreflightResult.of(check.getName(), PreflightResult.Status.TIMED_OUT,
+                                "Sin respuesta tras " + check.getTimeout().toSeconds() + " s", elapsed);
+                    }
+
+                    logger.warn("Error en la comprobación {}", check.getName(), cause);
+                    return PreflightResult.of(check.getName(), PreflightResult.Status.FAILED,
+                            cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName(), elapsed);
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package org.klauncher.launcher.services.preflight;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Resultados de todas las comprobaciones previas, en el orden en que se registraron
+ */
+public class PreflightReport {
+    private final List<PreflightResult> results;
+    private final long totalMillis;
+
+    PreflightReport(List<PreflightResult> results, long totalMillis) {
+        this.results = Collections.unmodifiableList(results);
+        this.totalMillis = totalMillis;
+    }
+
+    public List<PreflightResult> getResults() { return results; }
+
+    /**
+     * Tiempo real de la fase completa; con comprobaciones en paralelo se acerca a la más lenta
+     */
+    public long getTotalMillis() { return totalMillis; }
+
+    /**
+     * Suma de las duraciones individuales, lo que habría costado ejecutarlas en serie
+     */
+    public long getSerialMillis() {
+        return results.stream().mapToLong(PreflightResult::getDurationMillis).sum();
+    }
+
+    public boolean isPassed() {
+        return results.stream().noneMatch(result -> result.getStatus().isBlocking());
+    }
+
+    public List<PreflightResult> getProblems() {
+        return results.stream()
+                .filter(result -> result.getStatus() != PreflightResult.Status.PASSED)
+                .toList();
+    }
+
+    /**
+     * Resumen legible de los resultados que no pasaron
+     */
+    public String describeProblems() {
+        return getProblems().stream()
+                .map(result -> result.getStatus().getIcon() + " " + result.getMessage())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,77 @@
+package org.klauncher.launcher.services.preflight;
+
+/**
+ * Resultado de una comprobación previa al lanzamiento
+ */
+public class PreflightResult {
+
+    public enum Status {
+        PASSED("✅"),
+        WARNING("⚠️"),
+        FAILED("❌"),
+        TIMED_OUT("⏱"),
+        SKIPPED("⏭");
+
+        private final String icon;
+
+        Status(String icon) {
+            this.icon = icon;
+        }
+
+        public String getIcon() {
+            return icon;
+        }
+
+        /**
+         * Indica si el estado impide lanzar el juego
+         */
+        public boolean isBlocking() {
+            return this == FAILED || this == TIMED_OUT || this == SKIPPED;
+        }
+    }
+
+    private final String checkName;
+    private final Status status;
+    private final String message;
+    private final long durationMillis;
+
+    private PreflightResult(String checkName, Status status, String message, long durationMillis) {
+        this.checkName = checkName;
+        this.status = status;
+        this.message = message;
+        this.durationMillis = durationMillis;
+    }
+
+    public static PreflightResult passed(String message) {
+        return new PreflightResult(null, Status.PASSED, message, 0);
+    }
+
+    public static PreflightResult warning(String message) {
+        return new PreflightResult(null, Status.WARNING, message, 0);
+    }
+
+    public static PreflightResult failed(String message) {
+        return new PreflightResult(null, Status.FAILED, message, 0);
+    }
+
+    static PreflightResult of(String checkName, Status status, String message, long durationMillis) {
+        return new PreflightResult(checkName, status, message, durationMillis);
+    }
+
+    /**
+     * Copia del resultado con el nombre de la comprobación y su duración
+     */
+    PreflightResult timed(String checkName, long durationMillis) {
+        return new PreflightResult(checkName, status, message, durationMillis);
+    }
+
+    public String getCheckName() { return checkName; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public long getDurationMillis() { return durationMillis; }
+
+    @Override
+    public String toString() {
+        return status.getIcon() + " " + checkName + " (" + durationMillis + " ms): " + message;
+    }
+}
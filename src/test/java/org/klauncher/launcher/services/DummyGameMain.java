@@ -0,0 +1,30 @@
+package org.klauncher.launcher.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase principal falsa para lanzar como si fuera el juego. Escribe en el archivo indicado por
+ * la propiedad {@code klauncher.report} su línea de comandos completa, una entrada por línea,
+ * seguida del classpath y de los argumentos de juego recibidos.
+ */
+public final class DummyGameMain {
+    public static final String REPORT_PROPERTY = "klauncher.report";
+    public static final String CLASSPATH_PREFIX = "classpath=";
+    public static final String ARGUMENT_PREFIX = "arg=";
+
+    private DummyGameMain() {}
+
+    public static void main(String[] args) throws IOException {
+        List<String> lines = new ArrayList<>();
+        ProcessHandle.current().info().arguments().ifPresent(arguments -> lines.addAll(List.of(arguments)));
+        lines.add(CLASSPATH_PREFIX + System.getProperty("java.class.path"));
+        for (String arg : args) {
+            lines.add(ARGUMENT_PREFIX + arg);
+        }
+        Files.write(Path.of(System.getProperty(REPORT_PROPERTY)), lines);
+    }
+}
@@ -0,0 +1,152 @@
+package org.klauncher.launcher.services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.klauncher.launcher.database.DatabaseManager;
+import org.klauncher.launcher.models.entities.UserProfile;
+import org.klauncher.launcher.services.launch.GameInstance;
+import org.klauncher.launcher.services.launch.LaunchCommand;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lanzamiento real de una versión instalada a mano cuya clase principal es {@link DummyGameMain}
+ */
+class LauncherServiceLaunchTest {
+    private static final String VERSION = "dummy-1";
+    private static final String LIBRARY = "org/klauncher/dummy/1.0/dummy-1.0.jar";
+
+    @TempDir
+    static Path home;
+
+    private static String previousHome;
+    private static LauncherService launcherService;
+    private static Path library;
+    private static Path report;
+    private static UserProfile profile;
+
+    @BeforeAll
+    static void setUp() throws IOException, SQLException {
+        // Todo lo del launcher cuelga de ~/.karrito
+        previousHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        Path gameDirectory = home.resolve(".karrito");
+        // El supervisor guarda el resumen de cada partida al terminar
+        DatabaseManager.getInstance().initialize();
+
+        library = gameDirectory.resolve("libraries").resolve(LIBRARY);
+        writeLibrary(false);
+
+        Path versionJson = gameDirectory.resolve("versions").resolve(VERSION).resolve(VERSION + ".json");
+        Files.createDirectories(versionJson.getParent());
+        Files.writeString(versionJson, """
+                {
+                  "id": "%s",
+                  "type": "release",
+                  "mainClass": "%s",
+                  "libraries": [{"name": "org.klauncher:dummy:1.0"}],
+                  "arguments": {"game": ["--username", "${auth_player_name}", "--version", "${version_name}"]}
+                }
+                """.formatted(VERSION, DummyGameMain.class.getName()));
+
+        // CDS volcaría un archivo al salir; no aporta nada aquí
+        ConfigRegistryService.getInstance().update(config -> config.getJava().setEnableClassDataSharing(false));
+
+        report = home.resolve("report.txt");
+        profile = new UserProfile("launch-test", "Launch test", UserProfile.ProfileType.OFFLINE);
+        profile.setGameDirectory(home.resolve("profiles").resolve("launch-test").toString());
+        profile.setJavaPath(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        profile.setMinMemoryMb(64);
+        profile.setMaxMemoryMb(256);
+        profile.setJavaArgs("-D" + DummyGameMain.REPORT_PROPERTY + "=" + report + " -Dklauncher.marker=dummy");
+
+        launcherService = new LauncherService();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (launcherService != null) {
+            launcherService.shutdown();
+        }
+        DatabaseManager.getInstance().close();
+        System.setProperty("user.home", previousHome);
+    }
+
+    @Test
+    void launchesTheVersionAndReusesTheCachedCommandUntilALibraryChanges() throws Exception {
+        List<String> first = launch();
+        assertTrue(first.contains("-Xms64m"), () -> "sin -Xms: " + first);
+        assertTrue(first.contains("-Xmx256m"), () -> "sin -Xmx: " + first);
+        assertTrue(first.contains("-D" + DummyGameMain.REPORT_PROPERTY + "=" + report), () -> "sin javaArgs: " + first);
+        assertTrue(first.contains("-Dklauncher.marker=dummy"), () -> "sin javaArgs: " + first);
+        assertTrue(first.contains(DummyGameMain.CLASSPATH_PREFIX + library), () -> "classpath inesperado: " + first);
+        assertTrue(first.contains(DummyGameMain.ARGUMENT_PREFIX + VERSION), () -> "sin argumentos de juego: " + first);
+        // Los argumentos del usuario van detrás del heap para que prevalezcan
+        assertTrue(first.indexOf("-Dklauncher.marker=dummy") > first.indexOf("-Xmx256m"));
+
+        LaunchCommand cached = launcherService.getLaunchCommand(profile, VERSION);
+        List<String> second = launch();
+        assertSame(cached, launcherService.getLaunchCommand(profile, VERSION), "el relanzamiento reconstruyó el comando");
+        assertEquals(withoutInstancePaths(first), withoutInstancePaths(second));
+
+        // Una librería reinstalada cambia de tamaño y fecha: el comando se reconstruye
+        writeLibrary(true);
+        LaunchCommand rebuilt = launcherService.getLaunchCommand(profile, VERSION);
+        assertNotSame(cached, rebuilt);
+        assertEquals(withoutInstancePaths(first), withoutInstancePaths(launch()));
+        assertSame(rebuilt, launcherService.getLaunchCommand(profile, VERSION));
+    }
+
+    private static List<String> launch() throws Exception {
+        Files.deleteIfExists(report);
+        GameInstance instance = launcherService.launchGame(profile, VERSION, "Tester");
+        assertTrue(instance.getProcess().waitFor(60, TimeUnit.SECONDS), "el proceso no terminó");
+        assertEquals(0, instance.getProcess().exitValue(), () -> "salida del proceso en " + instance.getLogFile());
+        return Files.readAllLines(report);
+    }
+
+    /**
+     * Quita la carpeta de natives propia de cada instancia, lo único que cambia entre lanzamientos
+     */
+    private static List<String> withoutInstancePaths(List<String> lines) {
+        return lines.stream()
+                .filter(line -> !line.startsWith("-Dorg.lwjgl.system.SharedLibraryExtractPath="))
+                .toList();
+    }
+
+    /**
+     * Jar con {@link DummyGameMain}; {@code padded} añade una entrada para que cambie de tamaño
+     */
+    private static void writeLibrary(boolean padded) throws IOException {
+        Files.createDirectories(library.getParent());
+        String entry = DummyGameMain.class.getName().replace('.', '/') + ".class";
+        try (InputStream in = DummyGameMain.class.getResourceAsStream(DummyGameMain.class.getSimpleName() + ".class");
+             JarOutputStream jar = new JarOutputStream(Files.newOutputStream(library))) {
+            jar.putNextEntry(new JarEntry(entry));
+            in.transferTo(jar);
+            jar.closeEntry();
+            if (padded) {
+                jar.putNextEntry(new JarEntry("reinstalled.txt"));
+                jar.write("reinstalada".getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+    }
+}
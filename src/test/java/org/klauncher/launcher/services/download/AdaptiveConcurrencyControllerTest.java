@@ -0,0 +1,153 @@
+package org.klauncher.launcher.services.download;
+
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Convergencia del controlador descargando de verdad a través de {@link SimulatedLink}
+ */
+class AdaptiveConcurrencyControllerTest {
+    private static final long KIB = 1024;
+    private static final int FILE_BYTES = 64 * 1024;
+    // Tareas en cola que se mantienen para que la concurrencia sea siempre el cuello de botella
+    private static final int BACKLOG = 64;
+
+    @TempDir
+    Path temp;
+
+    private final OkHttpClient client = new OkHttpClient();
+    private SimulatedLink link;
+    private DownloadScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (link != null) {
+            link.close();
+        }
+    }
+
+    @Test
+    void limitClimbsOnAFastLinkFromALowStart() throws Exception {
+        // Cada conexión va a 256 KiB/s y el enlace admite 32: el límite debe subir hasta el techo
+        link = new SimulatedLink(8 * 1024 * KIB, 256 * KIB, 20, 40, FILE_BYTES);
+        RecordingController controller = new RecordingController(2, 1, 8);
+
+        List<Integer> limits = run(controller, Duration.ofSeconds(12));
+
+        assertTrue(limits.contains(8), () -> "no llegó al máximo: " + limits);
+        assertTrue(controller.getLimit() >= 6, () -> "límite final bajo: " + limits);
+        assertWithin(limits, 1, 8);
+    }
+
+    @Test
+    void limitFallsBackFromAHighStartOnALinkThatQueues() throws Exception {
+        // El enlace se llena con 4 conexiones y cada una de más añade 40 ms de cola
+        link = new SimulatedLink(1024 * KIB, 256 * KIB, 20, 40, FILE_BYTES);
+        RecordingController controller = new RecordingController(12, 1, 12);
+
+        List<Integer> limits = run(controller, Duration.ofSeconds(14));
+
+        assertTrue(controller.getLimit() <= 8, () -> "el límite no bajó: " + limits);
+        assertTrue(controller.getLimit() >= link.getSaturatingConnections() - 1,
+                () -> "el límite bajó por debajo de lo que llena el enlace: " + limits);
+        assertWithin(limits, 1, 12);
+    }
+
+    @Test
+    void limitSettlesWithinConfiguredBounds() throws Exception {
+        // El enlace se llena con 6 conexiones; con límites 2..10 debe quedarse cerca de 6
+        link = new SimulatedLink(1536 * KIB, 256 * KIB, 20, 40, FILE_BYTES);
+        RecordingController controller = new RecordingController(2, 2, 10);
+
+        List<Integer> limits = run(controller, Duration.ofSeconds(14));
+
+        int last = controller.getLimit();
+        assertTrue(last >= 4 && last <= 9, () -> "límite final " + last + " lejos de 6: " + limits);
+        assertWithin(limits, 2, 10);
+        assertEquals(last, scheduler.getMaxConcurrent());
+    }
+
+    /**
+     * Descarga sin parar durante {@code duration} manteniendo la cola llena y devuelve
+     * los límites que fue dando el controlador
+     */
+    private List<Integer> run(RecordingController controller, Duration duration) throws InterruptedException {
+        scheduler = new DownloadScheduler(() -> client, controller.getLimit(), 0, 0);
+        scheduler.setConcurrencyController(controller);
+        DownloadBatch batch = scheduler.newBatch("test");
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        int next = 0;
+        while (System.nanoTime() < deadline) {
+            List<DownloadTask> tasks = new ArrayList<>();
+            while (scheduler.getQueued(DownloadPriority.LAUNCH) + tasks.size() < BACKLOG) {
+                String name = "file" + next++;
+                tasks.add(new DownloadTask(link.url(name), temp.resolve(name), null, link.getFileBytes(),
+                        DownloadPriority.LAUNCH));
+            }
+            if (!tasks.isEmpty()) {
+                scheduler.submit(batch, tasks);
+            }
+            Thread.sleep(50);
+        }
+
+        assertTrue(batch.getFailures().isEmpty(), () -> "fallos: " + batch.getFailures());
+        // Lo que quede en vuelo al cerrar el enlace no debe llegar al controlador
+        scheduler.setConcurrencyController(null);
+        scheduler.shutdown();
+        return controller.getLimits();
+    }
+
+    private static void assertWithin(List<Integer> limits, int min, int max) {
+        assertTrue(limits.stream().allMatch(limit -> limit >= min && limit <= max),
+                () -> "límite fuera de " + min + ".." + max + ": " + limits);
+    }
+
+    /**
+     * Controlador que apunta cada límite que devuelve
+     */
+    private static final class RecordingController extends AdaptiveConcurrencyController {
+        private final List<Integer> limits = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingController(int initialConcurrent, int minConcurrent, int maxConcurrent) {
+            super(initialConcurrent, minConcurrent, maxConcurrent);
+        }
+
+        @Override
+        public synchronized int recordSuccess(long bytes, long firstByteNanos, long transferNanos, boolean saturated) {
+            return record(super.recordSuccess(bytes, firstByteNanos, transferNanos, saturated));
+        }
+
+        @Override
+        public synchronized int recordFailure(boolean saturated) {
+            return record(super.recordFailure(saturated));
+        }
+
+        private int record(int limit) {
+            if (limits.isEmpty() || limits.get(limits.size() - 1) != limit) {
+                limits.add(limit);
+            }
+            return limit;
+        }
+
+        List<Integer> getLimits() {
+            synchronized (limits) {
+                return List.copyOf(limits);
+            }
+        }
+    }
+}
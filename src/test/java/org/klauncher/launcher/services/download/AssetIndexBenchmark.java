@@ -0,0 +1,78 @@
+package org.klauncher.launcher.services.download;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de un índice de assets con el parser por tokens frente a {@code Map<String, Object>}.
+ * Con {@code -prof gc} JMH muestra además los bytes asignados por lectura. Se ejecuta con
+ * {@code mvn test-compile} y después {@link #main} con el classpath de test, por ejemplo:
+ * {@code java -cp target/test-classes:target/classes:<dependencias> org.openjdk.jmh.Main AssetIndexBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssetIndexBenchmark {
+    @Param({"4000", "40000"})
+    int objects;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ManifestReader reader;
+    private Path directory;
+    private Path index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reader = new ManifestReader(objectMapper);
+        directory = Files.createTempDirectory("asset-index-benchmark");
+        index = AssetIndexFixture.write(directory.resolve("index.json"), objects, 7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(index);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public AssetObjectTable streamingTable() throws IOException {
+        return reader.readAssetIndex(index);
+    }
+
+    @Benchmark
+    public Map<String, Object> jacksonMap() throws IOException {
+        return objectMapper.readValue(index.toFile(), new TypeReference<Map<String, Object>>() {});
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AssetIndexBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
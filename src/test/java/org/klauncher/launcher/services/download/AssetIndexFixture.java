@@ -0,0 +1,52 @@
+package org.klauncher.launcher.services.download;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Random;
+
+/**
+ * Índice de assets sintético con la forma del de Mojang; uno de cada 50 nombres repite el
+ * objeto de otro, como pasa con los sonidos compartidos entre idiomas
+ */
+final class AssetIndexFixture {
+    static final int DUPLICATE_EVERY = 50;
+
+    private AssetIndexFixture() {}
+
+    static Path write(Path file, int objects, long seed) throws IOException {
+        Random random = new Random(seed);
+        HexFormat hex = HexFormat.of();
+        String[] hashes = new String[objects];
+        int[] sizes = new int[objects];
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\"map_to_resources\": false, \"objects\": {");
+            for (int i = 0; i < objects; i++) {
+                if (i > 0 && i % DUPLICATE_EVERY == 0) {
+                    hashes[i] = hashes[i - 1];
+                    sizes[i] = sizes[i - 1];
+                } else {
+                    byte[] hash = new byte[AssetObjectTable.HASH_BYTES];
+                    random.nextBytes(hash);
+                    hashes[i] = hex.formatHex(hash);
+                    sizes[i] = 1 + random.nextInt(200_000);
+                }
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write("\"minecraft/sounds/group" + (i % 97) + "/asset" + i + ".ogg\": {\"hash\": \""
+                        + hashes[i] + "\", \"size\": " + sizes[i] + "}");
+            }
+            out.write("}}");
+        }
+        return file;
+    }
+
+    static int uniqueObjects(int objects) {
+        return objects - (objects - 1) / DUPLICATE_EVERY;
+    }
+}
@@ -0,0 +1,84 @@
+package org.klauncher.launcher.services.download;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetObjectTableTest {
+    private static final String A = "0a".repeat(20);
+    private static final String B = "7f".repeat(20);
+    private static final String C = "ff".repeat(20);
+
+    @Test
+    void sealSortsUnsignedAndRemovesDuplicates() {
+        AssetObjectTable table = new AssetObjectTable(2);
+        table.add(C, 3);
+        table.add(A, 1);
+        table.add(B, 2);
+        table.add(A, 1);
+        table.seal();
+
+        assertEquals(3, table.size());
+        assertEquals(A, table.hashAt(0));
+        assertEquals(B, table.hashAt(1));
+        assertEquals(C, table.hashAt(2));
+        assertEquals(6, table.totalSize());
+        assertEquals(ManifestReader.ASSET_OBJECTS_PREFIX + "ff/" + C, table.pathAt(2));
+    }
+
+    @Test
+    void rejectsHashesThatAreNotSha1() {
+        AssetObjectTable table = new AssetObjectTable(4);
+
+        assertFalse(table.add("abc", 1));
+        assertFalse(table.add("zz".repeat(20), 1));
+        assertTrue(table.add(A.toUpperCase(), 1));
+        assertEquals(A, table.seal().hashAt(0));
+    }
+
+    @Test
+    void lookupsCompareHashAndSize() {
+        AssetObjectTable installed = new AssetObjectTable(4);
+        installed.add(A, 1);
+        installed.add(B, 2);
+        installed.seal();
+
+        AssetObjectTable wanted = new AssetObjectTable(4);
+        wanted.add(A, 1);
+        wanted.add(B, 99);
+        wanted.add(C, 3);
+        wanted.seal();
+
+        assertTrue(installed.contains(wanted, 0));
+        assertEquals(1, installed.indexOf(wanted, 1));
+        assertFalse(installed.contains(wanted, 1));
+        assertEquals(-1, installed.indexOf(wanted, 2));
+    }
+
+    @Test
+    void lookupsRequireASealedTable() {
+        AssetObjectTable table = new AssetObjectTable(4);
+        table.add(A, 1);
+
+        assertThrows(IllegalStateException.class, () -> table.indexOf(table, 0));
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        AssetObjectTable table = new AssetObjectTable(4);
+        table.add(B, 20);
+        table.add(A, 10);
+        table.seal();
+
+        AssetObjectTable copy = AssetObjectTable.fromBytes(table.toBytes());
+
+        assertEquals(2, copy.size());
+        assertEquals(A, copy.hashAt(0));
+        assertEquals(10, copy.sizeAt(0));
+        assertEquals(B, copy.hashAt(1));
+        assertEquals(20, copy.sizeAt(1));
+    }
+}
@@ -0,0 +1,259 @@
+package org.klauncher.launcher.services.download;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Parches BSDIFF40 aplicados a mano y a través del planificador contra un servidor local
+ * que hace de origen y de servidor de parches
+ */
+class BinaryPatchTest {
+    private static final int OLD_BYTES = 4096;
+    private static final byte[] INSERTED = "bytes que no estaban en la versión anterior".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path temp;
+
+    private byte[] oldContent;
+    private byte[] newContent;
+    private byte[] patch;
+    private Path basis;
+    private Path target;
+
+    private final AtomicInteger originRequests = new AtomicInteger();
+    private final AtomicInteger patchRequests = new AtomicInteger();
+    // Lo que sirve el servidor de parches; null responde 404
+    private volatile byte[] served;
+    private HttpServer server;
+    private DownloadScheduler scheduler;
+    private DeltaSource deltas;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        oldContent = new byte[OLD_BYTES];
+        new Random(7).nextBytes(oldContent);
+
+        // Nuevo = primeros 1000 bytes con uno de cada 100 cambiado, un tramo insertado
+        // y 1000 bytes del antiguo desde la posición 500 (retrocede en el antiguo)
+        byte[] diff = new byte[2000];
+        for (int i = 0; i < 1000; i += 100) {
+            diff[i] = 1;
+        }
+        newContent = new byte[2000 + INSERTED.length];
+        for (int i = 0; i < 1000; i++) {
+            newContent[i] = (byte) (oldContent[i] + diff[i]);
+        }
+        System.arraycopy(INSERTED, 0, newContent, 1000, INSERTED.length);
+        System.arraycopy(oldContent, 500, newContent, 1000 + INSERTED.length, 1000);
+
+        patch = encode(List.of(new long[] {1000, INSERTED.length, -500}, new long[] {1000, 0, 0}),
+                diff, INSERTED, newContent.length);
+
+        basis = temp.resolve("installed").resolve("client.jar");
+        Files.createDirectories(basis.getParent());
+        Files.write(basis, oldContent);
+        target = temp.resolve("game").resolve("client.jar");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/origin/", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.sendResponseHeaders(200, newContent.length);
+            exchange.getResponseBody().write(newContent);
+            exchange.close();
+        });
+        server.createContext("/patches/", exchange -> {
+            patchRequests.incrementAndGet();
+            byte[] body = served;
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        OkHttpClient client = new OkHttpClient();
+        scheduler = new DownloadScheduler(() -> client, 2, 0, 0);
+        deltas = new DeltaSource(url("/patches/"));
+        scheduler.setDeltaSource(deltas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void appliesAKnownPatchByteForByte() throws IOException {
+        Path patchFile = temp.resolve("known.bsdiff");
+        Files.write(patchFile, patch);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long size = BinaryPatch.apply(basis, patchFile, out);
+
+        assertEquals(newContent.length, size);
+        assertArrayEquals(newContent, out.toByteArray());
+    }
+
+    @Test
+    void rejectsATruncatedPatch() throws IOException {
+        Path patchFile = temp.resolve("truncated.bsdiff");
+        Files.write(patchFile, Arrays.copyOf(patch, patch.length / 2));
+
+        assertThrows(IOException.class, () -> BinaryPatch.apply(basis, patchFile, OutputStream.nullOutputStream()));
+    }
+
+    @Test
+    void downloadsThroughThePatchWhenTheServerHasIt() throws Exception {
+        served = patch;
+
+        download();
+
+        assertEquals(1, patchRequests.get());
+        assertEquals(0, originRequests.get());
+        assertEquals(1, deltas.getApplied());
+        assertEquals(0, deltas.getFallbacks());
+    }
+
+    @Test
+    void fallsBackToTheFullFileWhenThePatchIsMissing() throws Exception {
+        served = null;
+
+        download();
+
+        assertFellBack();
+    }
+
+    @Test
+    void fallsBackToTheFullFileWhenThePatchIsCorrupt() throws Exception {
+        byte[] corrupt = patch.clone();
+        // La cabecera sigue siendo válida; la sección de control deja de ser bzip2
+        Arrays.fill(corrupt, 32, 64, (byte) 0x55);
+        served = corrupt;
+
+        download();
+
+        assertFellBack();
+    }
+
+    @Test
+    void fallsBackToTheFullFileWhenThePatchedResultDoesNotVerify() throws Exception {
+        // Parche válido que produce otro contenido: el SHA-1 no coincide con el esperado
+        byte[] otherDiff = new byte[2000];
+        otherDiff[1500] = 1;
+        served = encode(List.of(new long[] {1000, INSERTED.length, -500}, new long[] {1000, 0, 0}),
+                otherDiff, INSERTED, newContent.length);
+
+        download();
+
+        assertFellBack();
+    }
+
+    private void download() throws Exception {
+        DownloadTask task = new DownloadTask(url("/origin/client.jar"), target, sha1(newContent), newContent.length,
+                DownloadPriority.LAUNCH).withDeltaBasis(basis, sha1(oldContent));
+        DownloadBatch batch = scheduler.newBatch("test");
+        scheduler.submit(batch, List.of(task));
+        batch.getCompletion().get(30, TimeUnit.SECONDS);
+
+        assertArrayEquals(newContent, Files.readAllBytes(target));
+        assertArrayEquals(oldContent, Files.readAllBytes(basis));
+        // Ni el parche descargado ni el archivo a medio reconstruir se quedan junto al destino
+        try (Stream<Path> files = Files.list(target.getParent())) {
+            assertEquals(List.of(target.getFileName().toString()),
+                    files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    private void assertFellBack() {
+        assertEquals(1, patchRequests.get());
+        assertEquals(1, originRequests.get());
+        assertEquals(0, deltas.getApplied());
+        assertEquals(1, deltas.getFallbacks());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Monta un parche BSDIFF40: cabecera y las secciones de control, diferencias y bytes nuevos en bzip2
+     */
+    private static byte[] encode(List<long[]> control, byte[] diff, byte[] extra, long newSize) throws IOException {
+        ByteArrayOutputStream tuples = new ByteArrayOutputStream();
+        for (long[] tuple : control) {
+            for (long value : tuple) {
+                tuples.write(offset(value));
+            }
+        }
+        byte[] controlSection = bzip2(tuples.toByteArray());
+        byte[] diffSection = bzip2(diff);
+        byte[] extraSection = bzip2(extra);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("BSDIFF40".getBytes(StandardCharsets.US_ASCII));
+        out.write(offset(controlSection.length));
+        out.write(offset(diffSection.length));
+        out.write(offset(newSize));
+        out.write(controlSection);
+        out.write(diffSection);
+        out.write(extraSection);
+        return out.toByteArray();
+    }
+
+    /**
+     * Entero de bsdiff: magnitud en little-endian y el bit alto del último byte como signo
+     */
+    private static byte[] offset(long value) {
+        long magnitude = Math.abs(value);
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[i] = (byte) (magnitude >>> (8 * i));
+        }
+        if (value < 0) {
+            bytes[7] |= (byte) 0x80;
+        }
+        return bytes;
+    }
+
+    private static byte[] bzip2(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream bzip2 = new BZip2CompressorOutputStream(out)) {
+            bzip2.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha1(byte[] data) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+    }
+}
@@ -0,0 +1,206 @@
+package org.klauncher.launcher.services.download;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownloadSchedulerTest {
+    private static final int FILES = 12;
+    private static final int FILE_BYTES = 32 * 1024;
+
+    @TempDir
+    Path temp;
+
+    private final List<byte[]> contents = new ArrayList<>();
+    private final AtomicInteger originRequests = new AtomicInteger();
+    // El origen no responde hasta que se abre; por defecto está abierto
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private HttpServer origin;
+    private MirrorServer mirrorServer;
+    private DownloadScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Random random = new Random(1);
+        for (int i = 0; i < FILES; i++) {
+            byte[] data = new byte[FILE_BYTES];
+            random.nextBytes(data);
+            contents.add(data);
+        }
+
+        origin = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        origin.createContext("/", exchange -> {
+            originRequests.incrementAndGet();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] data = contents.get(Integer.parseInt(exchange.getRequestURI().getPath().substring(1)));
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        origin.start();
+
+        OkHttpClient client = new OkHttpClient();
+        scheduler = new DownloadScheduler(() -> client, 4, 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        scheduler.shutdown();
+        origin.stop(0);
+        if (mirrorServer != null) {
+            mirrorServer.stop();
+        }
+    }
+
+    @Test
+    void mirrorDownloadsAreNotSampledByTheConcurrencyController() throws Exception {
+        Path mirrorRoot = temp.resolve("mirror");
+        Path gameRoot = temp.resolve("game");
+        for (int i = 0; i < FILES; i++) {
+            Path file = mirrorRoot.resolve(objectPath(i));
+            Files.createDirectories(file.getParent());
+            Files.write(file, contents.get(i));
+        }
+        mirrorServer = new MirrorServer(mirrorRoot, 0);
+        mirrorServer.start();
+        scheduler.setMirror(new LanMirror("http://127.0.0.1:" + mirrorServer.getPort() + "/", gameRoot));
+
+        CountingController controller = new CountingController();
+        scheduler.setConcurrencyController(controller);
+
+        download(gameRoot, "game");
+
+        assertEquals(0, originRequests.get());
+        assertEquals(FILES, mirrorServer.getServedFiles());
+        assertEquals(0, controller.samples.get(), "las descargas del espejo no deben llegar al controlador");
+    }
+
+    @Test
+    void originDownloadsAreSampledByTheConcurrencyController() throws Exception {
+        CountingController controller = new CountingController();
+        scheduler.setConcurrencyController(controller);
+
+        download(temp.resolve("game"), "game");
+
+        assertEquals(FILES, originRequests.get());
+        assertEquals(FILES, controller.samples.get());
+    }
+
+    @Test
+    void shutdownFailsQueuedTasksAndRejectsNewOnes() throws Exception {
+        gate = new CountDownLatch(1);
+        scheduler.setMaxConcurrent(1);
+        Path gameRoot = temp.resolve("game");
+
+        List<DownloadTask> tasks = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            tasks.add(new DownloadTask(originUrl(i), gameRoot.resolve(objectPath(i)), sha1(contents.get(i)),
+                    FILE_BYTES, DownloadPriority.LAUNCH));
+        }
+        DownloadBatch batch = scheduler.newBatch("game");
+        scheduler.submit(batch, tasks);
+        waitUntil(() -> originRequests.get() == 1);
+
+        scheduler.shutdown();
+        assertEquals(0, scheduler.getQueued(DownloadPriority.LAUNCH));
+        ExecutionException launch = assertThrows(ExecutionException.class,
+                () -> batch.getLaunchReady().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, launch.getCause());
+
+        // La descarga ya empezada termina por su cuenta y el lote se cierra con error
+        gate.countDown();
+        assertThrows(ExecutionException.class, () -> batch.getCompletion().get(30, TimeUnit.SECONDS));
+        assertEquals(FILES - 1, batch.getFailures().size());
+        assertEquals(1, originRequests.get());
+
+        DownloadBatch late = scheduler.newBatch("game");
+        DownloadTask again = new DownloadTask(originUrl(0), gameRoot.resolve(objectPath(0)), sha1(contents.get(0)),
+                FILE_BYTES, DownloadPriority.LAUNCH);
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(late, List.of(again)));
+        assertThrows(ExecutionException.class, () -> late.getCompletion().get(5, TimeUnit.SECONDS));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "tiempo de espera agotado");
+            Thread.sleep(10);
+        }
+    }
+
+    private void download(Path gameRoot, String owner) throws Exception {
+        List<DownloadTask> tasks = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            tasks.add(new DownloadTask(originUrl(i), gameRoot.resolve(objectPath(i)), sha1(contents.get(i)),
+                    FILE_BYTES, DownloadPriority.LAUNCH));
+        }
+
+        DownloadBatch batch = scheduler.newBatch(owner);
+        scheduler.submit(batch, tasks);
+        batch.getCompletion().get(30, TimeUnit.SECONDS);
+
+        assertTrue(batch.getFailures().isEmpty(), () -> "fallos: " + batch.getFailures());
+        for (int i = 0; i < FILES; i++) {
+            assertArrayEquals(contents.get(i), Files.readAllBytes(gameRoot.resolve(objectPath(i))));
+        }
+    }
+
+    private String originUrl(int index) {
+        return "http://127.0.0.1:" + origin.getAddress().getPort() + "/" + index;
+    }
+
+    private static String objectPath(int index) {
+        return "assets/objects/ab/object" + index;
+    }
+
+    private static String sha1(byte[] data) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+    }
+
+    /**
+     * Controlador que cuenta las muestras recibidas sin cambiar su comportamiento
+     */
+    private static final class CountingController extends AdaptiveConcurrencyController {
+        private final AtomicInteger samples = new AtomicInteger();
+
+        CountingController() {
+            super(4, 1, 16);
+        }
+
+        @Override
+        public synchronized int recordSuccess(long bytes, long firstByteNanos, long transferNanos, boolean saturated) {
+            samples.incrementAndGet();
+            return super.recordSuccess(bytes, firstByteNanos, transferNanos, saturated);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.klauncher.launcher.services.download;
+
+import org.junit.jupiter.api.Test;
+import org.klauncher.launcher.models.config.AdvancedLauncherConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientFactoryTest {
+
+    @Test
+    void adaptiveConcurrencyUsesTheControllerCeiling() {
+        AdvancedLauncherConfig.NetworkConfig network = new AdvancedLauncherConfig.NetworkConfig();
+        network.setAdaptiveConcurrency(true);
+        network.setMaxConcurrentDownloads(4);
+        network.setMaxAdaptiveConcurrentDownloads(24);
+
+        assertEquals(24, HttpClientFactory.maxConcurrency(network));
+    }
+
+    @Test
+    void ceilingBelowTheStartingValueKeepsTheStartingValue() {
+        AdvancedLauncherConfig.NetworkConfig network = new AdvancedLauncherConfig.NetworkConfig();
+        network.setAdaptiveConcurrency(true);
+        network.setMaxConcurrentDownloads(8);
+        network.setMaxAdaptiveConcurrentDownloads(4);
+
+        assertEquals(8, HttpClientFactory.maxConcurrency(network));
+    }
+
+    @Test
+    void fixedConcurrencyUsesTheConfiguredValue() {
+        AdvancedLauncherConfig.NetworkConfig network = new AdvancedLauncherConfig.NetworkConfig();
+        network.setAdaptiveConcurrency(false);
+        network.setMaxConcurrentDownloads(6);
+        network.setMaxAdaptiveConcurrentDownloads(24);
+
+        assertEquals(6, HttpClientFactory.maxConcurrency(network));
+    }
+}
@@ -0,0 +1,104 @@
+package org.klauncher.launcher.services.download;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ManifestReaderTest {
+    private static final int OBJECTS = 40_000;
+
+    @TempDir
+    Path temp;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void streamingParseMatchesTreeParse() throws IOException {
+        Path index = AssetIndexFixture.write(temp.resolve("index.json"), OBJECTS, 7);
+
+        AssetObjectTable table = new ManifestReader(objectMapper).readAssetIndex(index);
+
+        Map<String, Integer> expected = new HashMap<>();
+        Iterator<JsonNode> objects = objectMapper.readTree(index.toFile()).path("objects").elements();
+        while (objects.hasNext()) {
+            JsonNode object = objects.next();
+            expected.put(object.path("hash").asText(), object.path("size").asInt());
+        }
+
+        assertEquals(AssetIndexFixture.uniqueObjects(OBJECTS), expected.size());
+        assertEquals(expected.size(), table.size());
+        for (int i = 0; i < table.size(); i++) {
+            assertEquals(expected.get(table.hashAt(i)), table.sizeAt(i), table.hashAt(i));
+            if (i > 0) {
+                assertTrue(table.hashAt(i - 1).compareTo(table.hashAt(i)) < 0, "la tabla debe quedar ordenada");
+            }
+        }
+    }
+
+    @Test
+    void tableKeepsOnlyHashAndSizePerObject() throws IOException {
+        Path index = AssetIndexFixture.write(temp.resolve("index.json"), OBJECTS, 7);
+
+        AssetObjectTable table = new ManifestReader(objectMapper).readAssetIndex(index);
+
+        // 20 bytes de SHA-1 y 4 de tamaño; el JSON de partida ocupa más de 100 bytes por objeto
+        assertEquals(table.size() * (AssetObjectTable.HASH_BYTES + Integer.BYTES), table.toBytes().length);
+        assertTrue(Files.size(index) > table.toBytes().length * 4L);
+    }
+
+    @Test
+    void largeIndexAllocationGrowsLinearly() throws IOException {
+        Path index = AssetIndexFixture.write(temp.resolve("index.json"), OBJECTS, 7);
+        ManifestReader reader = new ManifestReader(objectMapper);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        reader.readAssetIndex(index);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        reader.readAssetIndex(index);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Unos 200 bytes por objeto; con la tabla de símbolos desbordada eran más de 5 KB
+        assertTrue(allocated < OBJECTS * 1024L, () -> allocated / 1024 + " KB asignados al leer el índice");
+    }
+
+    @Test
+    void unknownFieldsAndInvalidHashesAreSkipped() throws IOException {
+        Path index = temp.resolve("index.json");
+        Files.writeString(index, """
+                {"virtual": true, "objects": {
+                  "a.ogg": {"hash": "%s", "size": 10, "extra": {"nested": [1, 2]}},
+                  "b.ogg": {"hash": "not-a-hash", "size": 5},
+                  "c.ogg": {"size": 7, "hash": "%s"}
+                }, "trailing": [1, 2, 3]}
+                """.formatted("a".repeat(40), "0".repeat(40)));
+
+        AssetObjectTable table = new ManifestReader(objectMapper).readAssetIndex(index);
+
+        assertEquals(2, table.size());
+        assertEquals("0".repeat(40), table.hashAt(0));
+        assertEquals(7, table.sizeAt(0));
+        assertEquals("a".repeat(40), table.hashAt(1));
+        assertEquals(10, table.sizeAt(1));
+    }
+
+    @Test
+    void truncatedIndexFails() throws IOException {
+        Path index = temp.resolve("index.json");
+        Files.writeString(index, "[]");
+
+        assertThrows(IOException.class, () -> new ManifestReader(objectMapper).readAssetIndex(index));
+    }
+}
@@ -0,0 +1,102 @@
+package org.klauncher.launcher.services.download;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que simula un enlace: cada respuesta tarda {@code latencyMillis} en
+ * empezar, cada conexión está limitada a {@code connectionBytesPerSecond} y todas comparten
+ * {@code linkBytesPerSecond}. Cuando hay más conexiones de las que el enlace puede llenar,
+ * cada una de sobra añade {@code queueMillis} al primer byte, como la cola de un router.
+ * Sirve archivos de {@code fileBytes} ceros en cualquier ruta.
+ */
+final class SimulatedLink implements AutoCloseable {
+    private static final int CHUNK = 8 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final TokenBucket link;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int fileBytes;
+    private final int saturatingConnections;
+
+    SimulatedLink(long linkBytesPerSecond, long connectionBytesPerSecond, long latencyMillis, long queueMillis,
+                  int fileBytes) throws IOException {
+        this.fileBytes = fileBytes;
+        this.saturatingConnections = (int) Math.ceil((double) linkBytesPerSecond / connectionBytesPerSecond);
+        this.link = drained(linkBytesPerSecond);
+
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "simulated-link");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", exchange -> {
+            int active = inFlight.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis + Math.max(0, active - saturatingConnections) * queueMillis);
+                exchange.sendResponseHeaders(200, fileBytes);
+
+                TokenBucket connection = drained(connectionBytesPerSecond);
+                byte[] chunk = new byte[CHUNK];
+                try (OutputStream out = exchange.getResponseBody()) {
+                    for (int sent = 0; sent < fileBytes; sent += CHUNK) {
+                        int length = Math.min(CHUNK, fileBytes - sent);
+                        connection.acquire(length);
+                        link.acquire(length);
+                        out.write(chunk, 0, length);
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        this.server.start();
+    }
+
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + path;
+    }
+
+    int getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Conexiones a partir de las cuales el enlace está lleno
+     */
+    int getSaturatingConnections() {
+        return saturatingConnections;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cubo sin la ráfaga inicial de un segundo, para que el límite se note desde el primer byte
+     */
+    private static TokenBucket drained(long bytesPerSecond) {
+        TokenBucket bucket = new TokenBucket(bytesPerSecond);
+        try {
+            bucket.acquire((int) bytesPerSecond);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return bucket;
+    }
+}